@@ -16,12 +16,16 @@
 package io.servicetalk.benchmark.concurrent;
 
 import io.servicetalk.concurrent.api.AsyncContext;
+import io.servicetalk.context.api.ContextMap;
 import io.servicetalk.context.api.ContextMap.Key;
 
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
 import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -29,6 +33,7 @@ import org.openjdk.jmh.annotations.Warmup;
 
 import java.util.AbstractList;
 import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -108,6 +113,83 @@ public class AsyncContextMapBenchmark {
         AsyncContext.removeAllEntries(FourList.INSTANCE);
     }
 
+    @Benchmark
+    public void putGetMany(final ManyKeys manyKeys) {
+        for (Key<String> key : manyKeys.keys) {
+            AsyncContext.put(key, "v");
+        }
+        for (Key<String> key : manyKeys.keys) {
+            AsyncContext.get(key);
+        }
+    }
+
+    /**
+     * Replaces values of a map shared with {@link #sharedMapGet(SharedMap)} readers, the way a filter updates the
+     * context which other threads of the same request read.
+     */
+    @Benchmark
+    @Group("sharedMap")
+    @GroupThreads(1)
+    public String sharedMapPut(final SharedMap sharedMap) {
+        return sharedMap.map.put(sharedMap.nextKey(), "v");
+    }
+
+    @Benchmark
+    @Group("sharedMap")
+    @GroupThreads(3)
+    public String sharedMapGet(final SharedMap sharedMap) {
+        return sharedMap.map.get(sharedMap.nextKey());
+    }
+
+    @State(Scope.Thread)
+    public static class ManyKeys {
+        @Param({"8", "16", "32"})
+        public int keyCount;
+
+        List<Key<String>> keys;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            keys = newKeys(keyCount);
+        }
+    }
+
+    @State(Scope.Group)
+    public static class SharedMap {
+        @Param({"8", "16", "32"})
+        public int sharedKeyCount;
+
+        ContextMap map;
+        private List<Key<String>> keys;
+        // Racy across the threads of the group, only used to spread the accesses over the keys.
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            keys = newKeys(sharedKeyCount);
+            AsyncContext.clear();
+            for (Key<String> key : keys) {
+                AsyncContext.put(key, "v");
+            }
+            map = AsyncContext.context().copy();
+            AsyncContext.clear();
+        }
+
+        Key<String> nextKey() {
+            final int i = next;
+            next = i + 1 == keys.size() ? 0 : i + 1;
+            return keys.get(i);
+        }
+    }
+
+    private static List<Key<String>> newKeys(final int count) {
+        final List<Key<String>> keys = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            keys.add(newKey("key" + i, String.class));
+        }
+        return keys;
+    }
+
     private static final class FourList extends AbstractList<Key<?>> {
         static final List<Key<?>> INSTANCE = new FourList();
 
@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.benchmark.concurrent;
+
+import io.servicetalk.concurrent.Cancellable;
+import io.servicetalk.concurrent.api.AsyncContext;
+import io.servicetalk.concurrent.api.Executor;
+import io.servicetalk.concurrent.api.Executors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Compares the default {@link Executor} ({@link Executors#newCachedThreadExecutor()}) with
+ * {@link Executors#newWorkStealingExecutor()}, for bursts of offloaded tasks submitted concurrently and for timeouts
+ * which are scheduled and cancelled before they expire.
+ */
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+public class ExecutorBenchmark {
+    static {
+        AsyncContext.disable(); // reduce noise in benchmarks.
+    }
+
+    private static final int BURST_SIZE = 100;
+
+    @Param({"cached", "workStealing"})
+    public String executorType;
+
+    private Executor executor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        executor = "workStealing".equals(executorType) ? Executors.newWorkStealingExecutor() :
+                Executors.newCachedThreadExecutor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        executor.closeAsync().toFuture().get();
+    }
+
+    @Benchmark
+    public void executeBurst() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(BURST_SIZE);
+        for (int i = 0; i < BURST_SIZE; ++i) {
+            executor.execute(latch::countDown);
+        }
+        latch.await();
+    }
+
+    @Benchmark
+    public void scheduleAndCancel() {
+        final Cancellable[] timeouts = new Cancellable[BURST_SIZE];
+        for (int i = 0; i < BURST_SIZE; ++i) {
+            timeouts[i] = executor.schedule(() -> { }, 30, SECONDS);
+        }
+        for (Cancellable timeout : timeouts) {
+            timeout.cancel();
+        }
+    }
+}
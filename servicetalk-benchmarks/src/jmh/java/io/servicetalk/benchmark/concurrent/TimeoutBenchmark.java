@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.benchmark.concurrent;
+
+import io.servicetalk.concurrent.api.AsyncContext;
+import io.servicetalk.concurrent.api.Executor;
+import io.servicetalk.concurrent.api.Executors;
+import io.servicetalk.concurrent.api.Single;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Throughput of timeouts which are scheduled and cancelled before they expire, which is the common case for request
+ * timeouts, from many threads. Compares the hashed wheel timer used by {@link Executors#newWorkStealingExecutor()} with
+ * a {@link java.util.concurrent.ScheduledExecutorService}, which keeps scheduled tasks in a heap under a single lock.
+ */
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+public class TimeoutBenchmark {
+    static {
+        AsyncContext.disable(); // reduce noise in benchmarks.
+    }
+
+    @Param({"hashedWheel", "scheduledExecutorService"})
+    public String timerType;
+
+    private Executor executor;
+    private Single<Integer> timeoutSingle;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        executor = "hashedWheel".equals(timerType) ? Executors.newWorkStealingExecutor() :
+                Executors.from(newCachedThreadPool(), newSingleThreadScheduledExecutor());
+        timeoutSingle = Single.succeeded(1).timeout(30, SECONDS, executor);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        executor.closeAsync().toFuture().get();
+    }
+
+    @Benchmark
+    public void scheduleAndCancel() {
+        executor.schedule(() -> { }, 30, SECONDS).cancel();
+    }
+
+    @Benchmark
+    public void singleTimeout(final Blackhole blackhole) {
+        timeoutSingle.subscribe(blackhole::consume);
+    }
+}
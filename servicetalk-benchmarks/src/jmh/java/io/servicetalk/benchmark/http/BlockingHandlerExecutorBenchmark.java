@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.benchmark.http;
+
+import io.servicetalk.concurrent.api.AsyncContext;
+import io.servicetalk.concurrent.api.Executor;
+import io.servicetalk.concurrent.api.Executors;
+import io.servicetalk.http.api.HttpClient;
+import io.servicetalk.http.netty.HttpClients;
+import io.servicetalk.http.netty.HttpServers;
+import io.servicetalk.transport.api.ServerContext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+
+import static io.servicetalk.http.api.HttpExecutionStrategies.offloadReceive;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Compares running a blocking service, which sleeps to simulate a slow backend, on
+ * {@link Executors#newCachedThreadExecutor()} and on {@link Executors#newVirtualThreadExecutor()}, with many
+ * concurrent requests.
+ * <p>
+ * Each request uses its own connection, the open files limit may have to be raised above {@link #concurrency}.
+ * The {@code virtual} executor requires a JDK with virtual threads.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xss256k")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class BlockingHandlerExecutorBenchmark {
+    static {
+        AsyncContext.disable(); // reduce noise in benchmarks.
+    }
+
+    @Param({"cached", "virtual"})
+    public String executorType;
+
+    @Param({"10000"})
+    public int concurrency;
+
+    @Param({"50"})
+    public long sleepMillis;
+
+    private Executor executor;
+    private ServerContext serverContext;
+    private HttpClient client;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        executor = "virtual".equals(executorType) ? Executors.newVirtualThreadExecutor() :
+                Executors.newCachedThreadExecutor();
+        serverContext = HttpServers.forAddress(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))
+                .executor(executor)
+                .executionStrategy(offloadReceive())
+                .listenBlockingAndAwait((ctx, request, responseFactory) -> {
+                    Thread.sleep(sleepMillis);
+                    return responseFactory.ok();
+                });
+        client = HttpClients.forResolvedAddress((InetSocketAddress) serverContext.listenAddress()).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try {
+            client.close();
+            serverContext.close();
+        } finally {
+            executor.closeAsync().toFuture().get();
+        }
+    }
+
+    @Benchmark
+    public void concurrentSlowRequests() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(concurrency);
+        for (int i = 0; i < concurrency; ++i) {
+            client.request(client.get("/"))
+                    .whenFinally(latch::countDown)
+                    .subscribe(response -> { });
+        }
+        latch.await();
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.benchmark.http;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.concurrent.api.AsyncContext;
+import io.servicetalk.http.api.BlockingHttpClient;
+import io.servicetalk.http.api.HttpResponse;
+import io.servicetalk.http.netty.HttpClients;
+import io.servicetalk.http.netty.HttpServers;
+import io.servicetalk.transport.api.ServerContext;
+import io.servicetalk.transport.netty.internal.EventLoopAwareNettyIoExecutor;
+import io.servicetalk.transport.netty.internal.NettyIoExecutors;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.incubator.channel.uring.IOUringEventLoopGroup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.concurrent.api.Single.succeeded;
+import static io.servicetalk.http.api.HttpExecutionStrategies.offloadNever;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Compares the throughput and the latency distribution (see the p0.99 percentile of the {@link Mode#SampleTime}
+ * results) of an HTTP echo server and client on the epoll and io_uring transports.
+ * <p>
+ * Requires linux with a kernel that supports io_uring. Both the server and the client run on the IO threads.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Threads(4)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+public class IoTransportEchoBenchmark {
+    static {
+        AsyncContext.disable(); // reduce noise in benchmarks.
+    }
+
+    @Param({"epoll", "io_uring"})
+    public String transport;
+
+    @Param({"2"})
+    public int ioThreads;
+
+    @Param({"256", "16384"})
+    public int payloadSize;
+
+    private EventLoopAwareNettyIoExecutor ioExecutor;
+    private ServerContext serverContext;
+    private BlockingHttpClient client;
+    private Buffer payload;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        final boolean ioUring = "io_uring".equals(transport);
+        ioExecutor = ioUring ? NettyIoExecutors.createIoUringIoExecutor(ioThreads, transport) :
+                NettyIoExecutors.createIoExecutor(ioThreads, transport);
+        final EventLoopGroup group = ioExecutor.eventLoopGroup();
+        if (ioUring ? !(group instanceof IOUringEventLoopGroup) : !(group instanceof EpollEventLoopGroup)) {
+            ioExecutor.closeAsync().toFuture().get();
+            throw new IllegalStateException("transport: " + transport + " is not available, got " +
+                    group.getClass().getSimpleName());
+        }
+        final byte[] bytes = new byte[payloadSize];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        payload = DEFAULT_ALLOCATOR.wrap(bytes);
+        serverContext = HttpServers.forAddress(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))
+                .ioExecutor(ioExecutor)
+                .executionStrategy(offloadNever())
+                .listenAndAwait((ctx, request, responseFactory) ->
+                        succeeded(responseFactory.ok().payloadBody(request.payloadBody())));
+        client = HttpClients.forResolvedAddress((InetSocketAddress) serverContext.listenAddress())
+                .ioExecutor(ioExecutor)
+                .executionStrategy(offloadNever())
+                .buildBlocking();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try {
+            client.close();
+            serverContext.close();
+        } finally {
+            ioExecutor.closeAsync().toFuture().get();
+        }
+    }
+
+    @Benchmark
+    public HttpResponse echo() throws Exception {
+        return client.request(client.post("/").payloadBody(payload.duplicate()));
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.benchmark.http;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.http.api.HttpHeaders;
+import io.servicetalk.http.api.HttpLifecycleObserver;
+import io.servicetalk.http.api.HttpLifecycleObserver.HttpExchangeObserver;
+import io.servicetalk.http.api.HttpLifecycleObserver.HttpRequestObserver;
+import io.servicetalk.http.api.HttpLifecycleObserver.HttpResponseObserver;
+import io.servicetalk.http.api.HttpRequestMetaData;
+import io.servicetalk.http.api.HttpResponseMetaData;
+import io.servicetalk.metrics.Histogram;
+import io.servicetalk.metrics.MetricsHttpLifecycleObserver;
+import io.servicetalk.transport.api.ConnectionInfo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static io.servicetalk.buffer.api.ReadOnlyBufferAllocators.DEFAULT_RO_ALLOCATOR;
+import static io.servicetalk.http.api.DefaultHttpHeadersFactory.INSTANCE;
+import static io.servicetalk.http.api.HttpProtocolVersion.HTTP_1_1;
+import static io.servicetalk.http.api.HttpRequestMetaDataFactory.newRequestMetaData;
+import static io.servicetalk.http.api.HttpRequestMethod.GET;
+import static io.servicetalk.http.api.HttpResponseMetaDataFactory.newResponseMetaData;
+import static io.servicetalk.http.api.HttpResponseStatus.OK;
+
+/*
+ * This benchmark measures the overhead per request of observing an exchange with MetricsHttpLifecycleObserver, compared
+ * to an observer which does nothing. Each operation drives a full exchange with one request and one response payload
+ * body chunk through the observer callbacks. The default of 4 threads includes the cost of contention on the shared
+ * counters and histograms, use "-t 1" to measure the uncontended cost.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Threads(4)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MetricsObserverBenchmark {
+
+    @Param({"noop", "metrics"})
+    public String observer;
+
+    private final HttpRequestMetaData requestMetaData = newRequestMetaData(HTTP_1_1, GET, "/", INSTANCE.newHeaders());
+    private final HttpResponseMetaData responseMetaData = newResponseMetaData(HTTP_1_1, OK, INSTANCE.newHeaders());
+    private final Buffer requestData = DEFAULT_RO_ALLOCATOR.fromAscii("request");
+    private final Buffer responseData = DEFAULT_RO_ALLOCATOR.fromAscii("response");
+    private final Histogram histogram = new Histogram();
+    private HttpLifecycleObserver lifecycleObserver;
+
+    @Setup
+    public void setup() {
+        lifecycleObserver = "noop".equals(observer) ? new NoopObserver() : new MetricsHttpLifecycleObserver("http");
+    }
+
+    @Benchmark
+    public void exchange() {
+        final HttpExchangeObserver exchange = lifecycleObserver.onNewExchange();
+        final HttpRequestObserver request = exchange.onRequest(requestMetaData);
+        request.onRequestData(requestData);
+        request.onRequestComplete();
+        final HttpResponseObserver response = exchange.onResponse(responseMetaData);
+        response.onResponseData(responseData);
+        response.onResponseComplete();
+        exchange.onExchangeFinally();
+    }
+
+    @Benchmark
+    public void histogramRecord() {
+        histogram.record(ThreadLocalRandom.current().nextLong(1 << 20));
+    }
+
+    private static final class NoopObserver implements HttpLifecycleObserver, HttpExchangeObserver,
+                                                       HttpRequestObserver, HttpResponseObserver {
+        @Override
+        public HttpExchangeObserver onNewExchange() {
+            return this;
+        }
+
+        @Override
+        public void onConnectionSelected(final ConnectionInfo info) {
+        }
+
+        @Override
+        public HttpRequestObserver onRequest(final HttpRequestMetaData requestMetaData) {
+            return this;
+        }
+
+        @Override
+        public HttpResponseObserver onResponse(final HttpResponseMetaData responseMetaData) {
+            return this;
+        }
+
+        @Override
+        public void onResponseError(final Throwable cause) {
+        }
+
+        @Override
+        public void onResponseCancel() {
+        }
+
+        @Override
+        public void onExchangeFinally() {
+        }
+
+        @Override
+        public void onRequestData(final Buffer data) {
+        }
+
+        @Override
+        public void onRequestTrailers(final HttpHeaders trailers) {
+        }
+
+        @Override
+        public void onRequestComplete() {
+        }
+
+        @Override
+        public void onRequestError(final Throwable cause) {
+        }
+
+        @Override
+        public void onRequestCancel() {
+        }
+
+        @Override
+        public void onResponseData(final Buffer data) {
+        }
+
+        @Override
+        public void onResponseTrailers(final HttpHeaders trailers) {
+        }
+
+        @Override
+        public void onResponseComplete() {
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.benchmark.loadbalancer;
+
+import io.servicetalk.client.api.ConnectionFactory;
+import io.servicetalk.client.api.DefaultServiceDiscovererEvent;
+import io.servicetalk.client.api.LoadBalancedConnection;
+import io.servicetalk.client.api.LoadBalancer;
+import io.servicetalk.client.api.NoAvailableHostException;
+import io.servicetalk.client.api.ServiceDiscovererEvent;
+import io.servicetalk.concurrent.Cancellable;
+import io.servicetalk.concurrent.SingleSource;
+import io.servicetalk.concurrent.api.Completable;
+import io.servicetalk.concurrent.api.Single;
+import io.servicetalk.loadbalancer.RoundRobinLoadBalancerFactory;
+import io.servicetalk.transport.api.TransportObserver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.client.api.ServiceDiscovererEvent.Status.AVAILABLE;
+import static io.servicetalk.concurrent.api.Completable.completed;
+import static io.servicetalk.concurrent.api.Publisher.from;
+import static io.servicetalk.concurrent.api.Single.succeeded;
+import static io.servicetalk.concurrent.api.SourceAdapters.toSource;
+import static java.net.InetSocketAddress.createUnresolved;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Measures connection selection throughput with many hosts, many connections per host and many concurrent callers.
+ * Connections accept one request at a time, similar to HTTP/1.x connections without pipelining, and are released right
+ * after selection.
+ * <p>
+ * All connections are established in {@link #setup()}, measurements only select among them. A selection which finds
+ * all connections busy fails instead of opening a new connection.
+ */
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(MICROSECONDS)
+public class LoadBalancerConcurrentSelectionBenchmark {
+    private static final Predicate<LoadBalancedConnection> SELECTOR = c -> ((TestConnection) c).tryAcquire();
+
+    @Param({"8", "64"})
+    public int hosts;
+
+    @Param({"1", "8"})
+    public int connectionsPerHost;
+
+    private LoadBalancer<LoadBalancedConnection> lb;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        final List<ServiceDiscovererEvent<InetSocketAddress>> events = new ArrayList<>(hosts);
+        for (int i = 0; i < hosts; ++i) {
+            events.add(new DefaultServiceDiscovererEvent<>(createUnresolved("127.0.0." + i, 0), AVAILABLE));
+        }
+        lb = new RoundRobinLoadBalancerFactory.Builder<InetSocketAddress, LoadBalancedConnection>().build()
+                .newLoadBalancer("benchmark", from(events), ConnFactory.INSTANCE);
+
+        // Establish connections upfront, so the benchmark measures selection of existing connections only.
+        final Set<LoadBalancedConnection> established = new HashSet<>();
+        for (int i = 0; i < hosts * connectionsPerHost; ++i) {
+            established.add(lb.selectConnection(established::add).toFuture().get());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        lb.closeAsync().toFuture().get();
+    }
+
+    @Nullable
+    @Benchmark
+    public LoadBalancedConnection select(final Selection selection) {
+        selection.connection = null;
+        toSource(lb.selectEstablishedConnection(SELECTOR)).subscribe(selection);
+        final TestConnection connection = selection.connection;
+        if (connection != null) {
+            connection.release();
+        }
+        return connection;
+    }
+
+    @State(Scope.Thread)
+    public static class Selection implements SingleSource.Subscriber<LoadBalancedConnection> {
+        @Nullable
+        TestConnection connection;
+
+        @Override
+        public void onSubscribe(final Cancellable cancellable) {
+        }
+
+        @Override
+        public void onSuccess(@Nullable final LoadBalancedConnection result) {
+            connection = (TestConnection) result;
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+            if (!(t instanceof NoAvailableHostException)) {
+                throw new IllegalStateException(t);
+            }
+        }
+    }
+
+    private static final class TestConnection implements LoadBalancedConnection {
+        private final AtomicBoolean inUse = new AtomicBoolean();
+
+        boolean tryAcquire() {
+            return !inUse.get() && inUse.compareAndSet(false, true);
+        }
+
+        void release() {
+            inUse.set(false);
+        }
+
+        @Override
+        public int score() {
+            return 0;
+        }
+
+        @Override
+        public Completable onClose() {
+            return completed();
+        }
+
+        @Override
+        public Completable closeAsync() {
+            return completed();
+        }
+
+        @Override
+        public Completable closeAsyncGracefully() {
+            return completed();
+        }
+    }
+
+    private static final class ConnFactory implements ConnectionFactory<InetSocketAddress, LoadBalancedConnection> {
+        static final ConnFactory INSTANCE = new ConnFactory();
+
+        private ConnFactory() {
+        }
+
+        @Override
+        public Single<LoadBalancedConnection> newConnection(final InetSocketAddress address,
+                                                            @Nullable final TransportObserver observer) {
+            return succeeded(new TestConnection());
+        }
+
+        @Override
+        public Completable onClose() {
+            return completed();
+        }
+
+        @Override
+        public Completable closeAsync() {
+            return completed();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.benchmark.loadbalancer;
+
+import io.servicetalk.client.api.ConnectionFactory;
+import io.servicetalk.client.api.DefaultServiceDiscovererEvent;
+import io.servicetalk.client.api.LoadBalancedConnection;
+import io.servicetalk.client.api.LoadBalancer;
+import io.servicetalk.client.api.RequestTracker;
+import io.servicetalk.client.api.RequestTrackerAware;
+import io.servicetalk.client.api.ServiceDiscovererEvent;
+import io.servicetalk.concurrent.Cancellable;
+import io.servicetalk.concurrent.SingleSource;
+import io.servicetalk.concurrent.api.Completable;
+import io.servicetalk.concurrent.api.Single;
+import io.servicetalk.loadbalancer.P2CLoadBalancerFactory;
+import io.servicetalk.loadbalancer.RoundRobinLoadBalancerFactory;
+import io.servicetalk.transport.api.TransportObserver;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.client.api.ServiceDiscovererEvent.Status.AVAILABLE;
+import static io.servicetalk.concurrent.api.Completable.completed;
+import static io.servicetalk.concurrent.api.Publisher.from;
+import static io.servicetalk.concurrent.api.Single.succeeded;
+import static io.servicetalk.concurrent.api.SourceAdapters.toSource;
+import static java.net.InetSocketAddress.createUnresolved;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Compares the cost of connection selection between load balancing policies when one of the backends is
+ * significantly slower than the others. The {@code slowHostSelections} counter shows how much traffic the slow backend
+ * receives, which drives the tail latency observed by the callers.
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+public class LoadBalancerSelectionBenchmark {
+    private static final Predicate<LoadBalancedConnection> SELECTOR = __ -> true;
+    private static final long FAST_LATENCY_NS = MILLISECONDS.toNanos(1);
+    private static final long SLOW_LATENCY_NS = MILLISECONDS.toNanos(50);
+
+    @Param({"round-robin", "p2c"})
+    public String policy;
+
+    @Param({"8", "64"})
+    public int hosts;
+
+    private LoadBalancer<LoadBalancedConnection> lb;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final List<ServiceDiscovererEvent<InetSocketAddress>> events = new ArrayList<>(hosts);
+        for (int i = 0; i < hosts; ++i) {
+            events.add(new DefaultServiceDiscovererEvent<>(createUnresolved("127.0.0." + i, 0), AVAILABLE));
+        }
+        lb = "p2c".equals(policy) ?
+                new P2CLoadBalancerFactory.Builder<InetSocketAddress, LoadBalancedConnection>().build()
+                        .newLoadBalancer("benchmark", from(events), ConnFactory.INSTANCE) :
+                new RoundRobinLoadBalancerFactory.Builder<InetSocketAddress, LoadBalancedConnection>().build()
+                        .newLoadBalancer("benchmark", from(events), ConnFactory.INSTANCE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        lb.closeAsync().toFuture().get();
+    }
+
+    @Benchmark
+    public LoadBalancedConnection select(final SelectionState state) {
+        toSource(lb.selectConnection(SELECTOR)).subscribe(state);
+        final TestConnection connection = state.connection;
+        assert connection != null;
+        final RequestTracker tracker = connection.tracker;
+        if (tracker != null) {
+            // Simulate the request latency of the selected backend without waiting for it.
+            final long startTimeNs = tracker.beforeRequestStart();
+            tracker.onRequestSuccess(startTimeNs - connection.latencyNs);
+        }
+        if (connection.slow) {
+            ++state.slowHostSelections;
+        }
+        return connection;
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class SelectionState implements SingleSource.Subscriber<LoadBalancedConnection> {
+        public long slowHostSelections;
+        @Nullable
+        TestConnection connection;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            slowHostSelections = 0;
+        }
+
+        @Override
+        public void onSubscribe(final Cancellable cancellable) {
+        }
+
+        @Override
+        public void onSuccess(@Nullable final LoadBalancedConnection result) {
+            connection = (TestConnection) result;
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private static final class TestConnection implements LoadBalancedConnection, RequestTrackerAware {
+        final boolean slow;
+        final long latencyNs;
+        @Nullable
+        RequestTracker tracker;
+
+        TestConnection(final boolean slow) {
+            this.slow = slow;
+            this.latencyNs = slow ? SLOW_LATENCY_NS : FAST_LATENCY_NS;
+        }
+
+        @Override
+        public void requestTracker(final RequestTracker tracker) {
+            this.tracker = tracker;
+        }
+
+        @Override
+        public int score() {
+            return 0;
+        }
+
+        @Override
+        public Completable onClose() {
+            return completed();
+        }
+
+        @Override
+        public Completable closeAsync() {
+            return completed();
+        }
+
+        @Override
+        public Completable closeAsyncGracefully() {
+            return completed();
+        }
+    }
+
+    private static final class ConnFactory implements ConnectionFactory<InetSocketAddress, LoadBalancedConnection> {
+        static final ConnFactory INSTANCE = new ConnFactory();
+
+        private ConnFactory() {
+        }
+
+        @Override
+        public Single<LoadBalancedConnection> newConnection(final InetSocketAddress address,
+                                                            @Nullable final TransportObserver observer) {
+            // The first host is the slow one.
+            return succeeded(new TestConnection("127.0.0.0".equals(address.getHostString())));
+        }
+
+        @Override
+        public Completable onClose() {
+            return completed();
+        }
+
+        @Override
+        public Completable closeAsync() {
+            return completed();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.data.jackson;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.buffer.api.BufferAllocator;
+import io.servicetalk.serializer.api.SerializerDeserializer;
+import io.servicetalk.serializer.api.StreamingSerializerDeserializer;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.concurrent.api.Publisher.fromIterable;
+import static io.servicetalk.data.jackson.JacksonSerializerFactory.JACKSON;
+
+/*
+ * This benchmark measures JSON serialization of small and large payloads:
+ *
+ * - defaultCapacity: serializes into a buffer allocated with the default capacity, which has to grow (and copy) for
+ *   large payloads.
+ * - estimatedCapacity: lets the serializer allocate the buffer, pre-sized from the estimated serialized size of the
+ *   previously serialized objects.
+ * - streaming: serializes each element of the list into its own buffer, pre-sized the same way.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.Throughput)
+public class JacksonSerializerBenchmark {
+
+    private static final BufferAllocator ALLOCATOR = DEFAULT_ALLOCATOR;
+
+    @Param({"1", "1000"})
+    private int elements;
+
+    private List<Item> items;
+    private SerializerDeserializer<List<Item>> serializer;
+    private StreamingSerializerDeserializer<Item> streamingSerializer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        items = new ArrayList<>(elements);
+        for (int i = 0; i < elements; ++i) {
+            items.add(new Item(i, "item-" + i, "A description of item number " + i, i % 2 == 0));
+        }
+        serializer = JACKSON.serializerDeserializer(new TypeReference<List<Item>>() { });
+        streamingSerializer = JACKSON.streamingSerializerDeserializer(Item.class);
+    }
+
+    @Benchmark
+    public Buffer defaultCapacity() {
+        Buffer buffer = ALLOCATOR.newBuffer();
+        serializer.serialize(items, ALLOCATOR, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public Buffer estimatedCapacity() {
+        return serializer.serialize(items, ALLOCATOR);
+    }
+
+    @Benchmark
+    public void streaming(Blackhole bh) {
+        streamingSerializer.serialize(fromIterable(items), ALLOCATOR).forEach(bh::consume);
+    }
+
+    public static final class Item {
+        private final long id;
+        private final String name;
+        private final String description;
+        private final boolean available;
+
+        Item(final long id, final String name, final String description, final boolean available) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.available = available;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+    }
+}
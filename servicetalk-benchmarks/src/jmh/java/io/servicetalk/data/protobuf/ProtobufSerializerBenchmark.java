@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.data.protobuf;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.buffer.api.BufferAllocator;
+import io.servicetalk.serializer.api.SerializerDeserializer;
+import io.servicetalk.serializer.api.StreamingSerializerDeserializer;
+
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.concurrent.api.Publisher.fromIterable;
+import static io.servicetalk.data.protobuf.ProtobufSerializerFactory.PROTOBUF;
+
+/*
+ * This benchmark measures protobuf serialization of small and large payloads, using the well-known Struct type so no
+ * code generation is required:
+ *
+ * - defaultCapacity: serializes into a buffer allocated with the default capacity, which is grown to the serialized
+ *   size before writing.
+ * - exactCapacity: lets the serializer allocate a buffer of exactly the serialized size.
+ * - streaming: serializes each element of the list into its own length prefixed buffer.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.Throughput)
+public class ProtobufSerializerBenchmark {
+
+    private static final BufferAllocator ALLOCATOR = DEFAULT_ALLOCATOR;
+
+    @Param({"1", "1000"})
+    private int elements;
+
+    private List<Struct> items;
+    private Struct list;
+    private SerializerDeserializer<Struct> serializer;
+    private StreamingSerializerDeserializer<Struct> streamingSerializer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        items = new ArrayList<>(elements);
+        ListValue.Builder listBuilder = ListValue.newBuilder();
+        for (int i = 0; i < elements; ++i) {
+            Struct item = Struct.newBuilder()
+                    .putFields("id", Value.newBuilder().setNumberValue(i).build())
+                    .putFields("name", Value.newBuilder().setStringValue("item-" + i).build())
+                    .putFields("description",
+                            Value.newBuilder().setStringValue("A description of item number " + i).build())
+                    .putFields("available", Value.newBuilder().setBoolValue(i % 2 == 0).build())
+                    .build();
+            items.add(item);
+            listBuilder.addValues(Value.newBuilder().setStructValue(item).build());
+        }
+        list = Struct.newBuilder().putFields("items", Value.newBuilder().setListValue(listBuilder).build()).build();
+        serializer = PROTOBUF.serializerDeserializer(Struct.parser());
+        streamingSerializer = PROTOBUF.streamingSerializerDeserializer(Struct.parser());
+    }
+
+    @Benchmark
+    public Buffer defaultCapacity() {
+        Buffer buffer = ALLOCATOR.newBuffer();
+        serializer.serialize(list, ALLOCATOR, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public Buffer exactCapacity() {
+        return serializer.serialize(list, ALLOCATOR);
+    }
+
+    @Benchmark
+    public void streaming(Blackhole bh) {
+        streamingSerializer.serialize(fromIterable(items), ALLOCATOR).forEach(bh::consume);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.api;
+
+import io.servicetalk.buffer.api.Buffer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map.Entry;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_TYPE;
+import static io.servicetalk.http.api.HttpHeaderNames.COOKIE;
+import static io.servicetalk.http.api.HttpHeaderNames.HOST;
+import static io.servicetalk.http.api.HttpHeaderNames.USER_AGENT;
+import static io.servicetalk.http.api.HttpHeaderValues.APPLICATION_JSON;
+import static io.servicetalk.http.api.HttpHeaderValues.GZIP;
+
+/**
+ * Compares {@link DefaultHttpHeadersFactory} and {@link ArrayHttpHeadersFactory} for the operations on the headers of
+ * a typical request: adding them, looking up some of them, iterating over all of them and encoding them into a
+ * {@link Buffer} the way the HTTP/1.x encoder does.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.Throughput)
+public class HttpHeadersBenchmark {
+    private static final byte[] COLON_SP = {':', ' '};
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    @Param({"default", "array"})
+    public String factory;
+
+    /**
+     * Number of extra, custom headers on top of the common ones.
+     */
+    @Param({"0", "8", "32"})
+    public int extraHeaders;
+
+    private HttpHeadersFactory headersFactory;
+    private CharSequence[] extraNames;
+    private HttpHeaders headers;
+    private Buffer buffer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        headersFactory = "array".equals(factory) ? ArrayHttpHeadersFactory.INSTANCE :
+                DefaultHttpHeadersFactory.INSTANCE;
+        extraNames = new CharSequence[extraHeaders];
+        for (int i = 0; i < extraNames.length; ++i) {
+            extraNames[i] = "x-custom-header-" + i;
+        }
+        headers = add();
+        buffer = DEFAULT_ALLOCATOR.newBuffer(4096);
+    }
+
+    @Benchmark
+    public HttpHeaders add() {
+        final HttpHeaders headers = headersFactory.newHeaders();
+        headers.add(HOST, "servicetalk.io");
+        headers.add(USER_AGENT, "servicetalk");
+        headers.add(ACCEPT, APPLICATION_JSON);
+        headers.add(ACCEPT_ENCODING, GZIP);
+        headers.add(CONTENT_TYPE, APPLICATION_JSON);
+        headers.add(CONTENT_LENGTH, "1024");
+        headers.add(COOKIE, "session=0123456789abcdef");
+        for (CharSequence name : extraNames) {
+            headers.add(name, "value");
+        }
+        return headers;
+    }
+
+    @Benchmark
+    public void get(final Blackhole blackhole) {
+        blackhole.consume(headers.get(HOST));
+        blackhole.consume(headers.get(CONTENT_LENGTH));
+        blackhole.consume(headers.get("Content-Type"));
+        blackhole.consume(headers.get("transfer-encoding"));
+    }
+
+    @Benchmark
+    public int iterate() {
+        int length = 0;
+        for (Entry<CharSequence, CharSequence> header : headers) {
+            length += header.getKey().length() + header.getValue().length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int encode() {
+        buffer.clear();
+        for (Entry<CharSequence, CharSequence> header : headers) {
+            buffer.writeAscii(header.getKey());
+            buffer.writeBytes(COLON_SP);
+            buffer.writeAscii(header.getValue());
+            buffer.writeBytes(CRLF);
+        }
+        return buffer.writerIndex();
+    }
+}
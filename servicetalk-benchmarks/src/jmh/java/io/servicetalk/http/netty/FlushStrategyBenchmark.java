@@ -0,0 +1,171 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.concurrent.api.AsyncContext;
+import io.servicetalk.http.api.HttpClient;
+import io.servicetalk.http.api.HttpServerBuilder;
+import io.servicetalk.transport.api.ConnectionInfo;
+import io.servicetalk.transport.api.ConnectionObserver;
+import io.servicetalk.transport.api.ServerContext;
+import io.servicetalk.transport.api.TransportObserver;
+import io.servicetalk.transport.netty.internal.NoopTransportObserver.NoopConnectionObserver;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.concurrent.api.Publisher.range;
+import static io.servicetalk.concurrent.api.Single.succeeded;
+import static java.time.Duration.ZERO;
+
+/**
+ * Compares the number of flushes (and hence write syscalls) per request of the default flush strategy of a server with
+ * the {@link HttpServerBuilder#adaptiveFlush(java.time.Duration) adaptive} one, for responses written in chunks.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.Throughput)
+public class FlushStrategyBenchmark {
+    static {
+        AsyncContext.disable(); // reduce noise in benchmarks.
+    }
+
+    @Param({"flushOnEach", "adaptive"})
+    public String flushStrategy;
+
+    @Param({"1", "16"})
+    public int chunks;
+
+    private final AtomicLong serverFlushes = new AtomicLong();
+    @Nullable
+    private ServerContext serverContext;
+    @Nullable
+    private HttpClient client;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        final HttpServerBuilder serverBuilder = HttpServers.forAddress(new InetSocketAddress("127.0.0.1", 0))
+                .transportObserver(new FlushCountingTransportObserver(serverFlushes));
+        if ("adaptive".equals(flushStrategy)) {
+            serverBuilder.adaptiveFlush(ZERO);
+        }
+        final int chunks = this.chunks;
+        serverContext = serverBuilder.listenStreamingAndAwait((ctx, request, responseFactory) -> {
+            final Buffer chunk = ctx.executionContext().bufferAllocator().fromAscii("chunk");
+            return succeeded(responseFactory.ok().payloadBody(range(0, chunks).map(__ -> chunk.duplicate())));
+        });
+        client = HttpClients.forResolvedAddress(serverContext.listenAddress()).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        assert client != null && serverContext != null;
+        client.close();
+        serverContext.close();
+    }
+
+    @Benchmark
+    public int request(final FlushCounters counters) throws Exception {
+        assert client != null;
+        final int status = client.request(client.get("/")).toFuture().get().status().code();
+        counters.flushes += serverFlushes.getAndSet(0);
+        return status;
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class FlushCounters {
+        public long flushes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            flushes = 0;
+        }
+    }
+
+    private static final class FlushCountingTransportObserver implements TransportObserver {
+        private final AtomicLong flushes;
+
+        FlushCountingTransportObserver(final AtomicLong flushes) {
+            this.flushes = flushes;
+        }
+
+        @Override
+        public ConnectionObserver onNewConnection(@Nullable final Object localAddress, final Object remoteAddress) {
+            return new ConnectionObserver() {
+                private final ConnectionObserver delegate = NoopConnectionObserver.INSTANCE;
+
+                @Override
+                public void onDataRead(final int size) {
+                }
+
+                @Override
+                public void onDataWrite(final int size) {
+                }
+
+                @Override
+                public void onFlush() {
+                    flushes.incrementAndGet();
+                }
+
+                @Override
+                public void onTransportHandshakeComplete() {
+                }
+
+                @Override
+                public SecurityHandshakeObserver onSecurityHandshake() {
+                    return delegate.onSecurityHandshake();
+                }
+
+                @Override
+                public DataObserver connectionEstablished(final ConnectionInfo info) {
+                    return delegate.connectionEstablished(info);
+                }
+
+                @Override
+                public MultiplexedObserver multiplexedConnectionEstablished(final ConnectionInfo info) {
+                    return delegate.multiplexedConnectionEstablished(info);
+                }
+
+                @Override
+                public void connectionClosed(final Throwable error) {
+                }
+
+                @Override
+                public void connectionClosed() {
+                }
+            };
+        }
+    }
+}
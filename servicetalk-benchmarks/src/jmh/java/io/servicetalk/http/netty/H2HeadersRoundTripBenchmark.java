@@ -0,0 +1,158 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.http.api.DefaultHttpHeadersFactory;
+import io.servicetalk.http.api.HttpHeaders;
+import io.servicetalk.http.api.HttpHeadersFactory;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http2.DefaultHttp2HeadersDecoder;
+import io.netty.handler.codec.http2.DefaultHttp2HeadersEncoder;
+import io.netty.handler.codec.http2.Http2Exception;
+import io.netty.handler.codec.http2.Http2Headers;
+import io.netty.handler.codec.http2.Http2HeadersEncoder.SensitivityDetector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import static io.netty.buffer.ByteBufAllocator.DEFAULT;
+import static io.netty.handler.codec.http2.Http2HeadersEncoder.NEVER_SENSITIVE;
+import static io.servicetalk.buffer.api.CharSequences.contentEqualsIgnoreCase;
+import static io.servicetalk.buffer.api.CharSequences.newAsciiString;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_TYPE;
+import static io.servicetalk.http.api.HttpHeaderNames.SERVER;
+import static io.servicetalk.http.api.HttpHeaderNames.TE;
+import static io.servicetalk.http.api.HttpHeaderNames.USER_AGENT;
+import static io.servicetalk.http.api.HttpHeaderValues.TRAILERS;
+import static io.servicetalk.http.netty.H2ToStH1Utils.h1HeadersToH2Headers;
+
+/*
+ * This benchmark measures the header round-trip of a unary gRPC call over a single HTTP/2 connection: request
+ * headers, response headers and response trailers are converted from ServiceTalk HttpHeaders to Netty Http2Headers,
+ * HPACK encoded and decoded again. The encoder and decoder live for the whole trial, so their dynamic tables behave
+ * like the ones of a long-lived connection.
+ *
+ * - factory: h2 uses H2HeadersFactory (what the gRPC builders configure), h1 uses DefaultHttpHeadersFactory and goes
+ *   through the copying conversion.
+ * - sensitivity: default indexes every header, grpc never indexes per-call values (grpc-timeout, grpc-message), the
+ *   same way the gRPC builders configure their H2ProtocolConfig.
+ */
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@BenchmarkMode(Mode.Throughput)
+public class H2HeadersRoundTripBenchmark {
+
+    private static final CharSequence PATH = newAsciiString("/grpc.health.v1.Health/Check");
+    private static final CharSequence AUTHORITY = newAsciiString("servicetalk.io:8080");
+    private static final CharSequence GRPC_CONTENT_TYPE = newAsciiString("application/grpc+proto");
+    private static final CharSequence GRPC_USER_AGENT = newAsciiString("servicetalk-grpc/0.42");
+    private static final CharSequence GRPC_ACCEPT_ENCODING = newAsciiString("grpc-accept-encoding");
+    private static final CharSequence GZIP_IDENTITY = newAsciiString("gzip,identity");
+    private static final CharSequence GRPC_TIMEOUT = newAsciiString("grpc-timeout");
+    private static final CharSequence GRPC_STATUS = newAsciiString("grpc-status");
+    private static final CharSequence GRPC_STATUS_OK = newAsciiString("0");
+    private static final CharSequence GRPC_MESSAGE = newAsciiString("grpc-message");
+    private static final CharSequence X_REQUEST_ID = newAsciiString("x-request-id");
+    private static final CharSequence POST = newAsciiString("POST");
+    private static final CharSequence HTTP = newAsciiString("http");
+    private static final CharSequence OK = newAsciiString("200");
+
+    private static final SensitivityDetector GRPC_SENSITIVITY_DETECTOR = (name, value) ->
+            contentEqualsIgnoreCase(name, GRPC_TIMEOUT) || contentEqualsIgnoreCase(name, GRPC_MESSAGE);
+
+    @Param({"h2", "h1"})
+    private String factory;
+
+    @Param({"default", "grpc"})
+    private String sensitivity;
+
+    private HttpHeadersFactory headersFactory;
+    private DefaultHttp2HeadersEncoder clientEncoder;
+    private DefaultHttp2HeadersDecoder serverDecoder;
+    private DefaultHttp2HeadersEncoder serverEncoder;
+    private DefaultHttp2HeadersDecoder clientDecoder;
+    private ByteBuf buffer;
+    private int streamId;
+    private int callId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        headersFactory = "h2".equals(factory) ? H2HeadersFactory.INSTANCE : DefaultHttpHeadersFactory.INSTANCE;
+        final SensitivityDetector detector = "grpc".equals(sensitivity) ? GRPC_SENSITIVITY_DETECTOR :
+                NEVER_SENSITIVE;
+        clientEncoder = new DefaultHttp2HeadersEncoder(detector, true);
+        serverEncoder = new DefaultHttp2HeadersEncoder(detector, true);
+        clientDecoder = new DefaultHttp2HeadersDecoder(false);
+        serverDecoder = new DefaultHttp2HeadersDecoder(false);
+        buffer = DEFAULT.buffer(1024);
+        streamId = 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        buffer.release();
+    }
+
+    @Benchmark
+    public void unaryCall(Blackhole bh) throws Http2Exception {
+        final int id = ++callId;
+        streamId += 2;
+
+        HttpHeaders requestHeaders = headersFactory.newHeaders();
+        requestHeaders.set(CONTENT_TYPE, GRPC_CONTENT_TYPE);
+        requestHeaders.set(TE, TRAILERS);
+        requestHeaders.set(USER_AGENT, GRPC_USER_AGENT);
+        requestHeaders.set(GRPC_ACCEPT_ENCODING, GZIP_IDENTITY);
+        // The remaining deadline and the request id differ for every call.
+        requestHeaders.set(GRPC_TIMEOUT, (1000 - (id & 511)) + "m");
+        requestHeaders.set(X_REQUEST_ID, Integer.toHexString(id));
+        Http2Headers h2RequestHeaders = h1HeadersToH2Headers(requestHeaders);
+        h2RequestHeaders.method(POST).scheme(HTTP).path(PATH).authority(AUTHORITY);
+        bh.consume(roundTrip(clientEncoder, serverDecoder, h2RequestHeaders));
+
+        HttpHeaders responseHeaders = headersFactory.newHeaders();
+        responseHeaders.set(SERVER, GRPC_USER_AGENT);
+        responseHeaders.set(CONTENT_TYPE, GRPC_CONTENT_TYPE);
+        responseHeaders.set(GRPC_ACCEPT_ENCODING, GZIP_IDENTITY);
+        Http2Headers h2ResponseHeaders = h1HeadersToH2Headers(responseHeaders);
+        h2ResponseHeaders.status(OK);
+        bh.consume(roundTrip(serverEncoder, clientDecoder, h2ResponseHeaders));
+
+        HttpHeaders trailers = headersFactory.newTrailers();
+        trailers.set(GRPC_STATUS, GRPC_STATUS_OK);
+        bh.consume(roundTrip(serverEncoder, clientDecoder, h1HeadersToH2Headers(trailers)));
+    }
+
+    private Http2Headers roundTrip(DefaultHttp2HeadersEncoder encoder, DefaultHttp2HeadersDecoder decoder,
+                                   Http2Headers headers) throws Http2Exception {
+        buffer.clear();
+        encoder.encodeHeaders(streamId, headers, buffer);
+        return decoder.decodeHeaders(streamId, buffer);
+    }
+}
@@ -57,6 +57,9 @@ import static java.nio.charset.StandardCharsets.US_ASCII;
  * HttpResponseDecoderBenchmark.initialLine           500  thrpt    5   988277.529 ±  8913.071  ops/s
  * HttpResponseDecoderBenchmark.initialLine           600  thrpt    5   965798.581 ± 13396.336  ops/s
  * HttpResponseDecoderBenchmark.initialLine           700  thrpt    5   811948.162 ± 14176.711  ops/s
+ *
+ * The realisticHeaders benchmark decodes the same status-lines followed by a set of headers typical for a response of
+ * an API server, mixing canonical and lower-case names of well-known headers with custom headers.
  */
 @Fork(value = 1)
 @State(Scope.Benchmark)
@@ -69,6 +72,7 @@ public class HttpResponseDecoderBenchmark {
     private int statusCode;
 
     private ByteBuf responseByteBuf;
+    private ByteBuf realisticResponseByteBuf;
 
     private EmbeddedChannel channel;
 
@@ -85,13 +89,39 @@ public class HttpResponseDecoderBenchmark {
         responseBuffer.writeShort(CRLF_SHORT);
         responseByteBuf = toByteBuf(responseBuffer.slice());
 
+        final Buffer realisticResponseBuffer = PREFER_DIRECT_ALLOCATOR.newBuffer(512);
+        HTTP_1_1.writeTo(realisticResponseBuffer);
+        realisticResponseBuffer.writeByte(SP);
+        status.writeTo(realisticResponseBuffer);
+        realisticResponseBuffer.writeShort(CRLF_SHORT);
+        realisticResponseBuffer.writeBytes(("Date: Tue, 15 Nov 1994 08:12:31 GMT\r\n" +
+                "Server: servicetalk\r\n" +
+                "Content-Type: application/json; charset=utf-8\r\n" +
+                "content-length: 0\r\n" +
+                "Cache-Control: no-cache, no-store, must-revalidate\r\n" +
+                "Vary: Accept-Encoding\r\n" +
+                "ETag: \"33a64df551425fcc55e4d42a148795d9f25f89d4\"\r\n" +
+                "x-request-id: 7f2c4a3e-0b1d-4f5e-9a8b-6c7d8e9f0a1b\r\n" +
+                "X-RateLimit-Remaining: 4999\r\n").getBytes(US_ASCII));
+        realisticResponseBuffer.writeShort(CRLF_SHORT);
+        realisticResponseByteBuf = toByteBuf(realisticResponseBuffer.slice());
+
         channel = new EmbeddedChannel(new HttpResponseDecoder(new ArrayDeque<>(),
                 getByteBufAllocator(DEFAULT_ALLOCATOR), DefaultHttpHeadersFactory.INSTANCE, 8192, 8192));
     }
 
     @Benchmark
     public int initialLine() {
-        channel.writeInbound(responseByteBuf.duplicate());
+        return decode(responseByteBuf);
+    }
+
+    @Benchmark
+    public int realisticHeaders() {
+        return decode(realisticResponseByteBuf);
+    }
+
+    private int decode(final ByteBuf byteBuf) {
+        channel.writeInbound(byteBuf.duplicate());
 
         final HttpResponseMetaData response = channel.readInbound();
         final HttpHeaders trailers = channel.readInbound();
@@ -35,7 +35,13 @@ import org.openjdk.jmh.annotations.Warmup;
 import java.util.ArrayDeque;
 
 import static io.servicetalk.http.api.DefaultHttpHeadersFactory.INSTANCE;
+import static io.servicetalk.http.api.HttpHeaderNames.CACHE_CONTROL;
+import static io.servicetalk.http.api.HttpHeaderNames.CONNECTION;
 import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_TYPE;
+import static io.servicetalk.http.api.HttpHeaderValues.APPLICATION_JSON;
+import static io.servicetalk.http.api.HttpHeaderValues.KEEP_ALIVE;
+import static io.servicetalk.http.api.HttpHeaderValues.NO_CACHE;
 import static io.servicetalk.http.api.HttpHeaderValues.ZERO;
 import static io.servicetalk.http.api.HttpProtocolVersion.HTTP_1_1;
 import static io.servicetalk.http.api.HttpResponseMetaDataFactory.newResponseMetaData;
@@ -51,6 +57,10 @@ import static io.servicetalk.http.netty.HttpUtils.status;
  * HttpResponseEncoderInitialLineBenchmark.initialLine           500  thrpt    5  1259922.772 ± 23745.487  ops/s
  * HttpResponseEncoderInitialLineBenchmark.initialLine           600  thrpt    5  1271252.139 ± 17791.329  ops/s
  * HttpResponseEncoderInitialLineBenchmark.initialLine           700  thrpt    5  1220163.698 ± 43243.342  ops/s
+ *
+ * The constantHeaders and stringHeaders benchmarks add the same common headers, using either the constants from
+ * HttpHeaderNames/HttpHeaderValues (which are written from pre-encoded bytes) or equivalent String instances (which
+ * are encoded one character at a time).
  */
 @Fork(value = 1)
 @State(Scope.Benchmark)
@@ -63,6 +73,8 @@ public class HttpResponseEncoderInitialLineBenchmark {
     private int statusCode;
 
     private HttpResponseMetaData metaData;
+    private HttpResponseMetaData constantHeadersMetaData;
+    private HttpResponseMetaData stringHeadersMetaData;
 
     private EmbeddedChannel channel;
 
@@ -70,12 +82,36 @@ public class HttpResponseEncoderInitialLineBenchmark {
     public void setup() {
         metaData = newResponseMetaData(HTTP_1_1, status(statusCode), INSTANCE.newHeaders())
                 .addHeader(CONTENT_LENGTH, ZERO);
+        constantHeadersMetaData = newResponseMetaData(HTTP_1_1, status(statusCode), INSTANCE.newHeaders())
+                .addHeader(CONTENT_TYPE, APPLICATION_JSON)
+                .addHeader(CONNECTION, KEEP_ALIVE)
+                .addHeader(CACHE_CONTROL, NO_CACHE)
+                .addHeader(CONTENT_LENGTH, ZERO);
+        stringHeadersMetaData = newResponseMetaData(HTTP_1_1, status(statusCode), INSTANCE.newHeaders())
+                .addHeader("content-type", "application/json")
+                .addHeader("connection", "keep-alive")
+                .addHeader("cache-control", "no-cache")
+                .addHeader("content-length", "0");
 
         channel = new EmbeddedChannel(new HttpResponseEncoder(new ArrayDeque<>(), 256, 256));
     }
 
     @Benchmark
     public int initialLine() {
+        return encode(metaData);
+    }
+
+    @Benchmark
+    public int constantHeaders() {
+        return encode(constantHeadersMetaData);
+    }
+
+    @Benchmark
+    public int stringHeaders() {
+        return encode(stringHeadersMetaData);
+    }
+
+    private int encode(final HttpResponseMetaData metaData) {
         channel.writeOutbound(metaData);
         channel.writeOutbound(EmptyHttpHeaders.INSTANCE);
 
@@ -53,4 +53,17 @@ public interface RequestConcurrencyController {
      * Generally called from a {@link Publisher#beforeFinally(Runnable)} after a {@link #tryRequest()}.
      */
     void requestFinished();
+
+    /**
+     * Estimates the number of requests which {@link #tryRequest()} would currently accept.
+     * <p>
+     * The returned value is only a hint because concurrent calls to {@link #tryRequest()} and
+     * {@link #requestFinished()} may change it at any time.
+     *
+     * @return the estimated number of requests which can be accepted, {@code 0} if no more requests can be accepted
+     * at this time, or {@link Integer#MAX_VALUE} if the estimate is not known.
+     */
+    default int availableRequests() {
+        return Integer.MAX_VALUE;
+    }
 }
@@ -86,10 +86,27 @@ abstract class AbstractRequestConcurrencyControllerMultiTest {
         assertThat(controller.tryRequest(), is(RejectedTemporary));
     }
 
+    @Test
+    void availableRequestsTracksPendingRequests() {
+        RequestConcurrencyController controller = newController(limitPublisher, never(), 10);
+        assertThat(controller.availableRequests(), is(10));
+        assertThat(controller.tryRequest(), is(Accepted));
+        assertThat(controller.tryRequest(), is(Accepted));
+        assertThat(controller.availableRequests(), is(8));
+        limitPublisher.onNext(5);
+        assertThat(controller.availableRequests(), is(3));
+        limitPublisher.onNext(1);
+        assertThat(controller.availableRequests(), is(0));
+        controller.requestFinished();
+        controller.requestFinished();
+        assertThat(controller.availableRequests(), is(1));
+    }
+
     @Test
     void noMoreRequestsAfterClose() {
         RequestConcurrencyController controller = newController(from(1), completed(), 10);
         assertThat(controller.tryRequest(), is(RejectedPermanently));
+        assertThat(controller.availableRequests(), is(0));
     }
 
     @Test
@@ -24,6 +24,8 @@ import static java.util.Objects.requireNonNull;
 public final class DefaultServiceDiscovererEvent<T> implements ServiceDiscovererEvent<T> {
     private final T address;
     private final Status status;
+    private final int weight;
+    private final int priority;
 
     /**
      * Create a new instance.
@@ -31,8 +33,27 @@ public final class DefaultServiceDiscovererEvent<T> implements ServiceDiscoverer
      * @param status Value returned by {@link #status()}.
      */
     public DefaultServiceDiscovererEvent(T address, Status status) {
+        this(address, status, 1, 0);
+    }
+
+    /**
+     * Create a new instance.
+     * @param address The address returned by {@link #address()}.
+     * @param status Value returned by {@link #status()}.
+     * @param weight Value returned by {@link #weight()}.
+     * @param priority Value returned by {@link #priority()}.
+     */
+    public DefaultServiceDiscovererEvent(T address, Status status, int weight, int priority) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("weight: " + weight + " (expected >=0)");
+        }
+        if (priority < 0) {
+            throw new IllegalArgumentException("priority: " + priority + " (expected >=0)");
+        }
         this.address = requireNonNull(address);
         this.status = requireNonNull(status);
+        this.weight = weight;
+        this.priority = priority;
     }
 
     @Override
@@ -45,6 +66,16 @@ public final class DefaultServiceDiscovererEvent<T> implements ServiceDiscoverer
         return status;
     }
 
+    @Override
+    public int weight() {
+        return weight;
+    }
+
+    @Override
+    public int priority() {
+        return priority;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) {
@@ -69,6 +100,8 @@ public final class DefaultServiceDiscovererEvent<T> implements ServiceDiscoverer
         return "DefaultServiceDiscovererEvent{" +
                 "address=" + address +
                 ", status=" + status +
+                ", weight=" + weight +
+                ", priority=" + priority +
                 '}';
     }
 }
@@ -45,6 +45,42 @@ public interface LoadBalancer<C extends LoadBalancedConnection> extends Listenab
      */
     Single<C> selectConnection(Predicate<C> selector);
 
+    /**
+     * Select the most appropriate connection for a request among the connections this {@link LoadBalancer} has
+     * already established. Unlike {@link #selectConnection(Predicate)}, this never opens a new connection.
+     *
+     * @param selector A {@link Function} that evaluates a connection for selection.
+     *                 This selector should return {@code null} if the connection <strong>MUST</strong> not be selected.
+     *                 This selector is guaranteed to be called for any connection that is returned from this method.
+     * @return a {@link Single} that completes with the most appropriate established connection to use. A
+     * {@link Single#failed(Throwable) failed Single} with {@link NoAvailableHostException} is returned if none of the
+     * established connections can be selected at this time, or if this {@link LoadBalancer} does not support this
+     * kind of selection.
+     */
+    default Single<C> selectEstablishedConnection(Predicate<C> selector) {
+        return Single.failed(new NoAvailableHostException(
+                "Selecting among established connections is not supported by " + this));
+    }
+
+    /**
+     * Open a new connection for a request rather than selecting one of the connections this {@link LoadBalancer} has
+     * already established.
+     * <p>
+     * The default implementation delegates to {@link #selectConnection(Predicate)}, which may return an established
+     * connection.
+     *
+     * @param selector A {@link Function} that evaluates the new connection for selection.
+     *                 This selector should return {@code null} if the connection <strong>MUST</strong> not be selected.
+     *                 This selector is guaranteed to be called for any connection that is returned from this method.
+     * @return a {@link Single} that completes with a new connection. A {@link Single#failed(Throwable) failed Single}
+     * with {@link NoAvailableHostException} can be returned if no host is eligible for a new connection at this time or
+     * with {@link ConnectionRejectedException} if the new connection was rejected by the {@code selector} or this load
+     * balancer.
+     */
+    default Single<C> newConnection(Predicate<C> selector) {
+        return selectConnection(selector);
+    }
+
     /**
      * A {@link Publisher} of events provided by this {@link LoadBalancer}. This maybe used to broadcast internal state
      * of this {@link LoadBalancer} to provide hints/visibility for external usage.
@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.client.api;
+
+/**
+ * A tracker of the outcome of requests issued on a {@link LoadBalancedConnection}.
+ * <p>
+ * {@link LoadBalancer} implementations may provide a {@link RequestTracker} to connections which implement
+ * {@link RequestTrackerAware} in order to learn about the load and the health of the hosts they balance across.
+ * Implementations are expected to be thread-safe and cheap to invoke, as methods are called on the request path.
+ */
+public interface RequestTracker {
+
+    /**
+     * Invoked before a request is written to a connection.
+     *
+     * @return the start time of the request in nanoseconds, which must be passed to
+     * {@link #onRequestSuccess(long)} or {@link #onRequestError(long, ErrorClass)} when the request terminates.
+     */
+    long beforeRequestStart();
+
+    /**
+     * Invoked when a request started by {@link #beforeRequestStart()} terminates successfully.
+     *
+     * @param beforeStartTimeNs the value returned by the corresponding {@link #beforeRequestStart()} call.
+     */
+    void onRequestSuccess(long beforeStartTimeNs);
+
+    /**
+     * Invoked when a request started by {@link #beforeRequestStart()} terminates with an error.
+     *
+     * @param beforeStartTimeNs the value returned by the corresponding {@link #beforeRequestStart()} call.
+     * @param errorClass the classification of the error.
+     */
+    void onRequestError(long beforeStartTimeNs, ErrorClass errorClass);
+
+    /**
+     * Classification of request errors.
+     */
+    enum ErrorClass {
+        /**
+         * The request failed because of a problem with the local side of the connection, for example the connection
+         * was closed before the request could be written.
+         */
+        LOCAL_ORIGIN_REQUEST_FAILED(false),
+        /**
+         * The remote peer did not respond in time.
+         */
+        EXT_ORIGIN_TIME_OUT(true),
+        /**
+         * The remote peer responded with an error, for example a server error status code.
+         */
+        EXT_ORIGIN_REQUEST_FAILED(true),
+        /**
+         * The request was cancelled by the caller.
+         */
+        CANCELLED(false);
+
+        private final boolean isOriginError;
+
+        ErrorClass(final boolean isOriginError) {
+            this.isOriginError = isOriginError;
+        }
+
+        /**
+         * Whether the error is attributed to the remote peer, as opposed to the local side or the caller.
+         *
+         * @return {@code true} if the error is attributed to the remote peer.
+         */
+        public boolean isOriginError() {
+            return isOriginError;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.client.api;
+
+/**
+ * A {@link LoadBalancedConnection} which can report the outcome of its requests to a {@link RequestTracker} provided by
+ * the {@link LoadBalancer} that manages it.
+ */
+public interface RequestTrackerAware {
+
+    /**
+     * Sets the {@link RequestTracker} which will be notified about requests issued on this connection.
+     * <p>
+     * {@link LoadBalancer}s invoke this method at most once, before the connection is made available for selection.
+     *
+     * @param tracker the {@link RequestTracker} to notify.
+     */
+    void requestTracker(RequestTracker tracker);
+}
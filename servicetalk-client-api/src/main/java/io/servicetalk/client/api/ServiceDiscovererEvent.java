@@ -39,6 +39,28 @@ public interface ServiceDiscovererEvent<ResolvedAddress> {
      */
     Status status();
 
+    /**
+     * Relative weight of the {@link #address() address} among the addresses with the same {@link #priority()}, as
+     * provided by the service discovery system (e.g. the weight of a DNS SRV record). A {@link LoadBalancer} that
+     * honors weights sends a proportionally larger share of requests to addresses with a higher weight.
+     *
+     * @return a non-negative relative weight of the associated {@link #address()}.
+     */
+    default int weight() {
+        return 1;
+    }
+
+    /**
+     * Priority of the {@link #address() address} as provided by the service discovery system (e.g. the priority of a
+     * DNS SRV record). Lower values are preferred: a {@link LoadBalancer} that honors priorities only uses addresses
+     * with a higher value when none of the addresses with a lower value are usable.
+     *
+     * @return a non-negative priority of the associated {@link #address()}, lower values are preferred.
+     */
+    default int priority() {
+        return 0;
+    }
+
     /**
      * Status provided by the {@link ServiceDiscoverer} system that guides the actions of {@link LoadBalancer} upon the
      * bound {@link ServiceDiscovererEvent#address()} (via {@link ServiceDiscovererEvent}).
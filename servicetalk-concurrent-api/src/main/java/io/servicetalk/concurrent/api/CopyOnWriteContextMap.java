@@ -38,8 +38,15 @@ import static java.util.Objects.requireNonNull;
  * Less than 7 elements was chosen because it is not common to have more than this number of
  * {@link ContextMap.Key}-value entries in a single {@link ContextMap}. Common {@link ContextMap.Key}-value entries are
  * (tracing, MDC, auth, 3-custom user entries).
+ * <p>
+ * Maps with {@link #TRIE_THRESHOLD} or more entries are stored in a persistent hash array mapped trie, so that a
+ * {@code put} only copies the path to the modified entry instead of all entries.
  */
 final class CopyOnWriteContextMap implements ContextMap {
+    /**
+     * Number of entries from which a {@link TrieContextMap} is used instead of a {@link SevenOrMoreContextMap}.
+     */
+    static final int TRIE_THRESHOLD = 16;
     private static final AtomicReferenceFieldUpdater<CopyOnWriteContextMap, CopyContextMap> mapUpdater =
             AtomicReferenceFieldUpdater.newUpdater(CopyOnWriteContextMap.class, CopyContextMap.class, "map");
     private volatile CopyContextMap map;
@@ -2439,6 +2446,11 @@ final class CopyOnWriteContextMap implements ContextMap {
         }
     }
 
+    private static CopyContextMap newSevenOrMoreContextMap(final Object[] context) {
+        return context.length >= TRIE_THRESHOLD << 1 ? TrieContextMap.fromPairs(context, context.length) :
+                new SevenOrMoreContextMap(context);
+    }
+
     private static final class SevenOrMoreContextMap implements CopyContextMap {
         /**
          * Array of <[i] = key, [i+1] = value> pairs.
@@ -2530,7 +2542,7 @@ final class CopyOnWriteContextMap implements ContextMap {
                 arraycopy(this.context, 0, context, 0, this.context.length);
                 context[i + 1] = value;
             }
-            return mapUpdater.compareAndSet(owner, this, new SevenOrMoreContextMap(context)) ?
+            return mapUpdater.compareAndSet(owner, this, newSevenOrMoreContextMap(context)) ?
                     (T) returnValue : owner.put(key, value);
         }
 
@@ -2555,7 +2567,7 @@ final class CopyOnWriteContextMap implements ContextMap {
                 arraycopy(this.context, 0, context, 0, this.context.length);
                 context[i + 1] = value;
             }
-            return mapUpdater.compareAndSet(owner, this, new SevenOrMoreContextMap(context)) ?
+            return mapUpdater.compareAndSet(owner, this, newSevenOrMoreContextMap(context)) ?
                     null : owner.putIfAbsent(key, value);
         }
 
@@ -2584,7 +2596,7 @@ final class CopyOnWriteContextMap implements ContextMap {
                 arraycopy(this.context, 0, context, 0, this.context.length);
                 context[i + 1] = value;
             }
-            return mapUpdater.compareAndSet(owner, this, new SevenOrMoreContextMap(context)) ?
+            return mapUpdater.compareAndSet(owner, this, newSevenOrMoreContextMap(context)) ?
                     value : owner.computeIfAbsent(key, computeFunction);
         }
 
@@ -2900,6 +2912,450 @@ final class CopyOnWriteContextMap implements ContextMap {
         }
     }
 
+    private static final class TrieContextMap implements CopyContextMap {
+        private static final Object NOT_FOUND = new Object();
+        private static final int BITS_PER_LEVEL = 5;
+        private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+
+        private final TrieNode root;
+        private final int size;
+
+        private TrieContextMap(final TrieNode root, final int size) {
+            assert size >= TRIE_THRESHOLD;
+            this.root = root;
+            this.size = size;
+        }
+
+        static TrieContextMap fromPairs(final Object[] pairs, final int length) {
+            TrieNode root = BitmapNode.EMPTY;
+            for (int i = 0; i < length; i += 2) {
+                final Key<?> key = (Key<?>) pairs[i];
+                root = root.put(key, pairs[i + 1], key.hashCode(), 0);
+            }
+            return new TrieContextMap(root, length >>> 1);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public boolean containsKey(final Key<?> key) {
+            return root.find(key, key.hashCode(), 0) != NOT_FOUND;
+        }
+
+        @Override
+        public boolean containsValue(@Nullable final Object value) {
+            return root.forEach((k, v) -> !Objects.equals(value, v)) != null;
+        }
+
+        @Override
+        public <T> boolean contains(final Key<T> key, @Nullable final T value) {
+            final Object current = root.find(key, key.hashCode(), 0);
+            return current != NOT_FOUND && Objects.equals(value, current);
+        }
+
+        @Nullable
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(final Key<T> key) {
+            final Object value = root.find(key, key.hashCode(), 0);
+            return value == NOT_FOUND ? null : (T) value;
+        }
+
+        @Nullable
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T getOrDefault(final Key<T> key, final T defaultValue) {
+            final Object value = root.find(key, key.hashCode(), 0);
+            return value == NOT_FOUND ? defaultValue : (T) value;
+        }
+
+        @Nullable
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T put(final Key<T> key, @Nullable final T value, final CopyOnWriteContextMap owner,
+                     final AtomicReferenceFieldUpdater<CopyOnWriteContextMap, CopyContextMap> mapUpdater) {
+            final int hash = key.hashCode();
+            final Object current = root.find(key, hash, 0);
+            if (current == NOT_FOUND) {
+                return mapUpdater.compareAndSet(owner, this,
+                        new TrieContextMap(root.put(key, value, hash, 0), size + 1)) ? null : owner.put(key, value);
+            }
+            return mapUpdater.compareAndSet(owner, this, new TrieContextMap(root.put(key, value, hash, 0), size)) ?
+                    (T) current : owner.put(key, value);
+        }
+
+        @Nullable
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T putIfAbsent(final Key<T> key, @Nullable final T value, final CopyOnWriteContextMap owner,
+                     final AtomicReferenceFieldUpdater<CopyOnWriteContextMap, CopyContextMap> mapUpdater) {
+            final int hash = key.hashCode();
+            final Object current = root.find(key, hash, 0);
+            if (current != NOT_FOUND && current != null) {
+                return (T) current;
+            }
+            final TrieContextMap newMap = new TrieContextMap(root.put(key, value, hash, 0),
+                    current == NOT_FOUND ? size + 1 : size);
+            return mapUpdater.compareAndSet(owner, this, newMap) ? null : owner.putIfAbsent(key, value);
+        }
+
+        @Nullable
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T computeIfAbsent(final Key<T> key, final Function<Key<T>, T> computeFunction,
+                     final CopyOnWriteContextMap owner,
+                     final AtomicReferenceFieldUpdater<CopyOnWriteContextMap, CopyContextMap> mapUpdater) {
+            final int hash = key.hashCode();
+            final Object current = root.find(key, hash, 0);
+            if (current != NOT_FOUND && current != null) {
+                return (T) current;
+            }
+            final T value = computeFunction.apply(key);
+            final TrieContextMap newMap = new TrieContextMap(root.put(key, value, hash, 0),
+                    current == NOT_FOUND ? size + 1 : size);
+            return mapUpdater.compareAndSet(owner, this, newMap) ? value : owner.computeIfAbsent(key, computeFunction);
+        }
+
+        @Override
+        public CopyContextMap putAll(final int mapSize, final Consumer<PutAllBuilder> forEach) {
+            final PutAllBuilder builder = new PutAllBuilder(size + mapSize);
+            root.forEach(builder);
+            forEach.accept(builder);
+            return builder.build();
+        }
+
+        @Nullable
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T remove(final Key<T> key, final CopyOnWriteContextMap owner,
+                        final AtomicReferenceFieldUpdater<CopyOnWriteContextMap, CopyContextMap> mapUpdater) {
+            final int hash = key.hashCode();
+            final Object current = root.find(key, hash, 0);
+            if (current == NOT_FOUND) {
+                return null;
+            }
+            return mapUpdater.compareAndSet(owner, this, newMap(root.remove(key, hash, 0), size - 1)) ?
+                    (T) current : owner.remove(key);
+        }
+
+        @Override
+        public boolean removeAll(final Iterable<Key<?>> keys, final CopyOnWriteContextMap owner,
+                     final AtomicReferenceFieldUpdater<CopyOnWriteContextMap, CopyContextMap> mapUpdater) {
+            TrieNode newRoot = root;
+            int newSize = size;
+            for (Key<?> key : keys) {
+                final int hash = key.hashCode();
+                if (newRoot.find(key, hash, 0) != NOT_FOUND) {
+                    newRoot = newRoot.remove(key, hash, 0);
+                    --newSize;
+                }
+            }
+            if (newSize == size) {
+                return false;
+            }
+            return mapUpdater.compareAndSet(owner, this, newMap(newRoot, newSize)) || owner.removeAll(keys);
+        }
+
+        private static CopyContextMap newMap(final TrieNode root, final int size) {
+            if (size >= TRIE_THRESHOLD) {
+                return new TrieContextMap(root, size);
+            }
+            if (size == 0) {
+                return EmptyContextMap.INSTANCE;
+            }
+            final PutAllBuilder builder = new PutAllBuilder(size);
+            root.forEach(builder);
+            return builder.build();
+        }
+
+        @Nullable
+        @Override
+        public Key<?> forEach(final BiPredicate<Key<?>, Object> consumer) {
+            return root.forEach(consumer);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final TrieContextMap that = (TrieContextMap) o;
+            return size == that.size &&
+                    root.forEach((k, v) -> Objects.equals(v, that.root.find(k, k.hashCode(), 0))) == null;
+        }
+
+        @Override
+        public int hashCode() {
+            // Independent of the order of the entries, which depends on the hash codes of the keys.
+            final int[] hashCode = new int[1];
+            root.forEach((k, v) -> {
+                hashCode[0] += k.hashCode() ^ Objects.hashCode(v);
+                return true;
+            });
+            return hashCode[0];
+        }
+
+        private interface TrieNode {
+            /**
+             * Find the value of a key.
+             *
+             * @return the value of {@code key}, or {@link #NOT_FOUND}.
+             */
+            @Nullable
+            Object find(Key<?> key, int hash, int shift);
+
+            /**
+             * Add a key, or replace its value.
+             *
+             * @return a new node with the entry.
+             */
+            TrieNode put(Key<?> key, @Nullable Object value, int hash, int shift);
+
+            /**
+             * Remove a key, which must be present.
+             *
+             * @return a new node without the entry.
+             */
+            TrieNode remove(Key<?> key, int hash, int shift);
+
+            /**
+             * Get the key of a node with a single entry.
+             *
+             * @return the key if the node has a single entry, {@code null} otherwise.
+             */
+            @Nullable
+            Key<?> singleKey();
+
+            @Nullable
+            Object singleValue();
+
+            @Nullable
+            Key<?> forEach(BiPredicate<Key<?>, Object> consumer);
+        }
+
+        /**
+         * Node with up to 32 slots indexed by {@link #BITS_PER_LEVEL} bits of the hash, of which only the used ones
+         * are allocated. Each slot either holds a key and its value, or {@code null} and a child node.
+         */
+        private static final class BitmapNode implements TrieNode {
+            static final TrieNode EMPTY = new BitmapNode(0, new Object[0]);
+
+            private final int bitmap;
+            private final Object[] array;
+
+            BitmapNode(final int bitmap, final Object[] array) {
+                this.bitmap = bitmap;
+                this.array = array;
+            }
+
+            private int index(final int bit) {
+                return Integer.bitCount(bitmap & (bit - 1)) << 1;
+            }
+
+            @Nullable
+            @Override
+            public Object find(final Key<?> key, final int hash, final int shift) {
+                final int bit = 1 << ((hash >>> shift) & LEVEL_MASK);
+                if ((bitmap & bit) == 0) {
+                    return NOT_FOUND;
+                }
+                final int i = index(bit);
+                final Object slotKey = array[i];
+                if (slotKey == null) {
+                    return ((TrieNode) array[i + 1]).find(key, hash, shift + BITS_PER_LEVEL);
+                }
+                return key.equals(slotKey) ? array[i + 1] : NOT_FOUND;
+            }
+
+            @Override
+            public TrieNode put(final Key<?> key, @Nullable final Object value, final int hash, final int shift) {
+                final int bit = 1 << ((hash >>> shift) & LEVEL_MASK);
+                final int i = index(bit);
+                if ((bitmap & bit) == 0) {
+                    final Object[] newArray = new Object[array.length + 2];
+                    arraycopy(array, 0, newArray, 0, i);
+                    newArray[i] = key;
+                    newArray[i + 1] = value;
+                    arraycopy(array, i, newArray, i + 2, array.length - i);
+                    return new BitmapNode(bitmap | bit, newArray);
+                }
+                final Object slotKey = array[i];
+                final Object[] newArray = array.clone();
+                if (slotKey == null) {
+                    newArray[i + 1] = ((TrieNode) array[i + 1]).put(key, value, hash, shift + BITS_PER_LEVEL);
+                } else if (key.equals(slotKey)) {
+                    newArray[i + 1] = value;
+                } else {
+                    newArray[i] = null;
+                    newArray[i + 1] = newNode((Key<?>) slotKey, array[i + 1], slotKey.hashCode(), key, value, hash,
+                            shift + BITS_PER_LEVEL);
+                }
+                return new BitmapNode(bitmap, newArray);
+            }
+
+            private static TrieNode newNode(final Key<?> key1, @Nullable final Object value1, final int hash1,
+                                            final Key<?> key2, @Nullable final Object value2, final int hash2,
+                                            final int shift) {
+                if (shift >= Integer.SIZE) {
+                    // All bits of the hashes are equal.
+                    return new CollisionNode(new Object[] {key1, value1, key2, value2});
+                }
+                final int bit1 = 1 << ((hash1 >>> shift) & LEVEL_MASK);
+                final int bit2 = 1 << ((hash2 >>> shift) & LEVEL_MASK);
+                if (bit1 == bit2) {
+                    return new BitmapNode(bit1, new Object[] {null,
+                            newNode(key1, value1, hash1, key2, value2, hash2, shift + BITS_PER_LEVEL)});
+                }
+                return new BitmapNode(bit1 | bit2, Integer.compareUnsigned(bit1, bit2) < 0 ?
+                        new Object[] {key1, value1, key2, value2} : new Object[] {key2, value2, key1, value1});
+            }
+
+            @Override
+            public TrieNode remove(final Key<?> key, final int hash, final int shift) {
+                final int bit = 1 << ((hash >>> shift) & LEVEL_MASK);
+                assert (bitmap & bit) != 0;
+                final int i = index(bit);
+                if (array[i] != null) {
+                    assert key.equals(array[i]);
+                    final Object[] newArray = new Object[array.length - 2];
+                    arraycopy(array, 0, newArray, 0, i);
+                    arraycopy(array, i + 2, newArray, i, array.length - i - 2);
+                    return new BitmapNode(bitmap ^ bit, newArray);
+                }
+                final TrieNode child = ((TrieNode) array[i + 1]).remove(key, hash, shift + BITS_PER_LEVEL);
+                final Object[] newArray = array.clone();
+                final Key<?> singleKey = child.singleKey();
+                if (singleKey != null) {
+                    // Keep the invariant that a child node has at least 2 entries.
+                    newArray[i] = singleKey;
+                    newArray[i + 1] = child.singleValue();
+                } else {
+                    newArray[i + 1] = child;
+                }
+                return new BitmapNode(bitmap, newArray);
+            }
+
+            @Nullable
+            @Override
+            public Key<?> singleKey() {
+                return array.length == 2 ? (Key<?>) array[0] : null;
+            }
+
+            @Nullable
+            @Override
+            public Object singleValue() {
+                return array[1];
+            }
+
+            @Nullable
+            @Override
+            public Key<?> forEach(final BiPredicate<Key<?>, Object> consumer) {
+                for (int i = 0; i < array.length; i += 2) {
+                    final Key<?> key = (Key<?>) array[i];
+                    if (key == null) {
+                        final Key<?> stoppedKey = ((TrieNode) array[i + 1]).forEach(consumer);
+                        if (stoppedKey != null) {
+                            return stoppedKey;
+                        }
+                    } else if (!consumer.test(key, array[i + 1])) {
+                        return key;
+                    }
+                }
+                return null;
+            }
+        }
+
+        /**
+         * Node for keys with equal hash codes.
+         */
+        private static final class CollisionNode implements TrieNode {
+            /**
+             * Array of <[i] = key, [i+1] = value> pairs.
+             */
+            private final Object[] context;
+
+            CollisionNode(final Object[] context) {
+                this.context = context;
+            }
+
+            private int findIndex(final Key<?> key) {
+                for (int i = 0; i < context.length; i += 2) {
+                    if (key.equals(context[i])) {
+                        return i;
+                    }
+                }
+                return -1;
+            }
+
+            @Nullable
+            @Override
+            public Object find(final Key<?> key, final int hash, final int shift) {
+                final int i = findIndex(key);
+                return i < 0 ? NOT_FOUND : context[i + 1];
+            }
+
+            @Override
+            public TrieNode put(final Key<?> key, @Nullable final Object value, final int hash, final int shift) {
+                final int i = findIndex(key);
+                final Object[] context;
+                if (i < 0) {
+                    context = Arrays.copyOf(this.context, this.context.length + 2);
+                    context[this.context.length] = key;
+                    context[this.context.length + 1] = value;
+                } else {
+                    context = this.context.clone();
+                    context[i + 1] = value;
+                }
+                return new CollisionNode(context);
+            }
+
+            @Override
+            public TrieNode remove(final Key<?> key, final int hash, final int shift) {
+                final int i = findIndex(key);
+                assert i >= 0;
+                final Object[] context = new Object[this.context.length - 2];
+                arraycopy(this.context, 0, context, 0, i);
+                arraycopy(this.context, i + 2, context, i, this.context.length - i - 2);
+                return new CollisionNode(context);
+            }
+
+            @Nullable
+            @Override
+            public Key<?> singleKey() {
+                return context.length == 2 ? (Key<?>) context[0] : null;
+            }
+
+            @Nullable
+            @Override
+            public Object singleValue() {
+                return context[1];
+            }
+
+            @Nullable
+            @Override
+            public Key<?> forEach(final BiPredicate<Key<?>, Object> consumer) {
+                for (int i = 0; i < context.length; i += 2) {
+                    final Key<?> key = (Key<?>) context[i];
+                    if (!consumer.test(key, context[i + 1])) {
+                        return key;
+                    }
+                }
+                return null;
+            }
+        }
+    }
+
     private static final class PutAllBuilder implements BiConsumer<Key<?>, Object>, BiPredicate<Key<?>, Object> {
         private final Object[] pairs;
         private int index;
@@ -2966,6 +3422,9 @@ final class CopyOnWriteContextMap implements ContextMap {
                                 ", (expected an even number from 2 to 12");
                 }
             }
+            if (index >= TRIE_THRESHOLD << 1) {
+                return TrieContextMap.fromPairs(pairs, index);
+            }
             if (index == pairs.length) {
                 return new SevenOrMoreContextMap(pairs);
             }
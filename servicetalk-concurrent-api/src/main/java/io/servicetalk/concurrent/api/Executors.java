@@ -100,6 +100,79 @@ public final class Executors {
         return EXECUTOR_PLUGINS.wrapExecutor(new DefaultExecutor(1, Integer.MAX_VALUE, threadFactory));
     }
 
+    /**
+     * Creates a new {@link Executor} with one thread per available processor, each with its own bounded queue of
+     * tasks, which steal tasks from each other when idle.
+     * <p>
+     * Tasks submitted from the same thread, e.g. an IO thread, are preferably executed by the same thread of the
+     * returned {@link Executor}. {@link Executor#schedule(Runnable, long, TimeUnit) Scheduled} tasks are kept in a
+     * global hashed wheel timer, with a precision of ten milliseconds, and offloaded to the returned {@link Executor}
+     * when they expire.
+     *
+     * @return A new {@link Executor}.
+     */
+    public static Executor newWorkStealingExecutor() {
+        return newWorkStealingExecutor(Runtime.getRuntime().availableProcessors(), 4096, new DefaultThreadFactory());
+    }
+
+    /**
+     * Creates a new {@link Executor} with a fixed number of threads, each with its own bounded queue of tasks, which
+     * steal tasks from each other when idle.
+     * <p>
+     * Tasks submitted from the same thread, e.g. an IO thread, are preferably executed by the same thread of the
+     * returned {@link Executor}. {@link Executor#execute(Runnable)} throws a
+     * {@link java.util.concurrent.RejectedExecutionException} if all queues are full.
+     * {@link Executor#schedule(Runnable, long, TimeUnit) Scheduled} tasks are kept in a global hashed wheel timer, with
+     * a precision of ten milliseconds, and offloaded to the returned {@link Executor} when they expire.
+     *
+     * @param parallelism Number of threads used by the newly created {@link Executor}.
+     * @param maxQueueSize Maximum number of queued tasks per thread.
+     * @param threadFactory {@link ThreadFactory} to use.
+     * @return A new {@link Executor}.
+     */
+    public static Executor newWorkStealingExecutor(int parallelism, int maxQueueSize, ThreadFactory threadFactory) {
+        return EXECUTOR_PLUGINS.wrapExecutor(new WorkStealingExecutor(parallelism, maxQueueSize, threadFactory,
+                HashedWheelTimer.GLOBAL_TIMER));
+    }
+
+    /**
+     * Returns an {@link Executor} which keeps {@link Executor#schedule(Runnable, long, TimeUnit) scheduled} tasks,
+     * e.g. timeouts, in a global hashed wheel timer and offloads them to the passed {@code executor} when they expire.
+     * All other calls, including {@link Executor#currentTime(TimeUnit)} and closing, are delegated to {@code executor}.
+     * <p>
+     * Scheduling and cancelling a task on the hashed wheel timer is {@code O(1)}, which scales better than the
+     * {@link ScheduledExecutorService}s used by default when many timeouts are scheduled and cancelled before they
+     * expire, at the cost of a precision of ten milliseconds.
+     *
+     * @param executor {@link Executor} to run expired tasks and to delegate all other calls to.
+     * @return An {@link Executor} which schedules tasks on a global hashed wheel timer.
+     */
+    public static Executor withHashedWheelTimer(Executor executor) {
+        return executor == GLOBAL_EXECUTOR ? HashedWheelTimerExecutor.GLOBAL_WHEEL_TIMER_EXECUTOR :
+                new HashedWheelTimerExecutor(executor, HashedWheelTimer.GLOBAL_TIMER);
+    }
+
+    /**
+     * Creates a new {@link Executor} which starts a new virtual thread for each task.
+     * <p>
+     * Virtual threads are cheap to create and to block, so this {@link Executor} is suited to run blocking code, e.g.
+     * blocking HTTP handlers, with one thread per request, without the cost of as many platform threads. Tasks which
+     * block while holding a monitor pin the carrier thread though, prefer {@link java.util.concurrent.locks.Lock}s in
+     * such tasks. Cancelling a task which is running interrupts its thread.
+     * {@link Executor#schedule(Runnable, long, TimeUnit) Scheduled} tasks are offloaded to a new virtual thread when
+     * they expire.
+     * <p>
+     * Virtual threads are looked up reflectively, and are only available on JDK 21 or later (or earlier JDKs with
+     * preview features enabled).
+     *
+     * @return A new {@link Executor}.
+     * @throws UnsupportedOperationException if the JVM does not support virtual threads.
+     */
+    public static Executor newVirtualThreadExecutor() {
+        return EXECUTOR_PLUGINS.wrapExecutor(new DefaultExecutor(VirtualThreads.newVirtualThreadPerTaskExecutor(),
+                true));
+    }
+
     /**
      * Creates a new {@link Executor} from the provided {@code jdkExecutor}. <p>
      * Delayed task execution will be delegated to a global scheduler, unless passed
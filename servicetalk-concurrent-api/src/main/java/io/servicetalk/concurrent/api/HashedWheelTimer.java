@@ -0,0 +1,373 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import io.servicetalk.concurrent.Cancellable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import javax.annotation.Nullable;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Thread.NORM_PRIORITY;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.concurrent.atomic.AtomicIntegerFieldUpdater.newUpdater;
+
+/**
+ * A timer which keeps scheduled tasks in <a href="https://doi.org/10.1145/41457.37504">hashed timing wheels</a>, so
+ * that scheduling and cancelling a task, which is the common case for timeouts, is {@code O(1)}.
+ * <p>
+ * The timer is split into shards, each with its own wheel and thread, and a task is scheduled on the shard picked by
+ * the scheduling thread, to avoid contention between threads which schedule many tasks. Tasks are executed on the
+ * shard thread, when the tick in which they expire is processed, and hence must not block. Shard threads don't wake
+ * up on every tick, they park until the end of the next tick which has a task to expire, and for as long as they
+ * have no scheduled task.
+ */
+final class HashedWheelTimer implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    /**
+     * A shared instance with daemon threads, which lives as long as the JVM.
+     */
+    static final HashedWheelTimer GLOBAL_TIMER = new HashedWheelTimer(
+            new DefaultThreadFactory("servicetalk-global-timer", true, NORM_PRIORITY), 10, MILLISECONDS, 512,
+            min(4, Runtime.getRuntime().availableProcessors()));
+
+    private final Shard[] shards;
+
+    /**
+     * Create a new instance.
+     *
+     * @param threadFactory creates one thread per shard.
+     * @param tickDuration the duration of a tick, which is the precision of the timer.
+     * @param unit the unit of {@code tickDuration}.
+     * @param ticksPerWheel the number of buckets in each wheel, rounded up to a power of two.
+     * @param shards the number of shards.
+     */
+    HashedWheelTimer(final ThreadFactory threadFactory, final long tickDuration, final TimeUnit unit,
+                     final int ticksPerWheel, final int shards) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration: " + tickDuration + " (expected >0)");
+        }
+        if (ticksPerWheel <= 0 || ticksPerWheel > 1 << 30) {
+            throw new IllegalArgumentException("ticksPerWheel: " + ticksPerWheel + " (expected >0 and <=2^30)");
+        }
+        if (shards <= 0) {
+            throw new IllegalArgumentException("shards: " + shards + " (expected >0)");
+        }
+        final int wheelSize = Integer.highestOneBit(ticksPerWheel - 1) << 1;
+        this.shards = new Shard[shards];
+        for (int i = 0; i < shards; ++i) {
+            this.shards[i] = new Shard(threadFactory, unit.toNanos(tickDuration), max(1, wheelSize));
+        }
+    }
+
+    /**
+     * Schedule a task to run after a delay on a thread of this timer.
+     *
+     * @param task the task to run, must not block.
+     * @param delay the delay after which the task runs.
+     * @param unit the unit of {@code delay}.
+     * @return a {@link Cancellable} which prevents the task from running if it has not started yet.
+     * @throws RejectedExecutionException if this timer is closed.
+     */
+    Cancellable schedule(final Runnable task, final long delay, final TimeUnit unit) {
+        final Shard shard = shards.length == 1 ? shards[0] :
+                shards[(int) ((Thread.currentThread().getId() & Long.MAX_VALUE) % shards.length)];
+        return shard.schedule(task, unit.toNanos(delay));
+    }
+
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            shard.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return HashedWheelTimer.class.getSimpleName() + "{shards=" + shards.length + '}';
+    }
+
+    private static final class Shard implements Runnable {
+        /**
+         * Upper bound of a park while tasks are scheduled, so that tasks which are scheduled for a later bucket or
+         * cancelled while the thread is parked don't pile up in the queues.
+         */
+        private static final long MAX_PARK_NANOS = SECONDS.toNanos(1);
+        /**
+         * Value of {@link #wakeupNanos} while the thread is processing the queues and the wheel.
+         */
+        private static final long AWAKE = -1;
+
+        private final long tickNanos;
+        private final long startNanos;
+        private final Bucket[] wheel;
+        private final int mask;
+        private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+        private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+        private final Thread thread;
+        /**
+         * The next tick to process, only accessed from {@link #thread}.
+         */
+        private long tick;
+        /**
+         * Only accessed from {@link #thread}.
+         */
+        private int timeouts;
+        /**
+         * Time relative to {@link #startNanos} until which the thread is parked, {@link #AWAKE} while it runs. A task
+         * which expires earlier has to wake the thread up.
+         */
+        private volatile long wakeupNanos = AWAKE;
+        private volatile boolean closed;
+
+        Shard(final ThreadFactory threadFactory, final long tickNanos, final int wheelSize) {
+            this.tickNanos = tickNanos;
+            this.startNanos = System.nanoTime();
+            wheel = new Bucket[wheelSize];
+            for (int i = 0; i < wheelSize; ++i) {
+                wheel[i] = new Bucket();
+            }
+            mask = wheelSize - 1;
+            thread = threadFactory.newThread(this);
+            thread.start();
+        }
+
+        Cancellable schedule(final Runnable task, final long delayNanos) {
+            if (closed) {
+                throw new RejectedExecutionException("Timer closed");
+            }
+            final long nowNanos = elapsedNanos();
+            final Timeout timeout = new Timeout(this, task,
+                    delayNanos >= Long.MAX_VALUE - nowNanos ? Long.MAX_VALUE : nowNanos + max(0, delayNanos));
+            pending.add(timeout);
+            if (timeout.deadlineNanos < wakeupNanos) {
+                LockSupport.unpark(thread);
+            }
+            return timeout;
+        }
+
+        void close() {
+            closed = true;
+            LockSupport.unpark(thread);
+        }
+
+        private long elapsedNanos() {
+            return System.nanoTime() - startNanos;
+        }
+
+        @Override
+        public void run() {
+            while (!closed) {
+                removeCancelled();
+                transferPending();
+                expire(elapsedNanos());
+                if (timeouts == 0) {
+                    // Tasks cancelled before they were transferred to the wheel.
+                    cancelled.clear();
+                }
+                final long wakeup = timeouts == 0 ? Long.MAX_VALUE : min(nextExpiryNanos(),
+                        elapsedNanos() + MAX_PARK_NANOS);
+                // Publish the wakeup time before checking the queue, a concurrent schedule either sees it and wakes
+                // this thread up if needed, or its task is seen here.
+                wakeupNanos = wakeup;
+                if (pending.isEmpty() && !closed) {
+                    if (wakeup == Long.MAX_VALUE) {
+                        LockSupport.park(this);
+                    } else {
+                        final long parkNanos = wakeup - elapsedNanos();
+                        if (parkNanos > 0) {
+                            LockSupport.parkNanos(this, parkNanos);
+                        }
+                    }
+                }
+                wakeupNanos = AWAKE;
+            }
+        }
+
+        /**
+         * Expires the tasks of all buckets up to the current tick, which are due. The bucket of the current tick is
+         * processed again next time, as it may hold tasks which expire later within the tick.
+         */
+        private void expire(final long nowNanos) {
+            final long nowTick = nowNanos / tickNanos;
+            // After a long park every bucket may hold due tasks, but each bucket only has to be processed once.
+            final long first = max(tick, nowTick - mask);
+            for (long t = first; t <= nowTick; ++t) {
+                wheel[(int) (t & mask)].expire(nowNanos);
+            }
+            tick = max(tick, nowTick);
+        }
+
+        /**
+         * Returns the end of the first tick whose bucket has a task which expires within this rotation of the wheel,
+         * or the end of the rotation if there is none.
+         */
+        private long nextExpiryNanos() {
+            for (long t = tick; t < tick + wheel.length; ++t) {
+                final long endNanos = (t + 1) * tickNanos;
+                if (wheel[(int) (t & mask)].hasExpiryBefore(endNanos)) {
+                    return endNanos;
+                }
+            }
+            return (tick + wheel.length) * tickNanos;
+        }
+
+        private void removeCancelled() {
+            Timeout timeout;
+            while ((timeout = cancelled.poll()) != null) {
+                if (timeout.bucket != null) {
+                    timeout.bucket.remove(timeout);
+                    --timeouts;
+                }
+            }
+        }
+
+        private void transferPending() {
+            // Bound the work per wakeup, tasks may be scheduled faster than they are transferred.
+            for (int i = 0; i < 100_000; ++i) {
+                final Timeout timeout = pending.poll();
+                if (timeout == null) {
+                    break;
+                }
+                if (timeout.state == Timeout.CANCELLED) {
+                    continue;
+                }
+                wheel[(int) (max(timeout.deadlineNanos / tickNanos, tick) & mask)].add(timeout);
+                ++timeouts;
+            }
+        }
+
+        private final class Bucket {
+            @Nullable
+            private Timeout head;
+            @Nullable
+            private Timeout tail;
+            /**
+             * A lower bound of the deadlines of the tasks in this bucket, exact after {@link #expire(long)}.
+             */
+            private long minDeadlineNanos = Long.MAX_VALUE;
+
+            void add(final Timeout timeout) {
+                timeout.bucket = this;
+                minDeadlineNanos = min(minDeadlineNanos, timeout.deadlineNanos);
+                if (tail == null) {
+                    head = tail = timeout;
+                } else {
+                    tail.next = timeout;
+                    timeout.prev = tail;
+                    tail = timeout;
+                }
+            }
+
+            void expire(final long nowNanos) {
+                if (minDeadlineNanos > nowNanos) {
+                    return;
+                }
+                long minDeadline = Long.MAX_VALUE;
+                Timeout timeout = head;
+                while (timeout != null) {
+                    final Timeout next = timeout.next;
+                    // Tasks of later rotations of the wheel share the bucket, and cancelled tasks are removed from the
+                    // cancelled queue.
+                    if (timeout.state != Timeout.CANCELLED) {
+                        if (timeout.deadlineNanos <= nowNanos) {
+                            remove(timeout);
+                            --timeouts;
+                            timeout.expire();
+                        } else {
+                            minDeadline = min(minDeadline, timeout.deadlineNanos);
+                        }
+                    }
+                    timeout = next;
+                }
+                minDeadlineNanos = minDeadline;
+            }
+
+            boolean hasExpiryBefore(final long endNanos) {
+                return minDeadlineNanos < endNanos;
+            }
+
+            void remove(final Timeout timeout) {
+                if (timeout.prev == null) {
+                    head = timeout.next;
+                } else {
+                    timeout.prev.next = timeout.next;
+                }
+                if (timeout.next == null) {
+                    tail = timeout.prev;
+                } else {
+                    timeout.next.prev = timeout.prev;
+                }
+                timeout.prev = timeout.next = null;
+                timeout.bucket = null;
+            }
+        }
+    }
+
+    private static final class Timeout implements Cancellable {
+        private static final AtomicIntegerFieldUpdater<Timeout> stateUpdater = newUpdater(Timeout.class, "state");
+        static final int SCHEDULED = 0;
+        static final int CANCELLED = 1;
+        static final int EXPIRED = 2;
+
+        private final Shard shard;
+        private final Runnable task;
+        final long deadlineNanos;
+        volatile int state;
+        @Nullable
+        Timeout prev;
+        @Nullable
+        Timeout next;
+        @Nullable
+        Shard.Bucket bucket;
+
+        Timeout(final Shard shard, final Runnable task, final long deadlineNanos) {
+            this.shard = shard;
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public void cancel() {
+            if (stateUpdater.compareAndSet(this, SCHEDULED, CANCELLED)) {
+                shard.cancelled.add(this);
+            }
+        }
+
+        void expire() {
+            if (stateUpdater.compareAndSet(this, SCHEDULED, EXPIRED)) {
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    LOGGER.error("Scheduled task {} threw an exception on the timer thread.", task, t);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import io.servicetalk.concurrent.Cancellable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static io.servicetalk.concurrent.api.GlobalExecutor.GLOBAL_EXECUTOR;
+import static io.servicetalk.concurrent.api.HashedWheelTimer.GLOBAL_TIMER;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * An {@link Executor} which keeps {@link #schedule(Runnable, long, TimeUnit) scheduled} tasks in a
+ * {@link HashedWheelTimer} and offloads them to its delegate when they expire. All other calls are delegated.
+ */
+final class HashedWheelTimerExecutor extends DelegatingExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HashedWheelTimerExecutor.class);
+
+    /**
+     * The {@link GlobalExecutor#GLOBAL_EXECUTOR global executor} with tasks scheduled on the
+     * {@link HashedWheelTimer#GLOBAL_TIMER global timer}.
+     */
+    static final Executor GLOBAL_WHEEL_TIMER_EXECUTOR = new HashedWheelTimerExecutor(GLOBAL_EXECUTOR, GLOBAL_TIMER);
+
+    private final HashedWheelTimer timer;
+
+    HashedWheelTimerExecutor(final Executor delegate, final HashedWheelTimer timer) {
+        super(delegate);
+        this.timer = timer;
+    }
+
+    @Override
+    public Cancellable schedule(final Runnable task, final long delay, final TimeUnit unit)
+            throws RejectedExecutionException {
+        final Executor delegate = delegate();
+        return timer.schedule(() -> {
+            try {
+                delegate.execute(task);
+            } catch (RejectedExecutionException e) {
+                LOGGER.error("Executor {} rejected a scheduled task: {}. Fallback to executing the task on the " +
+                        "current timer thread: {}", delegate, task, Thread.currentThread().getName(), e);
+                task.run();
+            }
+        }, delay, unit);
+    }
+
+    @Override
+    public Cancellable schedule(final Runnable task, final Duration delay) throws RejectedExecutionException {
+        return schedule(task, delay.toNanos(), NANOSECONDS);
+    }
+
+    @Override
+    public Completable timer(final long delay, final TimeUnit unit) {
+        return new TimerCompletable(delay, unit, this);
+    }
+
+    @Override
+    public Completable timer(final Duration delay) {
+        return new TimerCompletable(delay, this);
+    }
+
+    @Override
+    public String toString() {
+        return HashedWheelTimerExecutor.class.getSimpleName() + "{delegate=" + delegate() + ", timer=" + timer + '}';
+    }
+}
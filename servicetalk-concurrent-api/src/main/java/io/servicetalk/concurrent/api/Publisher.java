@@ -53,8 +53,8 @@ import javax.annotation.Nullable;
 
 import static io.servicetalk.concurrent.api.Completable.completed;
 import static io.servicetalk.concurrent.api.EmptyPublisher.emptyPublisher;
-import static io.servicetalk.concurrent.api.Executors.global;
 import static io.servicetalk.concurrent.api.FilterPublisher.newDistinctSupplier;
+import static io.servicetalk.concurrent.api.HashedWheelTimerExecutor.GLOBAL_WHEEL_TIMER_EXECUTOR;
 import static io.servicetalk.concurrent.api.NeverPublisher.neverPublisher;
 import static io.servicetalk.concurrent.api.PublisherDoOnUtils.doOnCancelSupplier;
 import static io.servicetalk.concurrent.api.PublisherDoOnUtils.doOnCompleteSupplier;
@@ -1552,7 +1552,7 @@ public abstract class Publisher<T> {
      * @see #timeout(long, TimeUnit, io.servicetalk.concurrent.Executor)
      */
     public final Publisher<T> timeout(long duration, TimeUnit unit) {
-        return timeout(duration, unit, global());
+        return timeout(duration, unit, GLOBAL_WHEEL_TIMER_EXECUTOR);
     }
 
     /**
@@ -1570,7 +1570,7 @@ public abstract class Publisher<T> {
      * @see #timeout(long, TimeUnit, io.servicetalk.concurrent.Executor)
      */
     public final Publisher<T> timeout(Duration duration) {
-        return timeout(duration, global());
+        return timeout(duration, GLOBAL_WHEEL_TIMER_EXECUTOR);
     }
 
     /**
@@ -1627,7 +1627,7 @@ public abstract class Publisher<T> {
      * @see <a href="http://reactivex.io/documentation/operators/timeout.html">ReactiveX timeout operator.</a>
      */
     public final Publisher<T> timeoutTerminal(Duration duration) {
-        return timeoutTerminal(duration, global());
+        return timeoutTerminal(duration, GLOBAL_WHEEL_TIMER_EXECUTOR);
     }
 
     /**
@@ -1664,7 +1664,7 @@ public abstract class Publisher<T> {
      * @see <a href="http://reactivex.io/documentation/operators/timeout.html">ReactiveX timeout operator.</a>
      */
     public final Publisher<T> timeoutTerminal(long duration, TimeUnit unit) {
-        return timeoutTerminal(duration, unit, global());
+        return timeoutTerminal(duration, unit, GLOBAL_WHEEL_TIMER_EXECUTOR);
     }
 
     /**
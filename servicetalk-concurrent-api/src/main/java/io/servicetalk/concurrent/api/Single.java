@@ -42,7 +42,7 @@ import java.util.function.Predicate;
 import java.util.function.Supplier;
 import javax.annotation.Nullable;
 
-import static io.servicetalk.concurrent.api.Executors.global;
+import static io.servicetalk.concurrent.api.HashedWheelTimerExecutor.GLOBAL_WHEEL_TIMER_EXECUTOR;
 import static io.servicetalk.concurrent.api.NeverSingle.neverSingle;
 import static io.servicetalk.concurrent.api.Publisher.from;
 import static io.servicetalk.concurrent.api.Publisher.fromIterable;
@@ -620,7 +620,7 @@ public abstract class Single<T> {
      * @see <a href="http://reactivex.io/documentation/operators/timeout.html">ReactiveX timeout operator.</a>
      */
     public final Single<T> timeout(long duration, TimeUnit unit) {
-        return timeout(duration, unit, global());
+        return timeout(duration, unit, GLOBAL_WHEEL_TIMER_EXECUTOR);
     }
 
     /**
@@ -659,7 +659,7 @@ public abstract class Single<T> {
      * @see <a href="http://reactivex.io/documentation/operators/timeout.html">ReactiveX timeout operator.</a>
      */
     public final Single<T> timeout(Duration duration) {
-        return timeout(duration, global());
+        return timeout(duration, GLOBAL_WHEEL_TIMER_EXECUTOR);
     }
 
     /**
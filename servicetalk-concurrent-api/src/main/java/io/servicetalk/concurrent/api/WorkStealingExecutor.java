@@ -0,0 +1,329 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import io.servicetalk.concurrent.Cancellable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
+
+import static java.util.concurrent.atomic.AtomicIntegerFieldUpdater.newUpdater;
+
+/**
+ * An {@link Executor} with a fixed number of worker threads, each with its own bounded queue of tasks.
+ * <p>
+ * A task is queued on the worker which runs the submitting thread, or for other threads on a worker picked by the
+ * submitting thread. Hence, tasks offloaded from the same IO thread are usually executed by the same worker, which
+ * keeps its data in the same CPU caches, and workers do not contend on a single queue. Idle workers steal tasks from
+ * the queues of busy workers, so a long running task does not prevent other tasks from running. When the queue of the
+ * picked worker is full, the task is queued on the next worker with space, and rejected when all queues are full.
+ * <p>
+ * Scheduled tasks are kept in a {@link HashedWheelTimer} and offloaded to the workers when they expire.
+ */
+final class WorkStealingExecutor extends AbstractExecutor implements Consumer<Runnable> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WorkStealingExecutor.class);
+    private static final ThreadLocal<Worker> CURRENT_WORKER = new ThreadLocal<>();
+
+    private final Worker[] workers;
+    private final int maxQueueSize;
+    private final HashedWheelTimer timer;
+    private final AtomicInteger parkedWorkers = new AtomicInteger();
+    private volatile boolean closed;
+
+    WorkStealingExecutor(final int parallelism, final int maxQueueSize, final ThreadFactory threadFactory,
+                         final HashedWheelTimer timer) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism: " + parallelism + " (expected >0)");
+        }
+        if (maxQueueSize <= 0) {
+            throw new IllegalArgumentException("maxQueueSize: " + maxQueueSize + " (expected >0)");
+        }
+        this.maxQueueSize = maxQueueSize;
+        this.timer = timer;
+        workers = new Worker[parallelism];
+        for (int i = 0; i < parallelism; ++i) {
+            workers[i] = new Worker(i);
+        }
+        for (Worker worker : workers) {
+            worker.start(threadFactory);
+        }
+    }
+
+    @Override
+    public Cancellable execute(final Runnable task) {
+        if (closed) {
+            throw new RejectedExecutionException("Executor closed: " + this);
+        }
+        final Task wrapped = new Task(task);
+        final Worker home = homeWorker();
+        Worker target = home;
+        if (!home.offer(wrapped)) {
+            target = null;
+            for (int i = 1; i < workers.length; ++i) {
+                final Worker next = workers[(home.index + i) % workers.length];
+                if (next.offer(wrapped)) {
+                    target = next;
+                    break;
+                }
+            }
+            if (target == null) {
+                throw new RejectedExecutionException("All queues are full (maxQueueSize: " + maxQueueSize +
+                        ") for executor: " + this);
+            }
+        }
+        signal(target);
+        return wrapped;
+    }
+
+    @Override
+    public Cancellable schedule(final Runnable task, final long duration, final TimeUnit unit) {
+        if (closed) {
+            throw new RejectedExecutionException("Executor closed: " + this);
+        }
+        return timer.schedule(() -> {
+            try {
+                execute(task);
+            } catch (RejectedExecutionException e) {
+                LOGGER.error("Executor {} rejected a scheduled task: {}. Fallback to executing the task on the " +
+                        "current timer thread: {}", this, task, Thread.currentThread().getName(), e);
+                task.run();
+            }
+        }, duration, unit);
+    }
+
+    @Override
+    public void accept(final Runnable runnable) {
+        execute(runnable);
+    }
+
+    @Override
+    void doClose() {
+        closed = true;
+        for (Worker worker : workers) {
+            LockSupport.unpark(worker.thread);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return WorkStealingExecutor.class.getSimpleName() + "{parallelism=" + workers.length +
+                ", maxQueueSize=" + maxQueueSize + ", timer=" + timer + '}';
+    }
+
+    private Worker homeWorker() {
+        final Worker current = CURRENT_WORKER.get();
+        if (current != null && current.executor() == this) {
+            return current;
+        }
+        return workers[(int) ((Thread.currentThread().getId() & Long.MAX_VALUE) % workers.length)];
+    }
+
+    private void signal(final Worker target) {
+        if (target.parked) {
+            LockSupport.unpark(target.thread);
+        } else if (parkedWorkers.get() > 0) {
+            // The target is busy, wake up an idle worker which will steal the task if the target is still busy.
+            for (Worker worker : workers) {
+                if (worker.parked) {
+                    LockSupport.unpark(worker.thread);
+                    return;
+                }
+            }
+        }
+    }
+
+    private final class Worker implements Runnable {
+        final int index;
+        private final Queue<Task> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        @Nullable
+        private Thread thread;
+        volatile boolean parked;
+
+        Worker(final int index) {
+            this.index = index;
+        }
+
+        void start(final ThreadFactory threadFactory) {
+            thread = threadFactory.newThread(this);
+            thread.start();
+        }
+
+        WorkStealingExecutor executor() {
+            return WorkStealingExecutor.this;
+        }
+
+        boolean offer(final Task task) {
+            for (;;) {
+                final int current = size.get();
+                if (current >= maxQueueSize) {
+                    return false;
+                }
+                if (size.compareAndSet(current, current + 1)) {
+                    queue.add(task);
+                    return true;
+                }
+            }
+        }
+
+        @Nullable
+        Task poll() {
+            final Task task = queue.poll();
+            if (task != null) {
+                size.decrementAndGet();
+            }
+            return task;
+        }
+
+        @Override
+        public void run() {
+            CURRENT_WORKER.set(this);
+            try {
+                for (;;) {
+                    Task task = poll();
+                    if (task == null) {
+                        task = steal();
+                    }
+                    if (task != null) {
+                        task.run();
+                        continue;
+                    }
+                    if (closed) {
+                        return;
+                    }
+                    parked = true;
+                    parkedWorkers.incrementAndGet();
+                    try {
+                        if (!hasTasks() && !closed) {
+                            LockSupport.park(this);
+                        }
+                    } finally {
+                        parkedWorkers.decrementAndGet();
+                        parked = false;
+                    }
+                }
+            } finally {
+                CURRENT_WORKER.remove();
+            }
+        }
+
+        @Nullable
+        private Task steal() {
+            for (int i = 1; i < workers.length; ++i) {
+                final Task task = workers[(index + i) % workers.length].poll();
+                if (task != null) {
+                    return task;
+                }
+            }
+            return null;
+        }
+
+        private boolean hasTasks() {
+            for (Worker worker : workers) {
+                if (worker.size.get() > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Task implements Runnable, Cancellable {
+        private static final AtomicIntegerFieldUpdater<Task> stateUpdater = newUpdater(Task.class, "state");
+        private static final int QUEUED = 0;
+        private static final int RUNNING = 1;
+        private static final int DONE = 2;
+        private static final int CANCELLED = 3;
+        private static final int INTERRUPTING = 4;
+        private static final int INTERRUPTED = 5;
+
+        private final Runnable task;
+        @Nullable
+        private volatile Thread runner;
+        private volatile int state;
+
+        Task(final Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            runner = Thread.currentThread();
+            if (!stateUpdater.compareAndSet(this, QUEUED, RUNNING)) {
+                runner = null;
+                return;
+            }
+            try {
+                task.run();
+            } catch (Throwable t) {
+                LOGGER.error("Task {} threw an exception.", task, t);
+            } finally {
+                runner = null;
+                if (!stateUpdater.compareAndSet(this, RUNNING, DONE)) {
+                    // A cancel is interrupting this thread, wait for it and clear the interrupt so it does not leak
+                    // into the next task.
+                    while (state == INTERRUPTING) {
+                        Thread.yield();
+                    }
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            for (;;) {
+                final int state = this.state;
+                if (state == QUEUED) {
+                    if (stateUpdater.compareAndSet(this, QUEUED, CANCELLED)) {
+                        return;
+                    }
+                } else if (state == RUNNING) {
+                    if (stateUpdater.compareAndSet(this, RUNNING, INTERRUPTING)) {
+                        try {
+                            final Thread runner = this.runner;
+                            if (runner != null) {
+                                runner.interrupt();
+                            }
+                        } finally {
+                            this.state = INTERRUPTED;
+                        }
+                        return;
+                    }
+                } else {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return task.toString();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import io.servicetalk.context.api.ContextMap;
+import io.servicetalk.context.api.ContextMap.Key;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.servicetalk.concurrent.api.CopyOnWriteContextMap.TRIE_THRESHOLD;
+import static io.servicetalk.context.api.ContextMap.Key.newKey;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+class CopyOnWriteContextMapTest {
+    private static final int MAX_KEYS = TRIE_THRESHOLD * 4;
+
+    private final List<Key<Integer>> keys = new ArrayList<>();
+
+    CopyOnWriteContextMapTest() {
+        for (int i = 0; i < MAX_KEYS; ++i) {
+            keys.add(newKey("key" + i, Integer.class));
+        }
+    }
+
+    @Test
+    void putGetAndRemoveAcrossTrieThreshold() {
+        final ContextMap map = new CopyOnWriteContextMap();
+        for (int i = 0; i < MAX_KEYS; ++i) {
+            assertThat(map.put(keys.get(i), i), nullValue());
+            assertThat(map.size(), is(i + 1));
+            assertAllPresent(map, i + 1);
+        }
+        for (int i = 0; i < MAX_KEYS; ++i) {
+            assertThat(map.put(keys.get(i), -i), is(i));
+        }
+        for (int i = MAX_KEYS - 1; i >= 0; --i) {
+            assertThat(map.remove(keys.get(i)), is(-i));
+            assertThat(map.size(), is(i));
+            assertThat(map.containsKey(keys.get(i)), is(false));
+        }
+        assertThat(map.isEmpty(), is(true));
+    }
+
+    @Test
+    void putIfAbsentAndComputeIfAbsentAboveTrieThreshold() {
+        final ContextMap map = new CopyOnWriteContextMap();
+        for (int i = 0; i < TRIE_THRESHOLD; ++i) {
+            map.put(keys.get(i), i);
+        }
+        assertThat(map.putIfAbsent(keys.get(0), -1), is(0));
+        assertThat(map.putIfAbsent(keys.get(TRIE_THRESHOLD), TRIE_THRESHOLD), nullValue());
+        assertThat(map.computeIfAbsent(keys.get(1), k -> -1), is(1));
+        assertThat(map.computeIfAbsent(keys.get(TRIE_THRESHOLD + 1), k -> -1), is(-1));
+        assertThat(map.size(), is(TRIE_THRESHOLD + 2));
+    }
+
+    @Test
+    void bulkOperationsAcrossTrieThreshold() {
+        final ContextMap map = new CopyOnWriteContextMap();
+        final Map<Key<?>, Object> entries = new HashMap<>();
+        for (int i = 0; i < MAX_KEYS; ++i) {
+            entries.put(keys.get(i), i);
+        }
+        map.putAll(entries);
+        assertAllPresent(map, MAX_KEYS);
+
+        final List<Key<?>> toRemove = new ArrayList<>(keys.subList(1, MAX_KEYS));
+        assertThat(map.removeAll(toRemove), is(true));
+        assertThat(map.size(), is(1));
+        assertThat(map.get(keys.get(0)), is(0));
+        assertThat(map.removeAll(toRemove), is(false));
+    }
+
+    @Test
+    void equalsAndHashCodeAboveTrieThreshold() {
+        final ContextMap map1 = new CopyOnWriteContextMap();
+        final ContextMap map2 = new CopyOnWriteContextMap();
+        for (int i = 0; i < MAX_KEYS; ++i) {
+            map1.put(keys.get(i), i);
+            map2.put(keys.get(MAX_KEYS - 1 - i), MAX_KEYS - 1 - i);
+        }
+        assertThat(map1, equalTo(map2));
+        assertThat(map1.hashCode(), is(map2.hashCode()));
+        assertThat(map1.copy(), equalTo(map1));
+
+        map2.put(keys.get(0), null);
+        assertThat(map1.equals(map2), is(false));
+        assertThat(map2.containsKey(keys.get(0)), is(true));
+    }
+
+    private void assertAllPresent(final ContextMap map, final int count) {
+        for (int i = 0; i < count; ++i) {
+            assertThat(map.get(keys.get(i)), is(i));
+        }
+        final int[] visited = new int[1];
+        assertThat(map.forEach((k, v) -> ++visited[0] > 0), nullValue());
+        assertThat(visited[0], is(count));
+    }
+}
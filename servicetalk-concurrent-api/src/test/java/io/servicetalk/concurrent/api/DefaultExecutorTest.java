@@ -60,6 +60,7 @@ import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 final class DefaultExecutorTest {
@@ -150,6 +151,41 @@ final class DefaultExecutorTest {
             int size() {
                 return 2;
             }
+        },
+        WORK_STEALING {
+            @Override
+            boolean supportsCancellation() {
+                return true;
+            }
+
+            @Override
+            Executor get() {
+                return io.servicetalk.concurrent.api.Executors.newWorkStealingExecutor(2, 16,
+                        new DefaultThreadFactory());
+            }
+
+            @Override
+            int size() {
+                // Rejection depends on the queue size rather than the number of threads, see WorkStealingExecutorTest.
+                return UNBOUNDED;
+            }
+        },
+        VIRTUAL_THREAD {
+            @Override
+            boolean supportsCancellation() {
+                return true;
+            }
+
+            @Override
+            Executor get() {
+                assumeTrue(VirtualThreads.isSupported(), "Virtual threads are not supported by this JVM");
+                return io.servicetalk.concurrent.api.Executors.newVirtualThreadExecutor();
+            }
+
+            @Override
+            int size() {
+                return UNBOUNDED;
+            }
         };
 
         abstract boolean supportsCancellation();
@@ -161,7 +197,9 @@ final class DefaultExecutorTest {
 
     @AfterEach
     void tearDown() {
-        executor.closeAsync().subscribe();
+        if (executor != null) {
+            executor.closeAsync().subscribe();
+        }
     }
 
     @ParameterizedTest(name = "{displayName} [{index}] {arguments}")
@@ -246,6 +284,13 @@ final class DefaultExecutorTest {
         }, 1, SECONDS));
     }
 
+    @Test
+    void virtualThreadExecutorUnsupported() {
+        assumeFalse(VirtualThreads.isSupported(), "Virtual threads are supported by this JVM");
+        assertThrows(UnsupportedOperationException.class,
+                io.servicetalk.concurrent.api.Executors::newVirtualThreadExecutor);
+    }
+
     @ParameterizedTest(name = "{displayName} [{index}] {arguments}")
     @EnumSource(ExecutorParam.class)
     void timerRaw(ExecutorParam executorParam) throws Exception {
@@ -0,0 +1,77 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import io.servicetalk.concurrent.Cancellable;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static io.servicetalk.concurrent.api.Executors.immediate;
+import static io.servicetalk.concurrent.api.Executors.newCachedThreadExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+
+class HashedWheelTimerExecutorTest {
+
+    private final HashedWheelTimer timer = new HashedWheelTimer(new DefaultThreadFactory("test-timer"), 1,
+            MILLISECONDS, 8, 1);
+    private final Executor delegate = newCachedThreadExecutor(new DefaultThreadFactory("test-executor"));
+    private final Executor executor = new HashedWheelTimerExecutor(delegate, timer);
+
+    @AfterEach
+    void tearDown() throws Exception {
+        executor.closeAsync().toFuture().get();
+        timer.close();
+    }
+
+    @Test
+    void expiredTaskIsOffloadedToDelegate() throws Exception {
+        final AtomicReference<String> thread = new AtomicReference<>();
+        executor.timer(5, MILLISECONDS).whenOnComplete(() -> thread.set(Thread.currentThread().getName()))
+                .toFuture().get();
+        assertThat(thread.get(), startsWith("test-executor"));
+    }
+
+    @Test
+    void rejectedTaskRunsOnTimerThread() throws Exception {
+        final Executor rejecting = new DelegatingExecutor(immediate()) {
+            @Override
+            public Cancellable execute(final Runnable task) {
+                throw new RejectedExecutionException("rejected");
+            }
+        };
+        final AtomicReference<String> thread = new AtomicReference<>();
+        new HashedWheelTimerExecutor(rejecting, timer).timer(1, MILLISECONDS)
+                .whenOnComplete(() -> thread.set(Thread.currentThread().getName()))
+                .toFuture().get();
+        assertThat(thread.get(), startsWith("test-timer"));
+    }
+
+    @Test
+    void cancelledTaskDoesNotRun() throws Exception {
+        final AtomicBoolean ran = new AtomicBoolean();
+        executor.schedule(() -> ran.set(true), 5, MILLISECONDS).cancel();
+        executor.timer(20, MILLISECONDS).toFuture().get();
+        assertThat(ran.get(), is(false));
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HashedWheelTimerTest {
+
+    private final HashedWheelTimer timer = new HashedWheelTimer(new DefaultThreadFactory("test-timer"), 1,
+            MILLISECONDS, 8, 4);
+
+    @AfterEach
+    void tearDown() {
+        timer.close();
+    }
+
+    @Test
+    void taskDoesNotRunBeforeDelay() throws Exception {
+        final CountDownLatch done = new CountDownLatch(1);
+        final long startNanos = System.nanoTime();
+        // Longer than a rotation of the 8 ticks wheel.
+        timer.schedule(done::countDown, 20, MILLISECONDS);
+        done.await();
+        assertThat(System.nanoTime() - startNanos, greaterThanOrEqualTo(MILLISECONDS.toNanos(20)));
+    }
+
+    @Test
+    void tasksScheduledFromManyThreadsRunAndCancelledTasksDoNot() throws Exception {
+        final int threads = 8;
+        final int tasksPerThread = 1000;
+        final CountDownLatch done = new CountDownLatch(threads * tasksPerThread / 2);
+        final AtomicInteger cancelledRan = new AtomicInteger();
+        final List<Thread> schedulers = new ArrayList<>();
+        for (int i = 0; i < threads; ++i) {
+            final Thread thread = new Thread(() -> {
+                for (int j = 0; j < tasksPerThread; ++j) {
+                    if ((j & 1) == 0) {
+                        timer.schedule(done::countDown, j % 20, MILLISECONDS);
+                    } else {
+                        // Far enough in the future to be cancelled before it expires, even if this thread is
+                        // descheduled.
+                        timer.schedule(cancelledRan::incrementAndGet, 100 + j % 20, MILLISECONDS).cancel();
+                    }
+                }
+            });
+            schedulers.add(thread);
+            thread.start();
+        }
+        for (Thread thread : schedulers) {
+            thread.join();
+        }
+        done.await();
+        // Wait for the latest cancelled task deadline to pass.
+        final CountDownLatch last = new CountDownLatch(1);
+        timer.schedule(last::countDown, 150, MILLISECONDS);
+        last.await();
+        assertThat(cancelledRan.get(), is(0));
+    }
+
+    @Test
+    void timerWakesUpAfterIdle() throws Exception {
+        final CountDownLatch first = new CountDownLatch(1);
+        timer.schedule(first::countDown, 1, MILLISECONDS);
+        first.await();
+        Thread.sleep(20);
+        final CountDownLatch second = new CountDownLatch(1);
+        timer.schedule(second::countDown, 1, MILLISECONDS);
+        second.await();
+    }
+
+    @Test
+    void taskScheduledWhileParkedForLaterTaskRunsOnTime() throws Exception {
+        final CountDownLatch later = new CountDownLatch(1);
+        timer.schedule(later::countDown, 1, HOURS);
+        // Let the shard threads park until the bucket of the later task.
+        Thread.sleep(20);
+        final CountDownLatch done = new CountDownLatch(1);
+        final long startNanos = System.nanoTime();
+        timer.schedule(done::countDown, 1, MILLISECONDS);
+        assertThat(done.await(1, SECONDS), is(true));
+        assertThat(System.nanoTime() - startNanos, lessThan(MILLISECONDS.toNanos(500)));
+        assertThat(later.getCount(), is(1L));
+    }
+
+    @Test
+    void scheduleAfterCloseIsRejected() {
+        timer.close();
+        assertThrows(RejectedExecutionException.class, () -> timer.schedule(() -> { }, 1, MILLISECONDS));
+    }
+}
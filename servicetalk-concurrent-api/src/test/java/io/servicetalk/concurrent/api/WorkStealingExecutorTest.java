@@ -0,0 +1,127 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.concurrent.api;
+
+import io.servicetalk.concurrent.Cancellable;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WorkStealingExecutorTest {
+
+    private final HashedWheelTimer timer = new HashedWheelTimer(new DefaultThreadFactory("test-timer"), 1,
+            MILLISECONDS, 4, 2);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final WorkStealingExecutor executor = new WorkStealingExecutor(2, 2, new DefaultThreadFactory(), timer);
+
+    @AfterEach
+    void tearDown() throws Exception {
+        release.countDown();
+        executor.closeAsync().toFuture().get();
+        timer.close();
+    }
+
+    @Test
+    void tasksAreRejectedWhenAllQueuesAreFull() throws Exception {
+        final CountDownLatch started = new CountDownLatch(2);
+        for (int i = 0; i < 2; ++i) {
+            executor.execute(() -> {
+                started.countDown();
+                awaitRelease();
+            });
+        }
+        started.await();
+        for (int i = 0; i < 4; ++i) {
+            executor.execute(this::awaitRelease);
+        }
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+    }
+
+    @Test
+    void idleWorkerStealsFromBusyWorker() throws Exception {
+        final CountDownLatch done = new CountDownLatch(1);
+        executor.execute(() -> {
+            // Queued on this worker, which then blocks, so the other worker has to steal the task.
+            executor.execute(done::countDown);
+            awaitRelease();
+        });
+        done.await();
+    }
+
+    @Test
+    void cancelledTaskDoesNotRun() throws Exception {
+        final CountDownLatch started = new CountDownLatch(2);
+        for (int i = 0; i < 2; ++i) {
+            executor.execute(() -> {
+                started.countDown();
+                awaitRelease();
+            });
+        }
+        started.await();
+        final AtomicBoolean ran = new AtomicBoolean();
+        final Cancellable cancellable = executor.execute(() -> ran.set(true));
+        cancellable.cancel();
+        final CountDownLatch done = new CountDownLatch(1);
+        executor.execute(done::countDown);
+        release.countDown();
+        done.await();
+        assertThat(ran.get(), is(false));
+    }
+
+    @Test
+    void scheduledTasksRunInDeadlineOrder() throws Exception {
+        final List<Integer> order = new CopyOnWriteArrayList<>();
+        final CountDownLatch done = new CountDownLatch(3);
+        // Delays span multiple rotations of the 4 ticks wheel.
+        executor.schedule(() -> {
+            order.add(3);
+            done.countDown();
+        }, 30, MILLISECONDS);
+        executor.schedule(() -> {
+            order.add(1);
+            done.countDown();
+        }, 1, MILLISECONDS);
+        executor.schedule(() -> {
+            order.add(2);
+            done.countDown();
+        }, 15, MILLISECONDS);
+        final AtomicBoolean cancelledRan = new AtomicBoolean();
+        executor.schedule(() -> cancelledRan.set(true), 10, MILLISECONDS).cancel();
+        done.await();
+        assertThat(order, contains(1, 2, 3));
+        assertThat(cancelledRan.get(), is(false));
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
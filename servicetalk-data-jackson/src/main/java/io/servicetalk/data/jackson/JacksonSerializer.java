@@ -37,6 +37,7 @@ import static io.servicetalk.buffer.api.Buffer.asOutputStream;
 final class JacksonSerializer<T> implements SerializerDeserializer<T> {
     private final ObjectWriter writer;
     private final ObjectReader reader;
+    private final SerializedSizeEstimator sizeEstimator = new SerializedSizeEstimator();
 
     JacksonSerializer(ObjectMapper mapper, Class<T> clazz) {
         writer = mapper.writerFor(clazz);
@@ -55,7 +56,14 @@ final class JacksonSerializer<T> implements SerializerDeserializer<T> {
 
     @Override
     public void serialize(final T toSerialize, final BufferAllocator allocator, final Buffer buffer) {
-        doSerialize(writer, toSerialize, buffer);
+        doSerialize(writer, toSerialize, buffer, sizeEstimator);
+    }
+
+    @Override
+    public Buffer serialize(final T toSerialize, final BufferAllocator allocator) {
+        Buffer buffer = allocator.newBuffer(sizeEstimator.estimate());
+        doSerialize(writer, toSerialize, buffer, sizeEstimator);
+        return buffer;
     }
 
     @Override
@@ -67,11 +75,14 @@ final class JacksonSerializer<T> implements SerializerDeserializer<T> {
         }
     }
 
-    static <T> void doSerialize(final ObjectWriter writer, T t, Buffer destination) {
+    static <T> void doSerialize(final ObjectWriter writer, T t, Buffer destination,
+                                final SerializedSizeEstimator sizeEstimator) {
+        final int writerIndex = destination.writerIndex();
         try {
             writer.writeValue(asOutputStream(destination), t);
         } catch (IOException e) {
             throw new SerializationException(e);
         }
+        sizeEstimator.record(destination.writerIndex() - writerIndex);
     }
 }
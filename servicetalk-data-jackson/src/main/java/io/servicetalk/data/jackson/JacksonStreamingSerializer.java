@@ -62,6 +62,7 @@ import static java.util.function.Function.identity;
 final class JacksonStreamingSerializer<T> implements StreamingSerializerDeserializer<T> {
     private final ObjectWriter writer;
     private final ObjectReader reader;
+    private final SerializedSizeEstimator sizeEstimator = new SerializedSizeEstimator();
 
     JacksonStreamingSerializer(ObjectMapper mapper, Class<T> clazz) {
         writer = mapper.writerFor(clazz);
@@ -81,8 +82,8 @@ final class JacksonStreamingSerializer<T> implements StreamingSerializerDeserial
     @Override
     public Publisher<Buffer> serialize(final Publisher<T> toSerialize, final BufferAllocator allocator) {
         return toSerialize.map(t -> {
-            Buffer buffer = allocator.newBuffer();
-            doSerialize(writer, t, buffer);
+            Buffer buffer = allocator.newBuffer(sizeEstimator.estimate());
+            doSerialize(writer, t, buffer, sizeEstimator);
             return buffer;
         });
     }
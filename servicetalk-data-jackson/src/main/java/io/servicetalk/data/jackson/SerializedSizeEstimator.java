@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.data.jackson;
+
+import static java.lang.Math.min;
+
+/**
+ * Estimates the serialized size of objects of a single type, so {@link io.servicetalk.buffer.api.Buffer}s can be
+ * sized before serializing into them instead of growing (and copying) while Jackson writes.
+ * <p>
+ * Similar to the estimate of the encoded size of headers in the HTTP encoder, the estimate is an exponential moving
+ * average of padded serialized sizes. A single large object therefore only has a limited and temporary impact on
+ * later allocations. Instances are shared by all users of a cached serializer, updates are intentionally not atomic:
+ * a lost update only makes the next estimate less accurate.
+ */
+final class SerializedSizeEstimator {
+    /**
+     * Same as the default capacity of {@link io.servicetalk.buffer.api.BufferAllocator#newBuffer()}.
+     */
+    static final int INITIAL_ESTIMATE = 128;
+    /**
+     * Upper bound for the estimate, larger objects still grow the buffer as required.
+     */
+    static final int MAX_ESTIMATE = 1 << 16;
+    private static final float WEIGHT_NEW = 1 / 5f;
+    private static final float WEIGHT_HISTORICAL = 1 - WEIGHT_NEW;
+
+    private volatile float accumulator = INITIAL_ESTIMATE;
+
+    /**
+     * Get the current estimate.
+     *
+     * @return the number of bytes a {@link io.servicetalk.buffer.api.Buffer} should be able to hold to fit the next
+     * serialized object.
+     */
+    int estimate() {
+        return (int) accumulator;
+    }
+
+    /**
+     * Record the size of a serialized object.
+     *
+     * @param serializedSize the number of bytes written for an object.
+     */
+    void record(int serializedSize) {
+        accumulator = WEIGHT_NEW * padSizeForAccumulation(serializedSize) + WEIGHT_HISTORICAL * accumulator;
+    }
+
+    /**
+     * Add some padding so that objects slightly larger than the average still fit without growing the buffer.
+     *
+     * @param size the size to pad.
+     * @return the padded size, not larger than {@link #MAX_ESTIMATE}.
+     */
+    private static int padSizeForAccumulation(int size) {
+        return min(MAX_ESTIMATE, (min(size, MAX_ESTIMATE) << 2) / 3);
+    }
+}
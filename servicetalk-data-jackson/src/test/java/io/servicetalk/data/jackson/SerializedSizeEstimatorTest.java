@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.data.jackson;
+
+import org.junit.jupiter.api.Test;
+
+import static io.servicetalk.data.jackson.SerializedSizeEstimator.INITIAL_ESTIMATE;
+import static io.servicetalk.data.jackson.SerializedSizeEstimator.MAX_ESTIMATE;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+class SerializedSizeEstimatorTest {
+
+    private final SerializedSizeEstimator estimator = new SerializedSizeEstimator();
+
+    @Test
+    void initialEstimate() {
+        assertThat(estimator.estimate(), equalTo(INITIAL_ESTIMATE));
+    }
+
+    @Test
+    void largerSizesIncreaseEstimateGradually() {
+        estimator.record(10_000);
+        final int afterOneLarge = estimator.estimate();
+        assertThat(afterOneLarge, greaterThan(INITIAL_ESTIMATE));
+        assertThat(afterOneLarge, lessThan(10_000));
+        for (int i = 0; i < 100; ++i) {
+            estimator.record(10_000);
+        }
+        assertThat(estimator.estimate(), greaterThanOrEqualTo(10_000));
+    }
+
+    @Test
+    void smallerSizesDecreaseEstimateGradually() {
+        estimator.record(10_000);
+        final int large = estimator.estimate();
+        estimator.record(10);
+        final int afterOneSmall = estimator.estimate();
+        assertThat(afterOneSmall, lessThanOrEqualTo(large));
+        assertThat(afterOneSmall, greaterThanOrEqualTo(large / 2));
+        for (int i = 0; i < 100; ++i) {
+            estimator.record(10);
+        }
+        assertThat(estimator.estimate(), greaterThanOrEqualTo(10));
+        assertThat(estimator.estimate(), lessThanOrEqualTo(20));
+    }
+
+    @Test
+    void estimateIsBounded() {
+        for (int i = 0; i < 100; ++i) {
+            estimator.record(Integer.MAX_VALUE);
+        }
+        assertThat(estimator.estimate(), lessThanOrEqualTo(MAX_ESTIMATE));
+        assertThat(estimator.estimate(), greaterThan(MAX_ESTIMATE / 2));
+    }
+
+    @Test
+    void singleOutlierDoesNotInflateLaterEstimates() {
+        for (int i = 0; i < 100; ++i) {
+            estimator.record(1_000);
+        }
+        final int steady = estimator.estimate();
+        estimator.record(Integer.MAX_VALUE);
+        assertThat(estimator.estimate(), lessThanOrEqualTo(MAX_ESTIMATE / 4));
+        for (int i = 0; i < 15; ++i) {
+            estimator.record(1_000);
+        }
+        assertThat(estimator.estimate(), lessThanOrEqualTo(2 * steady));
+    }
+}
@@ -57,6 +57,10 @@ final class ProtobufSerializer<T extends MessageLite> implements SerializerDeser
 
     @Override
     public void serialize(final T toSerialize, final BufferAllocator allocator, final Buffer buffer) {
+        // The size is memoized by generated messages, so it is only computed once for the allocation, the
+        // ensureWritable call and the writer index update.
+        final int serializedSize = toSerialize.getSerializedSize();
+        buffer.ensureWritable(serializedSize);
         final int writerIdx = buffer.writerIndex();
         final int writableBytes = buffer.writableBytes();
         final CodedOutputStream out = buffer.hasArray() ?
@@ -70,7 +74,7 @@ final class ProtobufSerializer<T extends MessageLite> implements SerializerDeser
         }
 
         // Forward write index of our buffer
-        buffer.writerIndex(writerIdx + toSerialize.getSerializedSize());
+        buffer.writerIndex(writerIdx + serializedSize);
     }
 
     @Override
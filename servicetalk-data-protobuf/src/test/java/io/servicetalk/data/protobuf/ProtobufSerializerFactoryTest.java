@@ -69,6 +69,19 @@ class ProtobufSerializerFactoryTest {
         assertThat(serializer.deserialize(buffer, DEFAULT_ALLOCATOR), equalTo(testMessage));
     }
 
+    @Test
+    void serializeGrowsTooSmallBuffer() {
+        final DummyMessage testMessage = newMsg(1 << 10);
+        final byte[] testMessageBytes = testMessage.toByteArray();
+        SerializerDeserializer<DummyMessage> serializer = PROTOBUF.serializerDeserializer(DummyMessage.parser());
+        Buffer buffer = DEFAULT_ALLOCATOR.newBuffer(16);
+        serializer.serialize(testMessage, DEFAULT_ALLOCATOR, buffer);
+        byte[] bytes = new byte[buffer.readableBytes()];
+        buffer.getBytes(buffer.readerIndex(), bytes);
+        assertThat(bytes, equalTo(testMessageBytes));
+        assertThat(serializer.deserialize(buffer, DEFAULT_ALLOCATOR), equalTo(testMessage));
+    }
+
     @ParameterizedTest(name = "pojos={0}")
     @MethodSource("pojos")
     void streamingWriteDelimitedToDeserialized(Collection<DummyMessage> msgs) throws Exception {
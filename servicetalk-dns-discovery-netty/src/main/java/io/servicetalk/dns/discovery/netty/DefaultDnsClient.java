@@ -117,6 +117,9 @@ final class DefaultDnsClient implements DnsClient {
     private final int srvConcurrency;
     private final boolean srvFilterDuplicateEvents;
     private final boolean inactiveEventsOnError;
+    private final double refreshAheadFactor;
+    private final long maxStalenessNanos;
+    private final long staleRetryNanos;
     private boolean closed;
 
     DefaultDnsClient(final IoExecutor ioExecutor, final int minTTL, int srvConcurrency, boolean inactiveEventsOnError,
@@ -127,10 +130,17 @@ final class DefaultDnsClient implements DnsClient {
                      @Nullable final DnsResolverAddressTypes dnsResolverAddressTypes,
                      @Nullable final DnsServerAddressStreamProvider dnsServerAddressStreamProvider,
                      @Nullable final DnsServiceDiscovererObserver observer,
-                     ServiceDiscovererEvent.Status missingRecordStatus) {
+                     ServiceDiscovererEvent.Status missingRecordStatus,
+                     final double refreshAheadFactor, final Duration maxStaleness) {
         if (srvConcurrency <= 0) {
             throw new IllegalArgumentException("srvConcurrency: " + srvConcurrency + " (expected >0)");
         }
+        if (refreshAheadFactor <= 0 || refreshAheadFactor > 1) {
+            throw new IllegalArgumentException("refreshAheadFactor: " + refreshAheadFactor + " (expected (0, 1])");
+        }
+        this.refreshAheadFactor = refreshAheadFactor;
+        this.maxStalenessNanos = maxStaleness.toNanos();
+        this.staleRetryNanos = SECONDS.toNanos(minTTL);
         this.srvConcurrency = srvConcurrency;
         this.srvFilterDuplicateEvents = srvFilterDuplicateEvents;
         this.inactiveEventsOnError = inactiveEventsOnError;
@@ -140,7 +150,7 @@ final class DefaultDnsClient implements DnsClient {
         srvHostNameRepeater = repeatWithConstantBackoffDeltaJitter(
                 srvHostNameRepeatInitialDelay, srvHostNameRepeatJitter, nettyIoExecutor.asExecutor());
         this.ttlCache = new MinTtlCache(new DefaultDnsCache(minTTL, Integer.MAX_VALUE, minTTL), minTTL,
-                nettyIoExecutor.asExecutor());
+                servesStaleRecords(), nettyIoExecutor.asExecutor());
         this.observer = observer;
         this.missingRecordStatus = missingRecordStatus;
         asyncCloseable = toAsyncCloseable(graceful -> {
@@ -234,12 +244,14 @@ final class DefaultDnsClient implements DnsClient {
                             return newDuplicateSrv(serviceName, srvEvent.address().hostName());
                         }
 
+                        final SrvHostAndPort srvTarget = (SrvHostAndPort) srvEvent.address();
                         Publisher<? extends Collection<ServiceDiscovererEvent<InetAddress>>> returnPub =
                                 recoverWithInactiveEvents(aPublisher, false);
                         return srvFilterDuplicateEvents ?
-                                srvFilterDups(returnPub, availableAddresses, srvEvent.address().port()) :
+                                srvFilterDups(returnPub, availableAddresses, srvTarget) :
                                 returnPub.map(events -> mapEventList(events, inetAddress ->
-                                        new InetSocketAddress(inetAddress, srvEvent.address().port())));
+                                        new InetSocketAddress(inetAddress, srvTarget.port()),
+                                        srvTarget.weight, srvTarget.priority));
                     }).retryWhen((i, cause) -> {
                         assertInEventloop();
                         // If this error is because the SRV entry was detected as inactive, then propagate the error and
@@ -293,6 +305,14 @@ final class DefaultDnsClient implements DnsClient {
         assert nettyIoExecutor.isCurrentThreadEventLoop();
     }
 
+    private boolean servesStaleRecords() {
+        return refreshAheadFactor < 1 || maxStalenessNanos > 0;
+    }
+
+    private long refreshDelayNanos(final long ttlNanos) {
+        return refreshAheadFactor < 1 ? (long) (ttlNanos * refreshAheadFactor) : ttlNanos;
+    }
+
     private final class SrvRecordPublisher extends AbstractDnsPublisher<HostAndPort> {
         private SrvRecordPublisher(final String serviceName, @Nullable final DnsDiscoveryObserver discoveryObserver) {
             super(serviceName, discoveryObserver);
@@ -335,11 +355,14 @@ final class DefaultDnsClient implements DnsClient {
                                             ByteBuf content = ((DnsRawRecord) dnsRecord).content();
                                             // https://tools.ietf.org/html/rfc2782
                                             // Priority(16u) Weight(16u) Port(16u) Target(varstring)
-                                            content.skipBytes(4); // ignore Priority and Weight for now
+                                            final int priority = content.readUnsignedShort();
+                                            final int weight = content.readUnsignedShort();
                                             final int port = content.readUnsignedShort();
-                                            hostAndPorts.add(HostAndPort.of(decodeName(content), port));
+                                            hostAndPorts.add(new SrvHostAndPort(decodeName(content), port, weight,
+                                                    priority));
                                         }
-                                        dnsAnswer = new DnsAnswer<>(hostAndPorts, SECONDS.toNanos(minTTLSeconds));
+                                        dnsAnswer = new DnsAnswer<>(hostAndPorts, SECONDS.toNanos(minTTLSeconds),
+                                                false);
                                     } catch (Throwable cause2) {
                                         promise.setFailure(cause2);
                                         return;
@@ -391,7 +414,8 @@ final class DefaultDnsClient implements DnsClient {
                             try {
                                 @SuppressWarnings("unchecked")
                                 final List<InetAddress> addresses = (List<InetAddress>) completedFuture.getNow();
-                                dnsAnswer = new DnsAnswer<>(addresses, SECONDS.toNanos(ttlCache.minTtl(name)));
+                                dnsAnswer = new DnsAnswer<>(addresses, SECONDS.toNanos(ttlCache.minTtl(name)),
+                                        ttlCache.resolvedFromCache(name));
                             } catch (Throwable cause2) {
                                 dnsAnswerPromise.setFailure(cause2);
                                 return;
@@ -413,10 +437,12 @@ final class DefaultDnsClient implements DnsClient {
     private static final class DnsAnswer<T> {
         private final List<T> answer;
         private final long ttlNanos;
+        private final boolean fromCache;
 
-        DnsAnswer(final List<T> answer, final long ttlNanos) {
+        DnsAnswer(final List<T> answer, final long ttlNanos, final boolean fromCache) {
             this.answer = answer;
             this.ttlNanos = ttlNanos;
+            this.fromCache = fromCache;
         }
 
         List<T> answer() {
@@ -426,6 +452,10 @@ final class DefaultDnsClient implements DnsClient {
         long ttlNanos() {
             return ttlNanos;
         }
+
+        boolean fromCache() {
+            return fromCache;
+        }
     }
 
     private abstract class AbstractDnsPublisher<T>
@@ -501,6 +531,7 @@ final class DefaultDnsClient implements DnsClient {
             @Nullable
             private Cancellable cancellableForQuery;
             private long ttlNanos;
+            private long expirationTime;
 
             AbstractDnsSubscription(final Subscriber<? super List<ServiceDiscovererEvent<T>>> subscriber) {
                 this.subscriber = subscriber;
@@ -582,14 +613,17 @@ final class DefaultDnsClient implements DnsClient {
                     handleTerminalError0(new ClosedDnsServiceDiscovererException());
                 } else {
                     final DnsResolutionObserver resolutionObserver = newResolutionObserver();
+                    // Previously resolved records are not expired yet, if the resolution was scheduled ahead of time.
+                    final boolean refreshAhead = ttlNanos >= 0 &&
+                            expirationTime - nettyIoExecutor.asExecutor().currentTime(NANOSECONDS) > 0;
                     LOGGER.trace("DnsClient {}, querying DNS for {}", DefaultDnsClient.this, AbstractDnsPublisher.this);
                     final Future<DnsAnswer<T>> addressFuture = doDnsQuery();
                     cancellableForQuery = () -> addressFuture.cancel(true);
                     if (addressFuture.isDone()) {
-                        handleResolveDone0(addressFuture, resolutionObserver);
+                        handleResolveDone0(addressFuture, resolutionObserver, refreshAhead);
                     } else {
                         addressFuture.addListener((FutureListener<DnsAnswer<T>>) f ->
-                                handleResolveDone0(f, resolutionObserver));
+                                handleResolveDone0(f, resolutionObserver, refreshAhead));
                     }
                 }
             }
@@ -639,31 +673,45 @@ final class DefaultDnsClient implements DnsClient {
             }
 
             private void handleResolveDone0(final Future<DnsAnswer<T>> addressFuture,
-                                            @Nullable final DnsResolutionObserver resolutionObserver) {
+                                            @Nullable final DnsResolutionObserver resolutionObserver,
+                                            final boolean refreshAhead) {
                 assertInEventloop();
                 assert pendingRequests > 0;
                 if (cancellableForQuery == TERMINATED) {
                     return;
                 }
                 final Throwable cause = addressFuture.cause();
+                final long now = nettyIoExecutor.asExecutor().currentTime(NANOSECONDS);
                 if (cause != null) {
-                    reportResolutionFailed(resolutionObserver, cause);
-                    cancelAndTerminate0(cause);
+                    // ttlNanos is negative until the first successful resolution, there is nothing to serve before.
+                    final long remainingStalenessNanos = expirationTime + maxStalenessNanos - now;
+                    if (servesStaleRecords() && ttlNanos >= 0 && remainingStalenessNanos > 0) {
+                        reportResolutionFailedServingStale(resolutionObserver, cause);
+                        LOGGER.debug("DnsClient {}, resolution failed for {}, serving previously resolved records " +
+                                "for up to {} nanos.", DefaultDnsClient.this, AbstractDnsPublisher.this,
+                                remainingStalenessNanos, cause);
+                        scheduleQuery0(Math.min(staleRetryNanos, remainingStalenessNanos));
+                    } else {
+                        reportResolutionFailed(resolutionObserver, cause);
+                        cancelAndTerminate0(cause);
+                    }
                 } else {
                     // DNS lookup can return duplicate InetAddress
                     final DnsAnswer<T> dnsAnswer = addressFuture.getNow();
                     final List<T> addresses = dnsAnswer.answer();
                     final List<ServiceDiscovererEvent<T>> events = calculateDifference(activeAddresses, addresses,
                             comparator(), resolutionObserver == null ? null : (nAvailable, nMissing) ->
-                                    reportResolutionResult(resolutionObserver, dnsAnswer, nAvailable, nMissing),
+                                    reportResolutionResult(resolutionObserver, dnsAnswer, nAvailable, nMissing,
+                                            refreshAhead),
                             missingRecordStatus);
-                    ttlNanos = dnsAnswer.ttlNanos();
+                    expirationTime = now + dnsAnswer.ttlNanos();
+                    ttlNanos = refreshDelayNanos(dnsAnswer.ttlNanos());
                     if (events != null) {
                         activeAddresses = addresses;
                         if (--pendingRequests > 0) {
                             scheduleQuery0(ttlNanos);
                         } else {
-                            resolveDoneNoScheduleTime = nettyIoExecutor.asExecutor().currentTime(NANOSECONDS);
+                            resolveDoneNoScheduleTime = now;
                             cancellableForQuery = null;
                         }
                         try {
@@ -698,11 +746,27 @@ final class DefaultDnsClient implements DnsClient {
                 }
             }
 
+            private void reportResolutionFailedServingStale(@Nullable final DnsResolutionObserver resolutionObserver,
+                                                            final Throwable cause) {
+                if (resolutionObserver == null) {
+                    return;
+                }
+                try {
+                    resolutionObserver.resolutionFailedServingStale(cause);
+                } catch (Throwable unexpected) {
+                    unexpected.addSuppressed(cause);
+                    LOGGER.warn("Unexpected exception from {} while reporting DNS resolution failure",
+                            resolutionObserver, unexpected);
+                }
+            }
+
             private void reportResolutionResult(final DnsResolutionObserver resolutionObserver,
                                                 final DnsAnswer<T> dnsAnswer,
-                                                final int nAvailable, final int nMissing) {
+                                                final int nAvailable, final int nMissing,
+                                                final boolean refreshAhead) {
                 final ResolutionResult result = new DefaultResolutionResult(dnsAnswer.answer().size(),
-                        (int) NANOSECONDS.toSeconds(dnsAnswer.ttlNanos()), nAvailable, nMissing);
+                        (int) NANOSECONDS.toSeconds(dnsAnswer.ttlNanos()), nAvailable, nMissing,
+                        dnsAnswer.fromCache(), refreshAhead);
                 try {
                     resolutionObserver.resolutionCompleted(result);
                 } catch (Throwable unexpected) {
@@ -738,16 +802,17 @@ final class DefaultDnsClient implements DnsClient {
 
     private static Publisher<? extends Collection<ServiceDiscovererEvent<InetSocketAddress>>> srvFilterDups(
             Publisher<? extends Collection<ServiceDiscovererEvent<InetAddress>>> returnPub,
-            Map<InetSocketAddress, Integer> availableAddresses, int port) {
+            Map<InetSocketAddress, Integer> availableAddresses, SrvHostAndPort srvTarget) {
         return returnPub.map(events -> {
             ArrayList<ServiceDiscovererEvent<InetSocketAddress>> mappedEvents = new ArrayList<>(events.size());
             for (ServiceDiscovererEvent<InetAddress> event : events) {
-                InetSocketAddress addr = new InetSocketAddress(event.address(), port);
+                InetSocketAddress addr = new InetSocketAddress(event.address(), srvTarget.port());
                 final ServiceDiscovererEvent.Status status = event.status();
                 Integer count = availableAddresses.get(addr);
                 if (AVAILABLE.equals(status)) {
                     if (count == null) {
-                        mappedEvents.add(new DefaultServiceDiscovererEvent<>(addr, status));
+                        mappedEvents.add(new DefaultServiceDiscovererEvent<>(addr, status, srvTarget.weight,
+                                srvTarget.priority));
                         availableAddresses.put(addr, 1);
                     } else {
                         availableAddresses.put(addr, count + 1);
@@ -757,7 +822,8 @@ final class DefaultDnsClient implements DnsClient {
                         throw new IllegalStateException("null count for: " + addr);
                     }
                     if (count == 1) {
-                        mappedEvents.add(new DefaultServiceDiscovererEvent<>(addr, status));
+                        mappedEvents.add(new DefaultServiceDiscovererEvent<>(addr, status, srvTarget.weight,
+                                srvTarget.priority));
                         availableAddresses.remove(addr);
                     } else {
                         availableAddresses.put(addr, count - 1);
@@ -871,6 +937,55 @@ final class DefaultDnsClient implements DnsClient {
         }
     }
 
+    /**
+     * Target of an SRV record, which retains the weight and priority of the record so they can be propagated to the
+     * events of the addresses the target resolves to. Equality only considers the target host name and port of other
+     * SRV targets.
+     */
+    private static final class SrvHostAndPort implements HostAndPort {
+        private final HostAndPort target;
+        final int weight;
+        final int priority;
+
+        SrvHostAndPort(final String hostName, final int port, final int weight, final int priority) {
+            this.target = HostAndPort.of(hostName, port);
+            this.weight = weight;
+            this.priority = priority;
+        }
+
+        @Override
+        public String hostName() {
+            return target.hostName();
+        }
+
+        @Override
+        public int port() {
+            return target.port();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SrvHostAndPort)) {
+                return false;
+            }
+            final SrvHostAndPort that = (SrvHostAndPort) o;
+            return target.equals(that.target);
+        }
+
+        @Override
+        public int hashCode() {
+            return target.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return target + " (weight=" + weight + ", priority=" + priority + ')';
+        }
+    }
+
     private static final class SrvInactiveEvent<T, A> implements ServiceDiscovererEvent<T> {
         private final Status missingRecordStatus;
         private final List<ServiceDiscovererEvent<A>> aggregatedEvents = new SrvAggregateList<>();
@@ -63,6 +63,8 @@ public final class DefaultDnsServiceDiscovererBuilder {
     @Nullable
     private DnsServiceDiscovererObserver observer;
     private ServiceDiscovererEvent.Status missingRecordStatus = EXPIRED;
+    private double refreshAheadFactor = 1;
+    private Duration maxStaleness = Duration.ZERO;
 
     /**
      * The minimum allowed TTL. This will be the minimum poll interval.
@@ -78,6 +80,45 @@ public final class DefaultDnsServiceDiscovererBuilder {
         return this;
     }
 
+    /**
+     * Sets the fraction of the TTL after which DNS records are resolved again.
+     * <p>
+     * With the default value of {@code 1} records are resolved again when they expire. Lower values refresh records
+     * ahead of their expiration, so changes are observed earlier and a failing DNS server is detected while the
+     * previously resolved records are still valid. Until they expire, previously resolved records continue to be used
+     * if the refresh fails.
+     *
+     * @param refreshAheadFactor the fraction of the TTL after which DNS records are resolved again, in the range
+     * {@code (0, 1]}.
+     * @return {@code this}.
+     */
+    public DefaultDnsServiceDiscovererBuilder refreshAheadFactor(final double refreshAheadFactor) {
+        if (refreshAheadFactor <= 0 || refreshAheadFactor > 1) {
+            throw new IllegalArgumentException("refreshAheadFactor: " + refreshAheadFactor + " (expected (0, 1])");
+        }
+        this.refreshAheadFactor = refreshAheadFactor;
+        return this;
+    }
+
+    /**
+     * Sets for how long expired DNS records continue to be used when they can not be resolved again, for example when
+     * the DNS server is unavailable.
+     * <p>
+     * While records are stale, resolution is retried every {@link #minTTL(int) minimum TTL}. Once the maximum
+     * staleness is exceeded, the resolution failure is propagated. Defaults to {@link Duration#ZERO}, which propagates
+     * resolution failures immediately.
+     *
+     * @param maxStaleness the maximum duration expired DNS records continue to be used for.
+     * @return {@code this}.
+     */
+    public DefaultDnsServiceDiscovererBuilder maxStaleness(final Duration maxStaleness) {
+        if (maxStaleness.isNegative()) {
+            throw new IllegalArgumentException("maxStaleness: " + maxStaleness + " (expected >= 0)");
+        }
+        this.maxStaleness = maxStaleness;
+        return this;
+    }
+
     /**
      * Set the {@link DnsServerAddressStreamProvider} which determines which DNS server should be used per query.
      *
@@ -291,7 +332,8 @@ public final class DefaultDnsServiceDiscovererBuilder {
                 ioExecutor == null ? globalExecutionContext().ioExecutor() : ioExecutor, minTTLSeconds, srvConcurrency,
                 inactiveEventsOnError, completeOncePreferredResolved, srvFilterDuplicateEvents,
                 srvHostNameRepeatInitialDelay, srvHostNameRepeatJitter, maxUdpPayloadSize, ndots, optResourceEnabled,
-                queryTimeout, dnsResolverAddressTypes, dnsServerAddressStreamProvider, observer, missingRecordStatus);
+                queryTimeout, dnsResolverAddressTypes, dnsServerAddressStreamProvider, observer, missingRecordStatus,
+                refreshAheadFactor, maxStaleness);
         return filterFactory == null ? rawClient : filterFactory.create(rawClient);
     }
 }
@@ -23,13 +23,18 @@ final class DefaultResolutionResult implements ResolutionResult {
     private final int ttl;
     private final int nAvailable;
     private final int nMissing;
+    private final boolean fromCache;
+    private final boolean refreshedAhead;
 
     DefaultResolutionResult(final int resolvedRecords, final int ttl,
-                            final int nAvailable, final int nMissing) {
+                            final int nAvailable, final int nMissing,
+                            final boolean fromCache, final boolean refreshedAhead) {
         this.resolvedRecords = resolvedRecords;
         this.ttl = ttl;
         this.nAvailable = nAvailable;
         this.nMissing = nMissing;
+        this.fromCache = fromCache;
+        this.refreshedAhead = refreshedAhead;
     }
 
     @Override
@@ -52,6 +57,16 @@ final class DefaultResolutionResult implements ResolutionResult {
         return nMissing;
     }
 
+    @Override
+    public boolean fromCache() {
+        return fromCache;
+    }
+
+    @Override
+    public boolean refreshedAhead() {
+        return refreshedAhead;
+    }
+
     @Override
     public String toString() {
         return "DefaultResolutionResult{" +
@@ -59,6 +74,8 @@ final class DefaultResolutionResult implements ResolutionResult {
                 ", ttl=" + ttl +
                 ", nAvailable=" + nAvailable +
                 ", nMissing=" + nMissing +
+                ", fromCache=" + fromCache +
+                ", refreshedAhead=" + refreshedAhead +
                 '}';
     }
 }
@@ -116,4 +116,15 @@ final class DnsClients {
         }
         return result;
     }
+
+    static <T, R> List<ServiceDiscovererEvent<R>> mapEventList(final Collection<ServiceDiscovererEvent<T>> original,
+                                                               final Function<T, R> mapper,
+                                                               final int weight, final int priority) {
+        List<ServiceDiscovererEvent<R>> result = new ArrayList<>(original.size());
+        for (ServiceDiscovererEvent<T> evt : original) {
+            result.add(new DefaultServiceDiscovererEvent<>(mapper.apply(evt.address()), evt.status(), weight,
+                    priority));
+        }
+        return result;
+    }
 }
@@ -60,6 +60,21 @@ public interface DnsServiceDiscovererObserver {
          */
         void resolutionFailed(Throwable cause);
 
+        /**
+         * Notifies that the current DNS resolution failed, but previously resolved records continue to be used because
+         * they have not been expired for longer than the
+         * {@link DefaultDnsServiceDiscovererBuilder#maxStaleness(java.time.Duration) maximum staleness}. The
+         * resolution will be retried.
+         * <p>
+         * Either this method or {@link #resolutionFailed(Throwable)} is invoked for a failed resolution, the default
+         * implementation delegates to {@link #resolutionFailed(Throwable)}.
+         *
+         * @param cause {@link Throwable} as a cause for the failure
+         */
+        default void resolutionFailedServingStale(Throwable cause) {
+            resolutionFailed(cause);
+        }
+
         /**
          * Notifies that the current DNS resolution completed successfully.
          *
@@ -100,5 +115,24 @@ public interface DnsServiceDiscovererObserver {
          * @return number of missing records compared to the previous resolution result.
          */
         int nMissing();
+
+        /**
+         * Whether the records were served from the resolver's cache without querying a DNS server.
+         *
+         * @return {@code true} if the records were served from the resolver's cache
+         */
+        default boolean fromCache() {
+            return false;
+        }
+
+        /**
+         * Whether the resolution started before the previously resolved records expired, as configured by
+         * {@link DefaultDnsServiceDiscovererBuilder#refreshAheadFactor(double)}.
+         *
+         * @return {@code true} if the resolution started before the previously resolved records expired
+         */
+        default boolean refreshedAhead() {
+            return false;
+        }
     }
 }
@@ -45,17 +45,36 @@ final class MinTtlCache implements DnsCache {
 
     private final DnsCache cache;
     private final long initialTtl;
+    private final boolean evictOnResolution;
     private final Map<String, Long> minExpiryMap = new HashMap<>();
     private final TimeSource timeSource;
 
-    MinTtlCache(final DnsCache cache, final long initialTtl, final TimeSource timeSource) {
+    MinTtlCache(final DnsCache cache, final long initialTtl, final boolean evictOnResolution,
+                final TimeSource timeSource) {
         this.cache = cache;
         this.initialTtl = initialTtl;
+        this.evictOnResolution = evictOnResolution;
         this.timeSource = timeSource;
     }
 
     void prepareForResolution(final String hostname) {
         minExpiryMap.remove(hostname);
+        if (evictOnResolution) {
+            // Resolutions may be scheduled before cached entries expire (refresh-ahead) or retried before a failure
+            // expires (serving stale records), evict them to always query the DNS server.
+            cache.clear(hostname);
+        }
+    }
+
+    /**
+     * Whether the last resolution of {@code hostname} after {@link #prepareForResolution(String)} was served from the
+     * cache, without querying a DNS server.
+     *
+     * @param hostname the resolved hostname
+     * @return {@code true} if no DNS server was queried for {@code hostname}
+     */
+    boolean resolvedFromCache(final String hostname) {
+        return !minExpiryMap.containsKey(hostname);
     }
 
     long minTtl(final String hostname) {
@@ -132,6 +132,39 @@ class DefaultDnsClientTest {
         assertEvent(subscriber.takeOnNext(), ip, targetPort, AVAILABLE);
     }
 
+    @ParameterizedTest(name = "missing-record-status={0}")
+    @MethodSource("missingRecordStatus")
+    void srvWeightAndPriorityArePropagated(ServiceDiscovererEvent.Status missingRecordStatus) throws Exception {
+        setup(missingRecordStatus);
+        final String domain = "mysvc.apple.com";
+        final String targetDomain1 = "target1.mysvc.apple.com";
+        final String targetDomain2 = "target2.mysvc.apple.com";
+        final int targetPort = 9876;
+        final String ip1 = nextIp();
+        final String ip2 = nextIp();
+        recordStore.addSrv(domain, targetDomain1, targetPort, DEFAULT_TTL, 60, 1);
+        recordStore.addSrv(domain, targetDomain2, targetPort, DEFAULT_TTL, 5, 2);
+        recordStore.addIPv4Address(targetDomain1, DEFAULT_TTL, ip1);
+        recordStore.addIPv4Address(targetDomain2, DEFAULT_TTL, ip2);
+
+        TestPublisherSubscriber<ServiceDiscovererEvent<InetSocketAddress>> subscriber = dnsSrvQuery(domain);
+        Subscription subscription = subscriber.awaitSubscription();
+        subscription.request(2);
+
+        List<ServiceDiscovererEvent<InetSocketAddress>> signals = subscriber.takeOnNext(2);
+        assertHasEvent(signals, ip1, targetPort, AVAILABLE);
+        assertHasEvent(signals, ip2, targetPort, AVAILABLE);
+        for (ServiceDiscovererEvent<InetSocketAddress> signal : signals) {
+            if (signal.address().equals(new InetSocketAddress(getByName(ip1), targetPort))) {
+                assertThat(signal.weight(), is(60));
+                assertThat(signal.priority(), is(1));
+            } else {
+                assertThat(signal.weight(), is(5));
+                assertThat(signal.priority(), is(2));
+            }
+        }
+    }
+
     @ParameterizedTest(name = "missing-record-status={0}")
     @MethodSource("missingRecordStatus")
     void singleSrvMultipleADiscover(ServiceDiscovererEvent.Status missingRecordStatus) throws Exception {
@@ -38,6 +38,8 @@ import javax.annotation.Nullable;
 import static io.servicetalk.concurrent.api.AsyncCloseables.newCompositeCloseable;
 import static io.servicetalk.concurrent.internal.DeliberateException.DELIBERATE_EXCEPTION;
 import static io.servicetalk.dns.discovery.netty.DnsTestUtils.nextIp;
+import static java.time.Duration.ofSeconds;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.anyOf;
 import static org.hamcrest.Matchers.equalTo;
@@ -84,14 +86,17 @@ class DnsServiceDiscovererObserverTest {
     }
 
     private DnsClient dnsClient(DnsServiceDiscovererObserver observer) {
-        return toClose.append(new DefaultDnsServiceDiscovererBuilder()
+        return toClose.append(dnsClientBuilder(observer).build());
+    }
+
+    private DefaultDnsServiceDiscovererBuilder dnsClientBuilder(DnsServiceDiscovererObserver observer) {
+        return new DefaultDnsServiceDiscovererBuilder()
                 .observer(observer)
                 .dnsResolverAddressTypes(DnsResolverAddressTypes.IPV4_PREFERRED)
                 .optResourceEnabled(false)
                 .dnsServerAddressStreamProvider(new SingletonDnsServerAddressStreamProvider(dnsServer.localAddress()))
                 .ndots(1)
-                .minTTL(1)
-                .build());
+                .minTTL(1);
     }
 
     @Test
@@ -286,6 +291,86 @@ class DnsServiceDiscovererObserverTest {
         assertResolutionResult(results.get(HOST_NAME + '.'), 2, 2, 0);
     }
 
+    @Test
+    void aQueryRefreshAhead() throws Exception {
+        final String hostName = "refresh." + HOST_NAME;
+        final int ttl = 4;
+        recordStore.addIPv4Address(hostName, ttl, nextIp());
+        BlockingQueue<ResolutionResult> results = new LinkedBlockingDeque<>();
+        DnsClient client = toClose.append(dnsClientBuilder(__ -> name -> new NoopDnsResolutionObserver() {
+            @Override
+            public void resolutionCompleted(final ResolutionResult result) {
+                results.add(result);
+            }
+        }).refreshAheadFactor(0.25).build());
+
+        Cancellable discovery = client.dnsQuery(hostName).forEach(__ -> { });
+        try {
+            ResolutionResult result = results.take();
+            assertThat("Unexpected refreshedAhead", result.refreshedAhead(), is(false));
+            assertThat("Unexpected fromCache", result.fromCache(), is(false));
+
+            // The next resolution is expected after a quarter of the TTL, well before the records expire.
+            result = results.poll(ttl - 1, SECONDS);
+            assertThat("Records were not refreshed ahead of their expiration", result, is(notNullValue()));
+            assertThat("Unexpected refreshedAhead", result.refreshedAhead(), is(true));
+            assertThat("Unexpected fromCache", result.fromCache(), is(false));
+        } finally {
+            discovery.cancel();
+        }
+    }
+
+    @Test
+    void aQueryServesStaleRecords() throws Exception {
+        final String hostName = "stale." + HOST_NAME;
+        final String ip = nextIp();
+        recordStore.addIPv4Address(hostName, DEFAULT_TTL, ip);
+        BlockingQueue<ResolutionResult> results = new LinkedBlockingDeque<>();
+        BlockingQueue<Throwable> staleFailures = new LinkedBlockingDeque<>();
+        DnsClient client = toClose.append(dnsClientBuilder(__ -> name -> new NoopDnsResolutionObserver() {
+            @Override
+            public void resolutionFailedServingStale(final Throwable cause) {
+                staleFailures.add(cause);
+            }
+
+            @Override
+            public void resolutionCompleted(final ResolutionResult result) {
+                results.add(result);
+            }
+        }).maxStaleness(ofSeconds(30)).build());
+
+        BlockingQueue<Object> events = new LinkedBlockingDeque<>();
+        Cancellable discovery = client.dnsQuery(hostName)
+                .whenOnError(events::add)
+                .forEach(events::add);
+        try {
+            assertResolutionResult(results.take(), 1, 1, 0);
+            assertThat(events.take(), is(notNullValue()));
+
+            recordStore.removeIPv4Addresses(hostName);
+            assertThat(staleFailures.take(), instanceOf(UnknownHostException.class));
+            // Previously resolved records are still used, neither missing records nor the failure are propagated.
+            assertThat("Unexpected events while serving stale records", events, hasSize(0));
+
+            results.clear();
+            recordStore.addIPv4Address(hostName, DEFAULT_TTL, ip);
+            assertResolutionResult(results.take(), 1, 0, 0);
+            assertThat("Unexpected events after recovery", events, hasSize(0));
+        } finally {
+            discovery.cancel();
+        }
+    }
+
+    @Test
+    void invalidRefreshSettingsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new DefaultDnsServiceDiscovererBuilder()
+                .refreshAheadFactor(0));
+        assertThrows(IllegalArgumentException.class, () -> new DefaultDnsServiceDiscovererBuilder()
+                .refreshAheadFactor(1.5));
+        assertThrows(IllegalArgumentException.class, () -> new DefaultDnsServiceDiscovererBuilder()
+                .maxStaleness(ofSeconds(-1)));
+    }
+
     @Test
     void aQueryOnNewDiscoveryThrows() throws Exception {
         DnsServiceDiscovererObserver observer = mock(DnsServiceDiscovererObserver.class);
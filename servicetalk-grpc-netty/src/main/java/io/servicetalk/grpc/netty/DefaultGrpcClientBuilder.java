@@ -46,7 +46,7 @@ import javax.annotation.Nullable;
 import static io.servicetalk.concurrent.api.Single.failed;
 import static io.servicetalk.grpc.api.GrpcStatus.fromThrowable;
 import static io.servicetalk.grpc.internal.DeadlineUtils.GRPC_MAX_TIMEOUT;
-import static io.servicetalk.http.netty.HttpProtocolConfigs.h2Default;
+import static io.servicetalk.grpc.netty.GrpcUtils.GRPC_H2_CONFIG;
 import static io.servicetalk.utils.internal.DurationUtils.ensurePositive;
 import static io.servicetalk.utils.internal.DurationUtils.isInfinite;
 import static java.util.Objects.requireNonNull;
@@ -95,7 +95,7 @@ final class DefaultGrpcClientBuilder<U, R> implements GrpcClientBuilder<U, R> {
     }
 
     private GrpcClientCallFactory newGrpcClientCallFactory() {
-        SingleAddressHttpClientBuilder<U, R> builder = httpClientBuilderSupplier.get().protocols(h2Default());
+        SingleAddressHttpClientBuilder<U, R> builder = httpClientBuilderSupplier.get().protocols(GRPC_H2_CONFIG);
         builder.appendClientFilter(CatchAllHttpClientFilter.INSTANCE);
         httpInitializer.initialize(builder);
         builder.appendClientFilter(new TimeoutHttpRequesterFilter(GRPC_TIMEOUT_REQHDR, true));
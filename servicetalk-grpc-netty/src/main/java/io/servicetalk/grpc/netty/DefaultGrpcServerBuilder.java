@@ -64,7 +64,7 @@ import static io.servicetalk.concurrent.internal.FutureUtils.awaitResult;
 import static io.servicetalk.grpc.api.GrpcExecutionStrategies.defaultStrategy;
 import static io.servicetalk.grpc.internal.DeadlineUtils.GRPC_DEADLINE_KEY;
 import static io.servicetalk.grpc.internal.DeadlineUtils.readTimeoutHeader;
-import static io.servicetalk.http.netty.HttpProtocolConfigs.h2Default;
+import static io.servicetalk.grpc.netty.GrpcUtils.GRPC_H2_CONFIG;
 import static io.servicetalk.utils.internal.DurationUtils.ensurePositive;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
@@ -92,7 +92,7 @@ final class DefaultGrpcServerBuilder implements GrpcServerBuilder, ServerBinder
 
     DefaultGrpcServerBuilder(final Supplier<HttpServerBuilder> httpServerBuilderSupplier) {
         this.httpServerBuilderSupplier = () -> httpServerBuilderSupplier.get()
-                .protocols(h2Default()).allowDropRequestTrailers(true);
+                .protocols(GRPC_H2_CONFIG).allowDropRequestTrailers(true);
     }
 
     @Override
@@ -305,6 +305,12 @@ final class DefaultGrpcServerBuilder implements GrpcServerBuilder, ServerBinder
             return this;
         }
 
+        @Override
+        public HttpServerBuilder adaptiveFlush(final Duration maxFlushDelay) {
+            delegate.adaptiveFlush(maxFlushDelay);
+            return this;
+        }
+
         @Override
         public HttpServerBuilder lifecycleObserver(final HttpLifecycleObserver lifecycleObserver) {
             delegate.lifecycleObserver(lifecycleObserver);
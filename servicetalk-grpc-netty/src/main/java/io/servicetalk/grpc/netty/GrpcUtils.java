@@ -24,6 +24,7 @@ import io.servicetalk.http.api.HttpHeaders;
 import io.servicetalk.http.api.HttpResponseMetaData;
 import io.servicetalk.http.api.StreamingHttpResponse;
 import io.servicetalk.http.api.StreamingHttpResponseFactory;
+import io.servicetalk.http.netty.H2ProtocolConfig;
 import io.servicetalk.serializer.api.SerializationException;
 
 import com.google.rpc.Status;
@@ -31,14 +32,17 @@ import com.google.rpc.Status;
 import java.util.Base64;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.TimeoutException;
+import java.util.function.BiPredicate;
 import javax.annotation.Nullable;
 
+import static io.servicetalk.buffer.api.CharSequences.contentEqualsIgnoreCase;
 import static io.servicetalk.buffer.api.CharSequences.newAsciiString;
 import static io.servicetalk.grpc.api.GrpcHeaderNames.GRPC_MESSAGE_ACCEPT_ENCODING;
 import static io.servicetalk.grpc.api.GrpcHeaderNames.GRPC_MESSAGE_ENCODING;
 import static io.servicetalk.grpc.api.GrpcHeaderNames.GRPC_STATUS;
 import static io.servicetalk.grpc.api.GrpcHeaderNames.GRPC_STATUS_DETAILS_BIN;
 import static io.servicetalk.grpc.api.GrpcHeaderNames.GRPC_STATUS_MESSAGE;
+import static io.servicetalk.grpc.api.GrpcHeaderNames.GRPC_TIMEOUT;
 import static io.servicetalk.grpc.api.GrpcHeaderValues.SERVICETALK_USER_AGENT;
 import static io.servicetalk.grpc.api.GrpcStatusCode.CANCELLED;
 import static io.servicetalk.grpc.api.GrpcStatusCode.DEADLINE_EXCEEDED;
@@ -47,10 +51,28 @@ import static io.servicetalk.grpc.api.GrpcStatusCode.UNKNOWN;
 import static io.servicetalk.grpc.api.GrpcStatusCode.fromHttp2ErrorCode;
 import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_TYPE;
 import static io.servicetalk.http.api.HttpHeaderNames.SERVER;
+import static io.servicetalk.http.netty.HttpProtocolConfigs.h2;
 import static java.lang.String.valueOf;
 
 final class GrpcUtils {
 
+    /**
+     * Marks the headers whose values change for (almost) every call as never-indexed for HPACK. Adding
+     * {@code grpc-timeout} (remaining deadline) or per-error status details to the dynamic table would evict the
+     * repeated metadata ({@code :path}, {@code content-type}, {@code te}, {@code user-agent}, etc.) which is what
+     * makes subsequent calls on the same connection cheap to encode.
+     */
+    static final BiPredicate<CharSequence, CharSequence> GRPC_HEADERS_SENSITIVITY_DETECTOR = (name, value) ->
+            contentEqualsIgnoreCase(name, GRPC_TIMEOUT) || contentEqualsIgnoreCase(name, GRPC_STATUS_MESSAGE) ||
+            contentEqualsIgnoreCase(name, GRPC_STATUS_DETAILS_BIN);
+
+    /**
+     * Default {@link H2ProtocolConfig} for gRPC clients and servers.
+     */
+    static final H2ProtocolConfig GRPC_H2_CONFIG = h2()
+            .headersSensitivityDetector(GRPC_HEADERS_SENSITIVITY_DETECTOR)
+            .build();
+
     private GrpcUtils() {
         // No instances.
     }
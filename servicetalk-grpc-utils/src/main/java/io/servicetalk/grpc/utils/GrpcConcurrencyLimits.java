@@ -0,0 +1,101 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.grpc.utils;
+
+import io.servicetalk.grpc.api.GrpcServerBuilder;
+import io.servicetalk.grpc.api.GrpcStatusCode;
+import io.servicetalk.http.api.HttpHeaders;
+import io.servicetalk.http.api.HttpRequestMetaData;
+import io.servicetalk.http.api.StreamingHttpResponse;
+import io.servicetalk.http.api.StreamingHttpResponseFactory;
+import io.servicetalk.http.utils.ConcurrencyLimitHttpServiceFilter;
+
+import static io.servicetalk.grpc.api.GrpcHeaderNames.GRPC_STATUS;
+import static io.servicetalk.grpc.api.GrpcHeaderNames.GRPC_STATUS_MESSAGE;
+import static io.servicetalk.grpc.api.GrpcHeaderValues.APPLICATION_GRPC;
+import static io.servicetalk.grpc.api.GrpcHeaderValues.SERVICETALK_USER_AGENT;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_TYPE;
+import static io.servicetalk.http.api.HttpHeaderNames.SERVER;
+import static io.servicetalk.http.utils.ConcurrencyLimitHttpServiceFilter.OVERFLOW_PARTITION;
+
+/**
+ * A factory to create {@link ConcurrencyLimitHttpServiceFilter}s for gRPC servers.
+ * <p>
+ * The created filters are applied to the HTTP layer of a gRPC server via
+ * {@link GrpcServerBuilder#initializeHttp(GrpcServerBuilder.HttpInitializer)}:
+ * <pre>{@code
+ *     ConcurrencyLimitHttpServiceFilter limiter = GrpcConcurrencyLimits.newBuilder().build();
+ *     GrpcServers.forAddress(address)
+ *                .initializeHttp(httpBuilder -> httpBuilder.appendServiceFilter(limiter))
+ *                .listenAndAwait(service);
+ * }</pre>
+ */
+public final class GrpcConcurrencyLimits {
+
+    private static final CharSequence GRPC_STATUS_UNAVAILABLE = String.valueOf(GrpcStatusCode.UNAVAILABLE.value());
+    private static final CharSequence REJECTED_MESSAGE = "Concurrency limit exceeded";
+
+    private GrpcConcurrencyLimits() {
+        // No instances
+    }
+
+    /**
+     * Creates a new {@link ConcurrencyLimitHttpServiceFilter.Builder} which maintains a limit per gRPC method and
+     * rejects requests over the limit with {@link GrpcStatusCode#UNAVAILABLE}, which clients may retry.
+     * <p>
+     * The method is taken from the request path, which is chosen by the client. Requests with a path that is not of
+     * the form {@code /{service}/{method}} share the
+     * {@link ConcurrencyLimitHttpServiceFilter#OVERFLOW_PARTITION overflow partition}, and so do requests for methods
+     * beyond the {@link ConcurrencyLimitHttpServiceFilter.Builder#maxPartitions(int) maximum number of partitions}.
+     *
+     * @return a new {@link ConcurrencyLimitHttpServiceFilter.Builder} configured for gRPC.
+     */
+    public static ConcurrencyLimitHttpServiceFilter.Builder newBuilder() {
+        return new ConcurrencyLimitHttpServiceFilter.Builder()
+                .partitionKey(GrpcConcurrencyLimits::methodPartition)
+                .rejectedResponse(GrpcConcurrencyLimits::unavailable);
+    }
+
+    private static String methodPartition(final HttpRequestMetaData request) {
+        // The path of gRPC requests is /{service}/{method}
+        final String path = request.path();
+        final int methodStart = path.indexOf('/', 1) + 1;
+        return path.length() > 1 && path.charAt(0) == '/' && methodStart > 2 && methodStart < path.length() &&
+                path.indexOf('/', methodStart) < 0 ? path : OVERFLOW_PARTITION;
+    }
+
+    /**
+     * Creates a trailers-only gRPC response with {@link GrpcStatusCode#UNAVAILABLE} for a request which was rejected
+     * because of a concurrency limit.
+     *
+     * @param request the rejected request.
+     * @param responseFactory the {@link StreamingHttpResponseFactory} used to create the response.
+     * @return a trailers-only gRPC response with {@link GrpcStatusCode#UNAVAILABLE}.
+     */
+    public static StreamingHttpResponse unavailable(final HttpRequestMetaData request,
+                                                    final StreamingHttpResponseFactory responseFactory) {
+        // The response status is 200 no matter what. Actual status is put in trailers, which are the headers for a
+        // response without a payload body.
+        final StreamingHttpResponse response = responseFactory.ok();
+        final HttpHeaders headers = response.headers();
+        final CharSequence contentType = request.headers().get(CONTENT_TYPE);
+        headers.set(SERVER, SERVICETALK_USER_AGENT);
+        headers.set(CONTENT_TYPE, contentType != null ? contentType : APPLICATION_GRPC);
+        headers.set(GRPC_STATUS, GRPC_STATUS_UNAVAILABLE);
+        headers.set(GRPC_STATUS_MESSAGE, REJECTED_MESSAGE);
+        return response;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.grpc.utils;
+
+import io.servicetalk.concurrent.api.Single;
+import io.servicetalk.concurrent.api.TestExecutor;
+import io.servicetalk.grpc.api.GrpcStatusCode;
+import io.servicetalk.http.api.DefaultHttpHeadersFactory;
+import io.servicetalk.http.api.DefaultStreamingHttpRequestResponseFactory;
+import io.servicetalk.http.api.HttpExecutionContext;
+import io.servicetalk.http.api.HttpServiceContext;
+import io.servicetalk.http.api.StreamingHttpRequestResponseFactory;
+import io.servicetalk.http.api.StreamingHttpResponse;
+import io.servicetalk.http.api.StreamingHttpServiceFilter;
+import io.servicetalk.http.utils.ConcurrencyLimitHttpServiceFilter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Future;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.grpc.api.GrpcHeaderNames.GRPC_STATUS;
+import static io.servicetalk.http.api.HttpProtocolVersion.HTTP_2_0;
+import static io.servicetalk.http.utils.ConcurrencyLimitHttpServiceFilter.OVERFLOW_PARTITION;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GrpcConcurrencyLimitsTest {
+
+    private static final StreamingHttpRequestResponseFactory REQ_RES_FACTORY =
+            new DefaultStreamingHttpRequestResponseFactory(DEFAULT_ALLOCATOR, DefaultHttpHeadersFactory.INSTANCE,
+                    HTTP_2_0);
+
+    private final HttpServiceContext ctx = mock(HttpServiceContext.class);
+
+    @BeforeEach
+    void setUp() {
+        final HttpExecutionContext executionContext = mock(HttpExecutionContext.class);
+        when(executionContext.executor()).thenReturn(new TestExecutor());
+        when(ctx.executionContext()).thenReturn(executionContext);
+    }
+
+    @Test
+    void requestsOverLimitAreUnavailable() throws Exception {
+        final StreamingHttpServiceFilter filter = newFilter(GrpcConcurrencyLimits.newBuilder().initialLimit(1)
+                .limitBounds(1, 1).build());
+        assertThat(handle(filter, "/test.Service/Method"), is(nullValue()));
+        assertThat(handle(filter, "/test.Service/Method"),
+                is(String.valueOf(GrpcStatusCode.UNAVAILABLE.value())));
+        // Other methods have their own limit.
+        assertThat(handle(filter, "/test.Service/OtherMethod"), is(nullValue()));
+    }
+
+    @Test
+    void partitionsAreBounded() throws Exception {
+        final ConcurrencyLimitHttpServiceFilter filterFactory = GrpcConcurrencyLimits.newBuilder().maxPartitions(2)
+                .build();
+        final StreamingHttpServiceFilter filter = newFilter(filterFactory);
+        for (int i = 0; i < 10; ++i) {
+            handle(filter, "/test.Service/Method" + i);
+        }
+        assertThat(filterFactory.partitions().keySet(),
+                containsInAnyOrder("/test.Service/Method0", "/test.Service/Method1", OVERFLOW_PARTITION));
+        assertThat(filterFactory.partitions().get(OVERFLOW_PARTITION).inFlight(), is(8));
+    }
+
+    @Test
+    void pathsWhichAreNotMethodsShareTheOverflowPartition() throws Exception {
+        final ConcurrencyLimitHttpServiceFilter filterFactory = GrpcConcurrencyLimits.newBuilder().build();
+        final StreamingHttpServiceFilter filter = newFilter(filterFactory);
+        handle(filter, "/");
+        handle(filter, "/test.Service");
+        handle(filter, "/test.Service/");
+        handle(filter, "/test.Service/Method/extra");
+        assertThat(filterFactory.partitions().keySet(), containsInAnyOrder(OVERFLOW_PARTITION));
+        assertThat(filterFactory.partitions().get(OVERFLOW_PARTITION).inFlight(), is(4));
+    }
+
+    @Nullable
+    private String handle(final StreamingHttpServiceFilter filter, final String path) throws Exception {
+        // Accepted requests never complete, so they keep their slot. Rejected requests complete immediately.
+        final Future<StreamingHttpResponse> response = filter.handle(ctx, REQ_RES_FACTORY.post(path), REQ_RES_FACTORY)
+                .toFuture();
+        if (!response.isDone()) {
+            return null;
+        }
+        final CharSequence status = response.get().headers().get(GRPC_STATUS);
+        return status == null ? null : status.toString();
+    }
+
+    private static StreamingHttpServiceFilter newFilter(final ConcurrencyLimitHttpServiceFilter filterFactory) {
+        return filterFactory.create((ctx, request, responseFactory) -> Single.never());
+    }
+}
@@ -0,0 +1,894 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.api;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.buffer.api.CharSequences.caseInsensitiveHashCode;
+import static io.servicetalk.buffer.api.CharSequences.contentEquals;
+import static io.servicetalk.buffer.api.CharSequences.contentEqualsIgnoreCase;
+import static io.servicetalk.http.api.HeaderUtils.DEFAULT_HEADER_FILTER;
+import static io.servicetalk.http.api.HeaderUtils.domainMatches;
+import static io.servicetalk.http.api.HeaderUtils.isSetCookieNameMatches;
+import static io.servicetalk.http.api.HeaderUtils.parseCookiePair;
+import static io.servicetalk.http.api.HeaderUtils.pathMatches;
+import static io.servicetalk.http.api.HeaderUtils.validateCookieTokenAndHeaderName;
+import static io.servicetalk.http.api.HttpHeaderNames.COOKIE;
+import static io.servicetalk.http.api.HttpHeaderNames.SET_COOKIE;
+import static java.lang.Math.max;
+import static java.util.Collections.emptyIterator;
+import static java.util.Collections.emptySet;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link HttpHeaders} which keep their entries in flat arrays, in insertion order, with an open addressing table
+ * (linear probing) from each name to its first entry. Entries with the same name are linked by their index.
+ * <p>
+ * Adding a header does not allocate, unless the arrays have to grow. Removed entries leave a hole in the arrays, which
+ * is reclaimed when the arrays would otherwise grow.
+ */
+final class ArrayHttpHeaders implements HttpHeaders {
+    private static final int MIN_CAPACITY = 4;
+    private static final CharSequence[] EMPTY_CHAR_SEQUENCES = new CharSequence[0];
+    private static final int[] EMPTY_INTS = new int[0];
+
+    private final boolean validateNames;
+    private final boolean validateCookies;
+    private final boolean validateValues;
+    /**
+     * Names of the entries, {@code null} for a removed entry.
+     */
+    private CharSequence[] names;
+    private CharSequence[] values;
+    private int[] hashes;
+    /**
+     * Index of the next entry with the same name, or {@code -1}.
+     */
+    private int[] nexts;
+    /**
+     * Open addressing table of {@code 1 +} the index of the first entry for each name, {@code 0} for an empty slot.
+     */
+    private int[] table;
+    /**
+     * Number of used slots in the entry arrays, including removed entries.
+     */
+    private int end;
+    private int size;
+    /**
+     * Incremented when entries move to another index, which invalidates iterators.
+     */
+    private int compactions;
+
+    /**
+     * Create a new instance.
+     *
+     * @param arraySizeHint A hint as to how many entries the headers will hold.
+     * @param validateNames {@code true} to validate header names.
+     * @param validateCookies {@code true} to validate cookie contents when parsing.
+     * @param validateValues {@code true} to validate header values.
+     */
+    ArrayHttpHeaders(final int arraySizeHint, final boolean validateNames, final boolean validateCookies,
+                     final boolean validateValues) {
+        this.validateNames = validateNames;
+        this.validateCookies = validateCookies;
+        this.validateValues = validateValues;
+        allocate(arraySizeHint <= 0 ? 0 : max(MIN_CAPACITY, arraySizeHint));
+    }
+
+    @Nullable
+    @Override
+    public CharSequence get(final CharSequence name) {
+        final int first = first(caseInsensitiveHashCode(name), name);
+        return first < 0 ? null : values[first];
+    }
+
+    @Nullable
+    @Override
+    public CharSequence getAndRemove(final CharSequence name) {
+        final int hash = caseInsensitiveHashCode(name);
+        final int slot = findSlot(hash, name);
+        if (slot < 0) {
+            return null;
+        }
+        final CharSequence value = values[table[slot] - 1];
+        removeAll(slot);
+        return value;
+    }
+
+    @Override
+    public Iterator<? extends CharSequence> valuesIterator(final CharSequence name) {
+        final int first = first(caseInsensitiveHashCode(name), name);
+        return first < 0 ? emptyIterator() : new ValuesIterator(first);
+    }
+
+    @Override
+    public boolean contains(final CharSequence name, final CharSequence value) {
+        return contains(name, value, true);
+    }
+
+    @Override
+    public boolean containsIgnoreCase(final CharSequence name, final CharSequence value) {
+        return contains(name, value, false);
+    }
+
+    private boolean contains(final CharSequence name, final CharSequence value, final boolean caseSensitive) {
+        for (int i = first(caseInsensitiveHashCode(name), name); i >= 0; i = nexts[i]) {
+            if (caseSensitive ? contentEquals(value, values[i]) : contentEqualsIgnoreCase(value, values[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public Set<? extends CharSequence> names() {
+        if (size == 0) {
+            return emptySet();
+        }
+        // Names which only differ by case share the same entry in the table, only the first one is returned.
+        final Set<CharSequence> nameSet = new HashSet<>((int) (size / .75f) + 1);
+        for (final int head : table) {
+            if (head != 0) {
+                nameSet.add(names[head - 1]);
+            }
+        }
+        return nameSet;
+    }
+
+    @Override
+    public HttpHeaders add(final CharSequence name, final CharSequence value) {
+        final CharSequence validatedName = validateName(name);
+        addEntry(validatedName, caseInsensitiveHashCode(validatedName), validateValue(name, value));
+        return this;
+    }
+
+    @Override
+    public HttpHeaders add(final CharSequence name, final Iterable<? extends CharSequence> values) {
+        final CharSequence validatedName = validateName(name);
+        final int hash = caseInsensitiveHashCode(validatedName);
+        for (CharSequence value : values) {
+            addEntry(validatedName, hash, validateValue(name, value));
+        }
+        return this;
+    }
+
+    @Override
+    public HttpHeaders add(final CharSequence name, final CharSequence... values) {
+        final CharSequence validatedName = validateName(name);
+        final int hash = caseInsensitiveHashCode(validatedName);
+        for (CharSequence value : values) {
+            addEntry(validatedName, hash, validateValue(name, value));
+        }
+        return this;
+    }
+
+    @Override
+    public HttpHeaders add(final HttpHeaders headers) {
+        if (headers == this) {
+            return this;
+        }
+        if (headers instanceof ArrayHttpHeaders) {
+            // Names and values are already validated, and hashes computed.
+            final ArrayHttpHeaders other = (ArrayHttpHeaders) headers;
+            for (int i = 0; i < other.end; ++i) {
+                if (other.names[i] != null) {
+                    addEntry(other.names[i], other.hashes[i], other.values[i]);
+                }
+            }
+        } else {
+            for (final Entry<CharSequence, CharSequence> header : headers) {
+                add(header.getKey(), header.getValue());
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public HttpHeaders set(final CharSequence name, final CharSequence value) {
+        final CharSequence validatedName = validateName(name);
+        final CharSequence validatedValue = validateValue(name, value);
+        final int hash = caseInsensitiveHashCode(validatedName);
+        removeAll(hash, validatedName);
+        addEntry(validatedName, hash, validatedValue);
+        return this;
+    }
+
+    @Override
+    public HttpHeaders set(final CharSequence name, final Iterable<? extends CharSequence> values) {
+        final CharSequence validatedName = validateName(name);
+        final int hash = caseInsensitiveHashCode(validatedName);
+        removeAll(hash, validatedName);
+        for (CharSequence value : values) {
+            addEntry(validatedName, hash, validateValue(name, value));
+        }
+        return this;
+    }
+
+    @Override
+    public HttpHeaders set(final CharSequence name, final CharSequence... values) {
+        final CharSequence validatedName = validateName(name);
+        final int hash = caseInsensitiveHashCode(validatedName);
+        removeAll(hash, validatedName);
+        for (CharSequence value : values) {
+            addEntry(validatedName, hash, validateValue(name, value));
+        }
+        return this;
+    }
+
+    @Override
+    public boolean remove(final CharSequence name) {
+        return removeAll(caseInsensitiveHashCode(name), name);
+    }
+
+    @Override
+    public boolean remove(final CharSequence name, final CharSequence value) {
+        return remove(name, value, true);
+    }
+
+    @Override
+    public boolean removeIgnoreCase(final CharSequence name, final CharSequence value) {
+        return remove(name, value, false);
+    }
+
+    private boolean remove(final CharSequence name, final CharSequence value, final boolean caseSensitive) {
+        final int sizeBefore = size;
+        int i = first(caseInsensitiveHashCode(name), name);
+        while (i >= 0) {
+            final int next = nexts[i];
+            if (caseSensitive ? contentEquals(value, values[i]) : contentEqualsIgnoreCase(value, values[i])) {
+                removeEntry(i);
+            }
+            i = next;
+        }
+        return sizeBefore != size;
+    }
+
+    @Override
+    public HttpHeaders clear() {
+        if (end != 0) {
+            Arrays.fill(names, 0, end, null);
+            Arrays.fill(values, 0, end, null);
+            Arrays.fill(table, 0);
+            end = 0;
+            size = 0;
+            ++compactions;
+        }
+        return this;
+    }
+
+    @Override
+    public Iterator<Entry<CharSequence, CharSequence>> iterator() {
+        return size == 0 ? emptyIterator() : new EntriesIterator();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return o instanceof HttpHeaders && HeaderUtils.equals(this, (HttpHeaders) o);
+    }
+
+    @Override
+    public int hashCode() {
+        return HeaderUtils.hashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return toString(DEFAULT_HEADER_FILTER);
+    }
+
+    @Nullable
+    @Override
+    public HttpCookiePair getCookie(final CharSequence name) {
+        for (int i = first(caseInsensitiveHashCode(COOKIE), COOKIE); i >= 0; i = nexts[i]) {
+            final HttpCookiePair cookiePair = parseCookiePair(values[i], name);
+            if (cookiePair != null) {
+                return cookiePair;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public HttpSetCookie getSetCookie(final CharSequence name) {
+        for (int i = first(caseInsensitiveHashCode(SET_COOKIE), SET_COOKIE); i >= 0; i = nexts[i]) {
+            final HttpSetCookie setCookie = HeaderUtils.parseSetCookie(values[i], name, validateCookies);
+            if (setCookie != null) {
+                return setCookie;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Iterator<? extends HttpCookiePair> getCookiesIterator() {
+        final int first = first(caseInsensitiveHashCode(COOKIE), COOKIE);
+        return first < 0 ? emptyIterator() : new CookiesIterator(first);
+    }
+
+    @Override
+    public Iterator<? extends HttpCookiePair> getCookiesIterator(final CharSequence name) {
+        final int first = first(caseInsensitiveHashCode(COOKIE), COOKIE);
+        return first < 0 ? emptyIterator() : new CookiesByNameIterator(first, name);
+    }
+
+    @Override
+    public Iterator<? extends HttpSetCookie> getSetCookiesIterator() {
+        final int first = first(caseInsensitiveHashCode(SET_COOKIE), SET_COOKIE);
+        return first < 0 ? emptyIterator() : new SetCookiesIterator(first, null, null, null);
+    }
+
+    @Override
+    public Iterator<? extends HttpSetCookie> getSetCookiesIterator(final CharSequence name) {
+        final int first = first(caseInsensitiveHashCode(SET_COOKIE), SET_COOKIE);
+        return first < 0 ? emptyIterator() : new SetCookiesIterator(first, name, null, null);
+    }
+
+    @Override
+    public Iterator<? extends HttpSetCookie> getSetCookiesIterator(final CharSequence name, final CharSequence domain,
+                                                                   final CharSequence path) {
+        final int first = first(caseInsensitiveHashCode(SET_COOKIE), SET_COOKIE);
+        return first < 0 ? emptyIterator() : new SetCookiesIterator(first, name, domain, path);
+    }
+
+    @Override
+    public HttpHeaders addCookie(final HttpCookiePair cookie) {
+        // HTTP/1.x requires that all cookies/crumbs are combined into a single Cookie header.
+        // https://tools.ietf.org/html/rfc6265#section-5.4
+        final CharSequence encoded = cookie.encoded();
+        final int hash = caseInsensitiveHashCode(COOKIE);
+        final int first = first(hash, COOKIE);
+        if (first >= 0) {
+            values[first] = values[first] + "; " + encoded;
+        } else {
+            addEntry(COOKIE, hash, encoded);
+        }
+        return this;
+    }
+
+    @Override
+    public HttpHeaders addSetCookie(final HttpSetCookie cookie) {
+        addEntry(SET_COOKIE, caseInsensitiveHashCode(SET_COOKIE), cookie.encoded());
+        return this;
+    }
+
+    @Override
+    public boolean removeCookies(final CharSequence name) {
+        boolean removed = false;
+        int i = first(caseInsensitiveHashCode(COOKIE), COOKIE);
+        while (i >= 0) {
+            final int next = nexts[i];
+            final CharSequence newHeaderValue = HeaderUtils.removeCookiePairs(values[i], name);
+            if (newHeaderValue != null) {
+                if (newHeaderValue.length() == 0) {
+                    removeEntry(i);
+                } else {
+                    values[i] = newHeaderValue;
+                }
+                removed = true;
+            }
+            i = next;
+        }
+        return removed;
+    }
+
+    @Override
+    public boolean removeSetCookies(final CharSequence name) {
+        final int sizeBefore = size;
+        int i = first(caseInsensitiveHashCode(SET_COOKIE), SET_COOKIE);
+        while (i >= 0) {
+            final int next = nexts[i];
+            if (isSetCookieNameMatches(values[i], name)) {
+                removeEntry(i);
+            }
+            i = next;
+        }
+        return sizeBefore != size;
+    }
+
+    @Override
+    public boolean removeSetCookies(final CharSequence name, final CharSequence domain, final CharSequence path) {
+        final int sizeBefore = size;
+        int i = first(caseInsensitiveHashCode(SET_COOKIE), SET_COOKIE);
+        while (i >= 0) {
+            final int next = nexts[i];
+            // In the future we could attempt to delay full parsing of the cookie until after the domain/path have
+            // been matched, but for simplicity just do the parsing ahead of time.
+            final HttpSetCookie setCookie = HeaderUtils.parseSetCookie(values[i], name, false);
+            if (setCookie != null && domainMatches(domain, setCookie.domain()) &&
+                    pathMatches(path, setCookie.path())) {
+                removeEntry(i);
+            }
+            i = next;
+        }
+        return sizeBefore != size;
+    }
+
+    private CharSequence validateName(@Nullable final CharSequence name) {
+        if (name == null || name.length() == 0) {
+            throw new IllegalArgumentException("Empty header names are not allowed");
+        }
+        if (validateNames) {
+            validateCookieTokenAndHeaderName(name);
+        }
+        return name;
+    }
+
+    private CharSequence validateValue(final CharSequence name, @Nullable final CharSequence value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null value for key: " + name);
+        }
+        if (validateValues) {
+            HeaderUtils.validateHeaderValue(value);
+        }
+        return value;
+    }
+
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private void allocate(final int capacity) {
+        if (capacity == 0) {
+            names = values = EMPTY_CHAR_SEQUENCES;
+            hashes = nexts = table = EMPTY_INTS;
+        } else {
+            names = new CharSequence[capacity];
+            values = new CharSequence[capacity];
+            hashes = new int[capacity];
+            nexts = new int[capacity];
+            // At most one slot per entry, keep the load factor of the table at or below 0.5.
+            table = new int[Integer.highestOneBit(capacity - 1) << 2];
+        }
+    }
+
+    /**
+     * Find the slot in {@link #table} for a name.
+     *
+     * @param hash the case insensitive hash code of {@code name}.
+     * @param name the name to find.
+     * @return the slot for {@code name}, or {@code -1} if there is no entry for {@code name}.
+     */
+    private int findSlot(final int hash, final CharSequence name) {
+        final int[] table = this.table;
+        if (table.length == 0) {
+            return -1;
+        }
+        final int mask = table.length - 1;
+        for (int i = spread(hash) & mask;; i = (i + 1) & mask) {
+            final int head = table[i] - 1;
+            if (head < 0) {
+                return -1;
+            }
+            if (hashes[head] == hash && contentEqualsIgnoreCase(names[head], name)) {
+                return i;
+            }
+        }
+    }
+
+    private int first(final int hash, final CharSequence name) {
+        final int slot = findSlot(hash, name);
+        return slot < 0 ? -1 : table[slot] - 1;
+    }
+
+    private void addEntry(final CharSequence name, final int hash, final CharSequence value) {
+        if (end == names.length) {
+            grow();
+        }
+        final int index = end++;
+        names[index] = name;
+        values[index] = value;
+        hashes[index] = hash;
+        nexts[index] = -1;
+        ++size;
+
+        final int[] table = this.table;
+        final int mask = table.length - 1;
+        for (int i = spread(hash) & mask;; i = (i + 1) & mask) {
+            final int head = table[i] - 1;
+            if (head < 0) {
+                table[i] = index + 1;
+                return;
+            }
+            if (hashes[head] == hash && contentEqualsIgnoreCase(names[head], name)) {
+                int last = head;
+                while (nexts[last] >= 0) {
+                    last = nexts[last];
+                }
+                nexts[last] = index;
+                return;
+            }
+        }
+    }
+
+    private void grow() {
+        final int capacity = names.length;
+        // Reclaim removed entries if that frees enough space, otherwise double the capacity.
+        rehash(size < capacity >>> 1 ? capacity : max(MIN_CAPACITY, capacity << 1));
+    }
+
+    private void rehash(final int capacity) {
+        final CharSequence[] oldNames = names;
+        final CharSequence[] oldValues = values;
+        final int[] oldHashes = hashes;
+        final int oldEnd = end;
+        final int oldSize = size;
+        allocate(capacity);
+        end = 0;
+        size = 0;
+        for (int i = 0; i < oldEnd; ++i) {
+            if (oldNames[i] != null) {
+                addEntry(oldNames[i], oldHashes[i], oldValues[i]);
+            }
+        }
+        if (oldSize != oldEnd) {
+            ++compactions;
+        }
+    }
+
+    private boolean removeAll(final int hash, final CharSequence name) {
+        final int slot = findSlot(hash, name);
+        if (slot < 0) {
+            return false;
+        }
+        removeAll(slot);
+        return true;
+    }
+
+    private void removeAll(final int slot) {
+        int i = table[slot] - 1;
+        do {
+            names[i] = null;
+            values[i] = null;
+            --size;
+            i = nexts[i];
+        } while (i >= 0);
+        deleteSlot(slot);
+    }
+
+    private void removeEntry(final int index) {
+        final CharSequence name = names[index];
+        if (name == null) {
+            throw new ConcurrentModificationException();
+        }
+        final int slot = findSlot(hashes[index], name);
+        assert slot >= 0;
+        final int head = table[slot] - 1;
+        if (head == index) {
+            if (nexts[index] < 0) {
+                deleteSlot(slot);
+            } else {
+                table[slot] = nexts[index] + 1;
+            }
+        } else {
+            int prev = head;
+            while (nexts[prev] != index) {
+                prev = nexts[prev];
+                if (prev < 0) {
+                    throw new ConcurrentModificationException();
+                }
+            }
+            nexts[prev] = nexts[index];
+        }
+        // The index of the next entry is kept, so iterators positioned on this entry can move on.
+        names[index] = null;
+        values[index] = null;
+        --size;
+    }
+
+    /**
+     * Delete a slot from {@link #table} and shift back the following slots of the probe sequence.
+     *
+     * @param slot the slot to delete.
+     */
+    private void deleteSlot(int slot) {
+        final int[] table = this.table;
+        final int mask = table.length - 1;
+        for (int i = (slot + 1) & mask;; i = (i + 1) & mask) {
+            final int head = table[i] - 1;
+            if (head < 0) {
+                break;
+            }
+            final int home = spread(hashes[head]) & mask;
+            // The entry can move back to the deleted slot if that slot is between its home slot and its current slot.
+            if (((i - home) & mask) >= ((i - slot) & mask)) {
+                table[slot] = table[i];
+                slot = i;
+            }
+        }
+        table[slot] = 0;
+    }
+
+    private int nextLiveInChain(int index) {
+        while (index >= 0 && names[index] == null) {
+            index = nexts[index];
+        }
+        return index;
+    }
+
+    /**
+     * Iterator over the entries of a name, which loads the next element eagerly. The loaded element is still returned
+     * if entries were compacted in the meantime, but the chain can no longer be followed after it.
+     */
+    private abstract class ChainIterator {
+        private final int expectedCompactions = compactions;
+        int previous = -1;
+        private boolean compacted;
+
+        /**
+         * Called from {@code next()} before moving past the loaded element.
+         *
+         * @return {@code true} if the chain can be followed, {@code false} if entries were compacted.
+         */
+        final boolean canAdvance() {
+            if (compacted) {
+                throw new ConcurrentModificationException();
+            }
+            compacted = expectedCompactions != compactions;
+            return !compacted;
+        }
+
+        final boolean hasNext(final boolean loaded) {
+            return loaded || compacted;
+        }
+
+        public final void remove() {
+            if (previous < 0) {
+                throw new IllegalStateException();
+            }
+            if (compacted || expectedCompactions != compactions) {
+                throw new ConcurrentModificationException();
+            }
+            removeEntry(previous);
+            previous = -1;
+        }
+    }
+
+    private final class ValuesIterator extends ChainIterator implements Iterator<CharSequence> {
+        private int next;
+        @Nullable
+        private CharSequence nextValue;
+
+        ValuesIterator(final int first) {
+            next = first;
+            nextValue = values[first];
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasNext(nextValue != null);
+        }
+
+        @Override
+        public CharSequence next() {
+            final boolean canAdvance = canAdvance();
+            final CharSequence current = nextValue;
+            if (current == null) {
+                throw new NoSuchElementException();
+            }
+            previous = next;
+            next = canAdvance ? nextLiveInChain(nexts[next]) : -1;
+            nextValue = next < 0 ? null : values[next];
+            return current;
+        }
+    }
+
+    private final class SetCookiesIterator extends ChainIterator implements Iterator<HttpSetCookie> {
+        @Nullable
+        private final CharSequence name;
+        @Nullable
+        private final CharSequence domain;
+        @Nullable
+        private final CharSequence path;
+        private int next;
+        @Nullable
+        private HttpSetCookie nextCookie;
+
+        SetCookiesIterator(final int first, @Nullable final CharSequence name, @Nullable final CharSequence domain,
+                           @Nullable final CharSequence path) {
+            this.name = name;
+            this.domain = domain;
+            this.path = path;
+            findNext(first);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasNext(nextCookie != null);
+        }
+
+        @Override
+        public HttpSetCookie next() {
+            final boolean canAdvance = canAdvance();
+            final HttpSetCookie current = nextCookie;
+            if (current == null) {
+                throw new NoSuchElementException();
+            }
+            previous = next;
+            findNext(canAdvance ? nextLiveInChain(nexts[next]) : -1);
+            return current;
+        }
+
+        private void findNext(int i) {
+            for (; i >= 0; i = nexts[i]) {
+                final CharSequence value = values[i];
+                if (value == null) {
+                    continue;
+                }
+                final HttpSetCookie setCookie = name == null ?
+                        DefaultHttpSetCookie.parseSetCookie(value, validateCookies) :
+                        HeaderUtils.parseSetCookie(value, name, validateCookies);
+                if (setCookie != null && (domain == null || domainMatches(domain, setCookie.domain())) &&
+                        (path == null || pathMatches(path, setCookie.path()))) {
+                    next = i;
+                    nextCookie = setCookie;
+                    return;
+                }
+            }
+            nextCookie = null;
+        }
+    }
+
+    private final class CookiesIterator extends HeaderUtils.CookiesIterator {
+        private int current;
+
+        CookiesIterator(final int first) {
+            current = first;
+            initNext(values[first]);
+        }
+
+        @Nullable
+        @Override
+        protected CharSequence cookieHeaderValue() {
+            return current < 0 ? null : values[current];
+        }
+
+        @Override
+        protected void advanceCookieHeaderValue() {
+            current = nextLiveInChain(nexts[current]);
+        }
+    }
+
+    private final class CookiesByNameIterator extends HeaderUtils.CookiesByNameIterator {
+        private int current;
+
+        CookiesByNameIterator(final int first, final CharSequence name) {
+            super(name);
+            current = first;
+            initNext(values[first]);
+        }
+
+        @Nullable
+        @Override
+        protected CharSequence cookieHeaderValue() {
+            return current < 0 ? null : values[current];
+        }
+
+        @Override
+        protected void advanceCookieHeaderValue() {
+            current = nextLiveInChain(nexts[current]);
+        }
+    }
+
+    private final class EntriesIterator implements Iterator<Entry<CharSequence, CharSequence>> {
+        private final int expectedCompactions = compactions;
+        private int next;
+        private int previous = -1;
+
+        @Override
+        public boolean hasNext() {
+            while (next < end && names[next] == null) {
+                ++next;
+            }
+            return next < end;
+        }
+
+        @Override
+        public Entry<CharSequence, CharSequence> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            checkForComodification();
+            previous = next++;
+            return new ArrayEntry(previous);
+        }
+
+        @Override
+        public void remove() {
+            if (previous < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            removeEntry(previous);
+            previous = -1;
+        }
+
+        private void checkForComodification() {
+            if (expectedCompactions != compactions) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    private final class ArrayEntry implements Entry<CharSequence, CharSequence> {
+        private final int expectedCompactions = compactions;
+        private final int index;
+        private final CharSequence key;
+        private CharSequence value;
+
+        ArrayEntry(final int index) {
+            this.index = index;
+            key = names[index];
+            value = values[index];
+        }
+
+        @Override
+        public CharSequence getKey() {
+            return key;
+        }
+
+        @Override
+        public CharSequence getValue() {
+            return value;
+        }
+
+        @Override
+        public CharSequence setValue(final CharSequence value) {
+            final CharSequence oldValue = this.value;
+            this.value = validateValue(key, requireNonNull(value));
+            if (expectedCompactions == compactions && names[index] != null) {
+                values[index] = value;
+            }
+            return oldValue;
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            final Entry<?, ?> other = (Entry<?, ?>) o;
+            return key.equals(other.getKey()) && value.equals(other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ value.hashCode();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.api;
+
+/**
+ * {@link HttpHeadersFactory} which creates headers backed by flat arrays of names and values, indexed by an open
+ * addressing table with ASCII case insensitive hashing.
+ * <p>
+ * Compared to {@link DefaultHttpHeadersFactory}, adding a header does not allocate an entry object, and lookups for
+ * the small number of headers typical of a request or response touch fewer cache lines. Removing headers leaves holes
+ * which are only reclaimed when the arrays would otherwise have to grow, which makes these headers less suited to
+ * use cases which repeatedly remove and add headers.
+ */
+public final class ArrayHttpHeadersFactory implements HttpHeadersFactory {
+
+    private static final boolean DEFAULT_VALIDATE_VALUES = false;
+    public static final HttpHeadersFactory INSTANCE = new ArrayHttpHeadersFactory(true, true,
+            DEFAULT_VALIDATE_VALUES);
+
+    private final boolean validateNames;
+    private final boolean validateCookies;
+    private final boolean validateValues;
+    private final int headersArraySizeHint;
+    private final int trailersArraySizeHint;
+
+    /**
+     * Create an instance of the factory with the default array size hint.
+     *
+     * @param validateNames {@code true} to validate header/trailer names.
+     * @param validateCookies {@code true} to validate cookie contents when parsing.
+     * @param validateValues {@code true} to validate header/trailer values.
+     */
+    public ArrayHttpHeadersFactory(final boolean validateNames, final boolean validateCookies,
+                                   final boolean validateValues) {
+        this(validateNames, validateCookies, validateValues, 16, 4);
+    }
+
+    /**
+     * Create an instance of the factory.
+     *
+     * @param validateNames {@code true} to validate header/trailer names.
+     * @param validateCookies {@code true} to validate cookie contents when parsing.
+     * @param validateValues {@code true} to validate header/trailer values.
+     * @param headersArraySizeHint A hint as to how many entries the headers are expected to hold.
+     * @param trailersArraySizeHint A hint as to how many entries the trailers are expected to hold.
+     */
+    public ArrayHttpHeadersFactory(final boolean validateNames, final boolean validateCookies,
+                                   final boolean validateValues,
+                                   final int headersArraySizeHint, final int trailersArraySizeHint) {
+        if (headersArraySizeHint < 0) {
+            throw new IllegalArgumentException("headersArraySizeHint: " + headersArraySizeHint + " (expected >=0)");
+        }
+        if (trailersArraySizeHint < 0) {
+            throw new IllegalArgumentException("trailersArraySizeHint: " + trailersArraySizeHint + " (expected >=0)");
+        }
+        this.validateNames = validateNames;
+        this.validateCookies = validateCookies;
+        this.validateValues = validateValues;
+        this.headersArraySizeHint = headersArraySizeHint;
+        this.trailersArraySizeHint = trailersArraySizeHint;
+    }
+
+    @Override
+    public HttpHeaders newHeaders() {
+        return new ArrayHttpHeaders(headersArraySizeHint, validateNames, validateCookies, validateValues);
+    }
+
+    @Override
+    public HttpHeaders newTrailers() {
+        return new ArrayHttpHeaders(trailersArraySizeHint, validateNames, validateCookies, validateValues);
+    }
+
+    @Override
+    public HttpHeaders newEmptyTrailers() {
+        return new ArrayHttpHeaders(0, validateNames, validateCookies, validateValues);
+    }
+
+    @Override
+    public boolean validateCookies() {
+        return validateCookies;
+    }
+
+    @Override
+    public boolean validateValues() {
+        return validateValues;
+    }
+}
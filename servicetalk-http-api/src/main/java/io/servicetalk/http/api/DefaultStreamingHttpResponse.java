@@ -26,6 +26,9 @@ import java.util.function.Function;
 import java.util.function.UnaryOperator;
 import javax.annotation.Nullable;
 
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
+import static io.servicetalk.http.api.HttpHeaderNames.TRANSFER_ENCODING;
+
 final class DefaultStreamingHttpResponse extends DefaultHttpResponseMetaData
         implements StreamingHttpResponse, PayloadInfo {
 
@@ -86,6 +89,14 @@ final class DefaultStreamingHttpResponse extends DefaultHttpResponseMetaData
         return this;
     }
 
+    @Override
+    public StreamingHttpResponse fileRegionBody(final HttpFileRegion region) {
+        payloadHolder.fileRegionBody(region);
+        headers().remove(TRANSFER_ENCODING);
+        headers().set(CONTENT_LENGTH, Long.toString(region.count()));
+        return this;
+    }
+
     @Deprecated
     @Override
     public <T> StreamingHttpResponse payloadBody(final Publisher<T> payloadBody,
@@ -85,6 +85,30 @@ public final class HttpExecutionStrategies {
         return DefaultHttpExecutionStrategy.OFFLOAD_ALL_STRATEGY;
     }
 
+    /**
+     * An {@link HttpExecutionStrategy} that only offloads receiving of metadata and data, which is where the handlers
+     * of services are invoked. Sending and transport events are not offloaded.
+     * <p>
+     * This strategy is intended for servers with blocking services which use a thread-per-task
+     * {@link io.servicetalk.concurrent.api.Executor}, such as
+     * {@link io.servicetalk.concurrent.api.Executors#newVirtualThreadExecutor()}. Each request then runs its blocking
+     * handler on its own virtual thread, and the IO thread does not hop to the {@code Executor} to send the response
+     * or for transport events:
+     * <pre>
+     *     HttpServers.forPort(8080)
+     *             .executor(Executors.newVirtualThreadExecutor())
+     *             .executionStrategy(HttpExecutionStrategies.offloadReceive())
+     *             .listenBlockingAndAwait(service);
+     * </pre>
+     * Like {@link #offloadAll()}, this strategy merges normally with other execution strategy instances, hence filters
+     * which require more offloads still get them.
+     *
+     * @return {@link HttpExecutionStrategy} that only offloads receiving of metadata and data.
+     */
+    public static HttpExecutionStrategy offloadReceive() {
+        return DefaultHttpExecutionStrategy.OFFLOAD_RECEIVE_STRATEGY;
+    }
+
     /**
      * A Builder for creating custom {@link HttpExecutionStrategy}.
      *
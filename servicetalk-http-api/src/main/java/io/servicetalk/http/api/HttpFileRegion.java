@@ -0,0 +1,187 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.api;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.buffer.api.BufferAllocator;
+import io.servicetalk.concurrent.api.Publisher;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static io.servicetalk.concurrent.api.Publisher.from;
+import static io.servicetalk.concurrent.api.Publisher.range;
+import static io.servicetalk.utils.internal.PlatformDependent.throwException;
+import static java.lang.Math.min;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A region of a file to be written as (part of) a payload body, without reading it into {@link
+ * io.servicetalk.buffer.api.Buffer}s.
+ * <p>
+ * The transport writes a region with {@code sendfile} when the connection supports it and is not encrypted, and
+ * otherwise reads the region into {@link Buffer}s before it is written.
+ *
+ * @see StreamingHttpResponse#fileRegionBody(HttpFileRegion)
+ */
+public final class HttpFileRegion {
+    /**
+     * Maximum number of bytes of a region emitted in a message body, which bounds the amount of data the transport
+     * has to hold for a single item when the region can not be transferred directly from the file to the socket.
+     */
+    static final long MAX_MESSAGE_BODY_REGION_SIZE = 1 << 20;
+
+    private final Path file;
+    private final long position;
+    private final long count;
+
+    private HttpFileRegion(final Path file, final long position, final long count) {
+        this.file = file;
+        this.position = position;
+        this.count = count;
+    }
+
+    /**
+     * Creates a new {@link HttpFileRegion} for the entire content of a file.
+     *
+     * @param file the file.
+     * @return a new {@link HttpFileRegion} for the entire content of {@code file}.
+     * @throws IOException if the size of {@code file} can not be read.
+     */
+    public static HttpFileRegion of(final Path file) throws IOException {
+        return of(file, 0, Files.size(file));
+    }
+
+    /**
+     * Creates a new {@link HttpFileRegion}.
+     *
+     * @param file the file.
+     * @param position the position in {@code file} of the first byte of the region.
+     * @param count the number of bytes of the region.
+     * @return a new {@link HttpFileRegion}.
+     */
+    public static HttpFileRegion of(final Path file, final long position, final long count) {
+        if (position < 0) {
+            throw new IllegalArgumentException("position: " + position + " (expected >=0)");
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("count: " + count + " (expected >=0)");
+        }
+        return new HttpFileRegion(requireNonNull(file), position, count);
+    }
+
+    /**
+     * Returns the file.
+     *
+     * @return the file.
+     */
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * Returns the position in {@link #file()} of the first byte of the region.
+     *
+     * @return the position in {@link #file()} of the first byte of the region.
+     */
+    public long position() {
+        return position;
+    }
+
+    /**
+     * Returns the number of bytes of the region.
+     *
+     * @return the number of bytes of the region.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Reads the content of this region into a {@link Buffer}.
+     * <p>
+     * This method blocks while the file is read, it must not be called from an I/O thread.
+     *
+     * @param allocator the {@link BufferAllocator} used to create the returned {@link Buffer}.
+     * @return a {@link Buffer} with the content of this region.
+     * @throws IOException if the file can not be read or ends before the end of this region.
+     */
+    public Buffer read(final BufferAllocator allocator) throws IOException {
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalStateException("count: " + count + " (expected <=" + Integer.MAX_VALUE + ")");
+        }
+        final ByteBuffer content = ByteBuffer.allocate((int) count);
+        try (FileChannel fileChannel = FileChannel.open(file, READ)) {
+            while (content.hasRemaining()) {
+                if (fileChannel.read(content, position + content.position()) < 0) {
+                    throw new EOFException("file: " + file + " ended after " + (position + content.position()) +
+                            " bytes (expected " + (position + count) + ')');
+                }
+            }
+        }
+        return allocator.wrap(content.array());
+    }
+
+    /**
+     * Reads the content of this region into consecutive {@link Buffer}s of at most
+     * {@link #MAX_MESSAGE_BODY_REGION_SIZE} bytes.
+     * <p>
+     * The file is read by the thread which requests the {@link Buffer}s.
+     *
+     * @param allocator the {@link BufferAllocator} used to create the {@link Buffer}s.
+     * @return a {@link Publisher} of the content of this region.
+     */
+    Publisher<Buffer> readSplit(final BufferAllocator allocator) {
+        return split(MAX_MESSAGE_BODY_REGION_SIZE).map(region -> {
+            try {
+                return region.read(allocator);
+            } catch (IOException e) {
+                return throwException(e);
+            }
+        });
+    }
+
+    /**
+     * Split this region in consecutive regions of at most {@code maxCount} bytes.
+     *
+     * @param maxCount the maximum number of bytes of each region.
+     * @return a {@link Publisher} of the consecutive regions.
+     */
+    Publisher<HttpFileRegion> split(final long maxCount) {
+        if (count <= maxCount) {
+            return from(this);
+        }
+        final long regions = (count + maxCount - 1) / maxCount;
+        if (regions > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("count: " + count + " (expected <=" +
+                    maxCount * Integer.MAX_VALUE + ")");
+        }
+        return range(0, (int) regions).map(i -> {
+            final long offset = i * maxCount;
+            return new HttpFileRegion(file, position + offset, min(maxCount, count - offset));
+        });
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{file=" + file + ", position=" + position + ", count=" + count + '}';
+    }
+}
@@ -31,6 +31,7 @@ import io.servicetalk.transport.api.TransportObserver;
 
 import java.net.SocketOption;
 import java.net.StandardSocketOptions;
+import java.time.Duration;
 import java.util.Map;
 import java.util.function.BooleanSupplier;
 import java.util.function.Predicate;
@@ -113,6 +114,22 @@ public interface HttpServerBuilder {
      */
     HttpServerBuilder transportObserver(TransportObserver transportObserver);
 
+    /**
+     * Coalesces flushes of response data written on the same connection instead of flushing every write.
+     * <p>
+     * Writes are flushed together once the IO thread has processed its pending work, or at the latest after
+     * {@code maxFlushDelay} has passed since the first unflushed write. This reduces the number of syscalls when
+     * responses are written as many small chunks or when multiple responses are written in a burst (e.g. pipelining or
+     * HTTP/2), at the cost of up to {@code maxFlushDelay} of additional latency.
+     *
+     * @param maxFlushDelay the maximum time that written data may stay unflushed. {@link Duration#ZERO} only coalesces
+     * writes made before the IO thread becomes idle.
+     * @return {@code this}.
+     */
+    default HttpServerBuilder adaptiveFlush(Duration maxFlushDelay) {
+        throw new UnsupportedOperationException("Adaptive flush is not supported by " + getClass().getName());
+    }
+
     /**
      * Sets a {@link HttpLifecycleObserver} that provides visibility into HTTP lifecycle events.
      *
@@ -32,6 +32,7 @@ import io.servicetalk.transport.api.TransportObserver;
 
 import java.net.SocketOption;
 import java.net.StandardSocketOptions;
+import java.time.Duration;
 import java.util.function.BooleanSupplier;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -81,6 +82,22 @@ public interface SingleAddressHttpClientBuilder<U, R> extends HttpClientBuilder<
     SingleAddressHttpClientBuilder<U, R> enableWireLogging(String loggerName,
                                                            LogLevel logLevel, BooleanSupplier logUserData);
 
+    /**
+     * Coalesces flushes of request data written on the same connection instead of flushing every write.
+     * <p>
+     * Writes are flushed together once the IO thread has processed its pending work, or at the latest after
+     * {@code maxFlushDelay} has passed since the first unflushed write. This reduces the number of syscalls when
+     * requests are written as many small chunks or when multiple requests are written in a burst (e.g. pipelining or
+     * HTTP/2), at the cost of up to {@code maxFlushDelay} of additional latency.
+     *
+     * @param maxFlushDelay the maximum time that written data may stay unflushed. {@link Duration#ZERO} only coalesces
+     * writes made before the IO thread becomes idle.
+     * @return {@code this}.
+     */
+    default SingleAddressHttpClientBuilder<U, R> adaptiveFlush(Duration maxFlushDelay) {
+        throw new UnsupportedOperationException("Adaptive flush is not supported by " + getClass().getName());
+    }
+
     /**
      * Configurations of various HTTP protocol versions.
      * <p>
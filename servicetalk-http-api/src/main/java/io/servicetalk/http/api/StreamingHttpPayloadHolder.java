@@ -109,6 +109,16 @@ final class StreamingHttpPayloadHolder implements PayloadInfo {
         payloadInfo.setMayHaveTrailersAndGenericTypeBuffer(true);
     }
 
+    void fileRegionBody(final HttpFileRegion region) {
+        final Publisher<HttpFileRegion> regions = region.split(HttpFileRegion.MAX_MESSAGE_BODY_REGION_SIZE);
+        if (messageBody == null) {
+            messageBody = regions;
+        } else { // discard old payload body and trailers
+            messageBody = regions.liftSync(new ObjectBridgeFlowControlAndDiscardOperator(messageBody));
+        }
+        payloadInfo.setEmpty(region.count() == 0).setMayHaveTrailers(false).setGenericTypeBuffer(false);
+    }
+
     <T> void payloadBody(final Publisher<T> payloadBody, final HttpStreamingSerializer<T> serializer) {
         payloadBody(serializer.serialize(headers, payloadBody, allocator));
         // Because #serialize(...) method may apply operators, check the original payloadBody again:
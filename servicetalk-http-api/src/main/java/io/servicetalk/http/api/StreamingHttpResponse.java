@@ -24,6 +24,10 @@ import io.servicetalk.encoding.api.ContentCodec;
 import java.util.function.Function;
 import java.util.function.UnaryOperator;
 
+import static io.servicetalk.buffer.api.ReadOnlyBufferAllocators.DEFAULT_RO_ALLOCATOR;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
+import static io.servicetalk.http.api.HttpHeaderNames.TRANSFER_ENCODING;
+
 /**
  * The equivalent of {@link HttpResponse} but provides the payload as a {@link Publisher}.
  */
@@ -80,6 +84,29 @@ public interface StreamingHttpResponse extends HttpResponseMetaData {
      */
     StreamingHttpResponse payloadBody(Publisher<Buffer> payloadBody);
 
+    /**
+     * Returns a {@link StreamingHttpResponse} with its underlying payload set to the content of {@code region}.
+     * <p>
+     * The transport writes the content directly from the file when possible, without copying it into
+     * {@link Buffer}s. The {@link HttpHeaderNames#CONTENT_LENGTH content-length} header is set to
+     * {@link HttpFileRegion#count()} and the existing payload body and trailers are discarded.
+     * <p>
+     * The {@link #messageBody() message-body} of the returned {@link StreamingHttpResponse} contains
+     * {@link HttpFileRegion} items, therefore {@link #payloadBody()} and transformations or filters that expect
+     * {@link Buffer} items (e.g. content encoding) are not supported after calling this method.
+     * <p>
+     * The default implementation does not write the content directly from the file, it sets a regular payload body
+     * which reads the content into {@link Buffer}s on the thread that requests them.
+     * @param region The region of a file to use as the payload body.
+     * @return {@code this}
+     */
+    default StreamingHttpResponse fileRegionBody(HttpFileRegion region) {
+        payloadBody(region.readSplit(DEFAULT_RO_ALLOCATOR));
+        headers().remove(TRANSFER_ENCODING);
+        headers().set(CONTENT_LENGTH, Long.toString(region.count()));
+        return this;
+    }
+
     /**
      * Returns a {@link StreamingHttpResponse} with its underlying payload set to the result of serialization.
      * <p>
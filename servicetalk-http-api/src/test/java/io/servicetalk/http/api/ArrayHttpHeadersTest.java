@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.Map.Entry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ArrayHttpHeadersTest extends AbstractHttpHeadersTest {
+    @Override
+    protected HttpHeaders newHeaders() {
+        return ArrayHttpHeadersFactory.INSTANCE.newHeaders();
+    }
+
+    @Override
+    protected HttpHeaders newHeaders(final int initialSizeHint) {
+        return new ArrayHttpHeaders(initialSizeHint, true, true, true);
+    }
+
+    @Test
+    void removedEntriesAreReclaimedInOrder() {
+        final HttpHeaders headers = newHeaders(4);
+        for (int i = 0; i < 100; ++i) {
+            headers.add("name" + i, "value" + i);
+            if (i > 0) {
+                headers.remove("name" + (i - 1));
+            }
+            headers.add("other", "value" + i);
+        }
+        assertEquals(101, headers.size());
+        assertEquals("value99", headers.get("name99"));
+        assertNull(headers.get("name98"));
+        assertEquals("value0", headers.get("other"));
+        final Iterator<Entry<CharSequence, CharSequence>> itr = headers.iterator();
+        assertEquals("value0", itr.next().getValue());
+        assertEquals("value1", itr.next().getValue());
+    }
+
+    @Test
+    void manyNamesSurviveRemovalFromProbeSequences() {
+        final HttpHeaders headers = newHeaders(0);
+        for (int i = 0; i < 1000; ++i) {
+            headers.add("name" + i, "value" + i);
+        }
+        for (int i = 0; i < 1000; i += 3) {
+            headers.remove("NAME" + i);
+        }
+        for (int i = 0; i < 1000; ++i) {
+            if (i % 3 == 0) {
+                assertNull(headers.get("name" + i));
+            } else {
+                assertEquals("value" + i, headers.get("name" + i));
+            }
+        }
+    }
+
+    @Test
+    void namesDifferingInCaseShareValues() {
+        final HttpHeaders headers = newHeaders();
+        headers.add("Name", "value1");
+        headers.add("name", "value2");
+        headers.add("NAME", "value3");
+        final Iterator<? extends CharSequence> values = headers.valuesIterator("nAmE");
+        assertEquals("value1", values.next());
+        assertEquals("value2", values.next());
+        assertEquals("value3", values.next());
+        assertFalse(values.hasNext());
+        headers.remove("name", "value2");
+        assertEquals(2, headers.size());
+        assertEquals("value1", headers.get("NAME"));
+    }
+}
@@ -21,6 +21,7 @@ import static io.servicetalk.http.api.HttpExecutionStrategies.customStrategyBuil
 import static io.servicetalk.http.api.HttpExecutionStrategies.defaultStrategy;
 import static io.servicetalk.http.api.HttpExecutionStrategies.difference;
 import static io.servicetalk.http.api.HttpExecutionStrategies.offloadNever;
+import static io.servicetalk.http.api.HttpExecutionStrategies.offloadReceive;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
@@ -48,6 +49,18 @@ class HttpExecutionStrategiesTest {
         assertThat("receive data not offloaded by default.", strategy.isDataReceiveOffloaded(), is(true));
     }
 
+    @Test
+    void offloadReceiveOnlyOffloadsReceive() {
+        HttpExecutionStrategy strategy = offloadReceive();
+        assertThat("send offloaded.", strategy.isSendOffloaded(), is(false));
+        assertThat("receive meta not offloaded.", strategy.isMetadataReceiveOffloaded(), is(true));
+        assertThat("receive data not offloaded.", strategy.isDataReceiveOffloaded(), is(true));
+        assertThat("events offloaded.", strategy.isEventOffloaded(), is(false));
+        assertThat("close offloaded.", strategy.isCloseOffloaded(), is(false));
+        assertThat("Unexpected strategy.", strategy,
+                is(customStrategyBuilder().offloadReceiveMetadata().offloadReceiveData().build()));
+    }
+
     @Test
     void diffLeftAndRightEqual() {
         HttpExecutionStrategy strat = customStrategyBuilder().offloadSend().build();
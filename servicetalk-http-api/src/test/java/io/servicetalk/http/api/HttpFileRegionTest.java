@@ -0,0 +1,120 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.api;
+
+import io.servicetalk.buffer.api.Buffer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.EOFException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.concurrent.api.Publisher.from;
+import static io.servicetalk.http.api.HttpFileRegion.MAX_MESSAGE_BODY_REGION_SIZE;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
+import static io.servicetalk.http.api.HttpHeaderNames.TRANSFER_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderValues.CHUNKED;
+import static io.servicetalk.http.api.HttpProtocolVersion.HTTP_1_1;
+import static io.servicetalk.http.api.HttpResponseStatus.OK;
+import static io.servicetalk.http.api.StreamingHttpResponses.newResponse;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpFileRegionTest {
+
+    private static final Path FILE = Paths.get("file");
+
+    @Test
+    void invalidRegion() {
+        assertThrows(IllegalArgumentException.class, () -> HttpFileRegion.of(FILE, -1, 1));
+        assertThrows(IllegalArgumentException.class, () -> HttpFileRegion.of(FILE, 0, -1));
+    }
+
+    @Test
+    void splitSmallRegion() throws Exception {
+        HttpFileRegion region = HttpFileRegion.of(FILE, 7, 16);
+        Collection<HttpFileRegion> regions = region.split(16).toFuture().get();
+        assertEquals(1, regions.size());
+        assertTrue(regions.contains(region));
+    }
+
+    @Test
+    void splitLargeRegion() throws Exception {
+        Iterator<HttpFileRegion> regions = HttpFileRegion.of(FILE, 7, 40).split(16).toFuture().get().iterator();
+        assertRegion(regions.next(), 7, 16);
+        assertRegion(regions.next(), 23, 16);
+        assertRegion(regions.next(), 39, 8);
+        assertFalse(regions.hasNext());
+    }
+
+    @Test
+    void fileRegionBodyReplacesPayloadBody() throws Exception {
+        StreamingHttpResponse response = newResponse(OK, HTTP_1_1, DefaultHttpHeadersFactory.INSTANCE.newHeaders(),
+                DEFAULT_ALLOCATOR, DefaultHttpHeadersFactory.INSTANCE)
+                .setHeader(TRANSFER_ENCODING, CHUNKED)
+                .payloadBody(from(DEFAULT_ALLOCATOR.fromAscii("discarded")));
+        final long count = 2 * MAX_MESSAGE_BODY_REGION_SIZE + 1;
+        response.fileRegionBody(HttpFileRegion.of(FILE, 0, count));
+
+        assertEquals(Long.toString(count), response.headers().get(CONTENT_LENGTH));
+        assertFalse(response.headers().contains(TRANSFER_ENCODING));
+        PayloadInfo payloadInfo = (PayloadInfo) response;
+        assertFalse(payloadInfo.isEmpty());
+        assertFalse(payloadInfo.mayHaveTrailers());
+        assertFalse(payloadInfo.isGenericTypeBuffer());
+
+        Iterator<Object> messageBody = response.messageBody().toFuture().get().iterator();
+        assertRegion(messageBody.next(), 0, MAX_MESSAGE_BODY_REGION_SIZE);
+        assertRegion(messageBody.next(), MAX_MESSAGE_BODY_REGION_SIZE, MAX_MESSAGE_BODY_REGION_SIZE);
+        assertRegion(messageBody.next(), 2 * MAX_MESSAGE_BODY_REGION_SIZE, 1);
+        assertFalse(messageBody.hasNext());
+    }
+
+    @Test
+    void readRegion(@TempDir Path tempDir) throws Exception {
+        byte[] content = new byte[128];
+        ThreadLocalRandom.current().nextBytes(content);
+        Path file = Files.write(tempDir.resolve("content"), content);
+        Buffer buffer = HttpFileRegion.of(file, 16, 64).read(DEFAULT_ALLOCATOR);
+        byte[] read = new byte[buffer.readableBytes()];
+        buffer.readBytes(read);
+        assertArrayEquals(Arrays.copyOfRange(content, 16, 80), read);
+    }
+
+    @Test
+    void readRegionBeyondEndOfFile(@TempDir Path tempDir) throws Exception {
+        Path file = Files.write(tempDir.resolve("content"), new byte[128]);
+        assertThrows(EOFException.class, () -> HttpFileRegion.of(file, 64, 65).read(DEFAULT_ALLOCATOR));
+    }
+
+    private static void assertRegion(Object item, long position, long count) {
+        HttpFileRegion region = (HttpFileRegion) item;
+        assertEquals(FILE, region.file());
+        assertEquals(position, region.position());
+        assertEquals(count, region.count());
+    }
+}
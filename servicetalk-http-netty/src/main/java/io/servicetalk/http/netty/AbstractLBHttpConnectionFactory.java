@@ -134,10 +134,16 @@ abstract class AbstractLBHttpConnectionFactory<ResolvedAddress>
                             newConcurrencyController(maxConcurrency, onClosing);
                     return new LoadBalancedStreamingHttpConnection(protocolBinding.apply(filteredConnection),
                             concurrencyController, connectStrategy instanceof HttpExecutionStrategy ?
-                                    (HttpExecutionStrategy) connectStrategy : HttpExecutionStrategies.offloadNone());
+                                    (HttpExecutionStrategy) connectStrategy : HttpExecutionStrategies.offloadNone(),
+                            requestHeadroom(filteredConnection.connectionContext().protocol()));
                 });
     }
 
+    private int requestHeadroom(final HttpProtocolVersion protocol) {
+        final H2ProtocolConfig h2Config = config.h2Config();
+        return h2Config == null || protocol.major() < 2 ? 0 : h2Config.streamHeadroom();
+    }
+
     /**
      * The ultimate source of connections before filtering.
      *
@@ -46,6 +46,7 @@ import io.servicetalk.transport.api.ExecutionStrategyInfluencer;
 import io.servicetalk.transport.api.IoExecutor;
 import io.servicetalk.transport.api.ServerSslConfig;
 import io.servicetalk.transport.api.TransportObserver;
+import io.servicetalk.transport.netty.internal.FlushStrategies;
 import io.servicetalk.transport.netty.internal.InfluencerConnectionAcceptor;
 
 import org.slf4j.Logger;
@@ -53,6 +54,7 @@ import org.slf4j.LoggerFactory;
 
 import java.net.SocketAddress;
 import java.net.SocketOption;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -226,6 +228,12 @@ final class DefaultHttpServerBuilder implements HttpServerBuilder {
         return this;
     }
 
+    @Override
+    public HttpServerBuilder adaptiveFlush(final Duration maxFlushDelay) {
+        config.tcpConfig().flushStrategy(FlushStrategies.adaptiveFlush(maxFlushDelay));
+        return this;
+    }
+
     @Override
     public HttpServerBuilder lifecycleObserver(final HttpLifecycleObserver lifecycleObserver) {
         config.lifecycleObserver(lifecycleObserver);
@@ -52,6 +52,7 @@ import io.servicetalk.transport.api.ClientSslConfig;
 import io.servicetalk.transport.api.ExecutionStrategy;
 import io.servicetalk.transport.api.HostAndPort;
 import io.servicetalk.transport.api.IoExecutor;
+import io.servicetalk.transport.netty.internal.FlushStrategies;
 
 import io.netty.handler.ssl.SslContext;
 import org.slf4j.Logger;
@@ -326,7 +327,8 @@ final class DefaultSingleAddressHttpClientBuilder<U, R> implements SingleAddress
             }
 
             FilterableStreamingHttpClient lbClient = closeOnException.prepend(
-                    new LoadBalancedStreamingHttpClient(executionContext, lb, reqRespFactory));
+                    new LoadBalancedStreamingHttpClient(executionContext, lb, reqRespFactory,
+                            roConfig.h2Config() != null && roConfig.h2Config().streamHeadroom() > 0));
             if (ctx.builder.retryingHttpRequesterFilter == null) {
                 ctx.builder.retryingHttpRequesterFilter = DEFAULT_AUTO_RETRIES;
                 currClientFilterFactory = appendFilter(currClientFilterFactory,
@@ -481,6 +483,12 @@ final class DefaultSingleAddressHttpClientBuilder<U, R> implements SingleAddress
         return this;
     }
 
+    @Override
+    public DefaultSingleAddressHttpClientBuilder<U, R> adaptiveFlush(final Duration maxFlushDelay) {
+        config.tcpConfig().flushStrategy(FlushStrategies.adaptiveFlush(maxFlushDelay));
+        return this;
+    }
+
     @Override
     public DefaultSingleAddressHttpClientBuilder<U, R> protocols(final HttpProtocolConfig... protocols) {
         config.protocolConfigs().protocols(protocols);
@@ -0,0 +1,93 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.buffer.api.BufferAllocator;
+import io.servicetalk.concurrent.api.Publisher;
+import io.servicetalk.http.api.HttpFileRegion;
+
+import io.netty.channel.Channel;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.channel.FileRegion;
+
+import java.io.IOException;
+
+import static io.servicetalk.transport.netty.internal.BuilderUtils.isFileRegionSupported;
+import static io.servicetalk.transport.netty.internal.NettyPipelineSslUtils.isSslEnabled;
+import static io.servicetalk.utils.internal.PlatformDependent.throwException;
+
+final class FileRegionUtils {
+
+    private FileRegionUtils() {
+        // no instances
+    }
+
+    /**
+     * Returns {@code true} if {@link HttpFileRegion}s can be transferred directly from the file to the socket of the
+     * {@link Channel}, which requires a transport that supports it and a {@link Channel} that is not encrypted.
+     *
+     * @param channel the {@link Channel} to check.
+     * @return {@code true} if {@link HttpFileRegion}s can be transferred directly from the file to the socket.
+     */
+    static boolean canTransferDirectly(final Channel channel) {
+        return !isSslEnabled(channel.pipeline()) && isFileRegionSupported(channel);
+    }
+
+    /**
+     * Converts a {@link HttpFileRegion} to a {@link FileRegion}, which opens the file lazily when the transfer begins
+     * and closes it when the transfer completes or the {@link FileRegion} is released.
+     * <p>
+     * Netty's default message size estimator counts a {@link FileRegion} as {@code 0} bytes, so pending regions do not
+     * affect channel writability. They do not hold any content of the file either, only the transfer in progress
+     * reads from it.
+     *
+     * @param channel the {@link Channel} to write the region to.
+     * @param region the {@link HttpFileRegion} to convert.
+     * @return a {@link FileRegion} for {@code region}.
+     * @throws IOException if {@code region} can not be transferred directly to the {@link Channel}.
+     */
+    static FileRegion toNettyMessage(final Channel channel, final HttpFileRegion region) throws IOException {
+        if (!canTransferDirectly(channel)) {
+            throw new IOException(region + " must be read into buffers before it is written on channel: " + channel);
+        }
+        return new DefaultFileRegion(region.file().toFile(), region.position(), region.count());
+    }
+
+    /**
+     * Replaces {@link HttpFileRegion}s of a flattened message with their content, for connections that can not transfer
+     * them directly from the file to the socket.
+     * <p>
+     * Regions are read by the thread that emits them. This is not an I/O thread unless offloading of the response is
+     * disabled, in which case the service is expected to be non-blocking and should not use
+     * {@link HttpFileRegion}s on such connections.
+     *
+     * @param message the flattened message to transform.
+     * @param allocator the {@link BufferAllocator} used to allocate the content.
+     * @return a flattened message without {@link HttpFileRegion}s.
+     */
+    static Publisher<Object> readFileRegions(final Publisher<Object> message, final BufferAllocator allocator) {
+        return message.map(item -> {
+            if (item instanceof HttpFileRegion) {
+                try {
+                    return ((HttpFileRegion) item).read(allocator);
+                } catch (IOException e) {
+                    return throwException(e);
+                }
+            }
+            return item;
+        });
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http2.DefaultHttp2WindowUpdateFrame;
+import io.netty.handler.codec.http2.Http2Connection;
+import io.netty.handler.codec.http2.Http2FrameCodec;
+
+/**
+ * Increases the connection flow-control window to {@link H2ProtocolConfig#connectionWindowSize()} once the connection
+ * preface has been sent, and removes itself from the pipeline afterwards. Unlike stream windows, the connection window
+ * can not be configured via SETTINGS and has to be increased with a WINDOW_UPDATE frame.
+ */
+final class H2ConnectionWindowHandler extends ChannelInboundHandlerAdapter {
+
+    private final Http2Connection connection;
+    private final int connectionWindowSize;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param codec {@link Http2FrameCodec} which precedes this handler in the pipeline
+     * @param connectionWindowSize the target size of the connection flow-control window
+     */
+    H2ConnectionWindowHandler(final Http2FrameCodec codec, final int connectionWindowSize) {
+        this.connection = codec.connection();
+        this.connectionWindowSize = connectionWindowSize;
+    }
+
+    @Override
+    public void handlerAdded(final ChannelHandlerContext ctx) {
+        // The codec precedes this handler, so it already sent the preface if the channel is active.
+        if (ctx.channel().isActive()) {
+            increaseWindow(ctx);
+        }
+    }
+
+    @Override
+    public void channelActive(final ChannelHandlerContext ctx) {
+        ctx.fireChannelActive();
+        increaseWindow(ctx);
+    }
+
+    private void increaseWindow(final ChannelHandlerContext ctx) {
+        // Netty may have already grown the connection window to match the initial stream window, only send the rest.
+        final int delta = connectionWindowSize -
+                connection.local().flowController().initialWindowSize(connection.connectionStream());
+        if (delta > 0) {
+            // Http2FrameCodec interprets a WINDOW_UPDATE without a stream as an increment of the connection window.
+            ctx.writeAndFlush(new DefaultHttp2WindowUpdateFrame(delta));
+        }
+        ctx.pipeline().remove(this);
+    }
+}
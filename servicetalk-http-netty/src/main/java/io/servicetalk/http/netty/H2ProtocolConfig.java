@@ -60,6 +60,86 @@ public interface H2ProtocolConfig extends HttpProtocolConfig {
     @Nullable
     KeepAlivePolicy keepAlivePolicy();
 
+    /**
+     * Value of <a href="https://tools.ietf.org/html/rfc7540#section-6.5.2">SETTINGS_INITIAL_WINDOW_SIZE</a> to
+     * advertise to the peer, which limits how many bytes the peer can send on each stream before receiving a
+     * <a href="https://tools.ietf.org/html/rfc7540#section-6.9">WINDOW_UPDATE</a>.
+     *
+     * @return the initial flow-control window size of each stream, in bytes.
+     */
+    default int initialWindowSize() {
+        return H2ProtocolConfigBuilder.DEFAULT_WINDOW_SIZE;
+    }
+
+    /**
+     * Initial size of the <a href="https://tools.ietf.org/html/rfc7540#section-6.9">flow-control window</a> shared by
+     * all streams of a connection, which limits how many bytes the peer can send on all streams combined.
+     *
+     * @return the initial flow-control window size of the connection, in bytes.
+     */
+    default int connectionWindowSize() {
+        return H2ProtocolConfigBuilder.DEFAULT_WINDOW_SIZE;
+    }
+
+    /**
+     * Upper bound for automatically growing the {@link #connectionWindowSize() connection flow-control window}. If
+     * greater than {@link #connectionWindowSize()}, the connection window grows whenever the application consumed a
+     * full window worth of data since the window last grew.
+     *
+     * @return the maximum flow-control window size of the connection, in bytes.
+     */
+    default int maxConnectionWindowSize() {
+        return connectionWindowSize();
+    }
+
+    /**
+     * Value of <a href="https://tools.ietf.org/html/rfc7540#section-6.5.2">SETTINGS_MAX_CONCURRENT_STREAMS</a> to
+     * advertise to the peer. Only applies to servers, clients always advertise {@code 0} because they do not accept
+     * <a href="https://tools.ietf.org/html/rfc7540#section-8.2">pushed</a> streams.
+     *
+     * @return the maximum number of concurrent streams the peer can open.
+     */
+    default long maxConcurrentStreams() {
+        return H2ProtocolConfigBuilder.DEFAULT_MAX_CONCURRENT_STREAMS;
+    }
+
+    /**
+     * Value of <a href="https://tools.ietf.org/html/rfc7540#section-6.5.2">SETTINGS_MAX_FRAME_SIZE</a> to advertise to
+     * the peer.
+     *
+     * @return the size of the largest frame payload the peer can send, in bytes.
+     */
+    default int maxFrameSize() {
+        return H2ProtocolConfigBuilder.DEFAULT_MAX_FRAME_SIZE;
+    }
+
+    /**
+     * Value of <a href="https://tools.ietf.org/html/rfc7540#section-6.5.2">SETTINGS_HEADER_TABLE_SIZE</a> to advertise
+     * to the peer.
+     *
+     * @return the maximum size of the <a href="https://tools.ietf.org/html/rfc7541#section-2.3.2">HPACK dynamic
+     * table</a> the peer can use to encode headers, in bytes.
+     */
+    default long headerTableSize() {
+        return H2ProtocolConfigBuilder.DEFAULT_HEADER_TABLE_SIZE;
+    }
+
+    /**
+     * Number of streams a client keeps in reserve on each connection. Only applies to clients.
+     * <p>
+     * A client connection is not selected for new requests once fewer than this number of streams remain available
+     * within the <a href="https://tools.ietf.org/html/rfc7540#section-6.5.2">SETTINGS_MAX_CONCURRENT_STREAMS</a>
+     * limit advertised by the server. Instead, another connection to the same address is used or a new connection is
+     * opened. The reserved streams are still used if the load balancer has no host which is eligible for a new
+     * connection.
+     *
+     * @return the number of streams a client keeps in reserve on each connection, {@code 0} means that connections
+     * are used until their stream limit is reached.
+     */
+    default int streamHeadroom() {
+        return 0;
+    }
+
     /**
      * A policy for sending <a href="https://tools.ietf.org/html/rfc7540#section-6.7">PING frames</a> to the peer.
      */
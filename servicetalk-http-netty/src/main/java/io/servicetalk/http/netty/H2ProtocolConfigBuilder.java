@@ -37,12 +37,27 @@ import static java.util.Objects.requireNonNull;
  */
 public final class H2ProtocolConfigBuilder {
 
+    // Defaults from https://tools.ietf.org/html/rfc7540#section-6.5.2
+    static final int DEFAULT_WINDOW_SIZE = 65_535;
+    static final long DEFAULT_MAX_CONCURRENT_STREAMS = 0xFFFFFFFFL; // no limit
+    static final int DEFAULT_MAX_FRAME_SIZE = 16_384;
+    static final long DEFAULT_HEADER_TABLE_SIZE = 4_096;
+    private static final int MAX_FRAME_SIZE_UPPER_BOUND = 16_777_215;
+    private static final long MAX_UNSIGNED_INT = 0xFFFFFFFFL;
+
     private HttpHeadersFactory headersFactory = H2HeadersFactory.INSTANCE;
     private BiPredicate<CharSequence, CharSequence> headersSensitivityDetector = DEFAULT_SENSITIVITY_DETECTOR;
     @Nullable
     private UserDataLoggerConfig frameLoggerConfig;
     @Nullable
     private KeepAlivePolicy keepAlivePolicy;
+    private int initialWindowSize = DEFAULT_WINDOW_SIZE;
+    private int connectionWindowSize = DEFAULT_WINDOW_SIZE;
+    private int maxConnectionWindowSize;
+    private long maxConcurrentStreams = DEFAULT_MAX_CONCURRENT_STREAMS;
+    private int maxFrameSize = DEFAULT_MAX_FRAME_SIZE;
+    private long headerTableSize = DEFAULT_HEADER_TABLE_SIZE;
+    private int streamHeadroom;
 
     H2ProtocolConfigBuilder() {
     }
@@ -102,6 +117,130 @@ public final class H2ProtocolConfigBuilder {
         return this;
     }
 
+    /**
+     * Sets the value of <a href="https://tools.ietf.org/html/rfc7540#section-6.5.2">SETTINGS_INITIAL_WINDOW_SIZE</a>
+     * to advertise to the peer, which is the flow-control window of each stream. Larger windows allow a single stream
+     * to use more bandwidth on connections with a high bandwidth-delay product, at the cost of buffering more data per
+     * stream.
+     *
+     * @param initialWindowSize the initial flow-control window size of each stream, in bytes
+     * @return {@code this}
+     * @see H2ProtocolConfig#initialWindowSize()
+     */
+    public H2ProtocolConfigBuilder initialWindowSize(final int initialWindowSize) {
+        if (initialWindowSize < 0) {
+            throw new IllegalArgumentException("initialWindowSize: " + initialWindowSize + " (expected >=0)");
+        }
+        this.initialWindowSize = initialWindowSize;
+        return this;
+    }
+
+    /**
+     * Sets the initial size of the flow-control window shared by all streams of a connection. The connection window
+     * can only be increased, hence values below the protocol default of {@code 65535} bytes are rejected.
+     *
+     * @param connectionWindowSize the initial flow-control window size of the connection, in bytes
+     * @return {@code this}
+     * @see H2ProtocolConfig#connectionWindowSize()
+     */
+    public H2ProtocolConfigBuilder connectionWindowSize(final int connectionWindowSize) {
+        if (connectionWindowSize < DEFAULT_WINDOW_SIZE) {
+            throw new IllegalArgumentException("connectionWindowSize: " + connectionWindowSize +
+                    " (expected >=" + DEFAULT_WINDOW_SIZE + ')');
+        }
+        this.connectionWindowSize = connectionWindowSize;
+        return this;
+    }
+
+    /**
+     * Enables automatic growth of the connection flow-control window up to the specified size. The window is doubled
+     * whenever the application consumed a full window worth of data since the window last grew, which indicates that
+     * the window rather than the application limits the throughput of the connection.
+     *
+     * @param maxConnectionWindowSize the maximum flow-control window size of the connection, in bytes. Values not
+     * greater than {@link #connectionWindowSize(int)} disable automatic growth.
+     * @return {@code this}
+     * @see H2ProtocolConfig#maxConnectionWindowSize()
+     */
+    public H2ProtocolConfigBuilder maxConnectionWindowSize(final int maxConnectionWindowSize) {
+        if (maxConnectionWindowSize < 0) {
+            throw new IllegalArgumentException("maxConnectionWindowSize: " + maxConnectionWindowSize +
+                    " (expected >=0)");
+        }
+        this.maxConnectionWindowSize = maxConnectionWindowSize;
+        return this;
+    }
+
+    /**
+     * Sets the value of <a href="https://tools.ietf.org/html/rfc7540#section-6.5.2">SETTINGS_MAX_CONCURRENT_STREAMS</a>
+     * to advertise to the peer. Only applies to servers.
+     *
+     * @param maxConcurrentStreams the maximum number of concurrent streams the peer can open
+     * @return {@code this}
+     * @see H2ProtocolConfig#maxConcurrentStreams()
+     */
+    public H2ProtocolConfigBuilder maxConcurrentStreams(final long maxConcurrentStreams) {
+        if (maxConcurrentStreams < 0 || maxConcurrentStreams > MAX_UNSIGNED_INT) {
+            throw new IllegalArgumentException("maxConcurrentStreams: " + maxConcurrentStreams +
+                    " (expected [0, " + MAX_UNSIGNED_INT + "])");
+        }
+        this.maxConcurrentStreams = maxConcurrentStreams;
+        return this;
+    }
+
+    /**
+     * Sets the value of <a href="https://tools.ietf.org/html/rfc7540#section-6.5.2">SETTINGS_MAX_FRAME_SIZE</a> to
+     * advertise to the peer.
+     *
+     * @param maxFrameSize the size of the largest frame payload the peer can send, in bytes
+     * @return {@code this}
+     * @see H2ProtocolConfig#maxFrameSize()
+     */
+    public H2ProtocolConfigBuilder maxFrameSize(final int maxFrameSize) {
+        if (maxFrameSize < DEFAULT_MAX_FRAME_SIZE || maxFrameSize > MAX_FRAME_SIZE_UPPER_BOUND) {
+            throw new IllegalArgumentException("maxFrameSize: " + maxFrameSize +
+                    " (expected [" + DEFAULT_MAX_FRAME_SIZE + ", " + MAX_FRAME_SIZE_UPPER_BOUND + "])");
+        }
+        this.maxFrameSize = maxFrameSize;
+        return this;
+    }
+
+    /**
+     * Sets the value of <a href="https://tools.ietf.org/html/rfc7540#section-6.5.2">SETTINGS_HEADER_TABLE_SIZE</a> to
+     * advertise to the peer.
+     *
+     * @param headerTableSize the maximum size of the
+     * <a href="https://tools.ietf.org/html/rfc7541#section-2.3.2">HPACK dynamic table</a> the peer can use to encode
+     * headers, in bytes
+     * @return {@code this}
+     * @see H2ProtocolConfig#headerTableSize()
+     */
+    public H2ProtocolConfigBuilder headerTableSize(final long headerTableSize) {
+        if (headerTableSize < 0 || headerTableSize > MAX_UNSIGNED_INT) {
+            throw new IllegalArgumentException("headerTableSize: " + headerTableSize +
+                    " (expected [0, " + MAX_UNSIGNED_INT + "])");
+        }
+        this.headerTableSize = headerTableSize;
+        return this;
+    }
+
+    /**
+     * Sets the number of streams a client keeps in reserve on each connection before it prefers opening additional
+     * connections to the same address. Only applies to clients.
+     *
+     * @param streamHeadroom the number of streams a client keeps in reserve on each connection, {@code 0} to use
+     * connections until their stream limit is reached
+     * @return {@code this}
+     * @see H2ProtocolConfig#streamHeadroom()
+     */
+    public H2ProtocolConfigBuilder streamHeadroom(final int streamHeadroom) {
+        if (streamHeadroom < 0) {
+            throw new IllegalArgumentException("streamHeadroom: " + streamHeadroom + " (expected >=0)");
+        }
+        this.streamHeadroom = streamHeadroom;
+        return this;
+    }
+
     /**
      * Builds {@link H2ProtocolConfig}.
      *
@@ -109,7 +248,9 @@ public final class H2ProtocolConfigBuilder {
      */
     public H2ProtocolConfig build() {
         return new DefaultH2ProtocolConfig(headersFactory, headersSensitivityDetector, frameLoggerConfig,
-                keepAlivePolicy);
+                keepAlivePolicy, initialWindowSize, connectionWindowSize,
+                Math.max(connectionWindowSize, maxConnectionWindowSize), maxConcurrentStreams, maxFrameSize,
+                headerTableSize, streamHeadroom);
     }
 
     private static final class DefaultH2ProtocolConfig implements H2ProtocolConfig {
@@ -120,15 +261,36 @@ public final class H2ProtocolConfigBuilder {
         private final UserDataLoggerConfig frameLoggerConfig;
         @Nullable
         private final KeepAlivePolicy keepAlivePolicy;
+        private final int initialWindowSize;
+        private final int connectionWindowSize;
+        private final int maxConnectionWindowSize;
+        private final long maxConcurrentStreams;
+        private final int maxFrameSize;
+        private final long headerTableSize;
+        private final int streamHeadroom;
 
         DefaultH2ProtocolConfig(final HttpHeadersFactory headersFactory,
                                 final BiPredicate<CharSequence, CharSequence> headersSensitivityDetector,
                                 @Nullable final UserDataLoggerConfig frameLoggerConfig,
-                                @Nullable final KeepAlivePolicy keepAlivePolicy) {
+                                @Nullable final KeepAlivePolicy keepAlivePolicy,
+                                final int initialWindowSize,
+                                final int connectionWindowSize,
+                                final int maxConnectionWindowSize,
+                                final long maxConcurrentStreams,
+                                final int maxFrameSize,
+                                final long headerTableSize,
+                                final int streamHeadroom) {
             this.headersFactory = headersFactory;
             this.headersSensitivityDetector = headersSensitivityDetector;
             this.frameLoggerConfig = frameLoggerConfig;
             this.keepAlivePolicy = keepAlivePolicy;
+            this.initialWindowSize = initialWindowSize;
+            this.connectionWindowSize = connectionWindowSize;
+            this.maxConnectionWindowSize = maxConnectionWindowSize;
+            this.maxConcurrentStreams = maxConcurrentStreams;
+            this.maxFrameSize = maxFrameSize;
+            this.headerTableSize = headerTableSize;
+            this.streamHeadroom = streamHeadroom;
         }
 
         @Override
@@ -152,5 +314,40 @@ public final class H2ProtocolConfigBuilder {
         public KeepAlivePolicy keepAlivePolicy() {
             return keepAlivePolicy;
         }
+
+        @Override
+        public int initialWindowSize() {
+            return initialWindowSize;
+        }
+
+        @Override
+        public int connectionWindowSize() {
+            return connectionWindowSize;
+        }
+
+        @Override
+        public int maxConnectionWindowSize() {
+            return maxConnectionWindowSize;
+        }
+
+        @Override
+        public long maxConcurrentStreams() {
+            return maxConcurrentStreams;
+        }
+
+        @Override
+        public int maxFrameSize() {
+            return maxFrameSize;
+        }
+
+        @Override
+        public long headerTableSize() {
+            return headerTableSize;
+        }
+
+        @Override
+        public int streamHeadroom() {
+            return streamHeadroom;
+        }
     }
 }
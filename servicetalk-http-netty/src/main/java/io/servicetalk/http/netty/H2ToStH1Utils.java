@@ -28,6 +28,7 @@ import java.util.Map;
 
 import static io.netty.handler.codec.http.HttpHeaderNames.TE;
 import static io.netty.handler.codec.http.HttpHeaderValues.TRAILERS;
+import static io.servicetalk.buffer.api.CharSequences.contentEqualsIgnoreCase;
 import static io.servicetalk.http.api.HttpHeaderNames.CONNECTION;
 import static io.servicetalk.http.api.HttpHeaderNames.COOKIE;
 import static io.servicetalk.http.api.HttpHeaderNames.TRANSFER_ENCODING;
@@ -114,6 +115,76 @@ final class H2ToStH1Utils {
             return new DefaultHttp2Headers(false, 0);
         }
 
+        if (needsH2Sanitization(h1Headers)) {
+            h1HeadersSanitizeForH2(h1Headers);
+        }
+
+        if (h1Headers instanceof NettyH2HeadersToHttpHeaders) {
+            // Assume header field names are already lowercase if they reside in the Http2Headers. We may want to be
+            // more strict in the future, but that would require iteration.
+            return ((NettyH2HeadersToHttpHeaders) h1Headers).nettyHeaders();
+        }
+
+        if (h1Headers.isEmpty()) {
+            return new DefaultHttp2Headers(false, 0);
+        }
+
+        DefaultHttp2Headers http2Headers = new DefaultHttp2Headers(false, h1Headers.size());
+        for (Map.Entry<CharSequence, CharSequence> h1Entry : h1Headers) {
+            // header field names MUST be converted to lowercase prior to their encoding in HTTP/2
+            // https://tools.ietf.org/html/rfc7540#section-8.1.2
+            http2Headers.add(h2HeaderName(h1Entry.getKey()), h1Entry.getValue());
+        }
+        return http2Headers;
+    }
+
+    /**
+     * Determine if {@code h1Headers} contain anything that {@link #h1HeadersSanitizeForH2(HttpHeaders)} would change.
+     * <p>
+     * Most requests (and in particular gRPC requests) don't carry connection-specific headers, so a single pass over
+     * the headers is cheaper than the lookups and removals done by the sanitization.
+     *
+     * @param h1Headers The headers to inspect.
+     * @return {@code true} if {@code h1Headers} have to be sanitized before they can be sent over HTTP/2.
+     */
+    private static boolean needsH2Sanitization(HttpHeaders h1Headers) {
+        for (Map.Entry<CharSequence, CharSequence> h1Entry : h1Headers) {
+            final CharSequence name = h1Entry.getKey();
+            if (contentEqualsIgnoreCase(name, TE)) {
+                if (!contentEqualsIgnoreCase(h1Entry.getValue(), TRAILERS)) {
+                    return true;
+                }
+            } else if (contentEqualsIgnoreCase(name, COOKIE)) {
+                if (indexOf(h1Entry.getValue(), ';', 0) >= 0) {
+                    return true;
+                }
+            } else if (contentEqualsIgnoreCase(name, CONNECTION) || contentEqualsIgnoreCase(name, KEEP_ALIVE) ||
+                    contentEqualsIgnoreCase(name, TRANSFER_ENCODING) || contentEqualsIgnoreCase(name, UPGRADE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Lowercase a header field name only if it contains uppercase characters. Names coming from
+     * {@link io.servicetalk.http.api.HttpHeaderNames} and most application defined names (e.g. gRPC metadata) are
+     * already lowercase and can be passed to the HPACK encoder as-is.
+     *
+     * @param name The header field name.
+     * @return {@code name} if it is already lowercase, otherwise a lowercase copy.
+     */
+    static CharSequence h2HeaderName(CharSequence name) {
+        for (int i = 0; i < name.length(); ++i) {
+            final char c = name.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                return name.toString().toLowerCase();
+            }
+        }
+        return name;
+    }
+
+    private static void h1HeadersSanitizeForH2(HttpHeaders h1Headers) {
         // H2 doesn't support connection headers, so remove each one, and the headers corresponding to the
         // connection value.
         // https://tools.ietf.org/html/rfc7540#section-8.1.2.2
@@ -166,23 +237,5 @@ final class H2ToStH1Utils {
         }
 
         h1HeadersSplitCookieCrumbs(h1Headers);
-
-        if (h1Headers instanceof NettyH2HeadersToHttpHeaders) {
-            // Assume header field names are already lowercase if they reside in the Http2Headers. We may want to be
-            // more strict in the future, but that would require iteration.
-            return ((NettyH2HeadersToHttpHeaders) h1Headers).nettyHeaders();
-        }
-
-        if (h1Headers.isEmpty()) {
-            return new DefaultHttp2Headers(false, 0);
-        }
-
-        DefaultHttp2Headers http2Headers = new DefaultHttp2Headers(false);
-        for (Map.Entry<CharSequence, CharSequence> h1Entry : h1Headers) {
-            // header field names MUST be converted to lowercase prior to their encoding in HTTP/2
-            // https://tools.ietf.org/html/rfc7540#section-8.1.2
-            http2Headers.add(h1Entry.getKey().toString().toLowerCase(), h1Entry.getValue());
-        }
-        return http2Headers;
     }
 }
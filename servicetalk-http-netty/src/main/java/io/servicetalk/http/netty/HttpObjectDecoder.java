@@ -61,7 +61,6 @@ import static io.netty.handler.codec.http.HttpConstants.CR;
 import static io.netty.handler.codec.http.HttpConstants.HT;
 import static io.netty.handler.codec.http.HttpConstants.LF;
 import static io.netty.handler.codec.http.HttpConstants.SP;
-import static io.netty.util.ByteProcessor.FIND_LF;
 import static io.servicetalk.buffer.api.CharSequences.emptyAsciiString;
 import static io.servicetalk.buffer.api.CharSequences.newAsciiString;
 import static io.servicetalk.buffer.netty.BufferUtils.newBufferFrom;
@@ -79,6 +78,9 @@ import static io.servicetalk.http.api.HttpRequestMethod.GET;
 import static io.servicetalk.http.api.HttpResponseStatus.SWITCHING_PROTOCOLS;
 import static io.servicetalk.http.netty.HeaderUtils.removeTransferEncodingChunked;
 import static io.servicetalk.http.netty.HttpKeepAlive.shouldClose;
+import static io.servicetalk.http.netty.SwarUtils.indexOf;
+import static io.servicetalk.http.netty.SwarUtils.indexOfNonVCHAR;
+import static io.servicetalk.http.netty.SwarUtils.indexOfWS;
 import static java.lang.Character.isISOControl;
 import static java.lang.Character.isWhitespace;
 import static java.lang.Long.parseUnsignedLong;
@@ -99,17 +101,6 @@ abstract class HttpObjectDecoder<T extends HttpMetaData> extends ByteToMessageDe
         throw new StacklessDecoderException("Invalid preface character before the start-line of the HTTP message",
                 new IllegalCharacterException(value, "CR (0x0d), LF (0x0a)"));
     };
-    private static final ByteProcessor FIND_WS = value -> !isWS(value);
-    private static final ByteProcessor FIND_VCHAR_END = value -> {
-        if (isVCHAR(value)) {
-            return true;
-        }
-        if (isWS(value)) {
-            return false;
-        }
-        throw new IllegalCharacterException(value, "VCHAR (0x21-0x7e)");
-    };
-    private static final ByteProcessor FIND_COLON = value -> value != COLON;
     private static final ByteProcessor FIND_FIELD_VALUE = value -> {
         // Skip preceded and/or followed OWS
         if (isWS(value)) {
@@ -257,19 +248,23 @@ abstract class HttpObjectDecoder<T extends HttpMetaData> extends ByteToMessageDe
                 final int nonControlIndex = crlfBeforeIndex(longLFIndex);
                 final int aStart = buffer.readerIndex();    // We already skipped all preface control chars
                 // Look only for a WS, other checks will be done later by request/response decoder
-                final int aEnd = buffer.forEachByte(aStart + 1, nonControlIndex - aStart, FIND_WS);
+                final int aEnd = indexOfWS(buffer, aStart + 1, nonControlIndex + 1);
                 if (aEnd < 0) {
                     throw newStartLineError("first");
                 }
 
                 final int bStart = aEnd + 1;    // Expect a single WS
                 final int bEnd;
-                try {
-                    bEnd = buffer.forEachByte(bStart, nonControlIndex - bStart + 1,
-                            isDecodingRequest() ? FIND_VCHAR_END : FIND_WS);
-                } catch (IllegalCharacterException cause) {
-                    throw new StacklessDecoderException(
-                            "Invalid start-line: HTTP request-target contains an illegal character", cause);
+                if (isDecodingRequest()) {
+                    bEnd = indexOfNonVCHAR(buffer, bStart, nonControlIndex + 1);
+                    final byte value;
+                    if (bEnd >= 0 && !isWS(value = buffer.getByte(bEnd))) {
+                        throw new StacklessDecoderException(
+                                "Invalid start-line: HTTP request-target contains an illegal character",
+                                new IllegalCharacterException(value, "VCHAR (0x21-0x7e)"));
+                    }
+                } else {
+                    bEnd = indexOfWS(buffer, bStart, nonControlIndex + 1);
                 }
                 if (bEnd < 0 || bEnd == bStart) {
                     throw newStartLineError("second");
@@ -624,15 +619,18 @@ abstract class HttpObjectDecoder<T extends HttpMetaData> extends ByteToMessageDe
         // Additional checks will be done by header validator
 
         final int nameStart = buffer.readerIndex();
-        final int nameEnd = buffer.forEachByte(nameStart, nonControlIndex - nameStart + 1, FIND_COLON);
+        final int nameEnd = indexOf(buffer, nameStart, nonControlIndex + 1, COLON);
         if (nameEnd < 0) {
             throw newDecoderExceptionAtLine("Unable to find end of a header name in line ", parsingLine);
         }
         if (nameEnd == nameStart) {
             throw newDecoderExceptionAtLine("Empty header name in line ", parsingLine);
         }
-        // We assume the allocator will not leak memory, and so we retain + slice to avoid copying data.
-        final CharSequence name = newAsciiString(newBufferFrom(buffer.retainedSlice(nameStart, nameEnd - nameStart)));
+        CharSequence name = KnownHeaderNames.find(buffer, nameStart, nameEnd - nameStart);
+        if (name == null) {
+            // We assume the allocator will not leak memory, and so we retain + slice to avoid copying data.
+            name = newAsciiString(newBufferFrom(buffer.retainedSlice(nameStart, nameEnd - nameStart)));
+        }
         final CharSequence value;
         try {
             final int valueStart;
@@ -873,7 +871,7 @@ abstract class HttpObjectDecoder<T extends HttpMetaData> extends ByteToMessageDe
         if (fromIndex >= toIndex) {
             return -1;
         }
-        return buffer.forEachByte(fromIndex, toIndex - fromIndex, FIND_LF);
+        return indexOf(buffer, fromIndex, toIndex, LF);
     }
 
     private DecoderException newStartLineError(final String place) {
@@ -32,6 +32,7 @@ package io.servicetalk.http.netty;
 
 import io.servicetalk.buffer.api.Buffer;
 import io.servicetalk.http.api.EmptyHttpHeaders;
+import io.servicetalk.http.api.HttpFileRegion;
 import io.servicetalk.http.api.HttpHeaderNames;
 import io.servicetalk.http.api.HttpHeaderValues;
 import io.servicetalk.http.api.HttpHeaders;
@@ -43,6 +44,7 @@ import io.netty.buffer.ByteBufUtil;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelOutboundHandlerAdapter;
 import io.netty.channel.ChannelPromise;
+import io.netty.util.ReferenceCountUtil;
 import io.netty.util.concurrent.PromiseCombiner;
 
 import java.io.IOException;
@@ -66,6 +68,7 @@ import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
 import static io.servicetalk.http.api.HttpHeaderNames.TRANSFER_ENCODING;
 import static io.servicetalk.http.api.HttpHeaderValues.CHUNKED;
 import static io.servicetalk.http.api.HttpProtocolVersion.HTTP_1_1;
+import static io.servicetalk.http.netty.FileRegionUtils.toNettyMessage;
 import static io.servicetalk.http.netty.HttpKeepAlive.shouldClose;
 import static java.lang.Long.toHexString;
 import static java.lang.Math.max;
@@ -196,6 +199,36 @@ abstract class HttpObjectEncoder<T extends HttpMetaData> extends ChannelOutbound
                 }
                 ctx.write(encodeAndRetain(stBuffer), promise);
             }
+        } else if (msg instanceof HttpFileRegion) {
+            final HttpFileRegion region = (HttpFileRegion) msg;
+            final long count = region.count();
+            if (count <= 0) {
+                ctx.write(EMPTY_BUFFER, promise);
+            } else if (state == CONTENT_LEN_CHUNKED) {
+                PromiseCombiner promiseCombiner = new PromiseCombiner(ctx.executor());
+                try {
+                    encodeChunkedContent(ctx, region, promiseCombiner);
+                } catch (Throwable e) {
+                    tryIoException(ctx, e, promise);
+                    return;
+                }
+                promiseCombiner.finish(promise);
+            } else if (state <= CONTENT_LEN_LARGEST_VALUE || state >= 0 && (state -= count) < 0) {
+                tryTooMuchContent(ctx, count, promise);
+            } else {
+                final Object nettyRegion;
+                try {
+                    nettyRegion = toNettyMessage(ctx.channel(), region);
+                } catch (Throwable e) {
+                    tryIoException(ctx, e, promise);
+                    return;
+                }
+                if (state == 0) {
+                    state = CONTENT_LEN_CONSUMED;
+                    closeHandler.protocolPayloadEndOutbound(ctx, promise);
+                }
+                ctx.write(nettyRegion, promise);
+            }
         } else if (msg instanceof HttpHeaders) {
             final boolean isChunked = state == CONTENT_LEN_CHUNKED;
             state = CONTENT_LEN_INIT;
@@ -225,7 +258,7 @@ abstract class HttpObjectEncoder<T extends HttpMetaData> extends ChannelOutbound
                 " attempted to write non-empty trailers: " + trailers));
     }
 
-    private void tryTooMuchContent(ChannelHandlerContext ctx, int bytes, ChannelPromise promise) {
+    private void tryTooMuchContent(ChannelHandlerContext ctx, long bytes, ChannelPromise promise) {
         if (state == CONTENT_LEN_EMPTY) {
             promise.tryFailure(new IOException("payload body must be empty, but write of: " + bytes +
                     " bytes attempted on channel: " + ctx.channel()));
@@ -325,23 +358,21 @@ abstract class HttpObjectEncoder<T extends HttpMetaData> extends ChannelOutbound
      */
     private static void encodeHeaders(HttpHeaders headers, ByteBuf byteBuf, Buffer buffer) {
         for (Map.Entry<CharSequence, CharSequence> header : headers) {
-            encodeHeader(header.getKey(), header.getValue(), byteBuf, buffer);
+            final CharSequence name = header.getKey();
+            final CharSequence value = header.getValue();
+            final byte[] encoded = PreEncodedBytes.header(name, value);
+            if (encoded != null) {
+                byteBuf.writeBytes(encoded);
+            } else {
+                encodeHeader(name, value, byteBuf, buffer);
+            }
         }
     }
 
     private static void encodeChunkedContent(ChannelHandlerContext ctx, Buffer msg, long contentLength,
                                              PromiseCombiner promiseCombiner) {
         if (contentLength > 0) {
-            String lengthHex = toHexString(contentLength);
-            ByteBuf buf = ctx.alloc().directBuffer(lengthHex.length() + 2);
-            try {
-                buf.writeCharSequence(lengthHex, US_ASCII);
-                writeShortBE(buf, CRLF_SHORT);
-            } catch (Throwable e) {
-                buf.release();
-                throw e;
-            }
-            promiseCombiner.add(ctx.write(buf));
+            encodeChunkHeader(ctx, contentLength, promiseCombiner);
             promiseCombiner.add(ctx.write(encodeAndRetain(msg)));
             promiseCombiner.add(ctx.write(CRLF_BUF.duplicate()));
         } else {
@@ -352,6 +383,35 @@ abstract class HttpObjectEncoder<T extends HttpMetaData> extends ChannelOutbound
         }
     }
 
+    private static void encodeChunkedContent(ChannelHandlerContext ctx, HttpFileRegion region,
+                                             PromiseCombiner promiseCombiner) throws IOException {
+        assert region.count() > 0;
+        // Convert before writing anything, so a failure does not leave a partial chunk in the channel.
+        final Object nettyRegion = toNettyMessage(ctx.channel(), region);
+        try {
+            encodeChunkHeader(ctx, region.count(), promiseCombiner);
+        } catch (Throwable e) {
+            ReferenceCountUtil.release(nettyRegion);
+            throw e;
+        }
+        promiseCombiner.add(ctx.write(nettyRegion));
+        promiseCombiner.add(ctx.write(CRLF_BUF.duplicate()));
+    }
+
+    private static void encodeChunkHeader(ChannelHandlerContext ctx, long contentLength,
+                                          PromiseCombiner promiseCombiner) {
+        String lengthHex = toHexString(contentLength);
+        ByteBuf buf = ctx.alloc().directBuffer(lengthHex.length() + 2);
+        try {
+            buf.writeCharSequence(lengthHex, US_ASCII);
+            writeShortBE(buf, CRLF_SHORT);
+        } catch (Throwable e) {
+            buf.release();
+            throw e;
+        }
+        promiseCombiner.add(ctx.write(buf));
+    }
+
     private void encodeAndWriteTrailers(ChannelHandlerContext ctx, HttpHeaders headers, ChannelPromise promise) {
         if (headers.isEmpty()) {
             ctx.write(ZERO_CRLF_CRLF_BUF.duplicate(), promise);
@@ -50,6 +50,7 @@ import static io.servicetalk.http.api.HttpResponseStatus.NO_CONTENT;
 import static io.servicetalk.http.api.HttpResponseStatus.SWITCHING_PROTOCOLS;
 import static io.servicetalk.http.api.HttpResponseStatus.StatusClass.INFORMATIONAL_1XX;
 import static io.servicetalk.http.api.HttpResponseStatus.StatusClass.SUCCESSFUL_2XX;
+import static io.servicetalk.http.netty.PreEncodedBytes.statusLine;
 import static io.servicetalk.transport.netty.internal.CloseHandler.UNSUPPORTED_PROTOCOL_CLOSE_HANDLER;
 import static java.util.Objects.requireNonNull;
 
@@ -92,6 +93,11 @@ final class HttpResponseEncoder extends HttpObjectEncoder<HttpResponseMetaData>
 
     @Override
     protected void encodeInitialLine(Buffer stBuffer, HttpResponseMetaData message) {
+        final byte[] statusLine = statusLine(message.version(), message.status());
+        if (statusLine != null) {
+            stBuffer.writeBytes(statusLine);
+            return;
+        }
         message.version().writeTo(stBuffer);
         stBuffer.writeByte(SP);
         message.status().writeTo(stBuffer);
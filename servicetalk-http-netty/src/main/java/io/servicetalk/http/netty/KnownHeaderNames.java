@@ -0,0 +1,183 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.netty.buffer.ByteBuf;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.buffer.api.CharSequences.newAsciiString;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT_CHARSET;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT_LANGUAGE;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT_RANGES;
+import static io.servicetalk.http.api.HttpHeaderNames.AGE;
+import static io.servicetalk.http.api.HttpHeaderNames.ALLOW;
+import static io.servicetalk.http.api.HttpHeaderNames.AUTHORIZATION;
+import static io.servicetalk.http.api.HttpHeaderNames.CACHE_CONTROL;
+import static io.servicetalk.http.api.HttpHeaderNames.CONNECTION;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_DISPOSITION;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LANGUAGE;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LOCATION;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_RANGE;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_TYPE;
+import static io.servicetalk.http.api.HttpHeaderNames.COOKIE;
+import static io.servicetalk.http.api.HttpHeaderNames.DATE;
+import static io.servicetalk.http.api.HttpHeaderNames.ETAG;
+import static io.servicetalk.http.api.HttpHeaderNames.EXPECT;
+import static io.servicetalk.http.api.HttpHeaderNames.EXPIRES;
+import static io.servicetalk.http.api.HttpHeaderNames.FORWARDED;
+import static io.servicetalk.http.api.HttpHeaderNames.HOST;
+import static io.servicetalk.http.api.HttpHeaderNames.IF_MATCH;
+import static io.servicetalk.http.api.HttpHeaderNames.IF_MODIFIED_SINCE;
+import static io.servicetalk.http.api.HttpHeaderNames.IF_NONE_MATCH;
+import static io.servicetalk.http.api.HttpHeaderNames.LAST_MODIFIED;
+import static io.servicetalk.http.api.HttpHeaderNames.LOCATION;
+import static io.servicetalk.http.api.HttpHeaderNames.ORIGIN;
+import static io.servicetalk.http.api.HttpHeaderNames.PRAGMA;
+import static io.servicetalk.http.api.HttpHeaderNames.RANGE;
+import static io.servicetalk.http.api.HttpHeaderNames.REFERER;
+import static io.servicetalk.http.api.HttpHeaderNames.SERVER;
+import static io.servicetalk.http.api.HttpHeaderNames.SET_COOKIE;
+import static io.servicetalk.http.api.HttpHeaderNames.TE;
+import static io.servicetalk.http.api.HttpHeaderNames.TRAILER;
+import static io.servicetalk.http.api.HttpHeaderNames.TRANSFER_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.UPGRADE;
+import static io.servicetalk.http.api.HttpHeaderNames.USER_AGENT;
+import static io.servicetalk.http.api.HttpHeaderNames.VARY;
+import static io.servicetalk.http.api.HttpHeaderNames.VIA;
+import static io.servicetalk.http.api.HttpHeaderNames.WWW_AUTHENTICATE;
+import static io.servicetalk.http.api.HttpHeaderNames.X_FORWARDED_FOR;
+import static io.servicetalk.http.api.HttpHeaderNames.X_FORWARDED_HOST;
+import static io.servicetalk.http.api.HttpHeaderNames.X_FORWARDED_PROTO;
+import static io.servicetalk.http.api.HttpHeaderNames.X_REQUESTED_WITH;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Interns header names which are commonly found on the wire, so decoding them does not allocate.
+ * <p>
+ * Names are matched case-sensitively against both the lower-case form from
+ * {@link io.servicetalk.http.api.HttpHeaderNames} and the canonical form (e.g. {@code Content-Type}), so the decoded
+ * name is always identical to the bytes received.
+ */
+final class KnownHeaderNames {
+    private static final KnownHeaderName[][] BY_LENGTH = newTable(ACCEPT, ACCEPT_CHARSET, ACCEPT_ENCODING,
+            ACCEPT_LANGUAGE, ACCEPT_RANGES, AGE, ALLOW, AUTHORIZATION, CACHE_CONTROL, CONNECTION, CONTENT_DISPOSITION,
+            CONTENT_ENCODING, CONTENT_LANGUAGE, CONTENT_LENGTH, CONTENT_LOCATION, CONTENT_RANGE, CONTENT_TYPE, COOKIE,
+            DATE, ETAG, EXPECT, EXPIRES, FORWARDED, HOST, IF_MATCH, IF_MODIFIED_SINCE, IF_NONE_MATCH,
+            LAST_MODIFIED, LOCATION, ORIGIN, PRAGMA, RANGE, REFERER, SERVER, SET_COOKIE, TE, TRAILER,
+            TRANSFER_ENCODING, UPGRADE, USER_AGENT, VARY, VIA, WWW_AUTHENTICATE, X_FORWARDED_FOR, X_FORWARDED_HOST,
+            X_FORWARDED_PROTO, X_REQUESTED_WITH);
+
+    private KnownHeaderNames() {
+        // no instances
+    }
+
+    /**
+     * Find a known header name which is equal to the bytes of {@code buffer} in the specified range.
+     *
+     * @param buffer the {@link ByteBuf} which contains the header name.
+     * @param start the index of the first byte of the header name.
+     * @param length the length of the header name.
+     * @return the known header name, or {@code null} if the header name is not known.
+     */
+    @Nullable
+    static CharSequence find(final ByteBuf buffer, final int start, final int length) {
+        if (length >= BY_LENGTH.length) {
+            return null;
+        }
+        final KnownHeaderName[] candidates = BY_LENGTH[length];
+        if (candidates == null) {
+            return null;
+        }
+        final byte first = buffer.getByte(start);
+        final byte last = buffer.getByte(start + length - 1);
+        for (KnownHeaderName candidate : candidates) {
+            if (candidate.bytes[0] == first && candidate.bytes[length - 1] == last &&
+                    candidate.matches(buffer, start)) {
+                return candidate.name;
+            }
+        }
+        return null;
+    }
+
+    private static KnownHeaderName[][] newTable(final CharSequence... names) {
+        int maxLength = 0;
+        for (CharSequence name : names) {
+            maxLength = Math.max(maxLength, name.length());
+        }
+        @SuppressWarnings("unchecked")
+        final List<KnownHeaderName>[] lists = new List[maxLength + 1];
+        for (CharSequence name : names) {
+            List<KnownHeaderName> list = lists[name.length()];
+            if (list == null) {
+                list = new ArrayList<>(4);
+                lists[name.length()] = list;
+            }
+            list.add(new KnownHeaderName(name));
+            final String canonical = canonicalName(name);
+            if (!canonical.contentEquals(name)) {
+                list.add(new KnownHeaderName(newAsciiString(canonical)));
+            }
+        }
+        final KnownHeaderName[][] table = new KnownHeaderName[maxLength + 1][];
+        for (int i = 0; i < lists.length; ++i) {
+            if (lists[i] != null) {
+                table[i] = lists[i].toArray(new KnownHeaderName[0]);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Upper-case the first letter of every dash separated word, e.g. {@code content-type} to {@code Content-Type}.
+     */
+    private static String canonicalName(final CharSequence name) {
+        final char[] chars = new char[name.length()];
+        boolean upper = true;
+        for (int i = 0; i < chars.length; ++i) {
+            final char c = name.charAt(i);
+            chars[i] = upper ? Character.toUpperCase(c) : c;
+            upper = c == '-';
+        }
+        return new String(chars);
+    }
+
+    private static final class KnownHeaderName {
+        final CharSequence name;
+        final byte[] bytes;
+
+        KnownHeaderName(final CharSequence name) {
+            this.name = name;
+            this.bytes = name.toString().getBytes(US_ASCII);
+        }
+
+        boolean matches(final ByteBuf buffer, final int start) {
+            // The first and the last byte were already compared.
+            for (int i = 1; i < bytes.length - 1; ++i) {
+                if (bytes[i] != buffer.getByte(start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -16,6 +16,9 @@
 package io.servicetalk.http.netty;
 
 import io.servicetalk.client.api.LoadBalancer;
+import io.servicetalk.client.api.NoAvailableHostException;
+import io.servicetalk.client.api.RequestTracker;
+import io.servicetalk.client.api.RequestTracker.ErrorClass;
 import io.servicetalk.concurrent.api.AsyncContext;
 import io.servicetalk.concurrent.api.Completable;
 import io.servicetalk.concurrent.api.Single;
@@ -25,20 +28,27 @@ import io.servicetalk.http.api.HttpExecutionContext;
 import io.servicetalk.http.api.HttpExecutionStrategy;
 import io.servicetalk.http.api.HttpRequestMetaData;
 import io.servicetalk.http.api.HttpRequestMethod;
+import io.servicetalk.http.api.HttpResponseStatus;
 import io.servicetalk.http.api.ReservedStreamingHttpConnection;
 import io.servicetalk.http.api.StreamingHttpRequest;
 import io.servicetalk.http.api.StreamingHttpRequestResponseFactory;
 import io.servicetalk.http.api.StreamingHttpResponse;
 import io.servicetalk.http.api.StreamingHttpResponseFactory;
 import io.servicetalk.http.utils.BeforeFinallyHttpOperator;
+import io.servicetalk.serializer.api.SerializationException;
 import io.servicetalk.transport.api.ConnectionInfo;
 import io.servicetalk.transport.api.IoThreadFactory.IoThread;
+import io.servicetalk.transport.netty.internal.CloseHandler.CloseEventObservedException;
 
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 import static io.servicetalk.client.api.internal.RequestConcurrencyController.Result.Accepted;
+import static io.servicetalk.concurrent.api.Single.failed;
+import static io.servicetalk.http.api.HttpResponseStatus.StatusClass.SERVER_ERROR_5XX;
 import static io.servicetalk.http.netty.AbstractLifecycleObserverHttpFilter.ON_CONNECTION_SELECTED_CONSUMER;
 import static io.servicetalk.http.netty.AbstractStreamingHttpConnection.requestExecutionStrategy;
 import static java.util.Objects.requireNonNull;
@@ -49,6 +59,8 @@ final class LoadBalancedStreamingHttpClient implements FilterableStreamingHttpCl
 
     private static final Predicate<LoadBalancedStreamingHttpConnection>
             SELECTOR_FOR_REQUEST = conn -> conn.tryRequest() == Accepted;
+    private static final Predicate<LoadBalancedStreamingHttpConnection>
+            SELECTOR_FOR_REQUEST_WITH_HEADROOM = conn -> conn.tryRequestWithHeadroom() == Accepted;
     private static final Predicate<LoadBalancedStreamingHttpConnection>
             SELECTOR_FOR_RESERVE = LoadBalancedStreamingHttpConnection::tryReserve;
 
@@ -56,13 +68,16 @@ final class LoadBalancedStreamingHttpClient implements FilterableStreamingHttpCl
     private final HttpExecutionContext executionContext;
     private final LoadBalancer<LoadBalancedStreamingHttpConnection> loadBalancer;
     private final StreamingHttpRequestResponseFactory reqRespFactory;
+    private final boolean requestHeadroom;
 
     LoadBalancedStreamingHttpClient(final HttpExecutionContext executionContext,
                                     final LoadBalancer<LoadBalancedStreamingHttpConnection> loadBalancer,
-                                    final StreamingHttpRequestResponseFactory reqRespFactory) {
+                                    final StreamingHttpRequestResponseFactory reqRespFactory,
+                                    final boolean requestHeadroom) {
         this.executionContext = requireNonNull(executionContext);
         this.loadBalancer = requireNonNull(loadBalancer);
         this.reqRespFactory = requireNonNull(reqRespFactory);
+        this.requestHeadroom = requestHeadroom;
     }
 
     @Override
@@ -72,18 +87,27 @@ final class LoadBalancedStreamingHttpClient implements FilterableStreamingHttpCl
         // LoadBalancer takes ownership of it (e.g. connection initialization) and in that case they will not be
         // following the LoadBalancer API which this Client depends upon to ensure the concurrent request count state is
         // correct.
-        return loadBalancer.selectConnection(SELECTOR_FOR_REQUEST).flatMap(c -> {
+        return selectConnectionForRequest().flatMap(c -> {
                 final Consumer<ConnectionInfo> onConnectionSelected = AsyncContext.get(ON_CONNECTION_SELECTED_CONSUMER);
                 if (onConnectionSelected != null) {
                     onConnectionSelected.accept(c.connectionContext());
                 }
                 final OwnedRunnable ownedRunnable = c.connectionContext().protocol().major() <= 1 ? null :
                         new OwnedRunnable(c::requestFinished);
-                return c.request(ownedRunnable == null ? request :
-                                new StreamingHttpRequestWithContext(request, ownedRunnable))
+                final RequestTracker tracker = c.requestTracker();
+                final TrackedRequest trackedRequest = tracker == null ? null : new TrackedRequest(tracker);
+                Single<StreamingHttpResponse> response = c.request(ownedRunnable == null ? request :
+                                new StreamingHttpRequestWithContext(request, ownedRunnable));
+                if (trackedRequest != null) {
+                    response = response.whenOnSuccess(trackedRequest::onResponse);
+                }
+                return response
                         .liftSync(new BeforeFinallyHttpOperator(new TerminalSignalConsumer() {
                             @Override
                             public void onComplete() {
+                                if (trackedRequest != null) {
+                                    trackedRequest.onComplete();
+                                }
                                 if (ownedRunnable == null || ownedRunnable.own()) {
                                     c.requestFinished();
                                 }
@@ -91,6 +115,9 @@ final class LoadBalancedStreamingHttpClient implements FilterableStreamingHttpCl
 
                             @Override
                             public void onError(final Throwable throwable) {
+                                if (trackedRequest != null) {
+                                    trackedRequest.onError(throwable);
+                                }
                                 if (ownedRunnable == null || ownedRunnable.own()) {
                                     c.requestFinished();
                                 }
@@ -98,6 +125,9 @@ final class LoadBalancedStreamingHttpClient implements FilterableStreamingHttpCl
 
                             @Override
                             public void cancel() {
+                                if (trackedRequest != null) {
+                                    trackedRequest.onCancel();
+                                }
                                 // If the request gets cancelled, we pessimistically assume that the transport will
                                 // close the connection since the Subscriber did not read the entire response and
                                 // cancelled. This reduces the time window during which a connection is eligible for
@@ -127,6 +157,22 @@ final class LoadBalancedStreamingHttpClient implements FilterableStreamingHttpCl
             });
     }
 
+    Single<LoadBalancedStreamingHttpConnection> selectConnectionForRequest() {
+        if (!requestHeadroom) {
+            return loadBalancer.selectConnection(SELECTOR_FOR_REQUEST);
+        }
+        // Prefer established connections which still have headroom left, this pass never opens a new connection.
+        // Once all of them are down to their headroom, open a new connection instead of consuming it. If no new
+        // connection can be opened (no host is eligible, connect or handshake failures, rejections), fall back to the
+        // headroom of the established connections. The load balancer already accounts the failure to the host.
+        return loadBalancer.selectEstablishedConnection(SELECTOR_FOR_REQUEST_WITH_HEADROOM)
+                .onErrorResume(NoAvailableHostException.class, __ -> loadBalancer.newConnection(SELECTOR_FOR_REQUEST)
+                        .onErrorResume(cause -> loadBalancer.selectEstablishedConnection(SELECTOR_FOR_REQUEST)
+                                // None of the established connections can take the request either, report why a new
+                                // connection could not be opened.
+                                .onErrorResume(NoAvailableHostException.class, ___ -> failed(cause))));
+    }
+
     @Override
     public Single<ReservedStreamingHttpConnection> reserveConnection(final HttpRequestMetaData metaData) {
         return Single.defer(() -> {
@@ -170,6 +216,69 @@ final class LoadBalancedStreamingHttpClient implements FilterableStreamingHttpCl
         return reqRespFactory.newRequest(method, requestTarget);
     }
 
+    /**
+     * Reports the outcome of a single request to the {@link RequestTracker} of the selected connection.
+     * Responses with a {@link HttpResponseStatus.StatusClass#SERVER_ERROR_5XX server error} status are reported as
+     * errors, to let the {@link LoadBalancer} react to hosts that accept connections but fail requests.
+     */
+    private static final class TrackedRequest {
+        private final RequestTracker tracker;
+        private final long startTimeNs;
+        private boolean serverError;
+
+        TrackedRequest(final RequestTracker tracker) {
+            this.tracker = tracker;
+            this.startTimeNs = tracker.beforeRequestStart();
+        }
+
+        void onResponse(final StreamingHttpResponse response) {
+            serverError = response.status().statusClass() == SERVER_ERROR_5XX;
+        }
+
+        void onComplete() {
+            if (serverError) {
+                tracker.onRequestError(startTimeNs, ErrorClass.EXT_ORIGIN_REQUEST_FAILED);
+            } else {
+                tracker.onRequestSuccess(startTimeNs);
+            }
+        }
+
+        void onError(final Throwable cause) {
+            tracker.onRequestError(startTimeNs, errorClass(cause));
+        }
+
+        void onCancel() {
+            tracker.onRequestError(startTimeNs, ErrorClass.CANCELLED);
+        }
+    }
+
+    /**
+     * Classifies a request failure, so that failures of the local side (e.g. a cancelled request, a connection which
+     * was closed locally or a payload which could not be serialized) are not attributed to the remote peer.
+     *
+     * @param cause the cause of the request failure.
+     * @return the {@link ErrorClass} of {@code cause}.
+     */
+    static ErrorClass errorClass(final Throwable cause) {
+        if (cause instanceof TimeoutException) {
+            return ErrorClass.EXT_ORIGIN_TIME_OUT;
+        }
+        if (cause instanceof CancellationException || cause instanceof SerializationException) {
+            return ErrorClass.LOCAL_ORIGIN_REQUEST_FAILED;
+        }
+        if (cause instanceof CloseEventObservedException) {
+            switch (((CloseEventObservedException) cause).event()) {
+                case PROTOCOL_CLOSING_OUTBOUND:
+                case GRACEFUL_USER_CLOSING:
+                case CHANNEL_CLOSED_OUTBOUND:
+                    return ErrorClass.LOCAL_ORIGIN_REQUEST_FAILED;
+                default:
+                    return ErrorClass.EXT_ORIGIN_REQUEST_FAILED;
+            }
+        }
+        return ErrorClass.EXT_ORIGIN_REQUEST_FAILED;
+    }
+
     static final class OwnedRunnable implements Runnable {
         private static final AtomicIntegerFieldUpdater<OwnedRunnable> ownedUpdater =
                 newUpdater(OwnedRunnable.class, "owned");
@@ -16,6 +16,8 @@
 package io.servicetalk.http.netty;
 
 import io.servicetalk.client.api.LoadBalancer;
+import io.servicetalk.client.api.RequestTracker;
+import io.servicetalk.client.api.RequestTrackerAware;
 import io.servicetalk.client.api.internal.ReservableRequestConcurrencyController;
 import io.servicetalk.concurrent.api.Completable;
 import io.servicetalk.concurrent.api.Publisher;
@@ -36,6 +38,8 @@ import io.servicetalk.http.api.StreamingHttpResponse;
 import io.servicetalk.http.api.StreamingHttpResponseFactory;
 import io.servicetalk.transport.api.ExecutionStrategyInfluencer;
 
+import javax.annotation.Nullable;
+
 import static io.servicetalk.http.api.HttpApiConversions.toReservedBlockingConnection;
 import static io.servicetalk.http.api.HttpApiConversions.toReservedBlockingStreamingConnection;
 import static io.servicetalk.http.api.HttpApiConversions.toReservedConnection;
@@ -45,7 +49,7 @@ import static java.util.Objects.requireNonNull;
  * Makes the wrapped {@link StreamingHttpConnection} aware of the {@link LoadBalancer}.
  */
 final class LoadBalancedStreamingHttpConnection implements FilterableStreamingHttpLoadBalancedConnection,
-                   ReservedStreamingHttpConnection, ReservableRequestConcurrencyController,
+                   ReservedStreamingHttpConnection, ReservableRequestConcurrencyController, RequestTrackerAware,
                    // Since we do not have filters for reserved connection, we rely on the original implementation to
                    // be an influencer hence we can try to correctly delegate when possible.
                    // Reserved connection given to the user will use the correct strategy and influencer chain since
@@ -54,13 +58,19 @@ final class LoadBalancedStreamingHttpConnection implements FilterableStreamingHt
     private final ReservableRequestConcurrencyController limiter;
     private final FilterableStreamingHttpLoadBalancedConnection filteredConnection;
     private final HttpExecutionStrategy connectStrategy;
+    private final int requestHeadroom;
+    // Set by the LoadBalancer before this connection is published for selection, hence doesn't need to be volatile.
+    @Nullable
+    private RequestTracker requestTracker;
 
     LoadBalancedStreamingHttpConnection(FilterableStreamingHttpLoadBalancedConnection filteredConnection,
                                         ReservableRequestConcurrencyController limiter,
-                                        HttpExecutionStrategy connectStrategy) {
+                                        HttpExecutionStrategy connectStrategy,
+                                        int requestHeadroom) {
         this.filteredConnection = filteredConnection;
         this.limiter = requireNonNull(limiter);
         this.connectStrategy = connectStrategy;
+        this.requestHeadroom = requestHeadroom;
     }
 
     @Override
@@ -73,6 +83,17 @@ final class LoadBalancedStreamingHttpConnection implements FilterableStreamingHt
         return limiter.tryRequest();
     }
 
+    /**
+     * Same as {@link #tryRequest()}, but rejects the request if it would leave fewer than the configured headroom of
+     * concurrent requests available on this connection.
+     *
+     * @return {@link Result#Accepted} if this connection is available and reserved for performing a single request.
+     */
+    Result tryRequestWithHeadroom() {
+        return requestHeadroom == 0 || limiter.availableRequests() > requestHeadroom ? limiter.tryRequest() :
+                Result.RejectedTemporary;
+    }
+
     @Override
     public void requestFinished() {
         limiter.requestFinished();
@@ -83,6 +104,16 @@ final class LoadBalancedStreamingHttpConnection implements FilterableStreamingHt
         return limiter.releaseAsync();
     }
 
+    @Override
+    public void requestTracker(final RequestTracker tracker) {
+        this.requestTracker = requireNonNull(tracker);
+    }
+
+    @Nullable
+    RequestTracker requestTracker() {
+        return requestTracker;
+    }
+
     @Override
     public Single<StreamingHttpResponse> request(final StreamingHttpRequest request) {
         return filteredConnection.request(request);
@@ -150,6 +181,7 @@ final class LoadBalancedStreamingHttpConnection implements FilterableStreamingHt
 
     @Override
     public int score() {
-        return filteredConnection.score();
+        // Prefer connections which can accept more concurrent requests, e.g. HTTP/2 connections with more streams left.
+        return Math.min(filteredConnection.score(), limiter.availableRequests());
     }
 }
@@ -33,6 +33,7 @@ import io.servicetalk.concurrent.internal.TerminalNotification;
 import io.servicetalk.http.api.DefaultHttpExecutionContext;
 import io.servicetalk.http.api.HttpExecutionContext;
 import io.servicetalk.http.api.HttpExecutionStrategies;
+import io.servicetalk.http.api.HttpFileRegion;
 import io.servicetalk.http.api.HttpHeaders;
 import io.servicetalk.http.api.HttpHeadersFactory;
 import io.servicetalk.http.api.HttpProtocolVersion;
@@ -93,6 +94,8 @@ import static io.servicetalk.http.api.HttpProtocolVersion.HTTP_2_0;
 import static io.servicetalk.http.api.HttpRequestMethod.HEAD;
 import static io.servicetalk.http.api.StreamingHttpRequests.newTransportRequest;
 import static io.servicetalk.http.netty.AbstractStreamingHttpConnection.determineFlushStrategyForApi;
+import static io.servicetalk.http.netty.FileRegionUtils.canTransferDirectly;
+import static io.servicetalk.http.netty.FileRegionUtils.readFileRegions;
 import static io.servicetalk.http.netty.HeaderUtils.addResponseTransferEncodingIfNecessary;
 import static io.servicetalk.http.netty.HeaderUtils.canAddResponseContentLength;
 import static io.servicetalk.http.netty.HeaderUtils.emptyMessageBody;
@@ -251,6 +254,7 @@ final class NettyHttpServer {
         private final SplittingFlushStrategy flushStrategy;
         private final boolean drainRequestPayloadBody;
         private final boolean requireTrailerHeader;
+        private final boolean readFileRegions;
 
         NettyHttpServerConnection(final NettyConnection<Object, Object> connection,
                                   final StreamingHttpService service,
@@ -300,12 +304,19 @@ final class NettyHttpServer {
                                         (contentLength -= ((Buffer) itemWritten).readableBytes()) <= 0 ?
                                         End : InProgress;
                             }
+                            if (itemWritten instanceof HttpFileRegion) {
+                                return contentLength > 0 &&
+                                        (contentLength -= ((HttpFileRegion) itemWritten).count()) <= 0 ?
+                                        End : InProgress;
+                            }
                             return itemWritten instanceof HttpHeaders ? End : InProgress;
                         }
                     });
             connection.updateFlushStrategy((current, isCurrentOriginal) -> flushStrategy);
             this.drainRequestPayloadBody = drainRequestPayloadBody;
             this.requireTrailerHeader = requireTrailerHeader;
+            // HTTP/2 frames the content, so it can not be transferred directly from the file to the socket either.
+            readFileRegions = protocol().major() > 1 || !canTransferDirectly(connection.nettyChannel());
         }
 
         void process(final boolean handleMultipleRequests) {
@@ -397,6 +408,9 @@ final class NettyHttpServer {
                             }
 
                             Publisher<Object> pub = handleResponse(protocol(), requestMethod, response);
+                            if (readFileRegions) {
+                                pub = readFileRegions(pub, executionContext().bufferAllocator());
+                            }
                             return c == null ? pub : pub.beforeFinally(c::cancel);
                         });
 
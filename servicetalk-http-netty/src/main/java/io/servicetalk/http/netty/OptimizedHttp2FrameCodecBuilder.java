@@ -16,27 +16,56 @@
 package io.servicetalk.http.netty;
 
 import io.netty.handler.codec.http2.DefaultHttp2Connection;
+import io.netty.handler.codec.http2.DefaultHttp2LocalFlowController;
 import io.netty.handler.codec.http2.DefaultHttp2RemoteFlowController;
+import io.netty.handler.codec.http2.Http2Connection;
+import io.netty.handler.codec.http2.Http2Exception;
 import io.netty.handler.codec.http2.Http2FrameCodec;
 import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
 import io.netty.handler.codec.http2.Http2RemoteFlowController;
+import io.netty.handler.codec.http2.Http2Settings;
+import io.netty.handler.codec.http2.Http2Stream;
 import io.netty.handler.codec.http2.UniformStreamByteDistributor;
 
+import static io.netty.handler.codec.http2.DefaultHttp2LocalFlowController.DEFAULT_WINDOW_UPDATE_RATIO;
+import static io.servicetalk.http.netty.H2ProtocolConfigBuilder.DEFAULT_HEADER_TABLE_SIZE;
+import static io.servicetalk.http.netty.H2ProtocolConfigBuilder.DEFAULT_MAX_CONCURRENT_STREAMS;
+import static io.servicetalk.http.netty.H2ProtocolConfigBuilder.DEFAULT_MAX_FRAME_SIZE;
+import static io.servicetalk.http.netty.H2ProtocolConfigBuilder.DEFAULT_WINDOW_SIZE;
+
 /**
  * Optimized variant of {@link Http2FrameCodecBuilder} that allows us to use {@link UniformStreamByteDistributor}
- * for {@link Http2RemoteFlowController}.
+ * for {@link Http2RemoteFlowController} and applies the settings and flow-control configuration of
+ * {@link H2ProtocolConfig}.
  */
 final class OptimizedHttp2FrameCodecBuilder extends Http2FrameCodecBuilder {
 
     private final boolean server;
+    private final int maxConnectionWindowSize;
 
     /**
      * Creates a new instance.
      *
      * @param server {@code true} if for server, {@code false} otherwise
+     * @param config {@link H2ProtocolConfig} to apply
      */
-    OptimizedHttp2FrameCodecBuilder(final boolean server) {
+    OptimizedHttp2FrameCodecBuilder(final boolean server, final H2ProtocolConfig config) {
         this.server = server;
+        this.maxConnectionWindowSize = config.maxConnectionWindowSize();
+        final Http2Settings settings = initialSettings();
+        // Only advertise values which differ from the protocol defaults to keep the SETTINGS frame small.
+        if (config.initialWindowSize() != DEFAULT_WINDOW_SIZE) {
+            settings.initialWindowSize(config.initialWindowSize());
+        }
+        if (config.maxFrameSize() != DEFAULT_MAX_FRAME_SIZE) {
+            settings.maxFrameSize(config.maxFrameSize());
+        }
+        if (config.headerTableSize() != DEFAULT_HEADER_TABLE_SIZE) {
+            settings.headerTableSize(config.headerTableSize());
+        }
+        if (server && config.maxConcurrentStreams() != DEFAULT_MAX_CONCURRENT_STREAMS) {
+            settings.maxConcurrentStreams(config.maxConcurrentStreams());
+        }
     }
 
     @Override
@@ -49,7 +78,47 @@ final class OptimizedHttp2FrameCodecBuilder extends Http2FrameCodecBuilder {
         final DefaultHttp2Connection connection = new DefaultHttp2Connection(isServer(), maxReservedStreams());
         connection.remote().flowController(new DefaultHttp2RemoteFlowController(connection,
                 new UniformStreamByteDistributor(connection)));
+        if (maxConnectionWindowSize > DEFAULT_WINDOW_SIZE) {
+            connection.local().flowController(
+                    new AutoTuningLocalFlowController(connection, maxConnectionWindowSize));
+        }
         connection(connection);
         return super.build();
     }
+
+    /**
+     * {@link DefaultHttp2LocalFlowController} which doubles the connection flow-control window whenever the
+     * application consumed a full window worth of data since the window last grew, up to a maximum size. Consuming the
+     * full window indicates that the window, rather than the application, limits the throughput of the connection.
+     * Stream windows are not changed as they are advertised in the SETTINGS frame.
+     */
+    private static final class AutoTuningLocalFlowController extends DefaultHttp2LocalFlowController {
+        private final Http2Connection connection;
+        private final int maxConnectionWindowSize;
+        // Only accessed from the event loop.
+        private long consumedSinceGrowth;
+
+        AutoTuningLocalFlowController(final Http2Connection connection, final int maxConnectionWindowSize) {
+            super(connection, DEFAULT_WINDOW_UPDATE_RATIO, false);
+            this.connection = connection;
+            this.maxConnectionWindowSize = maxConnectionWindowSize;
+        }
+
+        @Override
+        public boolean consumeBytes(final Http2Stream stream, final int numBytes) throws Http2Exception {
+            final boolean windowUpdateSent = super.consumeBytes(stream, numBytes);
+            if (numBytes <= 0) {
+                return windowUpdateSent;
+            }
+            consumedSinceGrowth += numBytes;
+            final Http2Stream connectionStream = connection.connectionStream();
+            final int windowSize = initialWindowSize(connectionStream);
+            if (windowSize < maxConnectionWindowSize && consumedSinceGrowth >= windowSize) {
+                consumedSinceGrowth = 0;
+                incrementWindowSize(connectionStream, Math.min(windowSize, maxConnectionWindowSize - windowSize));
+                return true;
+            }
+            return windowUpdateSent;
+        }
+    }
 }
@@ -0,0 +1,190 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.http.api.HttpProtocolVersion;
+import io.servicetalk.http.api.HttpResponseStatus;
+
+import javax.annotation.Nullable;
+
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT_RANGES;
+import static io.servicetalk.http.api.HttpHeaderNames.CACHE_CONTROL;
+import static io.servicetalk.http.api.HttpHeaderNames.CONNECTION;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_TYPE;
+import static io.servicetalk.http.api.HttpHeaderNames.EXPECT;
+import static io.servicetalk.http.api.HttpHeaderNames.TE;
+import static io.servicetalk.http.api.HttpHeaderNames.TRANSFER_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.UPGRADE;
+import static io.servicetalk.http.api.HttpHeaderValues.APPLICATION_JSON;
+import static io.servicetalk.http.api.HttpHeaderValues.BYTES;
+import static io.servicetalk.http.api.HttpHeaderValues.CHUNKED;
+import static io.servicetalk.http.api.HttpHeaderValues.CLOSE;
+import static io.servicetalk.http.api.HttpHeaderValues.CONTINUE;
+import static io.servicetalk.http.api.HttpHeaderValues.DEFLATE;
+import static io.servicetalk.http.api.HttpHeaderValues.GZIP;
+import static io.servicetalk.http.api.HttpHeaderValues.IDENTITY;
+import static io.servicetalk.http.api.HttpHeaderValues.KEEP_ALIVE;
+import static io.servicetalk.http.api.HttpHeaderValues.MULTIPART_FORM_DATA;
+import static io.servicetalk.http.api.HttpHeaderValues.NONE;
+import static io.servicetalk.http.api.HttpHeaderValues.NO_CACHE;
+import static io.servicetalk.http.api.HttpHeaderValues.NO_STORE;
+import static io.servicetalk.http.api.HttpHeaderValues.TEXT_PLAIN;
+import static io.servicetalk.http.api.HttpHeaderValues.TEXT_PLAIN_US_ASCII;
+import static io.servicetalk.http.api.HttpHeaderValues.TEXT_PLAIN_UTF_8;
+import static io.servicetalk.http.api.HttpHeaderValues.TRAILERS;
+import static io.servicetalk.http.api.HttpHeaderValues.WEBSOCKET;
+import static io.servicetalk.http.api.HttpHeaderValues.ZERO;
+import static io.servicetalk.http.api.HttpProtocolVersion.HTTP_1_0;
+import static io.servicetalk.http.api.HttpProtocolVersion.HTTP_1_1;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Pre-encoded HTTP/1.x status-lines and header fields for well-known constants, so the encoder can write each of them
+ * with a single copy.
+ * <p>
+ * Lookups compare references, not content, so they only succeed for the constants from
+ * {@link io.servicetalk.http.api.HttpResponseStatus}, {@link io.servicetalk.http.api.HttpHeaderNames}, and
+ * {@link io.servicetalk.http.api.HttpHeaderValues}. A miss costs a few comparisons and never allocates.
+ */
+final class PreEncodedBytes {
+    private static final int MIN_STATUS_CODE = 100;
+    private static final int MAX_STATUS_CODE = 599;
+    private static final HttpResponseStatus[] STATUSES = new HttpResponseStatus[MAX_STATUS_CODE - MIN_STATUS_CODE + 1];
+    private static final byte[][] HTTP_1_1_STATUS_LINES = new byte[STATUSES.length][];
+    private static final byte[][] HTTP_1_0_STATUS_LINES = new byte[STATUSES.length][];
+
+    private static final int HEADER_BUCKETS = 64; // must be a power of two
+    private static final PreEncodedHeader[][] HEADERS = new PreEncodedHeader[HEADER_BUCKETS][];
+
+    static {
+        for (int code = MIN_STATUS_CODE; code <= MAX_STATUS_CODE; ++code) {
+            // Returns the cached constant for known status codes, otherwise a new instance with an empty reason-phrase.
+            final HttpResponseStatus status = HttpResponseStatus.of(code, "");
+            if (!status.reasonPhrase().isEmpty()) {
+                final int index = code - MIN_STATUS_CODE;
+                STATUSES[index] = status;
+                HTTP_1_1_STATUS_LINES[index] = encodeStatusLine(HTTP_1_1, status);
+                HTTP_1_0_STATUS_LINES[index] = encodeStatusLine(HTTP_1_0, status);
+            }
+        }
+
+        addHeader(CONTENT_TYPE, APPLICATION_JSON);
+        addHeader(CONTENT_TYPE, TEXT_PLAIN);
+        addHeader(CONTENT_TYPE, TEXT_PLAIN_UTF_8);
+        addHeader(CONTENT_TYPE, TEXT_PLAIN_US_ASCII);
+        addHeader(CONTENT_TYPE, MULTIPART_FORM_DATA);
+        addHeader(CONTENT_LENGTH, ZERO);
+        addHeader(TRANSFER_ENCODING, CHUNKED);
+        addHeader(CONNECTION, KEEP_ALIVE);
+        addHeader(CONNECTION, CLOSE);
+        addHeader(CONNECTION, UPGRADE);
+        addHeader(CONTENT_ENCODING, GZIP);
+        addHeader(CONTENT_ENCODING, DEFLATE);
+        addHeader(CONTENT_ENCODING, IDENTITY);
+        addHeader(ACCEPT_ENCODING, GZIP);
+        addHeader(ACCEPT_ENCODING, DEFLATE);
+        addHeader(ACCEPT_ENCODING, IDENTITY);
+        addHeader(ACCEPT, APPLICATION_JSON);
+        addHeader(ACCEPT_RANGES, BYTES);
+        addHeader(ACCEPT_RANGES, NONE);
+        addHeader(CACHE_CONTROL, NO_CACHE);
+        addHeader(CACHE_CONTROL, NO_STORE);
+        addHeader(TE, TRAILERS);
+        addHeader(UPGRADE, WEBSOCKET);
+        addHeader(EXPECT, CONTINUE);
+    }
+
+    private PreEncodedBytes() {
+        // no instances
+    }
+
+    /**
+     * Get the encoded status-line, including the trailing CRLF.
+     *
+     * @param version the {@link HttpProtocolVersion} of the response.
+     * @param status the {@link HttpResponseStatus} of the response.
+     * @return the encoded status-line, or {@code null} if it is not pre-encoded. The result must not be modified.
+     */
+    @Nullable
+    static byte[] statusLine(final HttpProtocolVersion version, final HttpResponseStatus status) {
+        final int index = status.code() - MIN_STATUS_CODE;
+        if (index < 0 || index >= STATUSES.length || STATUSES[index] != status) {
+            return null;
+        }
+        return version == HTTP_1_1 ? HTTP_1_1_STATUS_LINES[index] :
+                version == HTTP_1_0 ? HTTP_1_0_STATUS_LINES[index] : null;
+    }
+
+    /**
+     * Get the encoded header field, including the trailing CRLF.
+     *
+     * @param name the name of the header.
+     * @param value the value of the header.
+     * @return the encoded header field, or {@code null} if it is not pre-encoded. The result must not be modified.
+     */
+    @Nullable
+    static byte[] header(final CharSequence name, final CharSequence value) {
+        final PreEncodedHeader[] bucket = HEADERS[bucketIndex(name.length(), value.length())];
+        if (bucket != null) {
+            for (PreEncodedHeader header : bucket) {
+                if (header.name == name && header.value == value) {
+                    return header.encoded;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int bucketIndex(final int nameLength, final int valueLength) {
+        // Lengths are known without touching the content, and are distinct enough for the set of constants.
+        return (nameLength * 31 + valueLength) & (HEADER_BUCKETS - 1);
+    }
+
+    private static byte[] encodeStatusLine(final HttpProtocolVersion version, final HttpResponseStatus status) {
+        // Same format as HttpProtocolVersion#writeTo and HttpResponseStatus#writeTo.
+        return (version + " " + status.code() + ' ' + status.reasonPhrase() + "\r\n").getBytes(US_ASCII);
+    }
+
+    private static void addHeader(final CharSequence name, final CharSequence value) {
+        final int index = bucketIndex(name.length(), value.length());
+        final PreEncodedHeader[] bucket = HEADERS[index];
+        final PreEncodedHeader header = new PreEncodedHeader(name, value);
+        if (bucket == null) {
+            HEADERS[index] = new PreEncodedHeader[] {header};
+        } else {
+            final PreEncodedHeader[] newBucket = new PreEncodedHeader[bucket.length + 1];
+            System.arraycopy(bucket, 0, newBucket, 0, bucket.length);
+            newBucket[bucket.length] = header;
+            HEADERS[index] = newBucket;
+        }
+    }
+
+    private static final class PreEncodedHeader {
+        final CharSequence name;
+        final CharSequence value;
+        final byte[] encoded;
+
+        PreEncodedHeader(final CharSequence name, final CharSequence value) {
+            this.name = name;
+            this.value = value;
+            encoded = (name + ": " + value + "\r\n").getBytes(US_ASCII);
+        }
+    }
+}
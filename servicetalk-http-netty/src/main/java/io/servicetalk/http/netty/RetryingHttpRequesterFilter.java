@@ -15,6 +15,7 @@
  */
 package io.servicetalk.http.netty;
 
+import io.servicetalk.buffer.api.Buffer;
 import io.servicetalk.client.api.LoadBalancer;
 import io.servicetalk.client.api.NoAvailableHostException;
 import io.servicetalk.client.api.ServiceDiscoverer;
@@ -29,6 +30,7 @@ import io.servicetalk.http.api.FilterableReservedStreamingHttpConnection;
 import io.servicetalk.http.api.FilterableStreamingHttpClient;
 import io.servicetalk.http.api.HttpExecutionStrategies;
 import io.servicetalk.http.api.HttpExecutionStrategy;
+import io.servicetalk.http.api.HttpRequest;
 import io.servicetalk.http.api.HttpRequestMetaData;
 import io.servicetalk.http.api.HttpResponseMetaData;
 import io.servicetalk.http.api.StreamingHttpClientFilter;
@@ -41,6 +43,9 @@ import io.servicetalk.transport.api.RetryableException;
 
 import java.io.IOException;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import javax.annotation.Nullable;
@@ -49,17 +54,23 @@ import static io.servicetalk.concurrent.api.AsyncCloseables.emptyAsyncCloseable;
 import static io.servicetalk.concurrent.api.AsyncCloseables.toAsyncCloseable;
 import static io.servicetalk.concurrent.api.Completable.completed;
 import static io.servicetalk.concurrent.api.Completable.failed;
+import static io.servicetalk.concurrent.api.Publisher.from;
 import static io.servicetalk.concurrent.api.RetryStrategies.retryWithConstantBackoffDeltaJitter;
 import static io.servicetalk.concurrent.api.RetryStrategies.retryWithConstantBackoffFullJitter;
 import static io.servicetalk.concurrent.api.RetryStrategies.retryWithExponentialBackoffDeltaJitter;
 import static io.servicetalk.concurrent.api.RetryStrategies.retryWithExponentialBackoffFullJitter;
+import static io.servicetalk.concurrent.api.Single.succeeded;
 import static io.servicetalk.concurrent.api.SourceAdapters.toSource;
 import static io.servicetalk.http.api.HeaderUtils.DEFAULT_HEADER_FILTER;
+import static io.servicetalk.http.api.HttpApiConversions.isPayloadEmpty;
+import static io.servicetalk.http.api.HttpApiConversions.isSafeToAggregate;
+import static io.servicetalk.http.api.HttpApiConversions.mayHaveTrailers;
 import static io.servicetalk.http.netty.RetryingHttpRequesterFilter.BackOffPolicy.NO_RETRIES;
 import static java.lang.Integer.MAX_VALUE;
 import static java.time.Duration.ZERO;
 import static java.time.Duration.ofDays;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 /**
  * A filter to enable retries for HTTP clients.
@@ -72,6 +83,11 @@ import static java.util.Objects.requireNonNull;
  * Similarly, max-retries for each flow can be set in the {@link BackOffPolicy}, as well
  * as a total max-retries to be respected by both flows, as set in
  * {@link Builder#maxTotalRetries(int)}.
+ * <p>
+ * To avoid amplifying the load on a struggling backend, retries of all requests of a client can be limited by a
+ * {@link Builder#retryBudget(RetryBudget) retry budget}. Latency of idempotent requests can be reduced by
+ * {@link Builder#hedging(HedgingPolicy) hedging}, which sends a speculative duplicate of a slow request and uses the
+ * response which arrives first.
  * @see RetryStrategies
  */
 public final class RetryingHttpRequesterFilter
@@ -79,7 +95,7 @@ public final class RetryingHttpRequesterFilter
 
     private static final RetryingHttpRequesterFilter DISABLE_RETRIES =
             new RetryingHttpRequesterFilter(false, true, 0, null,
-                    (__, ___) -> NO_RETRIES);
+                    (__, ___) -> NO_RETRIES, null, null);
 
     private final boolean waitForLb;
     private final boolean ignoreSdErrors;
@@ -87,16 +103,23 @@ public final class RetryingHttpRequesterFilter
     @Nullable
     private final Function<HttpResponseMetaData, HttpResponseException> responseMapper;
     private final BiFunction<HttpRequestMetaData, Throwable, BackOffPolicy> retryFor;
+    @Nullable
+    private final RetryBudget retryBudget;
+    @Nullable
+    private final HedgingPolicy hedgingPolicy;
 
     RetryingHttpRequesterFilter(
             final boolean waitForLb, final boolean ignoreSdErrors, final int maxTotalRetries,
             @Nullable final Function<HttpResponseMetaData, HttpResponseException> responseMapper,
-            final BiFunction<HttpRequestMetaData, Throwable, BackOffPolicy> retryFor) {
+            final BiFunction<HttpRequestMetaData, Throwable, BackOffPolicy> retryFor,
+            @Nullable final RetryBudget retryBudget, @Nullable final HedgingPolicy hedgingPolicy) {
         this.waitForLb = waitForLb;
         this.ignoreSdErrors = ignoreSdErrors;
         this.maxTotalRetries = maxTotalRetries;
         this.responseMapper = responseMapper;
         this.retryFor = retryFor;
+        this.retryBudget = retryBudget;
+        this.hedgingPolicy = hedgingPolicy;
     }
 
     @Override
@@ -114,6 +137,10 @@ public final class RetryingHttpRequesterFilter
 
         private final Executor executor;
         @Nullable
+        private final RetryBudget.Balance retryBalance;
+        @Nullable
+        private final HedgingPolicy.HedgeDelay hedgeDelay;
+        @Nullable
         private Completable sdStatus;
 
         @Nullable
@@ -130,6 +157,8 @@ public final class RetryingHttpRequesterFilter
         private ContextAwareRetryingHttpClientFilter(final FilterableStreamingHttpClient delegate) {
             super(delegate);
             this.executor = delegate.executionContext().executor();
+            this.retryBalance = retryBudget == null ? null : retryBudget.newBalance();
+            this.hedgeDelay = hedgingPolicy == null ? null : hedgingPolicy.newHedgeDelay();
         }
 
         void inject(@Nullable final Publisher<Object> lbEventStream,
@@ -165,7 +194,11 @@ public final class RetryingHttpRequesterFilter
                 }
 
                 final BackOffPolicy backOffPolicy = retryFor.apply(requestMetaData, t);
-                if (backOffPolicy != NO_RETRIES) {
+                if (backOffPolicy != NO_RETRIES && count <= backOffPolicy.maxRetries) {
+                    // Only spend from the budget once the policy accepted the retry.
+                    if (retryBalance != null && !retryBalance.tryWithdraw()) {
+                        return failed(t);
+                    }
                     if (t instanceof DelayedRetry) {
                         final Duration constant = ((DelayedRetry) t).delay();
                         return backOffPolicy.newStrategy(executor).apply(count, t).concat(executor.timer(constant));
@@ -181,14 +214,18 @@ public final class RetryingHttpRequesterFilter
         @Override
         public Single<? extends FilterableReservedStreamingHttpConnection> reserveConnection(
                 final HttpRequestMetaData metaData) {
-            return delegate().reserveConnection(metaData)
-                    .retryWhen(retryStrategy(executor, metaData));
+            Single<? extends FilterableReservedStreamingHttpConnection> single = delegate().reserveConnection(metaData);
+            if (retryBalance != null) {
+                single = single.beforeOnSuccess(__ -> retryBalance.deposit());
+            }
+            return single.retryWhen(retryStrategy(executor, metaData));
         }
 
         @Override
         protected Single<StreamingHttpResponse> request(final StreamingHttpRequester delegate,
                                                         final StreamingHttpRequest request) {
-            Single<StreamingHttpResponse> single = delegate.request(request);
+            Single<StreamingHttpResponse> single = hedgeDelay != null && isHedgeable(request) ?
+                    hedgedRequest(delegate, request, hedgeDelay) : delegate.request(request);
             if (responseMapper != null) {
                 single = single.map(resp -> {
                     final HttpResponseException exception = responseMapper.apply(resp);
@@ -199,10 +236,77 @@ public final class RetryingHttpRequesterFilter
                     return resp;
                 });
             }
+            if (retryBalance != null) {
+                single = single.beforeOnSuccess(__ -> retryBalance.deposit());
+            }
 
             return single.retryWhen(retryStrategy(executor, request));
         }
 
+        private Single<StreamingHttpResponse> hedgedRequest(final StreamingHttpRequester delegate,
+                                                            final StreamingHttpRequest request,
+                                                            final HedgingPolicy.HedgeDelay hedgeDelay) {
+            // The payload body is aggregated (it is empty or already aggregated, see isHedgeable) so that each
+            // attempt can write its own copy of the request, filters and the encoder modify the request metadata.
+            return request.toRequest().flatMap(aggregated -> {
+                final AtomicBoolean responded = new AtomicBoolean();
+                final Single<StreamingHttpResponse> hedge = executor.timer(hedgeDelay.delayNanos(), NANOSECONDS)
+                        .concat(Single.defer(() -> retryBalance == null || retryBalance.tryWithdraw() ?
+                                hedgeAttempt(delegate, aggregated, hedgeDelay, responded).shareContextOnSubscribe() :
+                                Single.<StreamingHttpResponse>never()));
+                // The response which arrives first wins, the other request is cancelled.
+                return hedgeAttempt(delegate, aggregated, hedgeDelay, responded).ambWith(hedge);
+            });
+        }
+
+        private Single<StreamingHttpResponse> hedgeAttempt(final StreamingHttpRequester delegate,
+                                                           final HttpRequest aggregated,
+                                                           final HedgingPolicy.HedgeDelay hedgeDelay,
+                                                           final AtomicBoolean responded) {
+            return trackLatency(Single.defer(() -> delegate.request(newAttempt(delegate, aggregated))
+                    .shareContextOnSubscribe()), hedgeDelay)
+                    .flatMap(response -> {
+                        if (responded.compareAndSet(false, true)) {
+                            return succeeded(response);
+                        }
+                        // Both attempts responded, the other one wins the amb. Consume the payload body of this
+                        // response to release its connection, and never complete so that it can't win instead.
+                        response.messageBody().ignoreElements().subscribe();
+                        return Single.never();
+                    });
+        }
+
+        private Single<StreamingHttpResponse> trackLatency(final Single<StreamingHttpResponse> response,
+                                                           final HedgingPolicy.HedgeDelay hedgeDelay) {
+            return Single.defer(() -> {
+                final long startTime = executor.currentTime(NANOSECONDS);
+                return response.beforeOnSuccess(__ ->
+                        hedgeDelay.onLatency(executor.currentTime(NANOSECONDS) - startTime))
+                        .shareContextOnSubscribe();
+            });
+        }
+
+        private boolean isHedgeable(final StreamingHttpRequest request) {
+            // Only requests which can be written more than once are hedged: the payload body must be empty or
+            // already aggregated, a streaming payload body Publisher may only support a single subscriber.
+            return request.method().properties().isIdempotent() && !mayHaveTrailers(request) &&
+                    (isPayloadEmpty(request) || isSafeToAggregate(request));
+        }
+
+        private static StreamingHttpRequest newAttempt(final StreamingHttpRequester requester,
+                                                       final HttpRequest aggregated) {
+            final StreamingHttpRequest attempt = requester.newRequest(aggregated.method(), aggregated.requestTarget())
+                    .version(aggregated.version())
+                    .contentEncoding(aggregated.contentEncoding())
+                    .context(aggregated.context().copy());
+            attempt.headers().add(aggregated.headers());
+            final Buffer payload = aggregated.payloadBody();
+            if (payload.readableBytes() > 0) {
+                attempt.payloadBody(from(payload.duplicate()));
+            }
+            return attempt;
+        }
+
         @Override
         public Completable closeAsync() {
             if (closeAsync != null) {
@@ -502,6 +606,182 @@ public final class RetryingHttpRequesterFilter
         }
     }
 
+    /**
+     * A budget of retries shared by all requests of a client, which allows retries only as a percentage of the recent
+     * successful requests.
+     * <p>
+     * The budget is a token bucket: each successful request deposits a fraction of a token, each retry withdraws a
+     * whole token, and retries are not attempted while the bucket is empty. The bucket holds at most a maximum number
+     * of tokens, which it also starts with, so that clients can retry before any request succeeded, and the tokens of
+     * a long period of successes do not allow a burst of retries when the backend starts failing.
+     */
+    public static final class RetryBudget {
+
+        private static final long TOKEN = 1000;
+
+        private final long deposit;
+        private final long maxBalance;
+
+        private RetryBudget(final long deposit, final long maxBalance) {
+            this.deposit = deposit;
+            this.maxBalance = maxBalance;
+        }
+
+        /**
+         * Creates a new {@link RetryBudget} which allows retries as a percentage of successful requests.
+         *
+         * @param retryPercentage the percentage of successful requests which can be retried, e.g. {@code 20} to allow
+         * one retry for every five successful requests.
+         * @param maxRetries the maximum number of retries which can be accumulated, which is also the initial number
+         * of retries available.
+         * @return a new {@link RetryBudget}.
+         */
+        public static RetryBudget ofPercentage(final int retryPercentage, final int maxRetries) {
+            if (retryPercentage <= 0) {
+                throw new IllegalArgumentException("retryPercentage: " + retryPercentage + " (expected: >0)");
+            }
+            if (maxRetries <= 0) {
+                throw new IllegalArgumentException("maxRetries: " + maxRetries + " (expected: >0)");
+            }
+            return new RetryBudget(TOKEN * retryPercentage / 100, TOKEN * maxRetries);
+        }
+
+        Balance newBalance() {
+            return new Balance(this);
+        }
+
+        static final class Balance {
+            private static final AtomicLongFieldUpdater<Balance> balanceUpdater =
+                    AtomicLongFieldUpdater.newUpdater(Balance.class, "balance");
+
+            private final RetryBudget budget;
+            private volatile long balance;
+
+            Balance(final RetryBudget budget) {
+                this.budget = budget;
+                this.balance = budget.maxBalance;
+            }
+
+            void deposit() {
+                for (;;) {
+                    final long current = balance;
+                    if (current >= budget.maxBalance ||
+                            balanceUpdater.compareAndSet(this, current,
+                                    Math.min(budget.maxBalance, current + budget.deposit))) {
+                        return;
+                    }
+                }
+            }
+
+            boolean tryWithdraw() {
+                for (;;) {
+                    final long current = balance;
+                    if (current < TOKEN) {
+                        return false;
+                    }
+                    if (balanceUpdater.compareAndSet(this, current, current - TOKEN)) {
+                        return true;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Determines when a hedged request is sent for a request which didn't receive a response yet.
+     */
+    public static final class HedgingPolicy {
+
+        private static final int LATENCY_SAMPLES = 256;
+        private static final int RECOMPUTE_MASK = 31;
+
+        private final long initialDelayNanos;
+        private final double percentile;
+
+        private HedgingPolicy(final long initialDelayNanos, final double percentile) {
+            this.initialDelayNanos = initialDelayNanos;
+            this.percentile = percentile;
+        }
+
+        /**
+         * Creates a new {@link HedgingPolicy} which sends a hedged request after a constant delay.
+         *
+         * @param delay the time to wait for a response before sending a hedged request.
+         * @return a new {@link HedgingPolicy}.
+         */
+        public static HedgingPolicy ofDelay(final Duration delay) {
+            return new HedgingPolicy(validateDelay(delay), 0);
+        }
+
+        /**
+         * Creates a new {@link HedgingPolicy} which sends a hedged request when no response arrived within a
+         * percentile of the recent response latencies of the client, e.g. the {@code 95}th percentile so that only
+         * requests slower than 95% of the requests are hedged.
+         *
+         * @param percentile the percentile of recent response latencies after which a hedged request is sent, in the
+         * range {@code (0, 100)}.
+         * @param initialDelay the delay used until enough responses were received to estimate the percentile.
+         * @return a new {@link HedgingPolicy}.
+         */
+        public static HedgingPolicy ofPercentile(final double percentile, final Duration initialDelay) {
+            if (!(percentile > 0 && percentile < 100)) {
+                throw new IllegalArgumentException("percentile: " + percentile + " (expected: (0, 100))");
+            }
+            return new HedgingPolicy(validateDelay(initialDelay), percentile);
+        }
+
+        private static long validateDelay(final Duration delay) {
+            if (delay.isNegative()) {
+                throw new IllegalArgumentException("delay: " + delay + " (expected: >=0)");
+            }
+            return delay.toNanos();
+        }
+
+        HedgeDelay newHedgeDelay() {
+            return new HedgeDelay(this);
+        }
+
+        static final class HedgeDelay {
+            private final HedgingPolicy policy;
+            @Nullable
+            private final long[] latencies;
+            private volatile long delayNanos;
+            // Guarded by this.
+            private int count;
+
+            HedgeDelay(final HedgingPolicy policy) {
+                this.policy = policy;
+                this.latencies = policy.percentile > 0 ? new long[LATENCY_SAMPLES] : null;
+                this.delayNanos = policy.initialDelayNanos;
+            }
+
+            long delayNanos() {
+                return delayNanos;
+            }
+
+            void onLatency(final long latencyNanos) {
+                if (latencies == null) {
+                    return;
+                }
+                synchronized (this) {
+                    latencies[count++ % LATENCY_SAMPLES] = latencyNanos;
+                    if (count < LATENCY_SAMPLES) {
+                        return;
+                    }
+                    if ((count & RECOMPUTE_MASK) == 0) {
+                        final long[] sorted = latencies.clone();
+                        Arrays.sort(sorted);
+                        delayNanos = sorted[(int) Math.ceil(policy.percentile / 100 * LATENCY_SAMPLES) - 1];
+                    }
+                    if (count == 2 * LATENCY_SAMPLES) {
+                        // Avoid overflow, keeps the position in the ring and the recompute cadence.
+                        count = LATENCY_SAMPLES;
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * An interface that enhances any {@link Exception} to provide a constant {@link Duration delay} to be applied when
      * retrying through a {@link RetryingHttpRequesterFilter retrying-filter}.
@@ -554,6 +834,12 @@ public final class RetryingHttpRequesterFilter
         private BiFunction<HttpRequestMetaData, Throwable, BackOffPolicy>
                 retryOther;
 
+        @Nullable
+        private RetryBudget retryBudget;
+
+        @Nullable
+        private HedgingPolicy hedgingPolicy;
+
         /**
          * By default, automatic retries wait for the associated {@link LoadBalancer} to be ready before triggering a
          * retry for requests. This behavior may add latency to requests till the time the load balancer is ready
@@ -699,6 +985,41 @@ public final class RetryingHttpRequesterFilter
             return this;
         }
 
+        /**
+         * Limits the retries of all requests of a client to a {@link RetryBudget}. Retries which exceed the budget are
+         * not attempted and the request fails with the original error.
+         * <p>
+         * By default, there is no budget, and retries are only limited per request.
+         *
+         * @param retryBudget the {@link RetryBudget} shared by all requests of a client.
+         * @return {@code this}.
+         */
+        public Builder retryBudget(final RetryBudget retryBudget) {
+            this.retryBudget = requireNonNull(retryBudget);
+            return this;
+        }
+
+        /**
+         * Enables hedging of <a href="https://tools.ietf.org/html/rfc7231#section-4.2.2">idempotent</a> requests:
+         * when no response arrives within the delay of the {@link HedgingPolicy}, a second request is sent, and the
+         * response which arrives first is used while the other request is cancelled.
+         * <p>
+         * If a {@link #retryBudget(RetryBudget) retry budget} is configured, each hedged request consumes a retry from
+         * it.
+         * <p>
+         * Only requests without a {@link StreamingHttpRequest#payloadBody() payload body} or with an aggregated one
+         * (e.g. requests of the {@link io.servicetalk.http.api.HttpClient aggregated API}) and without trailers are
+         * hedged, other requests are sent once. Each attempt writes its own copy of the request, and the payload body
+         * of a response which arrives after the first one is drained.
+         *
+         * @param hedgingPolicy the {@link HedgingPolicy} which determines when to send a hedged request.
+         * @return {@code this}.
+         */
+        public Builder hedging(final HedgingPolicy hedgingPolicy) {
+            this.hedgingPolicy = requireNonNull(hedgingPolicy);
+            return this;
+        }
+
         /**
          * Builds a retrying {@link RetryingHttpRequesterFilter} with this' builders configuration.
          *
@@ -756,7 +1077,8 @@ public final class RetryingHttpRequesterFilter
 
                         return NO_RETRIES;
                     };
-            return new RetryingHttpRequesterFilter(waitForLb, ignoreSdErrors, maxRetries, responseMapper, allPredicate);
+            return new RetryingHttpRequesterFilter(waitForLb, ignoreSdErrors, maxRetries, responseMapper, allPredicate,
+                    retryBudget, hedgingPolicy);
         }
     }
 }
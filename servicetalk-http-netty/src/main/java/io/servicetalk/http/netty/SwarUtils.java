@@ -0,0 +1,134 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.netty.buffer.ByteBuf;
+
+import static io.netty.handler.codec.http.HttpConstants.HT;
+import static io.netty.handler.codec.http.HttpConstants.SP;
+import static java.lang.Long.numberOfTrailingZeros;
+
+/**
+ * Scans a {@link ByteBuf} for ASCII delimiters eight bytes at a time, using "SIMD within a register" (SWAR) arithmetic
+ * on a little-endian {@code long} word. All masks are exact (there are no false positives caused by carries between
+ * bytes), so the lowest set bit of a mask always identifies the first matching byte.
+ */
+final class SwarUtils {
+    private static final long ONES = 0x0101010101010101L;
+    private static final long LOW_7_BITS = 0x7f7f7f7f7f7f7f7fL;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long SP_PATTERN = broadcast(SP);
+    private static final long HT_PATTERN = broadcast(HT);
+    // Adding these to the low 7 bits of a byte sets its high bit iff the byte is >= '!' (0x21), respectively > '~'.
+    private static final long VCHAR_MIN_ADDEND = broadcast(0x80 - '!');
+    private static final long VCHAR_MAX_ADDEND = broadcast(0x7f - '~');
+
+    private SwarUtils() {
+        // no instances
+    }
+
+    /**
+     * Find the first occurrence of {@code value} in {@code buffer}.
+     *
+     * @param buffer the {@link ByteBuf} to scan.
+     * @param fromIndex the first index to scan (inclusive).
+     * @param toIndex the last index to scan (exclusive).
+     * @param value the byte to find.
+     * @return the index of the first occurrence of {@code value}, or {@code -1} if not found.
+     */
+    static int indexOf(final ByteBuf buffer, int fromIndex, final int toIndex, final byte value) {
+        final long pattern = broadcast(value);
+        for (; fromIndex <= toIndex - Long.BYTES; fromIndex += Long.BYTES) {
+            final long mask = zeroBytes(buffer.getLongLE(fromIndex) ^ pattern);
+            if (mask != 0) {
+                return fromIndex + firstByte(mask);
+            }
+        }
+        for (; fromIndex < toIndex; ++fromIndex) {
+            if (buffer.getByte(fromIndex) == value) {
+                return fromIndex;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Find the first SP (0x20) or HTAB (0x09) in {@code buffer}.
+     *
+     * @param buffer the {@link ByteBuf} to scan.
+     * @param fromIndex the first index to scan (inclusive).
+     * @param toIndex the last index to scan (exclusive).
+     * @return the index of the first SP or HTAB, or {@code -1} if not found.
+     */
+    static int indexOfWS(final ByteBuf buffer, int fromIndex, final int toIndex) {
+        for (; fromIndex <= toIndex - Long.BYTES; fromIndex += Long.BYTES) {
+            final long word = buffer.getLongLE(fromIndex);
+            final long mask = zeroBytes(word ^ SP_PATTERN) | zeroBytes(word ^ HT_PATTERN);
+            if (mask != 0) {
+                return fromIndex + firstByte(mask);
+            }
+        }
+        for (; fromIndex < toIndex; ++fromIndex) {
+            final byte value = buffer.getByte(fromIndex);
+            if (value == SP || value == HT) {
+                return fromIndex;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Find the first byte in {@code buffer} which is not a VCHAR (0x21-0x7e).
+     *
+     * @param buffer the {@link ByteBuf} to scan.
+     * @param fromIndex the first index to scan (inclusive).
+     * @param toIndex the last index to scan (exclusive).
+     * @return the index of the first byte which is not a VCHAR, or {@code -1} if not found.
+     */
+    static int indexOfNonVCHAR(final ByteBuf buffer, int fromIndex, final int toIndex) {
+        for (; fromIndex <= toIndex - Long.BYTES; fromIndex += Long.BYTES) {
+            final long word = buffer.getLongLE(fromIndex);
+            final long low7Bits = word & LOW_7_BITS;
+            // A byte is not a VCHAR if it is < '!', > '~', or has the high bit set.
+            final long mask = (~(low7Bits + VCHAR_MIN_ADDEND) | (low7Bits + VCHAR_MAX_ADDEND) | word) & HIGH_BITS;
+            if (mask != 0) {
+                return fromIndex + firstByte(mask);
+            }
+        }
+        for (; fromIndex < toIndex; ++fromIndex) {
+            final byte value = buffer.getByte(fromIndex);
+            if (value < '!' || value > '~') {
+                return fromIndex;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a mask with the high bit set in each byte of {@code word} which is zero.
+     */
+    private static long zeroBytes(final long word) {
+        return ~(((word & LOW_7_BITS) + LOW_7_BITS) | word) & HIGH_BITS;
+    }
+
+    private static int firstByte(final long mask) {
+        return numberOfTrailingZeros(mask) >>> 3;
+    }
+
+    private static long broadcast(final int value) {
+        return (value & 0xff) * ONES;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.http.api.HttpClient;
+import io.servicetalk.http.api.HttpResponse;
+import io.servicetalk.http.api.ReservedHttpConnection;
+import io.servicetalk.transport.api.ServerContext;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.http.api.HttpEventKey.MAX_CONCURRENCY;
+import static io.servicetalk.http.api.HttpResponseStatus.OK;
+import static io.servicetalk.http.netty.HttpProtocolConfigs.h2;
+import static io.servicetalk.transport.netty.internal.AddressUtils.localAddress;
+import static io.servicetalk.transport.netty.internal.AddressUtils.serverHostAndPort;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class H2FlowControlTest {
+
+    private static final int PAYLOAD_SIZE = 4 * 1024 * 1024;
+
+    @Test
+    void largeWindowsTransferPayload() throws Exception {
+        final H2ProtocolConfig config = h2()
+                .initialWindowSize(1024 * 1024)
+                .connectionWindowSize(2 * 1024 * 1024)
+                .maxConnectionWindowSize(8 * 1024 * 1024)
+                .maxFrameSize(64 * 1024)
+                .headerTableSize(8 * 1024)
+                .build();
+        try (ServerContext serverContext = HttpServers.forAddress(localAddress(0))
+                .protocols(config)
+                .listenAndAwait((ctx, request, responseFactory) ->
+                        responseFactory.ok().payloadBody(request.payloadBody()).toSingle());
+             HttpClient client = HttpClients.forSingleAddress(serverHostAndPort(serverContext))
+                     .protocols(config)
+                     .build()) {
+
+            final Buffer payload = DEFAULT_ALLOCATOR.newBuffer(PAYLOAD_SIZE);
+            for (int i = 0; i < PAYLOAD_SIZE; ++i) {
+                payload.writeByte(i);
+            }
+            HttpResponse response = client.request(client.post("/").payloadBody(payload.duplicate()))
+                    .toFuture().get();
+            assertThat(response.status(), is(OK));
+            assertThat(response.payloadBody(), equalTo(payload));
+        }
+    }
+
+    @Test
+    void serverAdvertisesMaxConcurrentStreams() throws Exception {
+        try (ServerContext serverContext = HttpServers.forAddress(localAddress(0))
+                .protocols(h2().maxConcurrentStreams(3).build())
+                .listenAndAwait((ctx, request, responseFactory) -> responseFactory.ok().toSingle());
+             HttpClient client = HttpClients.forSingleAddress(serverHostAndPort(serverContext))
+                     .protocols(h2().build())
+                     .build();
+             ReservedHttpConnection connection = client.reserveConnection(client.get("/")).toFuture().get()) {
+
+            final BlockingQueue<Integer> maxConcurrency = new LinkedBlockingQueue<>();
+            connection.transportEventStream(MAX_CONCURRENCY).forEach(event -> maxConcurrency.add(event.event()));
+            assertThat(connection.request(connection.get("/")).toFuture().get().status(), is(OK));
+            Integer value;
+            do {
+                value = maxConcurrency.take();
+            } while (value != 3);
+        }
+    }
+
+    @Test
+    void invalidSettingsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> h2().initialWindowSize(-1));
+        assertThrows(IllegalArgumentException.class, () -> h2().connectionWindowSize(1024));
+        assertThrows(IllegalArgumentException.class, () -> h2().maxConnectionWindowSize(-1));
+        assertThrows(IllegalArgumentException.class, () -> h2().maxConcurrentStreams(-1));
+        assertThrows(IllegalArgumentException.class, () -> h2().maxConcurrentStreams(0x100000000L));
+        assertThrows(IllegalArgumentException.class, () -> h2().maxFrameSize(1024));
+        assertThrows(IllegalArgumentException.class, () -> h2().maxFrameSize(16_777_216));
+        assertThrows(IllegalArgumentException.class, () -> h2().headerTableSize(-1));
+    }
+
+    @Test
+    void maxConnectionWindowSizeIsAtLeastConnectionWindowSize() {
+        final H2ProtocolConfig config = h2().connectionWindowSize(1024 * 1024).maxConnectionWindowSize(1).build();
+        assertThat(config.maxConnectionWindowSize(), is(1024 * 1024));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.concurrent.CompletableSource.Processor;
+import io.servicetalk.http.api.HttpClient;
+import io.servicetalk.http.api.HttpResponse;
+import io.servicetalk.transport.api.ServerContext;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import static io.servicetalk.concurrent.api.Processors.newCompletableProcessor;
+import static io.servicetalk.concurrent.api.SourceAdapters.fromSource;
+import static io.servicetalk.http.api.HttpExecutionStrategies.offloadNone;
+import static io.servicetalk.http.api.HttpResponseStatus.OK;
+import static io.servicetalk.http.netty.HttpProtocolConfigs.h2;
+import static io.servicetalk.transport.netty.internal.AddressUtils.localAddress;
+import static io.servicetalk.transport.netty.internal.AddressUtils.serverHostAndPort;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class H2StreamHeadroomTest {
+
+    private static final int MAX_CONCURRENT_STREAMS = 2;
+    private static final int REQUESTS = 3;
+
+    private final Set<SocketAddress> clientAddresses = ConcurrentHashMap.newKeySet();
+    private final Semaphore requestsReceived = new Semaphore(0);
+    private final Processor responseTrigger = newCompletableProcessor();
+
+    @Test
+    void connectionsAreFilledUpWithoutHeadroom() throws Exception {
+        assertThat(sendConcurrentRequests(0), is(2));
+    }
+
+    @Test
+    void newConnectionsAreOpenedWhenHeadroomIsExhausted() throws Exception {
+        assertThat(sendConcurrentRequests(1), is(REQUESTS));
+    }
+
+    @Test
+    void negativeHeadroomIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> h2().streamHeadroom(-1));
+    }
+
+    private int sendConcurrentRequests(final int streamHeadroom) throws Exception {
+        try (ServerContext serverContext = HttpServers.forAddress(localAddress(0))
+                .protocols(h2().maxConcurrentStreams(MAX_CONCURRENT_STREAMS).build())
+                .listenAndAwait((ctx, request, responseFactory) -> {
+                    clientAddresses.add(ctx.remoteAddress());
+                    requestsReceived.release();
+                    return fromSource(responseTrigger).concat(responseFactory.ok().toSingle());
+                });
+             HttpClient client = HttpClients.forSingleAddress(serverHostAndPort(serverContext))
+                     .protocols(h2().streamHeadroom(streamHeadroom).build())
+                     // Deliver SETTINGS on the IO thread, so new connections observe MAX_CONCURRENT_STREAMS.
+                     .executionStrategy(offloadNone())
+                     .build()) {
+
+            final List<Future<HttpResponse>> responses = new ArrayList<>(REQUESTS);
+            for (int i = 0; i < REQUESTS; ++i) {
+                responses.add(client.request(client.get("/")).toFuture());
+                // Wait for each request to reach the server, so that requests don't race to open connections.
+                requestsReceived.acquire();
+            }
+            responseTrigger.onComplete();
+            for (Future<HttpResponse> response : responses) {
+                assertThat(response.get().status(), is(OK));
+            }
+            return clientAddresses.size();
+        }
+    }
+}
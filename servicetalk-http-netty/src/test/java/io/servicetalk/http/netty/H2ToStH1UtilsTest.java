@@ -21,6 +21,7 @@ import io.servicetalk.http.api.HttpCookiePair;
 import io.servicetalk.http.api.HttpHeaders;
 import io.servicetalk.http.api.HttpHeadersFactory;
 
+import io.netty.handler.codec.http2.Http2Headers;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
@@ -29,13 +30,24 @@ import java.util.List;
 import static io.netty.util.internal.PlatformDependent.hashCodeAscii;
 import static io.servicetalk.buffer.api.CharSequences.caseInsensitiveHashCode;
 import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT_PATCH;
+import static io.servicetalk.http.api.HttpHeaderNames.CONNECTION;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_TYPE;
 import static io.servicetalk.http.api.HttpHeaderNames.COOKIE;
 import static io.servicetalk.http.api.HttpHeaderNames.EXPIRES;
+import static io.servicetalk.http.api.HttpHeaderNames.TE;
+import static io.servicetalk.http.api.HttpHeaderNames.TRANSFER_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderValues.CHUNKED;
+import static io.servicetalk.http.api.HttpHeaderValues.TRAILERS;
 import static io.servicetalk.http.netty.H2ToStH1Utils.h1HeadersSplitCookieCrumbs;
+import static io.servicetalk.http.netty.H2ToStH1Utils.h1HeadersToH2Headers;
+import static io.servicetalk.http.netty.H2ToStH1Utils.h2HeaderName;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 
 class H2ToStH1UtilsTest {
 
@@ -81,4 +93,65 @@ class H2ToStH1UtilsTest {
                 new DefaultHttpCookiePair("e", "f")));
         assertThat(headers.get(secondHeaderName), equalTo(secondHeaderValue));
     }
+
+    @Test
+    void h2HeaderNameOnlyCopiesIfUppercase() {
+        String lowercase = "grpc-accept-encoding";
+        assertThat(h2HeaderName(lowercase), is(sameInstance(lowercase)));
+        assertThat(h2HeaderName(CONTENT_TYPE), is(sameInstance(CONTENT_TYPE)));
+        assertThat(h2HeaderName("X-Request-Id").toString(), equalTo("x-request-id"));
+    }
+
+    @Test
+    void h1HeadersToH2HeadersLowercaseNames() {
+        HttpHeaders headers = H1_FACTORY.newHeaders();
+        headers.add("Content-Type", "application/grpc");
+        headers.add("grpc-accept-encoding", "gzip");
+        headers.add(TE, TRAILERS);
+
+        Http2Headers h2Headers = h1HeadersToH2Headers(headers);
+        assertThat(h2Headers.size(), equalTo(3));
+        assertThat(h2Headers.get("content-type").toString(), equalTo("application/grpc"));
+        assertThat(h2Headers.get("grpc-accept-encoding").toString(), equalTo("gzip"));
+        assertThat(h2Headers.get("te").toString(), equalTo("trailers"));
+    }
+
+    @Test
+    void h1HeadersToH2HeadersReusesH2Headers() {
+        HttpHeaders headers = H2_FACTORY.newHeaders();
+        headers.add(CONTENT_TYPE, "application/grpc");
+        headers.add(TE, TRAILERS);
+
+        Http2Headers h2Headers = h1HeadersToH2Headers(headers);
+        assertThat(h2Headers, is(sameInstance(((NettyH2HeadersToHttpHeaders) headers).nettyHeaders())));
+        assertThat(h2Headers.size(), equalTo(2));
+    }
+
+    @Test
+    void h1HeadersToH2HeadersRemovesConnectionHeadersForH1Headers() {
+        testH1HeadersToH2HeadersRemovesConnectionHeaders(H1_FACTORY);
+    }
+
+    @Test
+    void h1HeadersToH2HeadersRemovesConnectionHeadersForH2Headers() {
+        testH1HeadersToH2HeadersRemovesConnectionHeaders(H2_FACTORY);
+    }
+
+    private static void testH1HeadersToH2HeadersRemovesConnectionHeaders(HttpHeadersFactory headersFactory) {
+        HttpHeaders headers = headersFactory.newHeaders();
+        headers.add(CONTENT_TYPE, "application/grpc");
+        headers.add(CONNECTION, "x-hop");
+        headers.add("x-hop", "value");
+        headers.add(TRANSFER_ENCODING, CHUNKED);
+        headers.add(TE, "gzip");
+        headers.add(COOKIE, "a=b; c=d");
+
+        Http2Headers h2Headers = h1HeadersToH2Headers(headers);
+        assertThat(h2Headers.get("connection"), is(nullValue()));
+        assertThat(h2Headers.get("x-hop"), is(nullValue()));
+        assertThat(h2Headers.get("transfer-encoding"), is(nullValue()));
+        assertThat(h2Headers.get("te"), is(nullValue()));
+        assertThat(h2Headers.getAll("cookie"), hasSize(2));
+        assertThat(h2Headers.get("content-type").toString(), equalTo("application/grpc"));
+    }
 }
@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.http.netty.RetryingHttpRequesterFilter.HedgingPolicy;
+
+import org.junit.jupiter.api.Test;
+
+import static java.time.Duration.ofMillis;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HedgingPolicyTest {
+
+    @Test
+    void constantDelay() {
+        HedgingPolicy.HedgeDelay delay = HedgingPolicy.ofDelay(ofMillis(10)).newHedgeDelay();
+        for (int i = 0; i < 1000; ++i) {
+            delay.onLatency(MILLISECONDS.toNanos(i));
+        }
+        assertThat(delay.delayNanos(), is(MILLISECONDS.toNanos(10)));
+    }
+
+    @Test
+    void initialDelayUntilEnoughSamples() {
+        HedgingPolicy.HedgeDelay delay = HedgingPolicy.ofPercentile(95, ofMillis(10)).newHedgeDelay();
+        for (int i = 1; i < 256; ++i) {
+            delay.onLatency(i);
+        }
+        assertThat(delay.delayNanos(), is(MILLISECONDS.toNanos(10)));
+    }
+
+    @Test
+    void percentileOfRecentLatencies() {
+        HedgingPolicy.HedgeDelay delay = HedgingPolicy.ofPercentile(95, ofMillis(10)).newHedgeDelay();
+        // Latencies 1..256 in random order, the 95th percentile is the 244th (ceil(0.95 * 256)) smallest value.
+        for (int i = 0; i < 256; ++i) {
+            delay.onLatency((i * 167) % 256 + 1);
+        }
+        assertThat(delay.delayNanos(), is(244L));
+    }
+
+    @Test
+    void percentileFollowsLatencyChanges() {
+        HedgingPolicy.HedgeDelay delay = HedgingPolicy.ofPercentile(50, ofMillis(10)).newHedgeDelay();
+        for (int i = 0; i < 256; ++i) {
+            delay.onLatency(100);
+        }
+        assertThat(delay.delayNanos(), is(100L));
+        // Replace all samples in the ring with slower responses.
+        for (int i = 0; i < 256; ++i) {
+            delay.onLatency(1000);
+        }
+        assertThat(delay.delayNanos(), is(1000L));
+    }
+
+    @Test
+    void invalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> HedgingPolicy.ofPercentile(0, ofMillis(10)));
+        assertThrows(IllegalArgumentException.class, () -> HedgingPolicy.ofPercentile(100, ofMillis(10)));
+        assertThrows(IllegalArgumentException.class, () -> HedgingPolicy.ofDelay(ofMillis(-1)));
+    }
+}
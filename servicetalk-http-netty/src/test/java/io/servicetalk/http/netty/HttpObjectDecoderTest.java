@@ -29,6 +29,7 @@ import org.junit.jupiter.api.Test;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ThreadLocalRandom;
 import javax.annotation.Nullable;
 
@@ -549,6 +550,33 @@ abstract class HttpObjectDecoderTest {
         assertEmptyTrailers(channel);
     }
 
+    @Test
+    void headerNamesKeepTheirCase() {
+        headerNamesKeepTheirCase(true);
+        headerNamesKeepTheirCase(false);
+    }
+
+    private void headerNamesKeepTheirCase(boolean crlf) {
+        EmbeddedChannel channel = channel(crlf);
+        String br = br(crlf);
+        writeMsg(startLine() + br +
+                "Accept: text/plain" + br +
+                "accept-language: en" + br +
+                "USER-AGENT: servicetalk" + br +
+                "X-Forwarded-For: 127.0.0.1" + br +
+                "X-Some-Long-Custom-Header-Name: value" + br + br, channel);
+        HttpMetaData metaData = assertStartLine(channel);
+        List<String> headerNames = new ArrayList<>();
+        for (Map.Entry<CharSequence, CharSequence> header : metaData.headers()) {
+            headerNames.add(header.getKey().toString());
+        }
+        assertThat(headerNames, containsInAnyOrder("Accept", "accept-language", "USER-AGENT", "X-Forwarded-For",
+                "X-Some-Long-Custom-Header-Name"));
+        assertSingleHeaderValue(metaData.headers(), "accept-language", "en");
+        assertSingleHeaderValue(metaData.headers(), "x-some-long-custom-header-name", "value");
+        assertEmptyTrailers(channel);
+    }
+
     @Test
     void multipleHeaderFiledValues() {
         multipleHeaderFiledValues(true);
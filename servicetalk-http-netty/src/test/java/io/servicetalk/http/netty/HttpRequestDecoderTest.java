@@ -140,6 +140,18 @@ class HttpRequestDecoderTest extends HttpObjectDecoderTest {
         assertDecoderExceptionWithCause("GET /\f/ HTTP/1.1" + "\r\n", "Invalid start-line: HTTP request-target");
     }
 
+    @Test
+    void invalidLongRequestTargetWithControlCharacter() {
+        assertDecoderExceptionWithCause("GET /some/long/path\f/ HTTP/1.1" + "\r\n",
+                "Invalid start-line: HTTP request-target");
+    }
+
+    @Test
+    void invalidRequestTargetWithObsText() {
+        assertDecoderExceptionWithCause("GET /s\u00earvic\u00ea HTTP/1.1" + "\r\n",
+                "Invalid start-line: HTTP request-target");
+    }
+
     @Test
     void invalidVersionPrefix() {
         assertDecoderException("GET / HttP/1.1" + "\r\n", "Invalid HTTP version");
@@ -18,17 +18,26 @@ package io.servicetalk.http.netty;
 import io.servicetalk.buffer.api.Buffer;
 import io.servicetalk.http.api.DefaultHttpHeadersFactory;
 import io.servicetalk.http.api.EmptyHttpHeaders;
+import io.servicetalk.http.api.HttpFileRegion;
 import io.servicetalk.http.api.HttpHeaders;
 import io.servicetalk.http.api.HttpResponseMetaData;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.channel.FileRegion;
 import io.netty.channel.embedded.EmbeddedChannel;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.concurrent.ThreadLocalRandom;
 
 import static io.servicetalk.buffer.api.EmptyBuffer.EMPTY_BUFFER;
@@ -36,16 +45,20 @@ import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
 import static io.servicetalk.http.api.DefaultHttpHeadersFactory.INSTANCE;
 import static io.servicetalk.http.api.HttpHeaderNames.CONNECTION;
 import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_TYPE;
 import static io.servicetalk.http.api.HttpHeaderNames.SERVER;
 import static io.servicetalk.http.api.HttpHeaderNames.TRANSFER_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderValues.APPLICATION_JSON;
 import static io.servicetalk.http.api.HttpHeaderValues.CHUNKED;
 import static io.servicetalk.http.api.HttpHeaderValues.KEEP_ALIVE;
+import static io.servicetalk.http.api.HttpHeaderValues.ZERO;
 import static io.servicetalk.http.api.HttpProtocolVersion.HTTP_1_1;
 import static io.servicetalk.http.api.HttpResponseMetaDataFactory.newResponseMetaData;
 import static io.servicetalk.http.api.HttpResponseStatus.OK;
 import static java.lang.Integer.toHexString;
 import static java.lang.String.valueOf;
 import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
@@ -83,6 +96,87 @@ class HttpResponseEncoderTest extends HttpEncoderTest<HttpResponseMetaData> {
         assertFalse(channel.finishAndReleaseAll());
     }
 
+    @Test
+    void contentLengthFileRegion(@TempDir Path tempDir) throws Exception {
+        EmbeddedChannel channel = newEmbeddedChannel();
+        byte[] content = new byte[128];
+        ThreadLocalRandom.current().nextBytes(content);
+        Path file = Files.write(tempDir.resolve("content"), content);
+        HttpResponseMetaData response = newResponseMetaData(HTTP_1_1, OK, INSTANCE.newHeaders());
+        response.headers()
+                .add(CONNECTION, KEEP_ALIVE)
+                .add(SERVER, "unit-test")
+                .add(CONTENT_LENGTH, valueOf(content.length - 16));
+        channel.writeOutbound(response);
+        channel.writeOutbound(HttpFileRegion.of(file, 16, content.length - 16));
+        channel.writeOutbound(EmptyHttpHeaders.INSTANCE);
+
+        ByteBuf byteBuf = channel.readOutbound();
+        String actualMetaData = byteBuf.toString(US_ASCII);
+        byteBuf.release();
+        assertTrue(actualMetaData.contains(CONTENT_LENGTH + ": " + (content.length - 16) + "\r\n"),
+                () -> "unexpected metadata: " + actualMetaData);
+        FileRegion region = channel.readOutbound();
+        assertArrayEquals(Arrays.copyOfRange(content, 16, content.length), transferFully(region));
+        consumeEmptyBufferFromTrailers(channel);
+        assertFalse(channel.finishAndReleaseAll());
+    }
+
+    @Test
+    void chunkedFileRegion(@TempDir Path tempDir) throws Exception {
+        EmbeddedChannel channel = newEmbeddedChannel();
+        byte[] content = new byte[128];
+        ThreadLocalRandom.current().nextBytes(content);
+        Path file = Files.write(tempDir.resolve("content"), content);
+        HttpResponseMetaData response = newResponseMetaData(HTTP_1_1, OK, INSTANCE.newHeaders());
+        response.headers()
+                .add(CONNECTION, KEEP_ALIVE)
+                .add(SERVER, "unit-test")
+                .add(TRANSFER_ENCODING, CHUNKED);
+        channel.writeOutbound(response);
+        channel.writeOutbound(HttpFileRegion.of(file));
+        channel.writeOutbound(EmptyHttpHeaders.INSTANCE);
+
+        ByteBuf byteBuf = channel.readOutbound();
+        byteBuf.release();
+        byteBuf = channel.readOutbound();
+        assertEquals(toHexString(content.length) + "\r\n", byteBuf.toString(US_ASCII));
+        byteBuf.release();
+        FileRegion region = channel.readOutbound();
+        assertArrayEquals(content, transferFully(region));
+        byteBuf = channel.readOutbound();
+        assertEquals("\r\n", byteBuf.toString(US_ASCII));
+        byteBuf.release();
+        byteBuf = channel.readOutbound();
+        assertEquals("0\r\n\r\n", byteBuf.toString(US_ASCII));
+        byteBuf.release();
+        assertFalse(channel.finishAndReleaseAll());
+    }
+
+    @Test
+    void fileRegionExceedsContentLength(@TempDir Path tempDir) throws Exception {
+        EmbeddedChannel channel = newEmbeddedChannel();
+        Path file = Files.write(tempDir.resolve("content"), new byte[128]);
+        HttpResponseMetaData response = newResponseMetaData(HTTP_1_1, OK, INSTANCE.newHeaders());
+        response.headers().add(CONTENT_LENGTH, valueOf(64));
+        channel.writeOutbound(response);
+        assertThrows(IOException.class, () -> channel.writeOutbound(HttpFileRegion.of(file)));
+        channel.finishAndReleaseAll();
+    }
+
+    private static byte[] transferFully(FileRegion region) throws IOException {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            WritableByteChannel target = Channels.newChannel(out);
+            while (region.transferred() < region.count()) {
+                region.transferTo(target, region.transferred());
+            }
+            return out.toByteArray();
+        } finally {
+            region.release();
+        }
+    }
+
     @Test
     void contentLengthNoTrailersHeaderWhiteSpaceThrowByDefault() {
         EmbeddedChannel channel = newEmbeddedChannel();
@@ -130,6 +224,28 @@ class HttpResponseEncoderTest extends HttpEncoderTest<HttpResponseMetaData> {
         assertFalse(channel.finishAndReleaseAll());
     }
 
+    @Test
+    void preEncodedHeadersMatchGenericEncoding() {
+        String preEncoded = encodeMetaData(CONTENT_TYPE, APPLICATION_JSON);
+        assertTrue(preEncoded.startsWith("HTTP/1.1 200 OK\r\n"), preEncoded);
+        assertTrue(preEncoded.contains("\r\ncontent-type: application/json\r\n"), preEncoded);
+        assertEquals(encodeMetaData("content-type", "application/json"), preEncoded);
+    }
+
+    private String encodeMetaData(CharSequence name, CharSequence value) {
+        EmbeddedChannel channel = newEmbeddedChannel();
+        HttpResponseMetaData response = newResponseMetaData(HTTP_1_1, OK, INSTANCE.newHeaders());
+        response.headers()
+                .add(name, value)
+                .add(CONTENT_LENGTH, ZERO);
+        channel.writeOutbound(response);
+        ByteBuf byteBuf = channel.readOutbound();
+        String encoded = byteBuf.toString(US_ASCII);
+        byteBuf.release();
+        assertFalse(channel.finishAndReleaseAll());
+        return encoded;
+    }
+
     @Test
     void chunkedNoTrailers() {
         EmbeddedChannel channel = newEmbeddedChannel();
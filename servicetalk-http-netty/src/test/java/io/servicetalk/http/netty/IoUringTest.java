@@ -46,15 +46,7 @@ class IoUringTest {
             ioUringExecutor = NettyIoExecutors.createIoExecutor(2, "io-uring");
             assertThat(ioUringExecutor.eventLoopGroup(), is(instanceOf(IOUringEventLoopGroup.class)));
 
-            try (ServerContext serverContext = HttpServers.forAddress(localAddress(0))
-                    .ioExecutor(ioUringExecutor)
-                    .listenStreamingAndAwait(new TestServiceStreaming());
-                 BlockingHttpClient client = HttpClients.forSingleAddress(serverHostAndPort(serverContext))
-                         .ioExecutor(ioUringExecutor)
-                         .buildBlocking()) {
-                HttpResponse response = client.request(client.get(SVC_ECHO));
-                assertThat(response.status(), is(OK));
-            }
+            assertEcho(ioUringExecutor);
         } finally {
             IoUringUtils.tryIoUring(false);
             if (ioUringExecutor != null) {
@@ -62,4 +54,28 @@ class IoUringTest {
             }
         }
     }
+
+    @Test
+    void explicitIoUringIoExecutor() throws Exception {
+        assumeTrue(IoUringUtils.isSupported());
+        EventLoopAwareNettyIoExecutor ioUringExecutor = NettyIoExecutors.createIoUringIoExecutor(2, "io-uring");
+        try {
+            assertThat(ioUringExecutor.eventLoopGroup(), is(instanceOf(IOUringEventLoopGroup.class)));
+            assertEcho(ioUringExecutor);
+        } finally {
+            ioUringExecutor.closeAsync().toFuture().get();
+        }
+    }
+
+    private static void assertEcho(EventLoopAwareNettyIoExecutor ioExecutor) throws Exception {
+        try (ServerContext serverContext = HttpServers.forAddress(localAddress(0))
+                .ioExecutor(ioExecutor)
+                .listenStreamingAndAwait(new TestServiceStreaming());
+             BlockingHttpClient client = HttpClients.forSingleAddress(serverHostAndPort(serverContext))
+                     .ioExecutor(ioExecutor)
+                     .buildBlocking()) {
+            HttpResponse response = client.request(client.get(SVC_ECHO));
+            assertThat(response.status(), is(OK));
+        }
+    }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.client.api.LoadBalancer;
+import io.servicetalk.client.api.NoAvailableHostException;
+import io.servicetalk.client.api.RequestTracker.ErrorClass;
+import io.servicetalk.http.api.HttpExecutionContext;
+import io.servicetalk.http.api.StreamingHttpRequestResponseFactory;
+import io.servicetalk.serializer.api.SerializationException;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeoutException;
+
+import static io.servicetalk.concurrent.api.Single.failed;
+import static io.servicetalk.concurrent.api.Single.succeeded;
+import static io.servicetalk.http.netty.LoadBalancedStreamingHttpClient.errorClass;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LoadBalancedStreamingHttpClientTest {
+
+    @Test
+    void timeoutIsAttributedToOrigin() {
+        assertThat(errorClass(new TimeoutException()), is(ErrorClass.EXT_ORIGIN_TIME_OUT));
+    }
+
+    @Test
+    void transportFailureIsAttributedToOrigin() {
+        assertThat(errorClass(new IOException("connection reset")), is(ErrorClass.EXT_ORIGIN_REQUEST_FAILED));
+    }
+
+    @Test
+    void cancellationIsLocal() {
+        assertThat(errorClass(new CancellationException()), is(ErrorClass.LOCAL_ORIGIN_REQUEST_FAILED));
+    }
+
+    @Test
+    void serializationFailureIsLocal() {
+        assertThat(errorClass(new SerializationException("can not serialize")),
+                is(ErrorClass.LOCAL_ORIGIN_REQUEST_FAILED));
+    }
+
+    @Test
+    void failureToOpenNewConnectionFallsBackToHeadroom() throws Exception {
+        final LoadBalancer<LoadBalancedStreamingHttpConnection> loadBalancer = newLoadBalancer();
+        final LoadBalancedStreamingHttpConnection established = mock(LoadBalancedStreamingHttpConnection.class);
+        // All connections are down to their headroom, then the headroom is used.
+        when(loadBalancer.selectEstablishedConnection(any())).thenReturn(
+                failed(new NoAvailableHostException("no headroom")), succeeded(established));
+        when(loadBalancer.newConnection(any())).thenReturn(failed(new ConnectException("connection refused")));
+
+        assertThat(newClient(loadBalancer).selectConnectionForRequest().toFuture().get(),
+                is(sameInstance(established)));
+    }
+
+    @Test
+    void failureToOpenNewConnectionIsReportedWithoutHeadroom() {
+        final LoadBalancer<LoadBalancedStreamingHttpConnection> loadBalancer = newLoadBalancer();
+        final ConnectException connectFailure = new ConnectException("connection refused");
+        when(loadBalancer.selectEstablishedConnection(any())).thenReturn(
+                failed(new NoAvailableHostException("no headroom")), failed(new NoAvailableHostException("full")));
+        when(loadBalancer.newConnection(any())).thenReturn(failed(connectFailure));
+
+        assertThat(assertThrows(ExecutionException.class,
+                () -> newClient(loadBalancer).selectConnectionForRequest().toFuture().get()).getCause(),
+                is(sameInstance(connectFailure)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static LoadBalancer<LoadBalancedStreamingHttpConnection> newLoadBalancer() {
+        return mock(LoadBalancer.class);
+    }
+
+    private static LoadBalancedStreamingHttpClient newClient(
+            final LoadBalancer<LoadBalancedStreamingHttpConnection> loadBalancer) {
+        return new LoadBalancedStreamingHttpClient(mock(HttpExecutionContext.class), loadBalancer,
+                mock(StreamingHttpRequestResponseFactory.class), true);
+    }
+}
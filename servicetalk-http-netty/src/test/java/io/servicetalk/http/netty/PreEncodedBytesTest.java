@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.http.api.HttpProtocolVersion;
+import io.servicetalk.http.api.HttpResponseStatus;
+
+import org.junit.jupiter.api.Test;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_TYPE;
+import static io.servicetalk.http.api.HttpHeaderNames.TRANSFER_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderValues.APPLICATION_JSON;
+import static io.servicetalk.http.api.HttpHeaderValues.CHUNKED;
+import static io.servicetalk.http.api.HttpHeaderValues.TEXT_PLAIN_UTF_8;
+import static io.servicetalk.http.api.HttpHeaderValues.ZERO;
+import static io.servicetalk.http.api.HttpProtocolVersion.HTTP_1_0;
+import static io.servicetalk.http.api.HttpProtocolVersion.HTTP_1_1;
+import static io.servicetalk.http.api.HttpProtocolVersion.HTTP_2_0;
+import static io.servicetalk.http.netty.PreEncodedBytes.header;
+import static io.servicetalk.http.netty.PreEncodedBytes.statusLine;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+class PreEncodedBytesTest {
+
+    @Test
+    void statusLinesMatchGenericEncoding() {
+        int known = 0;
+        for (int code = 100; code <= 599; ++code) {
+            final HttpResponseStatus status = HttpResponseStatus.of(code, "");
+            if (status.reasonPhrase().isEmpty()) {
+                assertThat(statusLine(HTTP_1_1, status), is(nullValue()));
+                continue;
+            }
+            ++known;
+            assertStatusLine(HTTP_1_1, status);
+            assertStatusLine(HTTP_1_0, status);
+            assertThat(statusLine(HTTP_2_0, status), is(nullValue()));
+        }
+        assertThat(known > 50, is(true));
+    }
+
+    @Test
+    void statusLinesRequireConstants() {
+        assertThat(statusLine(HTTP_1_1, HttpResponseStatus.of(200, "Fine")), is(nullValue()));
+        assertThat(statusLine(HTTP_1_1, HttpResponseStatus.of(799, "Custom")), is(nullValue()));
+    }
+
+    @Test
+    void headersMatchGenericEncoding() {
+        assertHeader(CONTENT_TYPE, APPLICATION_JSON);
+        assertHeader(CONTENT_TYPE, TEXT_PLAIN_UTF_8);
+        assertHeader(CONTENT_LENGTH, ZERO);
+        assertHeader(TRANSFER_ENCODING, CHUNKED);
+    }
+
+    @Test
+    void headersRequireConstants() {
+        assertThat(header(CONTENT_TYPE, "application/json"), is(nullValue()));
+        assertThat(header("content-type", APPLICATION_JSON), is(nullValue()));
+        assertThat(header(CONTENT_TYPE, CHUNKED), is(nullValue()));
+    }
+
+    private static void assertStatusLine(final HttpProtocolVersion version, final HttpResponseStatus status) {
+        final Buffer expected = DEFAULT_ALLOCATOR.newBuffer();
+        version.writeTo(expected);
+        expected.writeByte(' ');
+        status.writeTo(expected);
+        expected.writeBytes("\r\n".getBytes(US_ASCII));
+        final byte[] actual = statusLine(version, status);
+        assertThat(actual == null ? null : new String(actual, US_ASCII), is(expected.toString(US_ASCII)));
+    }
+
+    private static void assertHeader(final CharSequence name, final CharSequence value) {
+        final byte[] actual = header(name, value);
+        assertThat(actual == null ? null : new String(actual, US_ASCII), is(name + ": " + value + "\r\n"));
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.servicetalk.http.netty.RetryingHttpRequesterFilter.RetryBudget;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RetryBudgetTest {
+
+    @Test
+    void startsFull() {
+        RetryBudget.Balance balance = RetryBudget.ofPercentage(20, 3).newBalance();
+        assertThat(balance.tryWithdraw(), is(true));
+        assertThat(balance.tryWithdraw(), is(true));
+        assertThat(balance.tryWithdraw(), is(true));
+        assertThat(balance.tryWithdraw(), is(false));
+    }
+
+    @Test
+    void depositsReplenishAFractionOfARetry() {
+        RetryBudget.Balance balance = RetryBudget.ofPercentage(25, 1).newBalance();
+        assertThat(balance.tryWithdraw(), is(true));
+        for (int i = 0; i < 3; ++i) {
+            balance.deposit();
+            assertThat("Unexpected retry after " + (i + 1) + " deposits.", balance.tryWithdraw(), is(false));
+        }
+        balance.deposit();
+        assertThat(balance.tryWithdraw(), is(true));
+        assertThat(balance.tryWithdraw(), is(false));
+    }
+
+    @Test
+    void depositsAreCapped() {
+        RetryBudget.Balance balance = RetryBudget.ofPercentage(100, 2).newBalance();
+        for (int i = 0; i < 10; ++i) {
+            balance.deposit();
+        }
+        assertThat(balance.tryWithdraw(), is(true));
+        assertThat(balance.tryWithdraw(), is(true));
+        assertThat(balance.tryWithdraw(), is(false));
+    }
+
+    @Test
+    void invalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> RetryBudget.ofPercentage(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> RetryBudget.ofPercentage(20, 0));
+    }
+}
@@ -28,7 +28,13 @@ import io.servicetalk.concurrent.api.Publisher;
 import io.servicetalk.concurrent.api.Single;
 import io.servicetalk.http.api.BlockingHttpClient;
 import io.servicetalk.http.api.FilterableStreamingHttpConnection;
+import io.servicetalk.http.api.HttpResponse;
 import io.servicetalk.http.api.SingleAddressHttpClientBuilder;
+import io.servicetalk.http.api.StreamingHttpClient;
+import io.servicetalk.http.api.StreamingHttpClientFilter;
+import io.servicetalk.http.api.StreamingHttpRequest;
+import io.servicetalk.http.api.StreamingHttpRequester;
+import io.servicetalk.http.api.StreamingHttpResponse;
 import io.servicetalk.loadbalancer.RoundRobinLoadBalancerFactory;
 import io.servicetalk.transport.api.ExecutionStrategy;
 import io.servicetalk.transport.api.HostAndPort;
@@ -41,21 +47,29 @@ import org.junit.jupiter.api.Test;
 
 import java.net.InetSocketAddress;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import javax.annotation.Nullable;
 
+import static io.servicetalk.buffer.api.Matchers.contentEqualTo;
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
 import static io.servicetalk.concurrent.api.Single.defer;
+import static io.servicetalk.concurrent.api.Single.never;
 import static io.servicetalk.concurrent.api.Single.succeeded;
+import static io.servicetalk.http.api.HttpResponseStatus.OK;
 import static io.servicetalk.http.netty.HttpClients.forSingleAddress;
 import static io.servicetalk.http.netty.HttpServers.forAddress;
 import static io.servicetalk.http.netty.RetryingHttpRequesterFilter.BackOffPolicy.NO_RETRIES;
 import static io.servicetalk.http.netty.RetryingHttpRequesterFilter.BackOffPolicy.ofImmediate;
 import static io.servicetalk.http.netty.RetryingHttpRequesterFilter.Builder;
+import static io.servicetalk.http.netty.RetryingHttpRequesterFilter.HedgingPolicy;
 import static io.servicetalk.http.netty.RetryingHttpRequesterFilter.HttpResponseException;
+import static io.servicetalk.http.netty.RetryingHttpRequesterFilter.RetryBudget;
 import static io.servicetalk.http.netty.RetryingHttpRequesterFilter.disableAutoRetries;
 import static io.servicetalk.transport.netty.internal.AddressUtils.localAddress;
 import static io.servicetalk.transport.netty.internal.AddressUtils.serverHostAndPort;
+import static java.time.Duration.ofMillis;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.closeTo;
 import static org.hamcrest.Matchers.instanceOf;
@@ -66,6 +80,7 @@ import static org.junit.jupiter.api.Assertions.fail;
 class RetryingHttpRequesterFilterTest {
 
     private static final String RETRYABLE_HEADER = "RETRYABLE";
+    private static final String ATTEMPT_HEADER = "x-attempt";
 
     private final ServerContext svcCtx;
     private final SingleAddressHttpClientBuilder<HostAndPort, InetSocketAddress> normalClientBuilder;
@@ -178,6 +193,110 @@ class RetryingHttpRequesterFilterTest {
         }
     }
 
+    @Test
+    void retryBudgetLimitsRetries() {
+        failingClient = failingConnClientBuilder
+                .appendClientFilter(new Builder().retryBudget(RetryBudget.ofPercentage(20, 2)).build())
+                .buildBlocking();
+        assertThrows(RetryableException.class, () -> failingClient.request(failingClient.get("/")));
+        final int selectsForFirstRequest = lbSelectInvoked.get();
+        // 1 Run + 2 Retries from the budget + account for LB readiness
+        assertThat("Unexpected calls to select.", (double) selectsForFirstRequest, closeTo(3.0, 1.0));
+
+        // The budget is exhausted and no requests succeeded to replenish it.
+        assertThrows(RetryableException.class, () -> failingClient.request(failingClient.get("/")));
+        assertThat("Unexpected calls to select.", lbSelectInvoked.get() - selectsForFirstRequest, is(1));
+    }
+
+    @Test
+    void retryRefusedByPolicyDoesNotSpendBudget() {
+        failingClient = failingConnClientBuilder
+                .appendClientFilter(new Builder()
+                        .retryRetryableExceptions((requestMetaData, e) -> ofImmediate(1))
+                        .retryBudget(RetryBudget.ofPercentage(20, 2)).build())
+                .buildBlocking();
+        assertThrows(RetryableException.class, () -> failingClient.request(failingClient.get("/")));
+        final int selectsForFirstRequest = lbSelectInvoked.get();
+        // 1 Run + 1 Retry allowed by the policy + account for LB readiness
+        assertThat("Unexpected calls to select.", (double) selectsForFirstRequest, closeTo(2.0, 1.0));
+
+        // The second retry of the first request was refused by the policy, so one retry is left in the budget.
+        assertThrows(RetryableException.class, () -> failingClient.request(failingClient.get("/")));
+        assertThat("Unexpected calls to select.", lbSelectInvoked.get() - selectsForFirstRequest, is(2));
+    }
+
+    @Test
+    void hedgingSendsDuplicateOfSlowRequest() throws Exception {
+        final AtomicInteger requestsReceived = new AtomicInteger();
+        try (ServerContext slowFirstResponseCtx = forAddress(localAddress(0))
+                .listenAndAwait((ctx, request, responseFactory) -> requestsReceived.getAndIncrement() == 0 ?
+                        never() : succeeded(responseFactory.ok()))) {
+            normalClient = forSingleAddress(serverHostAndPort(slowFirstResponseCtx))
+                    .appendClientFilter(new Builder().hedging(HedgingPolicy.ofDelay(ofMillis(50))).build())
+                    .buildBlocking();
+            assertThat(normalClient.request(normalClient.get("/")).status(), is(OK));
+            assertThat("Unexpected number of requests.", requestsReceived.get(), is(2));
+        }
+    }
+
+    @Test
+    void hedgedAttemptsDoNotShareRequestMetaData() throws Exception {
+        final AtomicInteger requestsReceived = new AtomicInteger();
+        try (ServerContext slowFirstResponseCtx = forAddress(localAddress(0))
+                .listenAndAwait((ctx, request, responseFactory) -> requestsReceived.getAndIncrement() == 0 ?
+                        never() : succeeded(responseFactory.ok().addHeader(ATTEMPT_HEADER,
+                        String.valueOf(count(request.headers().valuesIterator(ATTEMPT_HEADER))))))) {
+            normalClient = forSingleAddress(serverHostAndPort(slowFirstResponseCtx))
+                    .appendClientFilter(new Builder().hedging(HedgingPolicy.ofDelay(ofMillis(50))).build())
+                    // Modifies the request metadata downstream of the hedging, like the encoder does.
+                    .appendClientFilter(client -> new StreamingHttpClientFilter(client) {
+                        @Override
+                        protected Single<StreamingHttpResponse> request(final StreamingHttpRequester delegate,
+                                                                        final StreamingHttpRequest request) {
+                            request.addHeader(ATTEMPT_HEADER, "attempt");
+                            return delegate.request(request);
+                        }
+                    })
+                    .buildBlocking();
+            HttpResponse response = normalClient.request(normalClient.get("/"));
+            assertThat(response.status(), is(OK));
+            assertThat("Unexpected number of requests.", requestsReceived.get(), is(2));
+            assertThat(response.headers().get(ATTEMPT_HEADER), contentEqualTo("1"));
+        }
+    }
+
+    @Test
+    void streamingPayloadBodyIsNotHedged() throws Exception {
+        final AtomicInteger requestsReceived = new AtomicInteger();
+        try (ServerContext slowResponseCtx = forAddress(localAddress(0))
+                .listenStreamingAndAwait((ctx, request, responseFactory) -> {
+                    requestsReceived.incrementAndGet();
+                    return request.payloadBody().ignoreElements()
+                            .concat(ctx.executionContext().executor().timer(ofMillis(200)))
+                            .concat(succeeded(responseFactory.ok()));
+                });
+             StreamingHttpClient client = forSingleAddress(serverHostAndPort(slowResponseCtx))
+                    .appendClientFilter(new Builder().hedging(HedgingPolicy.ofDelay(ofMillis(10))).build())
+                    .buildStreaming()) {
+            // A streaming payload body Publisher may support only a single subscriber, it can't be written twice.
+            StreamingHttpResponse response = client.request(client.put("/")
+                    .payloadBody(Publisher.from(DEFAULT_ALLOCATOR.fromAscii("payload"))))
+                    .toFuture().get();
+            assertThat(response.status(), is(OK));
+            response.messageBody().ignoreElements().toFuture().get();
+            assertThat("Unexpected number of requests.", requestsReceived.get(), is(1));
+        }
+    }
+
+    private static int count(Iterator<? extends CharSequence> values) {
+        int count = 0;
+        while (values.hasNext()) {
+            values.next();
+            ++count;
+        }
+        return count;
+    }
+
     private final class InspectingLoadBalancerFactory<C extends LoadBalancedConnection>
             implements LoadBalancerFactory<InetSocketAddress, C> {
 
@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.netty;
+
+import io.netty.buffer.ByteBuf;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static io.netty.buffer.Unpooled.wrappedBuffer;
+import static io.servicetalk.http.netty.SwarUtils.indexOf;
+import static io.servicetalk.http.netty.SwarUtils.indexOfNonVCHAR;
+import static io.servicetalk.http.netty.SwarUtils.indexOfWS;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class SwarUtilsTest {
+    private static final byte[] INTERESTING_BYTES = {0, '\t', '\n', '\r', ' ', '!', ':', 'a', '~', 0x7f,
+            (byte) 0x80, (byte) 0xa0, (byte) 0xff};
+
+    @Test
+    void findsFirstOccurrence() {
+        ByteBuf buffer = wrappedBuffer("Content-Type: text/plain\r\n".getBytes(US_ASCII));
+        assertThat(indexOf(buffer, 0, buffer.writerIndex(), (byte) ':'), is(12));
+        assertThat(indexOf(buffer, 0, buffer.writerIndex(), (byte) '\n'), is(25));
+        assertThat(indexOf(buffer, 0, 12, (byte) ':'), is(-1));
+        assertThat(indexOfWS(buffer, 0, buffer.writerIndex()), is(13));
+        assertThat(indexOfWS(buffer, 14, buffer.writerIndex()), is(-1));
+        assertThat(indexOfNonVCHAR(buffer, 0, buffer.writerIndex()), is(13));
+        assertThat(indexOfNonVCHAR(buffer, 14, buffer.writerIndex()), is(24));
+        assertThat(indexOfNonVCHAR(buffer, 14, 24), is(-1));
+    }
+
+    @Test
+    void matchesByteByByteScan() {
+        final Random random = new Random(0);
+        for (int i = 0; i < 100_000; ++i) {
+            final byte[] bytes = new byte[random.nextInt(40)];
+            for (int j = 0; j < bytes.length; ++j) {
+                bytes[j] = random.nextBoolean() ? INTERESTING_BYTES[random.nextInt(INTERESTING_BYTES.length)] :
+                        (byte) random.nextInt(256);
+            }
+            final ByteBuf buffer = wrappedBuffer(bytes);
+            final int fromIndex = random.nextInt(bytes.length + 1);
+            final int toIndex = fromIndex + random.nextInt(bytes.length - fromIndex + 1);
+            final byte value = INTERESTING_BYTES[random.nextInt(INTERESTING_BYTES.length)];
+
+            int expectedIndexOf = -1;
+            int expectedIndexOfWS = -1;
+            int expectedIndexOfNonVCHAR = -1;
+            for (int j = toIndex - 1; j >= fromIndex; --j) {
+                if (bytes[j] == value) {
+                    expectedIndexOf = j;
+                }
+                if (bytes[j] == ' ' || bytes[j] == '\t') {
+                    expectedIndexOfWS = j;
+                }
+                if (bytes[j] < '!' || bytes[j] > '~') {
+                    expectedIndexOfNonVCHAR = j;
+                }
+            }
+            assertThat(indexOf(buffer, fromIndex, toIndex, value), is(expectedIndexOf));
+            assertThat(indexOfWS(buffer, fromIndex, toIndex), is(expectedIndexOfWS));
+            assertThat(indexOfNonVCHAR(buffer, fromIndex, toIndex), is(expectedIndexOfNonVCHAR));
+        }
+    }
+}
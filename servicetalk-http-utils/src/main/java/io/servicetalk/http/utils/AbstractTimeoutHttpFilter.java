@@ -52,7 +52,8 @@ abstract class AbstractTimeoutHttpFilter implements HttpExecutionStrategyInfluen
 
     /**
      * Executor that will be used for timeout actions. This is optional and the connection or request context executor
-     * or global executor will be used if not specified.
+     * or global executor will be used if not specified. The global executor schedules timeouts on a hashed wheel
+     * timer, see {@link Executors#withHashedWheelTimer(Executor)}.
      */
     @Nullable
     private final Executor timeoutExecutor;
@@ -108,8 +109,10 @@ abstract class AbstractTimeoutHttpFilter implements HttpExecutionStrategyInfluen
             final Function<StreamingHttpRequest, Single<StreamingHttpResponse>> responseFunction,
             @Nullable final Executor contextExecutor) {
 
-        // timeoutExecutor → context executor → global default executor
-        final Executor effectiveExecutor = null != contextExecutor ? contextExecutor : Executors.global();
+        // timeoutExecutor → context executor → global default executor. The global executor schedules timeouts on the
+        // hashed wheel timer, other context executors keep their own timers, e.g. the virtual time of tests.
+        final Executor effectiveExecutor = null == contextExecutor || contextExecutor == Executors.global() ?
+                Executors.withHashedWheelTimer(Executors.global()) : contextExecutor;
         final Executor useForTimeout = null != this.timeoutExecutor ? this.timeoutExecutor : effectiveExecutor;
 
         return Single.defer(() -> {
@@ -0,0 +1,590 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.utils;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.buffer.api.BufferAllocator;
+import io.servicetalk.concurrent.SingleSource.Processor;
+import io.servicetalk.encoding.api.BufferEncoder;
+import io.servicetalk.concurrent.api.Executor;
+import io.servicetalk.concurrent.api.Single;
+import io.servicetalk.concurrent.api.SingleTerminalSignalConsumer;
+import io.servicetalk.concurrent.api.TerminalSignalConsumer;
+import io.servicetalk.http.api.DefaultHttpHeadersFactory;
+import io.servicetalk.http.api.FilterableStreamingHttpClient;
+import io.servicetalk.http.api.HttpExecutionStrategies;
+import io.servicetalk.http.api.HttpExecutionStrategy;
+import io.servicetalk.http.api.HttpExecutionStrategyInfluencer;
+import io.servicetalk.http.api.HttpHeaders;
+import io.servicetalk.http.api.HttpProtocolVersion;
+import io.servicetalk.http.api.HttpRequestMetaData;
+import io.servicetalk.http.api.HttpResponseMetaData;
+import io.servicetalk.http.api.HttpResponseStatus;
+import io.servicetalk.http.api.StreamingHttpClientFilter;
+import io.servicetalk.http.api.StreamingHttpClientFilterFactory;
+import io.servicetalk.http.api.StreamingHttpRequest;
+import io.servicetalk.http.api.StreamingHttpRequester;
+import io.servicetalk.http.api.StreamingHttpResponse;
+import io.servicetalk.http.api.StreamingHttpResponseFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.buffer.api.CharSequences.contentEqualsIgnoreCase;
+import static io.servicetalk.buffer.api.CharSequences.parseLong;
+import static io.servicetalk.buffer.api.CharSequences.regionMatches;
+import static io.servicetalk.buffer.api.CharSequences.split;
+import static io.servicetalk.buffer.api.EmptyBuffer.EMPTY_BUFFER;
+import static io.servicetalk.concurrent.api.Processors.newSingleProcessor;
+import static io.servicetalk.concurrent.api.Publisher.from;
+import static io.servicetalk.concurrent.api.Single.defer;
+import static io.servicetalk.concurrent.api.Single.succeeded;
+import static io.servicetalk.concurrent.api.SourceAdapters.fromSource;
+import static io.servicetalk.http.api.HttpHeaderNames.AGE;
+import static io.servicetalk.http.api.HttpHeaderNames.AUTHORIZATION;
+import static io.servicetalk.http.api.HttpHeaderNames.CACHE_CONTROL;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
+import static io.servicetalk.http.api.HttpHeaderNames.ETAG;
+import static io.servicetalk.http.api.HttpHeaderNames.HOST;
+import static io.servicetalk.http.api.HttpHeaderNames.IF_MATCH;
+import static io.servicetalk.http.api.HttpHeaderNames.IF_MODIFIED_SINCE;
+import static io.servicetalk.http.api.HttpHeaderNames.IF_NONE_MATCH;
+import static io.servicetalk.http.api.HttpHeaderNames.IF_UNMODIFIED_SINCE;
+import static io.servicetalk.http.api.HttpHeaderNames.LAST_MODIFIED;
+import static io.servicetalk.http.api.HttpHeaderNames.RANGE;
+import static io.servicetalk.http.api.HttpHeaderNames.TRANSFER_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.VARY;
+import static io.servicetalk.http.api.HttpHeaderValues.MAX_AGE;
+import static io.servicetalk.http.api.HttpHeaderValues.NO_CACHE;
+import static io.servicetalk.http.api.HttpHeaderValues.NO_STORE;
+import static io.servicetalk.http.api.HttpRequestMethod.GET;
+import static io.servicetalk.http.api.HttpResponseStatus.NOT_MODIFIED;
+import static io.servicetalk.http.api.StreamingHttpRequests.newTransportRequest;
+import static java.lang.Math.max;
+import static java.util.Collections.emptyList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A filter which caches responses to {@code GET} requests in memory, following the
+ * <a href="https://tools.ietf.org/html/rfc7234">HTTP caching</a> semantics of a private cache.
+ * <ul>
+ *     <li>Responses are stored when their status is cacheable by default and {@code Cache-Control} doesn't contain
+ *     {@code no-store}. Responses are fresh for their {@code max-age}, reduced by their {@code Age}.</li>
+ *     <li>Fresh responses are served from the cache without contacting the server. Stale responses and responses
+ *     marked {@code no-cache} are revalidated with a conditional request ({@code If-None-Match} for an {@code ETag},
+ *     {@code If-Modified-Since} for a {@code Last-Modified} date), and served from the cache if the server responds
+ *     with {@code 304 Not Modified}.</li>
+ *     <li>Responses are stored per request method, {@code Host} and request-target. A response is only used for
+ *     requests which have the same values for the request headers listed in its {@code Vary} header. Responses with
+ *     {@code Vary: *} are not stored.</li>
+ *     <li>Concurrent requests for the same response, which is not fresh in the cache, result in a single request to the
+ *     server. The other requests wait for and share its response.</li>
+ * </ul>
+ * Requests which carry {@code Cache-Control} directives, {@code Authorization}, {@code Range} or conditional headers
+ * bypass the cache.
+ * <p>
+ * The payload body of responses to cacheable requests is streamed through to the caller, and a copy is stored once it
+ * completes. Responses with a {@code Content-Length} which exceeds the {@link Builder#maxEntrySize(int) maximum entry
+ * size} are not copied at all, and the copy of a payload body without {@code Content-Length} is discarded as soon as it
+ * exceeds the maximum entry size. Concurrent requests which wait for a shared response are only completed once its
+ * payload body has been consumed, requests which arrive after its headers are not coalesced with it. The cache holds
+ * up to a {@link Builder#maxSize(long) maximum size} of payload bodies, and evicts the least recently used responses
+ * when it is exceeded. Each client created with this filter has its own cache.
+ */
+public final class CachingHttpRequesterFilter implements StreamingHttpClientFilterFactory,
+                                                         HttpExecutionStrategyInfluencer {
+
+    private final long maxSize;
+    private final int maxEntrySize;
+
+    private CachingHttpRequesterFilter(final long maxSize, final int maxEntrySize) {
+        this.maxSize = maxSize;
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    @Override
+    public StreamingHttpClientFilter create(final FilterableStreamingHttpClient client) {
+        return new CachingHttpClientFilter(client);
+    }
+
+    @Override
+    public HttpExecutionStrategy requiredOffloads() {
+        // No influence since we do not block.
+        return HttpExecutionStrategies.offloadNone();
+    }
+
+    private final class CachingHttpClientFilter extends StreamingHttpClientFilter {
+
+        private final Executor executor;
+        private final BufferAllocator allocator;
+        private final ResponseCache cache = new ResponseCache(maxSize);
+        private final Map<String, Processor<CacheEntry, CacheEntry>> inflight = new ConcurrentHashMap<>();
+
+        CachingHttpClientFilter(final FilterableStreamingHttpClient client) {
+            super(client);
+            this.executor = client.executionContext().executor();
+            this.allocator = client.executionContext().bufferAllocator();
+        }
+
+        @Override
+        protected Single<StreamingHttpResponse> request(final StreamingHttpRequester delegate,
+                                                        final StreamingHttpRequest request) {
+            if (!isCacheable(request)) {
+                return delegate.request(request);
+            }
+            return defer(() -> {
+                final String key = cacheKey(request);
+                CacheEntry entry = cache.get(key);
+                if (entry != null) {
+                    if (!entry.matchesVary(request.headers())) {
+                        entry = null;
+                    } else if (entry.isFresh(currentTimeMillis())) {
+                        return succeeded(entry.newResponse(delegate.httpResponseFactory(), currentTimeMillis()));
+                    }
+                }
+
+                final Processor<CacheEntry, CacheEntry> processor = newSingleProcessor();
+                final Processor<CacheEntry, CacheEntry> existing = inflight.putIfAbsent(key, processor);
+                if (existing != null) {
+                    // Another request for the same response is in flight, share its response if it applies to this
+                    // request, otherwise send a request of our own.
+                    return fromSource(existing).flatMap(shared -> shared != null &&
+                            shared.matchesVary(request.headers()) ?
+                            succeeded(shared.newResponse(delegate.httpResponseFactory(), currentTimeMillis())) :
+                            delegate.request(request)).shareContextOnSubscribe();
+                }
+                return fetch(delegate, request, key, entry, processor)
+                        .beforeFinally(new SingleTerminalSignalConsumer<StreamingHttpResponse>() {
+                            @Override
+                            public void onSuccess(@Nullable final StreamingHttpResponse response) {
+                                // The entry is completed by fetch(), once it is known.
+                            }
+
+                            @Override
+                            public void onError(final Throwable throwable) {
+                                inflight.remove(key, processor);
+                                processor.onError(throwable);
+                            }
+
+                            @Override
+                            public void cancel() {
+                                complete(key, processor, null);
+                            }
+                        })
+                        .shareContextOnSubscribe();
+            });
+        }
+
+        private void complete(final String key, final Processor<CacheEntry, CacheEntry> processor,
+                              @Nullable final CacheEntry entry) {
+            inflight.remove(key, processor);
+            processor.onSuccess(entry);
+        }
+
+        private Single<StreamingHttpResponse> fetch(final StreamingHttpRequester delegate,
+                                                    final StreamingHttpRequest request, final String key,
+                                                    @Nullable final CacheEntry stale,
+                                                    final Processor<CacheEntry, CacheEntry> processor) {
+            // The caller may send its request again (e.g. after a retry), conditional headers are only added to a copy
+            // so that it never receives a 304 it can't interpret.
+            return delegate.request(stale == null ? request : conditionalRequest(request, stale)).flatMap(response -> {
+                if (stale != null && NOT_MODIFIED.code() == response.status().code()) {
+                    final CacheEntry entry = stale.revalidated(response.headers(), currentTimeMillis());
+                    cache.put(key, entry);
+                    return response.payloadBody().ignoreElements().concat(defer(() -> {
+                        complete(key, processor, entry);
+                        return succeeded(entry.newResponse(delegate.httpResponseFactory(), currentTimeMillis()));
+                    }));
+                }
+                if (!isStorable(response)) {
+                    if (stale != null) {
+                        cache.remove(key);
+                    }
+                    complete(key, processor, null);
+                    return succeeded(response);
+                }
+                // Stream the response through rather than aggregating it first, so that a payload body which turns out
+                // to exceed the maximum entry size is never held in memory as a whole. Requests waiting for this
+                // response are completed once the payload body terminates. Later requests do not wait for a payload
+                // body which is consumed at the pace of another caller, they send a request of their own.
+                inflight.remove(key, processor);
+                final EntryRecorder recorder = new EntryRecorder(key, processor, request.headers(), response);
+                return succeeded(response.transformPayloadBody(body -> body.map(recorder).beforeFinally(recorder)));
+            });
+        }
+
+        private StreamingHttpRequest conditionalRequest(final StreamingHttpRequest request, final CacheEntry stale) {
+            final HttpHeaders requestHeaders = DefaultHttpHeadersFactory.INSTANCE.newHeaders().add(request.headers());
+            stale.addValidators(requestHeaders);
+            final BufferEncoder encoder = request.contentEncoding();
+            final StreamingHttpRequest conditional = newTransportRequest(request.method(), request.requestTarget(),
+                    request.version(), requestHeaders, allocator, request.messageBody(), false,
+                    DefaultHttpHeadersFactory.INSTANCE).context(request.context());
+            return encoder == null ? conditional : conditional.contentEncoding(encoder);
+        }
+
+        private boolean isStorable(final HttpResponseMetaData response) {
+            if (!isCacheableByDefault(response.status())) {
+                return false;
+            }
+            final HttpHeaders headers = response.headers();
+            if (CacheControl.parse(headers).noStore || headers.contains(VARY, "*")) {
+                return false;
+            }
+            final CharSequence contentLength = headers.get(CONTENT_LENGTH);
+            if (contentLength != null) {
+                try {
+                    return parseLong(contentLength) <= maxEntrySize;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long currentTimeMillis() {
+            return executor.currentTime(MILLISECONDS);
+        }
+
+        /**
+         * Copies the payload body of a response while it is passed through, and stores it once it completed within
+         * the maximum entry size.
+         */
+        private final class EntryRecorder implements Function<Buffer, Buffer>, TerminalSignalConsumer {
+            private final String key;
+            private final Processor<CacheEntry, CacheEntry> processor;
+            private final HttpResponseStatus status;
+            private final HttpProtocolVersion version;
+            private final HttpHeaders headers;
+            private final List<CharSequence> varyNames;
+            private final List<String> varyValues;
+            @Nullable
+            private Buffer payload;
+            private boolean exceeded;
+
+            EntryRecorder(final String key, final Processor<CacheEntry, CacheEntry> processor,
+                          final HttpHeaders requestHeaders, final HttpResponseMetaData response) {
+                this.key = key;
+                this.processor = processor;
+                this.status = response.status();
+                this.version = response.version();
+                // The response and its headers are handed to the caller, which may modify them.
+                this.headers = DefaultHttpHeadersFactory.INSTANCE.newHeaders().add(response.headers());
+                this.varyNames = CacheEntry.varyNames(headers);
+                this.varyValues = CacheEntry.varyValues(varyNames, requestHeaders);
+            }
+
+            @Override
+            public Buffer apply(final Buffer buffer) {
+                if (!exceeded) {
+                    final int size = buffer.readableBytes();
+                    if ((payload == null ? 0 : payload.readableBytes()) + size > maxEntrySize) {
+                        // Stop buffering, the rest of the payload body is only passed through.
+                        exceeded = true;
+                        payload = null;
+                    } else if (payload == null) {
+                        payload = buffer.copy();
+                    } else {
+                        payload.writeBytes(buffer, buffer.readerIndex(), size);
+                    }
+                }
+                return buffer;
+            }
+
+            @Override
+            public void onComplete() {
+                if (exceeded) {
+                    complete(key, processor, null);
+                    return;
+                }
+                final CacheEntry entry = new CacheEntry(status, version, headers,
+                        payload == null ? EMPTY_BUFFER : payload, varyNames, varyValues, currentTimeMillis());
+                cache.put(key, entry);
+                complete(key, processor, entry);
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                complete(key, processor, null);
+            }
+
+            @Override
+            public void cancel() {
+                complete(key, processor, null);
+            }
+        }
+    }
+
+    private static boolean isCacheable(final HttpRequestMetaData request) {
+        if (!GET.equals(request.method())) {
+            return false;
+        }
+        final HttpHeaders headers = request.headers();
+        return !headers.contains(CACHE_CONTROL) && !headers.contains(AUTHORIZATION) && !headers.contains(RANGE) &&
+                !headers.contains(IF_NONE_MATCH) && !headers.contains(IF_MODIFIED_SINCE) &&
+                !headers.contains(IF_MATCH) && !headers.contains(IF_UNMODIFIED_SINCE);
+    }
+
+    private static boolean isCacheableByDefault(final HttpResponseStatus status) {
+        // https://tools.ietf.org/html/rfc7231#section-6.1
+        switch (status.code()) {
+            case 200:
+            case 203:
+            case 204:
+            case 300:
+            case 301:
+            case 404:
+            case 405:
+            case 410:
+            case 414:
+            case 501:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static String cacheKey(final HttpRequestMetaData request) {
+        final CharSequence host = request.headers().get(HOST);
+        return request.method().name() + ' ' + (host == null ? "" : host) + ' ' + request.requestTarget();
+    }
+
+    private static final class CacheControl {
+        boolean noStore;
+        boolean noCache;
+        long maxAgeSeconds = -1;
+
+        static CacheControl parse(final HttpHeaders headers) {
+            final CacheControl cacheControl = new CacheControl();
+            final Iterator<? extends CharSequence> values = headers.valuesIterator(CACHE_CONTROL);
+            while (values.hasNext()) {
+                for (CharSequence directive : split(values.next(), ',', true)) {
+                    if (contentEqualsIgnoreCase(directive, NO_STORE)) {
+                        cacheControl.noStore = true;
+                    } else if (contentEqualsIgnoreCase(directive, NO_CACHE)) {
+                        cacheControl.noCache = true;
+                    } else if (directive.length() > MAX_AGE.length() + 1 &&
+                            regionMatches(directive, true, 0, MAX_AGE, 0, MAX_AGE.length()) &&
+                            directive.charAt(MAX_AGE.length()) == '=') {
+                        try {
+                            cacheControl.maxAgeSeconds = parseLong(
+                                    directive.subSequence(MAX_AGE.length() + 1, directive.length()));
+                        } catch (NumberFormatException e) {
+                            // https://tools.ietf.org/html/rfc7234#section-4.2.1
+                            cacheControl.maxAgeSeconds = 0;
+                        }
+                    }
+                }
+            }
+            return cacheControl;
+        }
+    }
+
+    private static final class CacheEntry {
+        private final HttpResponseStatus status;
+        private final HttpProtocolVersion version;
+        private final HttpHeaders headers;
+        private final Buffer payload;
+        private final List<CharSequence> varyNames;
+        private final List<String> varyValues;
+        private final long storedAtMillis;
+        private final long freshForMillis;
+        private final boolean noCache;
+
+        CacheEntry(final HttpResponseStatus status, final HttpProtocolVersion version,
+                           final HttpHeaders headers, final Buffer payload, final List<CharSequence> varyNames,
+                           final List<String> varyValues, final long nowMillis) {
+            this.status = status;
+            this.version = version;
+            this.headers = headers;
+            this.payload = payload;
+            this.varyNames = varyNames;
+            this.varyValues = varyValues;
+            this.storedAtMillis = nowMillis - ageMillis(headers);
+            final CacheControl cacheControl = CacheControl.parse(headers);
+            this.freshForMillis = max(0, cacheControl.maxAgeSeconds) * 1000;
+            this.noCache = cacheControl.noCache;
+        }
+
+        int size() {
+            return payload.readableBytes();
+        }
+
+        boolean isFresh(final long nowMillis) {
+            return !noCache && nowMillis - storedAtMillis < freshForMillis;
+        }
+
+        boolean matchesVary(final HttpHeaders requestHeaders) {
+            return varyValues.equals(varyValues(varyNames, requestHeaders));
+        }
+
+        void addValidators(final HttpHeaders requestHeaders) {
+            final CharSequence etag = headers.get(ETAG);
+            if (etag != null) {
+                requestHeaders.set(IF_NONE_MATCH, etag);
+            }
+            final CharSequence lastModified = headers.get(LAST_MODIFIED);
+            if (lastModified != null) {
+                requestHeaders.set(IF_MODIFIED_SINCE, lastModified);
+            }
+        }
+
+        CacheEntry revalidated(final HttpHeaders notModifiedHeaders, final long nowMillis) {
+            // https://tools.ietf.org/html/rfc7234#section-4.3.4
+            final HttpHeaders updatedHeaders = DefaultHttpHeadersFactory.INSTANCE.newHeaders().add(headers);
+            updatedHeaders.remove(AGE);
+            for (Entry<CharSequence, CharSequence> header : notModifiedHeaders) {
+                if (!contentEqualsIgnoreCase(header.getKey(), CONTENT_LENGTH) &&
+                        !contentEqualsIgnoreCase(header.getKey(), TRANSFER_ENCODING)) {
+                    updatedHeaders.set(header.getKey(), header.getValue());
+                }
+            }
+            return new CacheEntry(status, version, updatedHeaders, payload, varyNames, varyValues, nowMillis);
+        }
+
+        StreamingHttpResponse newResponse(final StreamingHttpResponseFactory responseFactory, final long nowMillis) {
+            final StreamingHttpResponse response = responseFactory.newResponse(status).version(version);
+            response.headers().add(headers);
+            response.headers().set(AGE, String.valueOf(max(0, nowMillis - storedAtMillis) / 1000));
+            return response.payloadBody(from(payload.duplicate()));
+        }
+
+        private static long ageMillis(final HttpHeaders headers) {
+            final CharSequence age = headers.get(AGE);
+            if (age != null) {
+                try {
+                    return max(0, parseLong(age)) * 1000;
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+            return 0;
+        }
+
+        private static List<CharSequence> varyNames(final HttpHeaders headers) {
+            final List<CharSequence> names = new ArrayList<>(2);
+            final Iterator<? extends CharSequence> values = headers.valuesIterator(VARY);
+            while (values.hasNext()) {
+                names.addAll(split(values.next(), ',', true));
+            }
+            return names;
+        }
+
+        private static List<String> varyValues(final List<CharSequence> varyNames, final HttpHeaders requestHeaders) {
+            if (varyNames.isEmpty()) {
+                return emptyList();
+            }
+            final List<String> values = new ArrayList<>(varyNames.size());
+            for (CharSequence name : varyNames) {
+                final StringBuilder sb = new StringBuilder();
+                final Iterator<? extends CharSequence> itr = requestHeaders.valuesIterator(name);
+                while (itr.hasNext()) {
+                    sb.append(itr.next()).append(',');
+                }
+                values.add(sb.toString());
+            }
+            return values;
+        }
+    }
+
+    private static final class ResponseCache {
+        private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final long maxSize;
+        private long size;
+
+        ResponseCache(final long maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        @Nullable
+        synchronized CacheEntry get(final String key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(final String key, final CacheEntry entry) {
+            final CacheEntry previous = entries.put(key, entry);
+            if (previous != null) {
+                size -= previous.size();
+            }
+            size += entry.size();
+            final Iterator<CacheEntry> lru = entries.values().iterator();
+            while (size > maxSize && lru.hasNext()) {
+                size -= lru.next().size();
+                lru.remove();
+            }
+        }
+
+        synchronized void remove(final String key) {
+            final CacheEntry previous = entries.remove(key);
+            if (previous != null) {
+                size -= previous.size();
+            }
+        }
+    }
+
+    /**
+     * A builder for {@link CachingHttpRequesterFilter} instances.
+     */
+    public static final class Builder {
+        private long maxSize = 64 * 1024 * 1024;
+        private int maxEntrySize = 1024 * 1024;
+
+        /**
+         * Sets the maximum total size in bytes of the payload bodies held by the cache of each client.
+         *
+         * @param maxSize the maximum total size in bytes of the payload bodies held by the cache.
+         * @return {@code this}.
+         */
+        public Builder maxSize(final long maxSize) {
+            if (maxSize <= 0) {
+                throw new IllegalArgumentException("maxSize: " + maxSize + " (expected > 0)");
+            }
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum size in bytes of the payload body of a single cached response. Larger responses are not
+         * cached.
+         *
+         * @param maxEntrySize the maximum size in bytes of the payload body of a single cached response.
+         * @return {@code this}.
+         */
+        public Builder maxEntrySize(final int maxEntrySize) {
+            if (maxEntrySize < 0) {
+                throw new IllegalArgumentException("maxEntrySize: " + maxEntrySize + " (expected >= 0)");
+            }
+            this.maxEntrySize = maxEntrySize;
+            return this;
+        }
+
+        /**
+         * Builds a new {@link CachingHttpRequesterFilter}.
+         *
+         * @return a new {@link CachingHttpRequesterFilter}.
+         */
+        public CachingHttpRequesterFilter build() {
+            return new CachingHttpRequesterFilter(maxSize, maxEntrySize);
+        }
+    }
+}
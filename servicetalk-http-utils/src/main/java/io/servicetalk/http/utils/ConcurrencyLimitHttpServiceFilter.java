@@ -0,0 +1,518 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.utils;
+
+import io.servicetalk.concurrent.TimeSource;
+import io.servicetalk.concurrent.api.Single;
+import io.servicetalk.concurrent.api.TerminalSignalConsumer;
+import io.servicetalk.http.api.HttpExecutionStrategies;
+import io.servicetalk.http.api.HttpExecutionStrategy;
+import io.servicetalk.http.api.HttpExecutionStrategyInfluencer;
+import io.servicetalk.http.api.HttpRequestMetaData;
+import io.servicetalk.http.api.HttpServiceContext;
+import io.servicetalk.http.api.StreamingHttpRequest;
+import io.servicetalk.http.api.StreamingHttpResponse;
+import io.servicetalk.http.api.StreamingHttpResponseFactory;
+import io.servicetalk.http.api.StreamingHttpService;
+import io.servicetalk.http.api.StreamingHttpServiceFilter;
+import io.servicetalk.http.api.StreamingHttpServiceFilterFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static io.servicetalk.concurrent.api.Single.defer;
+import static io.servicetalk.concurrent.api.Single.succeeded;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.sqrt;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.atomic.AtomicIntegerFieldUpdater.newUpdater;
+
+/**
+ * A filter which limits the number of concurrently processed requests on the server-side, and rejects requests over
+ * the limit without passing them to the service.
+ *
+ * <p>The limit adapts to the latency of the service, similar to the gradient algorithm used for TCP congestion control:
+ * <ul>
+ *     <li>A long-term average of the latency of the requests serves as the baseline latency of the service.</li>
+ *     <li>While the latency of completed requests stays within a tolerance of the baseline, the limit grows, allowing
+ *     more concurrent requests.</li>
+ *     <li>When the latency rises above the tolerance, requests are queueing up in the service (or its executors) and
+ *     the limit decreases proportionally to the latency increase.</li>
+ * </ul>
+ * The latency of a request is measured until the response, including its payload body, has been written. Failed or
+ * cancelled requests release their slot without influencing the limit.
+ *
+ * <p>Requests can be divided into {@link Builder#partitionKey(Function) partitions}, e.g. per route, each with its own
+ * independent limit, so that a slow route does not cause requests to fast routes to be rejected. The current state of
+ * each partition is available via {@link #partitions()} for monitoring. The number of partitions is
+ * {@link Builder#maxPartitions(int) bounded}, requests with a key beyond that bound share the
+ * {@link #OVERFLOW_PARTITION overflow partition}.
+ *
+ * <p>The state of the limits is kept by this factory instance and is shared by all services created by it.
+ */
+public final class ConcurrencyLimitHttpServiceFilter implements StreamingHttpServiceFilterFactory,
+                                                                HttpExecutionStrategyInfluencer {
+
+    /**
+     * Key of the partition used for all requests when no {@link Builder#partitionKey(Function) partitioning} is
+     * configured.
+     */
+    public static final String DEFAULT_PARTITION = "default";
+
+    /**
+     * Key of the partition shared by all requests with a key that would exceed the
+     * {@link Builder#maxPartitions(int) maximum number of partitions}.
+     */
+    public static final String OVERFLOW_PARTITION = "overflow";
+
+    private static final AtomicIntegerFieldUpdater<ConcurrencyLimitHttpServiceFilter> partitionCountUpdater =
+            newUpdater(ConcurrencyLimitHttpServiceFilter.class, "partitionCount");
+
+    private final Map<String, DefaultPartition> partitions = new ConcurrentHashMap<>();
+    @SuppressWarnings("unused")
+    private volatile int partitionCount;
+    private final Function<? super HttpRequestMetaData, String> partitionKey;
+    private final BiFunction<? super HttpRequestMetaData, StreamingHttpResponseFactory, StreamingHttpResponse>
+            rejectedResponse;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double latencyTolerance;
+    private final int baselineWindow;
+    private final int maxPartitions;
+
+    private ConcurrencyLimitHttpServiceFilter(final Builder builder) {
+        this.partitionKey = builder.partitionKey;
+        this.rejectedResponse = builder.rejectedResponse;
+        this.initialLimit = builder.initialLimit;
+        this.minLimit = builder.minLimit;
+        this.maxLimit = builder.maxLimit;
+        this.smoothing = builder.smoothing;
+        this.latencyTolerance = builder.latencyTolerance;
+        this.baselineWindow = builder.baselineWindow;
+        this.maxPartitions = builder.maxPartitions;
+    }
+
+    /**
+     * Returns the current state of all partitions of this filter, keyed by {@link Partition#key()}.
+     *
+     * @return an unmodifiable view of the partitions of this filter.
+     */
+    public Map<String, ? extends Partition> partitions() {
+        return unmodifiableMap(partitions);
+    }
+
+    @Override
+    public StreamingHttpServiceFilter create(final StreamingHttpService service) {
+        return new StreamingHttpServiceFilter(service) {
+            @Override
+            public Single<StreamingHttpResponse> handle(final HttpServiceContext ctx,
+                                                        final StreamingHttpRequest request,
+                                                        final StreamingHttpResponseFactory responseFactory) {
+                return defer(() -> {
+                    final DefaultPartition partition = partition(request);
+                    if (!partition.tryAcquire()) {
+                        return succeeded(rejectedResponse.apply(request, responseFactory));
+                    }
+                    final TimeSource timeSource = ctx.executionContext().executor();
+                    final Single<StreamingHttpResponse> response;
+                    try {
+                        response = delegate().handle(ctx, request, responseFactory);
+                    } catch (Throwable cause) {
+                        partition.release();
+                        return Single.<StreamingHttpResponse>failed(cause).shareContextOnSubscribe();
+                    }
+                    return response.liftSync(new BeforeFinallyHttpOperator(
+                            new LatencyRecorder(partition, timeSource))).shareContextOnSubscribe();
+                });
+            }
+        };
+    }
+
+    @Override
+    public HttpExecutionStrategy requiredOffloads() {
+        // No influence since we do not block.
+        return HttpExecutionStrategies.offloadNone();
+    }
+
+    private DefaultPartition partition(final HttpRequestMetaData request) {
+        final String key = partitionKey.apply(request);
+        DefaultPartition partition = partitions.get(key);
+        if (partition != null) {
+            return partition;
+        }
+        // The mapping function is invoked at most once per key, so each new partition is counted once. A null value is
+        // not inserted, hence keys beyond the bound are not retained.
+        partition = partitions.computeIfAbsent(key, k -> partitionCount < maxPartitions &&
+                partitionCountUpdater.incrementAndGet(this) <= maxPartitions ? new DefaultPartition(k, this) : null);
+        return partition != null ? partition :
+                partitions.computeIfAbsent(OVERFLOW_PARTITION, k -> new DefaultPartition(k, this));
+    }
+
+    /**
+     * The state of a partition of a {@link ConcurrencyLimitHttpServiceFilter}.
+     */
+    public interface Partition {
+        /**
+         * Returns the key of this partition.
+         *
+         * @return the key of this partition.
+         */
+        String key();
+
+        /**
+         * Returns the current limit of concurrent requests for this partition.
+         *
+         * @return the current limit of concurrent requests for this partition.
+         */
+        int limit();
+
+        /**
+         * Returns the number of requests which are currently processed in this partition.
+         *
+         * @return the number of requests which are currently processed in this partition.
+         */
+        int inFlight();
+
+        /**
+         * Returns the total number of requests which were passed to the service for this partition.
+         *
+         * @return the total number of requests which were passed to the service for this partition.
+         */
+        long accepted();
+
+        /**
+         * Returns the total number of requests which were rejected because the limit of this partition was reached.
+         *
+         * @return the total number of requests which were rejected because the limit of this partition was reached.
+         */
+        long rejected();
+
+        /**
+         * Returns the baseline latency of the requests in this partition in nanoseconds, or {@code 0} if no request
+         * completed yet.
+         *
+         * @return the baseline latency of the requests in this partition in nanoseconds.
+         */
+        long baselineLatencyNanos();
+    }
+
+    private static final class DefaultPartition implements Partition {
+        private static final AtomicIntegerFieldUpdater<DefaultPartition> inFlightUpdater =
+                newUpdater(DefaultPartition.class, "inFlight");
+        private static final AtomicLongFieldUpdater<DefaultPartition> acceptedUpdater =
+                AtomicLongFieldUpdater.newUpdater(DefaultPartition.class, "accepted");
+        private static final AtomicLongFieldUpdater<DefaultPartition> rejectedUpdater =
+                AtomicLongFieldUpdater.newUpdater(DefaultPartition.class, "rejected");
+
+        private final String key;
+        private final ConcurrencyLimitHttpServiceFilter config;
+        private volatile int limit;
+        private volatile int inFlight;
+        private volatile long accepted;
+        private volatile long rejected;
+        private volatile long baselineLatencyNanos;
+        // Guarded by this.
+        private double estimatedLimit;
+        private double baselineLatency;
+
+        DefaultPartition(final String key, final ConcurrencyLimitHttpServiceFilter config) {
+            this.key = key;
+            this.config = config;
+            this.estimatedLimit = config.initialLimit;
+            this.limit = config.initialLimit;
+        }
+
+        boolean tryAcquire() {
+            for (;;) {
+                final int current = inFlight;
+                if (current >= limit) {
+                    rejectedUpdater.incrementAndGet(this);
+                    return false;
+                }
+                if (inFlightUpdater.compareAndSet(this, current, current + 1)) {
+                    acceptedUpdater.incrementAndGet(this);
+                    return true;
+                }
+            }
+        }
+
+        void release() {
+            inFlightUpdater.decrementAndGet(this);
+        }
+
+        void onLatency(final long latencyNanos, final int inFlightAtStart) {
+            if (latencyNanos <= 0) {
+                return;
+            }
+            synchronized (this) {
+                if (baselineLatency == 0) {
+                    baselineLatency = latencyNanos;
+                } else {
+                    baselineLatency += (latencyNanos - baselineLatency) / config.baselineWindow;
+                    if (baselineLatency > 2 * latencyNanos) {
+                        // The service became faster than the baseline, e.g. after a warm-up phase. Let the baseline
+                        // catch up faster than the window would.
+                        baselineLatency *= 0.95;
+                    }
+                }
+                baselineLatencyNanos = (long) baselineLatency;
+
+                // Don't grow the limit if it wasn't actually used, so it doesn't run away while the load is low.
+                if (inFlightAtStart < estimatedLimit / 2) {
+                    return;
+                }
+                final double gradient = max(0.5, min(1.0, config.latencyTolerance * baselineLatency / latencyNanos));
+                final double newLimit = estimatedLimit * gradient + sqrt(estimatedLimit);
+                estimatedLimit = max(config.minLimit, min(config.maxLimit,
+                        estimatedLimit * (1 - config.smoothing) + newLimit * config.smoothing));
+                limit = (int) estimatedLimit;
+            }
+        }
+
+        @Override
+        public String key() {
+            return key;
+        }
+
+        @Override
+        public int limit() {
+            return limit;
+        }
+
+        @Override
+        public int inFlight() {
+            return inFlight;
+        }
+
+        @Override
+        public long accepted() {
+            return accepted;
+        }
+
+        @Override
+        public long rejected() {
+            return rejected;
+        }
+
+        @Override
+        public long baselineLatencyNanos() {
+            return baselineLatencyNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "Partition{" +
+                    "key='" + key + '\'' +
+                    ", limit=" + limit +
+                    ", inFlight=" + inFlight +
+                    ", accepted=" + accepted +
+                    ", rejected=" + rejected +
+                    ", baselineLatencyNanos=" + baselineLatencyNanos +
+                    '}';
+        }
+    }
+
+    private static final class LatencyRecorder implements TerminalSignalConsumer {
+        private final DefaultPartition partition;
+        private final TimeSource timeSource;
+        private final long startTime;
+        private final int inFlightAtStart;
+
+        LatencyRecorder(final DefaultPartition partition, final TimeSource timeSource) {
+            this.partition = partition;
+            this.timeSource = timeSource;
+            this.startTime = timeSource.currentTime(NANOSECONDS);
+            this.inFlightAtStart = partition.inFlight();
+        }
+
+        @Override
+        public void onComplete() {
+            partition.release();
+            partition.onLatency(timeSource.currentTime(NANOSECONDS) - startTime, inFlightAtStart);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            partition.release();
+        }
+
+        @Override
+        public void cancel() {
+            partition.release();
+        }
+    }
+
+    /**
+     * A builder for {@link ConcurrencyLimitHttpServiceFilter} instances.
+     */
+    public static final class Builder {
+        private Function<? super HttpRequestMetaData, String> partitionKey = __ -> DEFAULT_PARTITION;
+        private BiFunction<? super HttpRequestMetaData, StreamingHttpResponseFactory, StreamingHttpResponse>
+                rejectedResponse = (request, responseFactory) -> responseFactory.serviceUnavailable();
+        private int initialLimit = 20;
+        private int minLimit = 1;
+        private int maxLimit = 1000;
+        private double smoothing = 0.2;
+        private double latencyTolerance = 1.5;
+        private int baselineWindow = 600;
+        private int maxPartitions = 100;
+
+        /**
+         * Sets the initial limit of concurrent requests of every partition.
+         *
+         * @param initialLimit the initial limit of concurrent requests of every partition.
+         * @return {@code this}.
+         */
+        public Builder initialLimit(final int initialLimit) {
+            if (initialLimit <= 0) {
+                throw new IllegalArgumentException("initialLimit: " + initialLimit + " (expected > 0)");
+            }
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        /**
+         * Sets the bounds of the limit of concurrent requests of every partition.
+         *
+         * @param minLimit the lowest value the limit can decrease to.
+         * @param maxLimit the highest value the limit can grow to.
+         * @return {@code this}.
+         */
+        public Builder limitBounds(final int minLimit, final int maxLimit) {
+            if (minLimit <= 0) {
+                throw new IllegalArgumentException("minLimit: " + minLimit + " (expected > 0)");
+            }
+            if (maxLimit < minLimit) {
+                throw new IllegalArgumentException("maxLimit: " + maxLimit + " (expected >= minLimit " + minLimit +
+                        ")");
+            }
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        /**
+         * Sets how fast the limit follows changes of the latency.
+         *
+         * @param smoothing the weight of each new estimate of the limit, {@code 1} follows each completed request
+         * without smoothing.
+         * @return {@code this}.
+         */
+        public Builder smoothing(final double smoothing) {
+            if (!(smoothing > 0 && smoothing <= 1)) {
+                throw new IllegalArgumentException("smoothing: " + smoothing + " (expected (0, 1])");
+            }
+            this.smoothing = smoothing;
+            return this;
+        }
+
+        /**
+         * Sets the tolerated ratio between the latency of a request and the baseline latency before the limit is
+         * decreased.
+         *
+         * @param latencyTolerance the tolerated ratio between the latency of a request and the baseline latency.
+         * @return {@code this}.
+         */
+        public Builder latencyTolerance(final double latencyTolerance) {
+            if (!(latencyTolerance >= 1)) {
+                throw new IllegalArgumentException("latencyTolerance: " + latencyTolerance + " (expected >= 1)");
+            }
+            this.latencyTolerance = latencyTolerance;
+            return this;
+        }
+
+        /**
+         * Sets the number of completed requests over which the baseline latency is averaged.
+         *
+         * @param baselineWindow the number of completed requests over which the baseline latency is averaged.
+         * @return {@code this}.
+         */
+        public Builder baselineWindow(final int baselineWindow) {
+            if (baselineWindow <= 0) {
+                throw new IllegalArgumentException("baselineWindow: " + baselineWindow + " (expected > 0)");
+            }
+            this.baselineWindow = baselineWindow;
+            return this;
+        }
+
+        /**
+         * Sets a function which selects the partition of a request, e.g. {@link HttpRequestMetaData#path()} for a
+         * limit per route. Each partition has its own independent limit.
+         * <p>
+         * The state of each partition is retained. Once the {@link #maxPartitions(int) maximum number of partitions}
+         * is reached, requests with a new key share the {@link #OVERFLOW_PARTITION overflow partition}.
+         *
+         * @param partitionKey a function which selects the partition of a request.
+         * @return {@code this}.
+         */
+        public Builder partitionKey(final Function<? super HttpRequestMetaData, String> partitionKey) {
+            this.partitionKey = requireNonNull(partitionKey);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of partitions, which bounds the state retained for
+         * {@link #partitionKey(Function) partition keys} derived from requests, e.g. arbitrary paths. Requests with a
+         * key that would exceed this number share the {@link #OVERFLOW_PARTITION overflow partition}, which is not
+         * counted. By default, {@code 100} partitions are retained.
+         *
+         * @param maxPartitions the maximum number of partitions.
+         * @return {@code this}.
+         */
+        public Builder maxPartitions(final int maxPartitions) {
+            if (maxPartitions <= 0) {
+                throw new IllegalArgumentException("maxPartitions: " + maxPartitions + " (expected > 0)");
+            }
+            this.maxPartitions = maxPartitions;
+            return this;
+        }
+
+        /**
+         * Sets a function which creates the response for requests that are rejected because the limit was reached.
+         * By default, a {@code 503 Service Unavailable} response is returned.
+         *
+         * @param rejectedResponse a function which creates the response for rejected requests.
+         * @return {@code this}.
+         */
+        public Builder rejectedResponse(final BiFunction<? super HttpRequestMetaData, StreamingHttpResponseFactory,
+                StreamingHttpResponse> rejectedResponse) {
+            this.rejectedResponse = requireNonNull(rejectedResponse);
+            return this;
+        }
+
+        /**
+         * Builds a new {@link ConcurrencyLimitHttpServiceFilter}.
+         *
+         * @return a new {@link ConcurrencyLimitHttpServiceFilter}.
+         */
+        public ConcurrencyLimitHttpServiceFilter build() {
+            if (initialLimit < minLimit || initialLimit > maxLimit) {
+                throw new IllegalArgumentException("initialLimit: " + initialLimit + " (expected in [" + minLimit +
+                        ", " + maxLimit + "])");
+            }
+            return new ConcurrencyLimitHttpServiceFilter(this);
+        }
+    }
+}
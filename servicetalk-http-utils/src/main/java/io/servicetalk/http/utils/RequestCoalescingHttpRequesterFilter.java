@@ -0,0 +1,422 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.utils;
+
+import io.servicetalk.buffer.api.BufferAllocator;
+import io.servicetalk.concurrent.Cancellable;
+import io.servicetalk.concurrent.SingleSource;
+import io.servicetalk.concurrent.api.Executor;
+import io.servicetalk.concurrent.api.Publisher;
+import io.servicetalk.concurrent.api.Single;
+import io.servicetalk.concurrent.api.internal.SubscribableSingle;
+import io.servicetalk.concurrent.internal.SequentialCancellable;
+import io.servicetalk.http.api.DefaultHttpHeadersFactory;
+import io.servicetalk.http.api.FilterableStreamingHttpClient;
+import io.servicetalk.http.api.HttpExecutionStrategies;
+import io.servicetalk.http.api.HttpExecutionStrategy;
+import io.servicetalk.http.api.HttpExecutionStrategyInfluencer;
+import io.servicetalk.http.api.HttpHeaders;
+import io.servicetalk.http.api.HttpRequestMetaData;
+import io.servicetalk.http.api.HttpRequestMethod;
+import io.servicetalk.http.api.StreamingHttpClientFilter;
+import io.servicetalk.http.api.StreamingHttpClientFilterFactory;
+import io.servicetalk.http.api.StreamingHttpRequest;
+import io.servicetalk.http.api.StreamingHttpRequester;
+import io.servicetalk.http.api.StreamingHttpResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.concurrent.api.Publisher.defer;
+import static io.servicetalk.concurrent.api.Publisher.failed;
+import static io.servicetalk.concurrent.api.SourceAdapters.toSource;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT_LANGUAGE;
+import static io.servicetalk.http.api.HttpHeaderNames.AUTHORIZATION;
+import static io.servicetalk.http.api.HttpHeaderNames.CONTENT_LENGTH;
+import static io.servicetalk.http.api.HttpHeaderNames.COOKIE;
+import static io.servicetalk.http.api.HttpHeaderNames.HOST;
+import static io.servicetalk.http.api.HttpHeaderNames.IF_MODIFIED_SINCE;
+import static io.servicetalk.http.api.HttpHeaderNames.IF_NONE_MATCH;
+import static io.servicetalk.http.api.HttpHeaderNames.RANGE;
+import static io.servicetalk.http.api.HttpHeaderNames.TRANSFER_ENCODING;
+import static io.servicetalk.http.api.HttpRequestMethod.GET;
+import static io.servicetalk.http.api.HttpRequestMethod.HEAD;
+import static io.servicetalk.http.api.StreamingHttpResponses.newTransportResponse;
+import static io.servicetalk.utils.internal.DurationUtils.ensurePositive;
+import static java.time.Duration.ofSeconds;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * A filter which sends a single request upstream for identical requests which are in flight at the same time, and
+ * shares the response between all of them.
+ * <p>
+ * Only {@code GET} and {@code HEAD} requests without a payload body are coalesced. By default, requests are identical
+ * if they have the same method, request-target and values for the {@code Host}, {@code Authorization},
+ * {@code Cookie}, {@code Accept}, {@code Accept-Encoding}, {@code Accept-Language}, {@code Range},
+ * {@code If-None-Match} and {@code If-Modified-Since} headers, other headers are ignored. Use
+ * {@link #requestKeyWithHeaders(CharSequence...)} to select the headers which vary the response of a service. A request
+ * joins an in-flight request until its response metadata arrives, later requests are sent upstream again.
+ * <p>
+ * Every caller receives its own copy of the response metadata, and the payload body is
+ * {@link Publisher#multicast(int) multicast} to all callers, at the pace of the slowest one. Cancelling the response
+ * {@link Single} only cancels the upstream request when every caller has cancelled it, and the same applies to the
+ * shared payload body. The payload body is drained on behalf of callers which cancel before they receive the
+ * response, and of callers which don't subscribe to it within a timeout, so they can't stall the other callers.
+ */
+public final class RequestCoalescingHttpRequesterFilter implements StreamingHttpClientFilterFactory,
+                                                                   HttpExecutionStrategyInfluencer {
+
+    private static final Duration DEFAULT_PAYLOAD_BODY_SUBSCRIBE_TIMEOUT = ofSeconds(10);
+    private static final Function<HttpRequestMetaData, String> DEFAULT_REQUEST_KEY = requestKeyWithHeaders(HOST,
+            AUTHORIZATION, COOKIE, ACCEPT, ACCEPT_ENCODING, ACCEPT_LANGUAGE, RANGE, IF_NONE_MATCH, IF_MODIFIED_SINCE);
+
+    private final Function<? super HttpRequestMetaData, ?> requestKeyFunction;
+    private final long payloadBodySubscribeTimeoutNs;
+
+    /**
+     * Creates a new instance which coalesces {@code GET} and {@code HEAD} requests which have the same method,
+     * request-target and values for the headers which commonly vary a response.
+     */
+    public RequestCoalescingHttpRequesterFilter() {
+        this(DEFAULT_REQUEST_KEY);
+    }
+
+    /**
+     * Creates a new instance which coalesces {@code GET} and {@code HEAD} requests which have equal keys.
+     *
+     * @param requestKeyFunction computes the key of a request, requests with {@link Object#equals(Object) equal} keys
+     * are considered identical. A {@code null} key disables coalescing for the request.
+     */
+    public RequestCoalescingHttpRequesterFilter(final Function<? super HttpRequestMetaData, ?> requestKeyFunction) {
+        this(requestKeyFunction, DEFAULT_PAYLOAD_BODY_SUBSCRIBE_TIMEOUT);
+    }
+
+    /**
+     * Creates a new instance which coalesces {@code GET} and {@code HEAD} requests which have equal keys.
+     *
+     * @param requestKeyFunction computes the key of a request, requests with {@link Object#equals(Object) equal} keys
+     * are considered identical. A {@code null} key disables coalescing for the request.
+     * @param payloadBodySubscribeTimeout time a caller has to subscribe to a shared payload body after it received the
+     * response, before the payload body is drained on its behalf and a later subscribe fails.
+     */
+    public RequestCoalescingHttpRequesterFilter(final Function<? super HttpRequestMetaData, ?> requestKeyFunction,
+                                                final Duration payloadBodySubscribeTimeout) {
+        this.requestKeyFunction = requireNonNull(requestKeyFunction);
+        this.payloadBodySubscribeTimeoutNs =
+                ensurePositive(payloadBodySubscribeTimeout, "payloadBodySubscribeTimeout").toNanos();
+    }
+
+    /**
+     * Creates a function which computes the key of a request from its method, request-target and the values of the
+     * passed headers. Other headers do not influence the key.
+     *
+     * @param headerNames names of the request headers which vary the response.
+     * @return a function to pass to {@link #RequestCoalescingHttpRequesterFilter(Function)}.
+     */
+    public static Function<HttpRequestMetaData, String> requestKeyWithHeaders(final CharSequence... headerNames) {
+        final CharSequence[] names = headerNames.clone();
+        for (CharSequence name : names) {
+            requireNonNull(name);
+        }
+        return request -> {
+            final StringBuilder sb = new StringBuilder(64).append(request.method().name()).append(' ')
+                    .append(request.requestTarget());
+            for (CharSequence name : names) {
+                final Iterator<? extends CharSequence> values = request.headers().valuesIterator(name);
+                while (values.hasNext()) {
+                    sb.append('\n').append(name).append(':').append(values.next());
+                }
+            }
+            return sb.toString();
+        };
+    }
+
+    @Override
+    public StreamingHttpClientFilter create(final FilterableStreamingHttpClient client) {
+        final BufferAllocator allocator = client.executionContext().bufferAllocator();
+        final Executor executor = client.executionContext().executor();
+        final Map<Object, CoalescedRequest> inflight = new ConcurrentHashMap<>();
+        return new StreamingHttpClientFilter(client) {
+            @Override
+            protected Single<StreamingHttpResponse> request(final StreamingHttpRequester delegate,
+                                                            final StreamingHttpRequest request) {
+                if (!isCoalescable(request)) {
+                    return delegate.request(request);
+                }
+                final Object key = requestKeyFunction.apply(request);
+                return key == null ? delegate.request(request) :
+                        new CoalescingSingle(delegate, request, key, inflight, allocator, executor,
+                                payloadBodySubscribeTimeoutNs);
+            }
+        };
+    }
+
+    @Override
+    public HttpExecutionStrategy requiredOffloads() {
+        // No influence since we do not block.
+        return HttpExecutionStrategies.offloadNone();
+    }
+
+    private static boolean isCoalescable(final HttpRequestMetaData request) {
+        final HttpRequestMethod method = request.method();
+        return (GET.equals(method) || HEAD.equals(method)) && !request.headers().contains(CONTENT_LENGTH) &&
+                !request.headers().contains(TRANSFER_ENCODING);
+    }
+
+    private static final class CoalescingSingle extends SubscribableSingle<StreamingHttpResponse> {
+
+        private final StreamingHttpRequester delegate;
+        private final StreamingHttpRequest request;
+        private final Object key;
+        private final Map<Object, CoalescedRequest> inflight;
+        private final BufferAllocator allocator;
+        private final Executor executor;
+        private final long payloadBodySubscribeTimeoutNs;
+
+        CoalescingSingle(final StreamingHttpRequester delegate, final StreamingHttpRequest request, final Object key,
+                         final Map<Object, CoalescedRequest> inflight, final BufferAllocator allocator,
+                         final Executor executor, final long payloadBodySubscribeTimeoutNs) {
+            this.delegate = delegate;
+            this.request = request;
+            this.key = key;
+            this.inflight = inflight;
+            this.allocator = allocator;
+            this.executor = executor;
+            this.payloadBodySubscribeTimeoutNs = payloadBodySubscribeTimeoutNs;
+        }
+
+        @Override
+        protected void handleSubscribe(final Subscriber<? super StreamingHttpResponse> subscriber) {
+            final Caller caller = new Caller(subscriber);
+            subscriber.onSubscribe(caller);
+            for (;;) {
+                CoalescedRequest coalesced = inflight.get(key);
+                if (coalesced == null) {
+                    final CoalescedRequest newRequest = new CoalescedRequest(key, inflight, allocator, executor,
+                            payloadBodySubscribeTimeoutNs);
+                    coalesced = inflight.putIfAbsent(key, newRequest);
+                    if (coalesced == null) {
+                        newRequest.join(caller);
+                        toSource(delegate.request(request)).subscribe(newRequest);
+                        return;
+                    }
+                }
+                if (coalesced.join(caller)) {
+                    return;
+                }
+                // The response of the in-flight request has already arrived, it is too late to join.
+                inflight.remove(key, coalesced);
+            }
+        }
+    }
+
+    private static final class CoalescedRequest implements SingleSource.Subscriber<StreamingHttpResponse> {
+
+        private final Object key;
+        private final Map<Object, CoalescedRequest> inflight;
+        private final BufferAllocator allocator;
+        private final Executor executor;
+        private final long payloadBodySubscribeTimeoutNs;
+        private final SequentialCancellable upstreamCancellable = new SequentialCancellable();
+        /**
+         * Guarded by {@code this}, {@code null} once the response has arrived or all callers have cancelled.
+         */
+        @Nullable
+        private List<Caller> callers = new ArrayList<>(2);
+
+        CoalescedRequest(final Object key, final Map<Object, CoalescedRequest> inflight,
+                         final BufferAllocator allocator, final Executor executor,
+                         final long payloadBodySubscribeTimeoutNs) {
+            this.key = key;
+            this.inflight = inflight;
+            this.allocator = allocator;
+            this.executor = executor;
+            this.payloadBodySubscribeTimeoutNs = payloadBodySubscribeTimeoutNs;
+        }
+
+        boolean join(final Caller caller) {
+            synchronized (this) {
+                if (callers == null) {
+                    return false;
+                }
+                callers.add(caller);
+            }
+            caller.coalesced = this;
+            if (caller.state == Caller.CANCELLED) {
+                leave(caller);
+            }
+            return true;
+        }
+
+        void leave(final Caller caller) {
+            synchronized (this) {
+                if (callers == null || !callers.remove(caller) || !callers.isEmpty()) {
+                    return;
+                }
+                callers = null;
+            }
+            inflight.remove(key, this);
+            upstreamCancellable.cancel();
+        }
+
+        @Override
+        public void onSubscribe(final Cancellable cancellable) {
+            upstreamCancellable.nextCancellable(cancellable);
+        }
+
+        @Override
+        public void onSuccess(@Nullable final StreamingHttpResponse response) {
+            final List<Caller> callers = terminate();
+            if (callers == null) {
+                if (response != null) {
+                    // All callers cancelled, but the response arrived anyway.
+                    response.messageBody().ignoreElements().subscribe();
+                }
+                return;
+            }
+            if (response == null || callers.size() == 1) {
+                for (Caller caller : callers) {
+                    caller.onSuccess(response);
+                }
+                return;
+            }
+            final Publisher<Object> messageBody = response.messageBody().multicast(callers.size());
+            final HttpHeaders headers = response.headers();
+            for (Caller caller : callers) {
+                // The multicast only subscribes upstream once every caller subscribed, callers which don't subscribe
+                // in time have their share drained so that they don't stall the others.
+                final CallerPayloadBody payloadBody = new CallerPayloadBody(messageBody);
+                payloadBody.timer.nextCancellable(
+                        executor.schedule(payloadBody, payloadBodySubscribeTimeoutNs, NANOSECONDS));
+                caller.onSuccess(newTransportResponse(response.status(), response.version(),
+                        DefaultHttpHeadersFactory.INSTANCE.newHeaders().add(headers), allocator,
+                        payloadBody.publisher(), false, DefaultHttpHeadersFactory.INSTANCE));
+            }
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+            final List<Caller> callers = terminate();
+            if (callers != null) {
+                for (Caller caller : callers) {
+                    caller.onError(t);
+                }
+            }
+        }
+
+        @Nullable
+        private List<Caller> terminate() {
+            final List<Caller> callers;
+            synchronized (this) {
+                callers = this.callers;
+                this.callers = null;
+            }
+            inflight.remove(key, this);
+            return callers;
+        }
+    }
+
+    /**
+     * The share of a caller in a multicast payload body, which is either subscribed by the caller or drained on its
+     * behalf, whichever happens first.
+     */
+    private static final class CallerPayloadBody implements Runnable {
+        private static final AtomicIntegerFieldUpdater<CallerPayloadBody> claimedUpdater =
+                AtomicIntegerFieldUpdater.newUpdater(CallerPayloadBody.class, "claimed");
+
+        private final Publisher<Object> messageBody;
+        final SequentialCancellable timer = new SequentialCancellable();
+        private volatile int claimed;
+
+        CallerPayloadBody(final Publisher<Object> messageBody) {
+            this.messageBody = messageBody;
+        }
+
+        Publisher<Object> publisher() {
+            return defer(() -> claim() ? messageBody : failed(new IllegalStateException(
+                    "Payload body was already subscribed, or drained because it was not subscribed in time"))
+            ).shareContextOnSubscribe();
+        }
+
+        @Override
+        public void run() {
+            if (claim()) {
+                messageBody.ignoreElements().subscribe();
+            }
+        }
+
+        private boolean claim() {
+            if (claimedUpdater.compareAndSet(this, 0, 1)) {
+                timer.cancel();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static final class Caller implements Cancellable {
+        private static final AtomicIntegerFieldUpdater<Caller> stateUpdater =
+                AtomicIntegerFieldUpdater.newUpdater(Caller.class, "state");
+        static final int PENDING = 0;
+        static final int TERMINATED = 1;
+        static final int CANCELLED = 2;
+
+        private final SingleSource.Subscriber<? super StreamingHttpResponse> target;
+        volatile int state;
+        @Nullable
+        volatile CoalescedRequest coalesced;
+
+        Caller(final SingleSource.Subscriber<? super StreamingHttpResponse> target) {
+            this.target = target;
+        }
+
+        @Override
+        public void cancel() {
+            if (stateUpdater.compareAndSet(this, PENDING, CANCELLED)) {
+                final CoalescedRequest coalesced = this.coalesced;
+                if (coalesced != null) {
+                    coalesced.leave(this);
+                }
+            }
+        }
+
+        void onSuccess(@Nullable final StreamingHttpResponse response) {
+            if (stateUpdater.compareAndSet(this, PENDING, TERMINATED)) {
+                target.onSuccess(response);
+            } else if (response != null) {
+                // Cancelled after the response arrived, consume its share of the payload body so that the other
+                // callers are not blocked.
+                response.messageBody().ignoreElements().subscribe();
+            }
+        }
+
+        void onError(final Throwable t) {
+            if (stateUpdater.compareAndSet(this, PENDING, TERMINATED)) {
+                target.onError(t);
+            }
+        }
+    }
+}
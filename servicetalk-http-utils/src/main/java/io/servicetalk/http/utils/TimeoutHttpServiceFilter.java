@@ -39,6 +39,11 @@ import java.util.function.BiFunction;
  * <p>The order with which this filter is applied may be highly significant. For example, appending it before a retry
  * filter would have different results than applying it after the retry filter; timeout would apply for all retries vs
  * timeout per retry.
+ *
+ * <p>Unless a timeout {@link Executor} is passed, timeouts are scheduled on the executor of the execution context, or
+ * on a hashed wheel timer if that is the global executor. Pass an executor wrapped by
+ * {@link io.servicetalk.concurrent.api.Executors#withHashedWheelTimer(Executor)} to schedule timeouts of other
+ * executors on the hashed wheel timer as well.
  */
 public final class TimeoutHttpServiceFilter extends AbstractTimeoutHttpFilter
         implements StreamingHttpServiceFilterFactory {
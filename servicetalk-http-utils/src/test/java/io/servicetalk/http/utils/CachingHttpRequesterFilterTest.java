@@ -0,0 +1,220 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.utils;
+
+import io.servicetalk.concurrent.api.Single;
+import io.servicetalk.concurrent.api.TestExecutor;
+import io.servicetalk.concurrent.api.TestSingle;
+import io.servicetalk.http.api.DefaultHttpHeadersFactory;
+import io.servicetalk.http.api.DefaultStreamingHttpRequestResponseFactory;
+import io.servicetalk.http.api.HttpExecutionContext;
+import io.servicetalk.http.api.HttpResponse;
+import io.servicetalk.http.api.StreamingHttpClient;
+import io.servicetalk.http.api.StreamingHttpClientFilter;
+import io.servicetalk.http.api.StreamingHttpClientFilterFactory;
+import io.servicetalk.http.api.StreamingHttpRequest;
+import io.servicetalk.http.api.StreamingHttpRequestResponseFactory;
+import io.servicetalk.http.api.StreamingHttpRequester;
+import io.servicetalk.http.api.StreamingHttpResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Future;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.concurrent.api.Publisher.from;
+import static io.servicetalk.concurrent.api.Single.succeeded;
+import static io.servicetalk.http.api.FilterFactoryUtils.appendClientFilterFactory;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT_ENCODING;
+import static io.servicetalk.http.api.HttpHeaderNames.AGE;
+import static io.servicetalk.http.api.HttpHeaderNames.CACHE_CONTROL;
+import static io.servicetalk.http.api.HttpHeaderNames.ETAG;
+import static io.servicetalk.http.api.HttpHeaderNames.IF_NONE_MATCH;
+import static io.servicetalk.http.api.HttpHeaderNames.VARY;
+import static io.servicetalk.http.api.HttpProtocolVersion.HTTP_1_1;
+import static io.servicetalk.http.api.HttpResponseStatus.NOT_MODIFIED;
+import static io.servicetalk.http.api.HttpResponseStatus.OK;
+import static io.servicetalk.http.api.TestStreamingHttpClient.from;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CachingHttpRequesterFilterTest {
+
+    private static final StreamingHttpRequestResponseFactory REQ_RES_FACTORY =
+            new DefaultStreamingHttpRequestResponseFactory(DEFAULT_ALLOCATOR, DefaultHttpHeadersFactory.INSTANCE,
+                    HTTP_1_1);
+
+    private final TestExecutor executor = new TestExecutor();
+    private final List<StreamingHttpRequest> upstreamRequests = new ArrayList<>();
+    private final Queue<Single<StreamingHttpResponse>> upstreamResponses = new ArrayDeque<>();
+    private StreamingHttpClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = newClient(new CachingHttpRequesterFilter.Builder().build());
+    }
+
+    private StreamingHttpClient newClient(final CachingHttpRequesterFilter filter) {
+        final HttpExecutionContext executionContext = mock(HttpExecutionContext.class);
+        when(executionContext.executor()).thenReturn(executor);
+        when(executionContext.bufferAllocator()).thenReturn(DEFAULT_ALLOCATOR);
+        final StreamingHttpClientFilterFactory upstream = client -> new StreamingHttpClientFilter(client) {
+            @Override
+            protected Single<StreamingHttpResponse> request(final StreamingHttpRequester delegate,
+                                                            final StreamingHttpRequest request) {
+                upstreamRequests.add(request);
+                return upstreamResponses.remove();
+            }
+        };
+        return from(REQ_RES_FACTORY, executionContext, appendClientFilterFactory(filter, upstream));
+    }
+
+    @Test
+    void freshResponseIsServedFromCache() throws Exception {
+        upstreamResponses.add(ok("hello", "max-age=60"));
+        assertThat(get("/").payloadBody().toString(US_ASCII), is("hello"));
+        executor.advanceTimeBy(5, SECONDS);
+
+        final HttpResponse cached = get("/");
+        assertThat(cached.payloadBody().toString(US_ASCII), is("hello"));
+        assertThat(cached.headers().get(AGE).toString(), is("5"));
+        assertThat(upstreamRequests, hasSize(1));
+    }
+
+    @Test
+    void staleResponseIsRevalidated() throws Exception {
+        upstreamResponses.add(succeeded(REQ_RES_FACTORY.ok().setHeader(CACHE_CONTROL, "max-age=10")
+                .setHeader(ETAG, "\"v1\"").payloadBody(from(DEFAULT_ALLOCATOR.fromAscii("hello")))));
+        get("/");
+        executor.advanceTimeBy(11, SECONDS);
+
+        upstreamResponses.add(succeeded(REQ_RES_FACTORY.newResponse(NOT_MODIFIED)
+                .setHeader(CACHE_CONTROL, "max-age=10")));
+        final HttpResponse revalidated = get("/");
+        assertThat(revalidated.status(), is(OK));
+        assertThat(revalidated.payloadBody().toString(US_ASCII), is("hello"));
+        assertThat(upstreamRequests.get(1).headers().get(IF_NONE_MATCH).toString(), is("\"v1\""));
+
+        // The revalidated response is fresh again.
+        get("/");
+        assertThat(upstreamRequests, hasSize(2));
+    }
+
+    @Test
+    void revalidationDoesNotModifyCallerRequest() throws Exception {
+        upstreamResponses.add(succeeded(REQ_RES_FACTORY.ok().setHeader(CACHE_CONTROL, "max-age=10")
+                .setHeader(ETAG, "\"v1\"").payloadBody(from(DEFAULT_ALLOCATOR.fromAscii("hello")))));
+        get("/");
+        executor.advanceTimeBy(11, SECONDS);
+
+        upstreamResponses.add(succeeded(REQ_RES_FACTORY.newResponse(NOT_MODIFIED)
+                .setHeader(CACHE_CONTROL, "max-age=10")));
+        final StreamingHttpRequest request = client.get("/");
+        client.request(request).flatMap(StreamingHttpResponse::toResponse).toFuture().get();
+        assertThat(upstreamRequests.get(1).headers().get(IF_NONE_MATCH).toString(), is("\"v1\""));
+        assertThat(request.headers().get(IF_NONE_MATCH), is(nullValue()));
+    }
+
+    @Test
+    void noStoreResponsesAreNotCached() throws Exception {
+        upstreamResponses.add(ok("one", "no-store"));
+        upstreamResponses.add(ok("two", "no-store"));
+        get("/");
+        assertThat(get("/").payloadBody().toString(US_ASCII), is("two"));
+        assertThat(upstreamRequests, hasSize(2));
+    }
+
+    @Test
+    void responseIsOnlyServedForMatchingVaryHeaders() throws Exception {
+        upstreamResponses.add(succeeded(REQ_RES_FACTORY.ok().setHeader(CACHE_CONTROL, "max-age=60")
+                .setHeader(VARY, ACCEPT_ENCODING).payloadBody(from(DEFAULT_ALLOCATOR.fromAscii("gzip")))));
+        upstreamResponses.add(ok("identity", "max-age=60"));
+        client.request(client.get("/").setHeader(ACCEPT_ENCODING, "gzip")).toFuture().get();
+
+        final HttpResponse response = client.request(client.get("/").setHeader(ACCEPT_ENCODING, "identity"))
+                .flatMap(StreamingHttpResponse::toResponse).toFuture().get();
+        assertThat(response.payloadBody().toString(US_ASCII), is("identity"));
+        assertThat(upstreamRequests, hasSize(2));
+    }
+
+    @Test
+    void concurrentMissesShareOneRequest() throws Exception {
+        final TestSingle<StreamingHttpResponse> upstreamResponse = new TestSingle<>();
+        upstreamResponses.add(upstreamResponse);
+        final Future<HttpResponse> first = client.request(client.get("/"))
+                .flatMap(StreamingHttpResponse::toResponse).toFuture();
+        final Future<HttpResponse> second = client.request(client.get("/"))
+                .flatMap(StreamingHttpResponse::toResponse).toFuture();
+        assertThat(upstreamRequests, hasSize(1));
+
+        upstreamResponse.onSuccess(REQ_RES_FACTORY.ok().setHeader(CACHE_CONTROL, "max-age=60")
+                .payloadBody(from(DEFAULT_ALLOCATOR.fromAscii("hello"))));
+        assertThat(first.get().payloadBody().toString(US_ASCII), is("hello"));
+        assertThat(second.get().payloadBody().toString(US_ASCII), is("hello"));
+        assertThat(upstreamRequests, hasSize(1));
+    }
+
+    @Test
+    void payloadBodyOverMaxEntrySizeIsStreamedAndNotCached() throws Exception {
+        client = newClient(new CachingHttpRequesterFilter.Builder().maxEntrySize(4).build());
+        upstreamResponses.add(succeeded(REQ_RES_FACTORY.ok().setHeader(CACHE_CONTROL, "max-age=60")
+                .payloadBody(from(DEFAULT_ALLOCATOR.fromAscii("hel"), DEFAULT_ALLOCATOR.fromAscii("lo")))));
+        upstreamResponses.add(ok("hi", "max-age=60"));
+        assertThat(get("/").payloadBody().toString(US_ASCII), is("hello"));
+        assertThat(get("/").payloadBody().toString(US_ASCII), is("hi"));
+        assertThat(upstreamRequests, hasSize(2));
+    }
+
+    @Test
+    void nonCacheableRequestsBypassCache() throws Exception {
+        upstreamResponses.add(ok("one", "max-age=60"));
+        upstreamResponses.add(ok("two", "max-age=60"));
+        upstreamResponses.add(ok("three", "max-age=60"));
+        client.request(client.post("/")).toFuture().get();
+        client.request(client.post("/")).toFuture().get();
+        final HttpResponse response = client.request(client.get("/").setHeader(CACHE_CONTROL, "no-cache"))
+                .flatMap(StreamingHttpResponse::toResponse).toFuture().get();
+        assertThat(response.headers().get(AGE), is(nullValue()));
+        assertThat(upstreamRequests, hasSize(3));
+    }
+
+    @Test
+    void invalidConfigurationIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new CachingHttpRequesterFilter.Builder().maxSize(0));
+        assertThrows(IllegalArgumentException.class, () -> new CachingHttpRequesterFilter.Builder().maxEntrySize(-1));
+    }
+
+    private HttpResponse get(final String requestTarget) throws Exception {
+        return client.request(client.get(requestTarget)).flatMap(StreamingHttpResponse::toResponse).toFuture().get();
+    }
+
+    private static Single<StreamingHttpResponse> ok(final String payload, final String cacheControl) {
+        return succeeded(REQ_RES_FACTORY.ok().setHeader(CACHE_CONTROL, cacheControl)
+                .payloadBody(from(DEFAULT_ALLOCATOR.fromAscii(payload))));
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.utils;
+
+import io.servicetalk.concurrent.api.TestExecutor;
+import io.servicetalk.concurrent.api.TestSingle;
+import io.servicetalk.http.api.DefaultHttpHeadersFactory;
+import io.servicetalk.http.api.DefaultStreamingHttpRequestResponseFactory;
+import io.servicetalk.http.api.HttpExecutionContext;
+import io.servicetalk.http.api.HttpResponseStatus;
+import io.servicetalk.http.api.HttpServiceContext;
+import io.servicetalk.http.api.StreamingHttpRequestResponseFactory;
+import io.servicetalk.http.api.StreamingHttpResponse;
+import io.servicetalk.http.api.StreamingHttpServiceFilter;
+import io.servicetalk.http.utils.ConcurrencyLimitHttpServiceFilter.Partition;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.concurrent.api.Single.succeeded;
+import static io.servicetalk.http.api.HttpProtocolVersion.HTTP_1_1;
+import static io.servicetalk.http.api.HttpResponseStatus.SERVICE_UNAVAILABLE;
+import static io.servicetalk.http.utils.ConcurrencyLimitHttpServiceFilter.DEFAULT_PARTITION;
+import static io.servicetalk.http.utils.ConcurrencyLimitHttpServiceFilter.OVERFLOW_PARTITION;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConcurrencyLimitHttpServiceFilterTest {
+
+    private static final StreamingHttpRequestResponseFactory REQ_RES_FACTORY =
+            new DefaultStreamingHttpRequestResponseFactory(DEFAULT_ALLOCATOR, DefaultHttpHeadersFactory.INSTANCE,
+                    HTTP_1_1);
+
+    private final TestExecutor executor = new TestExecutor();
+    private final List<TestSingle<StreamingHttpResponse>> responses = new ArrayList<>();
+    private final HttpServiceContext ctx = mock(HttpServiceContext.class);
+
+    @BeforeEach
+    void setUp() {
+        final HttpExecutionContext executionContext = mock(HttpExecutionContext.class);
+        when(executionContext.executor()).thenReturn(executor);
+        when(ctx.executionContext()).thenReturn(executionContext);
+    }
+
+    @Test
+    void requestsOverLimitAreRejected() throws Exception {
+        final ConcurrencyLimitHttpServiceFilter filterFactory = newBuilder().initialLimit(2).build();
+        final StreamingHttpServiceFilter filter = newFilter(filterFactory);
+        handle(filter, "/");
+        handle(filter, "/");
+        assertThat(handle(filter, "/").get(), is(SERVICE_UNAVAILABLE));
+
+        final Partition partition = filterFactory.partitions().get(DEFAULT_PARTITION);
+        assertThat(partition.inFlight(), is(2));
+        assertThat(partition.accepted(), is(2L));
+        assertThat(partition.rejected(), is(1L));
+    }
+
+    @Test
+    void completedRequestsReleaseTheirSlot() {
+        final ConcurrencyLimitHttpServiceFilter filterFactory = newBuilder().initialLimit(1).build();
+        final StreamingHttpServiceFilter filter = newFilter(filterFactory);
+        handle(filter, "/");
+        complete(0);
+        handle(filter, "/");
+        responses.get(1).onError(new IllegalStateException("deliberate"));
+        handle(filter, "/");
+        assertThat(filterFactory.partitions().get(DEFAULT_PARTITION).rejected(), is(0L));
+    }
+
+    @Test
+    void partitionsHaveIndependentLimits() throws Exception {
+        final ConcurrencyLimitHttpServiceFilter filterFactory = newBuilder().initialLimit(1)
+                .partitionKey(request -> request.path()).build();
+        final StreamingHttpServiceFilter filter = newFilter(filterFactory);
+        handle(filter, "/slow");
+        assertThat(handle(filter, "/slow").get(), is(SERVICE_UNAVAILABLE));
+        handle(filter, "/fast");
+
+        assertThat(filterFactory.partitions().get("/slow").rejected(), is(1L));
+        assertThat(filterFactory.partitions().get("/fast").inFlight(), is(1));
+    }
+
+    @Test
+    void partitionsBeyondMaximumShareOverflowPartition() throws Exception {
+        final ConcurrencyLimitHttpServiceFilter filterFactory = newBuilder().initialLimit(2).maxPartitions(1)
+                .partitionKey(request -> request.path()).build();
+        final StreamingHttpServiceFilter filter = newFilter(filterFactory);
+        handle(filter, "/first");
+        handle(filter, "/second");
+        handle(filter, "/third");
+        assertThat(handle(filter, "/fourth").get(), is(SERVICE_UNAVAILABLE));
+
+        assertThat(filterFactory.partitions().size(), is(2));
+        assertThat(filterFactory.partitions().get("/first").inFlight(), is(1));
+        assertThat(filterFactory.partitions().get(OVERFLOW_PARTITION).rejected(), is(1L));
+    }
+
+    @Test
+    void limitGrowsWhileLatencyIsStable() {
+        final ConcurrencyLimitHttpServiceFilter filterFactory = newBuilder().initialLimit(4).build();
+        final StreamingHttpServiceFilter filter = newFilter(filterFactory);
+        runRounds(filter, 10, 4, 10);
+        assertThat(filterFactory.partitions().get(DEFAULT_PARTITION).limit(), is(greaterThan(4)));
+    }
+
+    @Test
+    void limitDecreasesWhenLatencyIncreases() {
+        final ConcurrencyLimitHttpServiceFilter filterFactory = newBuilder().initialLimit(20).limitBounds(1, 20)
+                .build();
+        final StreamingHttpServiceFilter filter = newFilter(filterFactory);
+        runRounds(filter, 5, 20, 10);
+        assertThat(filterFactory.partitions().get(DEFAULT_PARTITION).limit(), is(20));
+        runRounds(filter, 5, 20, 100);
+        assertThat(filterFactory.partitions().get(DEFAULT_PARTITION).limit(), is(lessThan(20)));
+    }
+
+    @Test
+    void invalidConfigurationIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> newBuilder().initialLimit(0));
+        assertThrows(IllegalArgumentException.class, () -> newBuilder().limitBounds(2, 1));
+        assertThrows(IllegalArgumentException.class, () -> newBuilder().smoothing(0));
+        assertThrows(IllegalArgumentException.class, () -> newBuilder().maxPartitions(0));
+        assertThrows(IllegalArgumentException.class, () -> newBuilder().initialLimit(10).limitBounds(1, 5).build());
+    }
+
+    private void runRounds(final StreamingHttpServiceFilter filter, final int rounds, final int concurrency,
+                           final long latencyMillis) {
+        for (int round = 0; round < rounds; ++round) {
+            final int first = responses.size();
+            for (int i = 0; i < concurrency; ++i) {
+                handle(filter, "/");
+            }
+            executor.advanceTimeBy(latencyMillis, MILLISECONDS);
+            for (int i = first; i < responses.size(); ++i) {
+                complete(i);
+            }
+        }
+    }
+
+    private void complete(final int index) {
+        responses.get(index).onSuccess(REQ_RES_FACTORY.ok());
+    }
+
+    private Future<HttpResponseStatus> handle(final StreamingHttpServiceFilter filter, final String path) {
+        // Consume the payload body, the slot is only released after the response has been fully processed.
+        return filter.handle(ctx, REQ_RES_FACTORY.get(path), REQ_RES_FACTORY)
+                .flatMap(response -> response.payloadBody().ignoreElements().concat(succeeded(response.status())))
+                .toFuture();
+    }
+
+    private StreamingHttpServiceFilter newFilter(final ConcurrencyLimitHttpServiceFilter filterFactory) {
+        return filterFactory.create((ctx, request, responseFactory) -> {
+            final TestSingle<StreamingHttpResponse> response = new TestSingle<>();
+            responses.add(response);
+            return response;
+        });
+    }
+
+    private static ConcurrencyLimitHttpServiceFilter.Builder newBuilder() {
+        return new ConcurrencyLimitHttpServiceFilter.Builder().smoothing(1);
+    }
+}
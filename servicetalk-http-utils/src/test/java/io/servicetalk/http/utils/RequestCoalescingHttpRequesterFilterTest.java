@@ -0,0 +1,195 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.http.utils;
+
+import io.servicetalk.concurrent.api.Single;
+import io.servicetalk.concurrent.api.TestExecutor;
+import io.servicetalk.concurrent.api.TestSingle;
+import io.servicetalk.http.api.DefaultHttpHeadersFactory;
+import io.servicetalk.http.api.DefaultStreamingHttpRequestResponseFactory;
+import io.servicetalk.http.api.HttpExecutionContext;
+import io.servicetalk.http.api.HttpResponse;
+import io.servicetalk.http.api.StreamingHttpClient;
+import io.servicetalk.http.api.StreamingHttpClientFilter;
+import io.servicetalk.http.api.StreamingHttpClientFilterFactory;
+import io.servicetalk.http.api.StreamingHttpRequest;
+import io.servicetalk.http.api.StreamingHttpRequestResponseFactory;
+import io.servicetalk.http.api.StreamingHttpRequester;
+import io.servicetalk.http.api.StreamingHttpResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static io.servicetalk.buffer.netty.BufferAllocators.DEFAULT_ALLOCATOR;
+import static io.servicetalk.concurrent.api.Publisher.from;
+import static io.servicetalk.concurrent.internal.DeliberateException.DELIBERATE_EXCEPTION;
+import static io.servicetalk.http.api.FilterFactoryUtils.appendClientFilterFactory;
+import static io.servicetalk.http.api.HttpHeaderNames.ACCEPT;
+import static io.servicetalk.http.api.HttpProtocolVersion.HTTP_1_1;
+import static io.servicetalk.http.api.TestStreamingHttpClient.from;
+import static io.servicetalk.http.utils.RequestCoalescingHttpRequesterFilter.requestKeyWithHeaders;
+import static java.time.Duration.ofSeconds;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RequestCoalescingHttpRequesterFilterTest {
+
+    private static final StreamingHttpRequestResponseFactory REQ_RES_FACTORY =
+            new DefaultStreamingHttpRequestResponseFactory(DEFAULT_ALLOCATOR, DefaultHttpHeadersFactory.INSTANCE,
+                    HTTP_1_1);
+
+    private final List<StreamingHttpRequest> upstreamRequests = new ArrayList<>();
+    private final List<TestSingle<StreamingHttpResponse>> upstreamResponses = new ArrayList<>();
+    private final AtomicBoolean upstreamCancelled = new AtomicBoolean();
+    private final TestExecutor executor = new TestExecutor();
+    private boolean neverRespond;
+    private StreamingHttpClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = newClient(new RequestCoalescingHttpRequesterFilter());
+    }
+
+    private StreamingHttpClient newClient(final RequestCoalescingHttpRequesterFilter filter) {
+        final HttpExecutionContext executionContext = mock(HttpExecutionContext.class);
+        when(executionContext.bufferAllocator()).thenReturn(DEFAULT_ALLOCATOR);
+        when(executionContext.executor()).thenReturn(executor);
+        final StreamingHttpClientFilterFactory upstream = client -> new StreamingHttpClientFilter(client) {
+            @Override
+            protected Single<StreamingHttpResponse> request(final StreamingHttpRequester delegate,
+                                                            final StreamingHttpRequest request) {
+                upstreamRequests.add(request);
+                if (neverRespond) {
+                    return Single.<StreamingHttpResponse>never().whenCancel(() -> upstreamCancelled.set(true));
+                }
+                final TestSingle<StreamingHttpResponse> response = new TestSingle<>();
+                upstreamResponses.add(response);
+                return response;
+            }
+        };
+        return from(REQ_RES_FACTORY, executionContext, appendClientFilterFactory(filter, upstream));
+    }
+
+    @Test
+    void identicalRequestsShareOneUpstreamRequest() throws Exception {
+        final Future<HttpResponse> first = get("/");
+        final Future<HttpResponse> second = get("/");
+        assertThat(upstreamRequests, hasSize(1));
+
+        upstreamResponses.get(0).onSuccess(REQ_RES_FACTORY.ok().setHeader("x", "y")
+                .payloadBody(from(DEFAULT_ALLOCATOR.fromAscii("hello"))));
+        assertThat(first.get().payloadBody().toString(US_ASCII), is("hello"));
+        assertThat(second.get().payloadBody().toString(US_ASCII), is("hello"));
+        assertThat(second.get().headers().get("x").toString(), is("y"));
+    }
+
+    @Test
+    void differentRequestsAreNotCoalesced() {
+        get("/a");
+        get("/b");
+        client.request(client.get("/a").setHeader(ACCEPT, "text/plain")).toFuture();
+        client.request(client.post("/a")).toFuture();
+        assertThat(upstreamRequests, hasSize(4));
+    }
+
+    @Test
+    void headersWhichDoNotVaryResponsesAreIgnored() {
+        client.request(client.get("/").setHeader("x-request-id", "1")).toFuture();
+        client.request(client.get("/").setHeader("x-request-id", "2")).toFuture();
+        assertThat(upstreamRequests, hasSize(1));
+    }
+
+    @Test
+    void customHeadersVaryTheRequestKey() {
+        client = newClient(new RequestCoalescingHttpRequesterFilter(requestKeyWithHeaders("x-tenant")));
+        client.request(client.get("/").setHeader("x-tenant", "a").setHeader(ACCEPT, "text/plain")).toFuture();
+        client.request(client.get("/").setHeader("x-tenant", "a")).toFuture();
+        client.request(client.get("/").setHeader("x-tenant", "b")).toFuture();
+        assertThat(upstreamRequests, hasSize(2));
+    }
+
+    @Test
+    void payloadBodyIsDrainedForCallersWhichDoNotSubscribe() throws Exception {
+        final Duration timeout = ofSeconds(1);
+        client = newClient(new RequestCoalescingHttpRequesterFilter(requestKeyWithHeaders(), timeout));
+        final Future<StreamingHttpResponse> first = client.request(client.get("/")).toFuture();
+        final Future<StreamingHttpResponse> second = client.request(client.get("/")).toFuture();
+        upstreamResponses.get(0).onSuccess(REQ_RES_FACTORY.ok()
+                .payloadBody(from(DEFAULT_ALLOCATOR.fromAscii("hello"))));
+
+        final Future<HttpResponse> aggregated = first.get().toResponse().toFuture();
+        // The second caller never subscribes, the payload body waits for it until the timeout.
+        assertFalse(aggregated.isDone());
+        executor.advanceTimeBy(timeout.getSeconds(), SECONDS);
+        assertThat(aggregated.get().payloadBody().toString(US_ASCII), is("hello"));
+
+        assertThat(assertThrows(ExecutionException.class, () -> second.get().toResponse().toFuture().get())
+                .getCause(), instanceOf(IllegalStateException.class));
+    }
+
+    @Test
+    void requestsAfterResponseAreSentUpstream() throws Exception {
+        final Future<HttpResponse> first = get("/");
+        upstreamResponses.get(0).onSuccess(REQ_RES_FACTORY.ok());
+        first.get();
+        get("/");
+        assertThat(upstreamRequests, hasSize(2));
+    }
+
+    @Test
+    void errorIsDeliveredToAllCallers() {
+        final Future<HttpResponse> first = get("/");
+        final Future<HttpResponse> second = get("/");
+        upstreamResponses.get(0).onError(DELIBERATE_EXCEPTION);
+        assertThat(assertThrows(ExecutionException.class, first::get).getCause(),
+                is(sameInstance(DELIBERATE_EXCEPTION)));
+        assertThat(assertThrows(ExecutionException.class, second::get).getCause(),
+                is(sameInstance(DELIBERATE_EXCEPTION)));
+    }
+
+    @Test
+    void upstreamIsCancelledWhenAllCallersCancel() {
+        neverRespond = true;
+        final Future<HttpResponse> first = get("/");
+        final Future<HttpResponse> second = get("/");
+        assertThat(upstreamRequests, hasSize(1));
+
+        first.cancel(true);
+        assertThat(upstreamCancelled.get(), is(false));
+        second.cancel(true);
+        assertThat(upstreamCancelled.get(), is(true));
+    }
+
+    private Future<HttpResponse> get(final String requestTarget) {
+        return client.request(client.get(requestTarget)).flatMap(StreamingHttpResponse::toResponse).toFuture();
+    }
+}
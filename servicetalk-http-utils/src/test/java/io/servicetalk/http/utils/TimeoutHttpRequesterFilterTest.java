@@ -15,8 +15,12 @@
  */
 package io.servicetalk.http.utils;
 
+import io.servicetalk.concurrent.Cancellable;
 import io.servicetalk.concurrent.TimeSource;
+import io.servicetalk.concurrent.api.DelegatingExecutor;
+import io.servicetalk.concurrent.api.Executor;
 import io.servicetalk.concurrent.api.Single;
+import io.servicetalk.concurrent.api.test.StepVerifiers;
 import io.servicetalk.http.api.FilterableStreamingHttpConnection;
 import io.servicetalk.http.api.HttpConnectionContext;
 import io.servicetalk.http.api.HttpExecutionContext;
@@ -25,9 +29,22 @@ import io.servicetalk.http.api.StreamingHttpRequest;
 import io.servicetalk.http.api.StreamingHttpRequester;
 import io.servicetalk.http.api.StreamingHttpResponse;
 
+import org.junit.jupiter.api.Test;
+
 import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.BiFunction;
 
+import static io.servicetalk.concurrent.api.Executors.immediate;
+import static io.servicetalk.concurrent.api.Executors.withHashedWheelTimer;
+import static io.servicetalk.concurrent.api.Single.never;
+import static java.time.Duration.ofMillis;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -52,6 +69,34 @@ public class TimeoutHttpRequesterFilterTest extends AbstractTimeoutHttpFilterTes
         return applyFilter(new TimeoutHttpRequesterFilter(timeoutForRequest, fullRequestResponse), responseSingle);
     }
 
+    @Test
+    void timeoutIsScheduledOnHashedWheelTimer() {
+        final Queue<String> executeThreads = new ConcurrentLinkedQueue<>();
+        final Executor executor = new DelegatingExecutor(immediate()) {
+            @Override
+            public Cancellable execute(final Runnable task) {
+                executeThreads.add(Thread.currentThread().getName());
+                return super.execute(task);
+            }
+
+            @Override
+            public Cancellable schedule(final Runnable task, final long delay, final TimeUnit unit) {
+                throw new AssertionError("Timeout scheduled on the delegate executor");
+            }
+
+            @Override
+            public Cancellable schedule(final Runnable task, final Duration delay) {
+                throw new AssertionError("Timeout scheduled on the delegate executor");
+            }
+        };
+        StepVerifiers.create(applyFilter(new TimeoutHttpRequesterFilter(ofMillis(1), withHashedWheelTimer(executor)),
+                        never()))
+                .expectError(TimeoutException.class)
+                .verify();
+        // The expired timeout is offloaded from the timer thread to the executor.
+        assertThat(executeThreads, contains(startsWith("servicetalk-global-timer")));
+    }
+
     private static Single<StreamingHttpResponse> applyFilter(TimeoutHttpRequesterFilter filterFactory,
                                                              Single<StreamingHttpResponse> responseSingle) {
         HttpExecutionContext executionContext = mock(HttpExecutionContext.class);
@@ -0,0 +1,273 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.loadbalancer;
+
+import io.servicetalk.client.api.RequestTracker;
+import io.servicetalk.client.api.RequestTracker.ErrorClass;
+
+import java.time.Duration;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Configuration of outlier detection, which temporarily ejects hosts from load balancing selection based on the
+ * outcome of the requests reported through {@link RequestTracker}.
+ * <p>
+ * Two detection mechanisms are supported:
+ * <ul>
+ * <li>Consecutive errors: a host is ejected as soon as it fails the configured number of requests in a row.</li>
+ * <li>Success rate: at every {@link Builder#interval(Duration) interval} the success rate of every host with enough
+ * requests is compared to the mean success rate of all such hosts. Hosts with a success rate lower than the mean by
+ * more than {@link Builder#successRateStdevFactor(double)} standard deviations are ejected.</li>
+ * </ul>
+ * An ejected host is not considered for selection for {@link Builder#baseEjectionTime(Duration)} multiplied by
+ * {@code 2^(n-1)}, where {@code n} is the number of times the host was ejected recently, capped by
+ * {@link Builder#maxEjectionTime(Duration)}. The counter of recent ejections is decremented at every interval during
+ * which the host is not ejected. No more than {@link Builder#maxEjectionPercentage(int)} of hosts are ejected at any
+ * time, but at least one host can always be ejected.
+ */
+public final class OutlierDetectorConfig {
+    static final int DEFAULT_CONSECUTIVE_ERRORS = 5;
+    static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(10);
+    static final Duration DEFAULT_BASE_EJECTION_TIME = Duration.ofSeconds(30);
+    static final Duration DEFAULT_MAX_EJECTION_TIME = Duration.ofSeconds(300);
+    static final int DEFAULT_MAX_EJECTION_PERCENTAGE = 10;
+    static final int DEFAULT_SUCCESS_RATE_MINIMUM_HOSTS = 5;
+    static final int DEFAULT_SUCCESS_RATE_REQUEST_VOLUME = 100;
+    static final double DEFAULT_SUCCESS_RATE_STDEV_FACTOR = 1.9;
+
+    final int consecutiveErrors;
+    final Duration interval;
+    final long baseEjectionTimeNanos;
+    final long maxEjectionTimeNanos;
+    final int maxEjectionPercentage;
+    final boolean successRateEjection;
+    final int successRateMinimumHosts;
+    final int successRateRequestVolume;
+    final double successRateStdevFactor;
+    final boolean cancellationIsError;
+
+    private OutlierDetectorConfig(final Builder builder) {
+        this.consecutiveErrors = builder.consecutiveErrors;
+        this.interval = builder.interval;
+        this.baseEjectionTimeNanos = builder.baseEjectionTime.toNanos();
+        this.maxEjectionTimeNanos = builder.maxEjectionTime.toNanos();
+        this.maxEjectionPercentage = builder.maxEjectionPercentage;
+        this.successRateEjection = builder.successRateEjection;
+        this.successRateMinimumHosts = builder.successRateMinimumHosts;
+        this.successRateRequestVolume = builder.successRateRequestVolume;
+        this.successRateStdevFactor = builder.successRateStdevFactor;
+        this.cancellationIsError = builder.cancellationIsError;
+    }
+
+    boolean isError(final ErrorClass errorClass) {
+        return errorClass.isOriginError() || (cancellationIsError && errorClass == ErrorClass.CANCELLED);
+    }
+
+    @Override
+    public String toString() {
+        return "OutlierDetectorConfig{" +
+                "consecutiveErrors=" + consecutiveErrors +
+                ", interval=" + interval +
+                ", baseEjectionTimeNanos=" + baseEjectionTimeNanos +
+                ", maxEjectionTimeNanos=" + maxEjectionTimeNanos +
+                ", maxEjectionPercentage=" + maxEjectionPercentage +
+                ", successRateEjection=" + successRateEjection +
+                ", successRateMinimumHosts=" + successRateMinimumHosts +
+                ", successRateRequestVolume=" + successRateRequestVolume +
+                ", successRateStdevFactor=" + successRateStdevFactor +
+                ", cancellationIsError=" + cancellationIsError +
+                '}';
+    }
+
+    /**
+     * Builder for {@link OutlierDetectorConfig}.
+     */
+    public static final class Builder {
+        private int consecutiveErrors = DEFAULT_CONSECUTIVE_ERRORS;
+        private Duration interval = DEFAULT_INTERVAL;
+        private Duration baseEjectionTime = DEFAULT_BASE_EJECTION_TIME;
+        private Duration maxEjectionTime = DEFAULT_MAX_EJECTION_TIME;
+        private int maxEjectionPercentage = DEFAULT_MAX_EJECTION_PERCENTAGE;
+        private boolean successRateEjection = true;
+        private int successRateMinimumHosts = DEFAULT_SUCCESS_RATE_MINIMUM_HOSTS;
+        private int successRateRequestVolume = DEFAULT_SUCCESS_RATE_REQUEST_VOLUME;
+        private double successRateStdevFactor = DEFAULT_SUCCESS_RATE_STDEV_FACTOR;
+        private boolean cancellationIsError;
+
+        /**
+         * Creates a new instance with default settings.
+         */
+        public Builder() {
+        }
+
+        /**
+         * Configure the number of consecutive request errors which eject a host.
+         * <p>
+         * Use a negative value of the argument to disable ejection based on consecutive errors.
+         *
+         * @param consecutiveErrors the number of consecutive errors which eject a host.
+         * @return {@code this}.
+         */
+        public Builder consecutiveErrors(final int consecutiveErrors) {
+            if (consecutiveErrors == 0) {
+                throw new IllegalArgumentException("consecutiveErrors should not be 0");
+            }
+            this.consecutiveErrors = consecutiveErrors;
+            return this;
+        }
+
+        /**
+         * Configure the interval between success rate analysis sweeps, which is also the granularity at which the
+         * count of recent ejections of a host decays.
+         *
+         * @param interval the interval between analysis sweeps.
+         * @return {@code this}.
+         */
+        public Builder interval(final Duration interval) {
+            this.interval = requirePositive(interval, "interval");
+            return this;
+        }
+
+        /**
+         * Configure the base duration of an ejection.
+         *
+         * @param baseEjectionTime the duration of the first ejection of a host.
+         * @return {@code this}.
+         */
+        public Builder baseEjectionTime(final Duration baseEjectionTime) {
+            this.baseEjectionTime = requirePositive(baseEjectionTime, "baseEjectionTime");
+            return this;
+        }
+
+        /**
+         * Configure the maximum duration of an ejection.
+         *
+         * @param maxEjectionTime the maximum duration of an ejection.
+         * @return {@code this}.
+         */
+        public Builder maxEjectionTime(final Duration maxEjectionTime) {
+            this.maxEjectionTime = requirePositive(maxEjectionTime, "maxEjectionTime");
+            return this;
+        }
+
+        /**
+         * Configure the maximum percentage of hosts which can be ejected at the same time.
+         *
+         * @param maxEjectionPercentage the maximum percentage of ejected hosts, between {@code 0} and {@code 100}.
+         * @return {@code this}.
+         */
+        public Builder maxEjectionPercentage(final int maxEjectionPercentage) {
+            if (maxEjectionPercentage < 0 || maxEjectionPercentage > 100) {
+                throw new IllegalArgumentException("maxEjectionPercentage: " + maxEjectionPercentage +
+                        " (expected [0, 100])");
+            }
+            this.maxEjectionPercentage = maxEjectionPercentage;
+            return this;
+        }
+
+        /**
+         * Enable or disable ejection based on success rate.
+         *
+         * @param successRateEjection {@code true} to enable ejection based on success rate.
+         * @return {@code this}.
+         */
+        public Builder successRateEjection(final boolean successRateEjection) {
+            this.successRateEjection = successRateEjection;
+            return this;
+        }
+
+        /**
+         * Configure the minimum number of hosts with enough requests in an interval to perform the success rate
+         * analysis.
+         *
+         * @param successRateMinimumHosts the minimum number of hosts to perform the success rate analysis.
+         * @return {@code this}.
+         */
+        public Builder successRateMinimumHosts(final int successRateMinimumHosts) {
+            if (successRateMinimumHosts <= 0) {
+                throw new IllegalArgumentException("successRateMinimumHosts: " + successRateMinimumHosts +
+                        " (expected >0)");
+            }
+            this.successRateMinimumHosts = successRateMinimumHosts;
+            return this;
+        }
+
+        /**
+         * Configure the minimum number of requests in an interval for a host to be included in the success rate
+         * analysis.
+         *
+         * @param successRateRequestVolume the minimum number of requests in an interval.
+         * @return {@code this}.
+         */
+        public Builder successRateRequestVolume(final int successRateRequestVolume) {
+            if (successRateRequestVolume <= 0) {
+                throw new IllegalArgumentException("successRateRequestVolume: " + successRateRequestVolume +
+                        " (expected >0)");
+            }
+            this.successRateRequestVolume = successRateRequestVolume;
+            return this;
+        }
+
+        /**
+         * Configure the number of standard deviations below the mean success rate at which a host is ejected.
+         *
+         * @param successRateStdevFactor the number of standard deviations below the mean success rate.
+         * @return {@code this}.
+         */
+        public Builder successRateStdevFactor(final double successRateStdevFactor) {
+            if (successRateStdevFactor <= 0) {
+                throw new IllegalArgumentException("successRateStdevFactor: " + successRateStdevFactor +
+                        " (expected >0)");
+            }
+            this.successRateStdevFactor = successRateStdevFactor;
+            return this;
+        }
+
+        /**
+         * Configure whether cancelled requests are counted as errors. Timeouts applied by filters in front of the
+         * load balancer are observed as cancellations, so enabling this makes hosts that don't respond in time
+         * eligible for ejection. Cancellations are not counted by default.
+         *
+         * @param cancellationIsError {@code true} to count cancelled requests as errors.
+         * @return {@code this}.
+         */
+        public Builder cancellationIsError(final boolean cancellationIsError) {
+            this.cancellationIsError = cancellationIsError;
+            return this;
+        }
+
+        /**
+         * Builds the {@link OutlierDetectorConfig} configured by this builder.
+         *
+         * @return a new instance of {@link OutlierDetectorConfig} with settings from this builder.
+         */
+        public OutlierDetectorConfig build() {
+            if (maxEjectionTime.compareTo(baseEjectionTime) < 0) {
+                throw new IllegalArgumentException("maxEjectionTime: " + maxEjectionTime +
+                        " (expected >= baseEjectionTime: " + baseEjectionTime + ')');
+            }
+            return new OutlierDetectorConfig(this);
+        }
+
+        private static Duration requirePositive(final Duration duration, final String name) {
+            if (requireNonNull(duration).isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException(name + ": " + duration + " (expected >0)");
+            }
+            return duration;
+        }
+    }
+}
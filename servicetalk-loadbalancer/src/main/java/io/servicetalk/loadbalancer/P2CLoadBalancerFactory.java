@@ -0,0 +1,227 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.loadbalancer;
+
+import io.servicetalk.client.api.ConnectionFactory;
+import io.servicetalk.client.api.LoadBalancedConnection;
+import io.servicetalk.client.api.LoadBalancer;
+import io.servicetalk.client.api.LoadBalancerFactory;
+import io.servicetalk.client.api.RequestTracker;
+import io.servicetalk.client.api.RequestTrackerAware;
+import io.servicetalk.client.api.ServiceDiscovererEvent;
+import io.servicetalk.concurrent.api.Executor;
+import io.servicetalk.concurrent.api.Publisher;
+import io.servicetalk.loadbalancer.RoundRobinLoadBalancer.HealthCheckConfig;
+import io.servicetalk.loadbalancer.RoundRobinLoadBalancer.P2CConfig;
+import io.servicetalk.loadbalancer.RoundRobinLoadBalancerFactory.SharedExecutor;
+import io.servicetalk.transport.api.ExecutionStrategy;
+
+import java.time.Duration;
+import java.util.Collection;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.loadbalancer.RoundRobinLoadBalancerFactory.DEFAULT_HEALTH_CHECK_FAILED_CONNECTIONS_THRESHOLD;
+import static io.servicetalk.loadbalancer.RoundRobinLoadBalancerFactory.DEFAULT_HEALTH_CHECK_INTERVAL;
+import static io.servicetalk.loadbalancer.RoundRobinLoadBalancerFactory.FACTORY_COUNT;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link LoadBalancerFactory} that creates {@link LoadBalancer} instances which use the power of two choices (P2C)
+ * strategy for selecting hosts from a pool of addresses. For every selection two distinct hosts are picked at random
+ * and the one with the lower estimated load is preferred. The load of a host is estimated as the product of its
+ * outstanding requests and an exponentially weighted moving average (EWMA) of its request latency, so slow hosts
+ * receive a smaller share of the traffic.
+ * <p>
+ * Request outstanding counts and latencies are reported by connections implementing {@link RequestTrackerAware}. For
+ * connections which don't report requests every host has the same estimated load and selection degrades to random.
+ * <p>
+ * All other aspects of the created instances, such as handling of {@link ServiceDiscovererEvent events}, connection
+ * reuse, health checking and outlier detection, behave as described for {@link RoundRobinLoadBalancerFactory}.
+ *
+ * @param <ResolvedAddress> The resolved address type.
+ * @param <C> The type of connection.
+ * @see RequestTracker
+ */
+public final class P2CLoadBalancerFactory<ResolvedAddress, C extends LoadBalancedConnection>
+        implements LoadBalancerFactory<ResolvedAddress, C> {
+
+    static final int DEFAULT_MAX_EFFORT = 5;
+    static final Duration DEFAULT_EWMA_HALF_LIFE = Duration.ofSeconds(10);
+
+    @Nullable
+    private final HealthCheckConfig healthCheckConfig;
+    private final P2CConfig p2cConfig;
+    @Nullable
+    private final OutlierDetectorConfig outlierDetectorConfig;
+    private final Executor backgroundExecutor;
+
+    private P2CLoadBalancerFactory(@Nullable final HealthCheckConfig healthCheckConfig, final P2CConfig p2cConfig,
+                                   @Nullable final OutlierDetectorConfig outlierDetectorConfig,
+                                   final Executor backgroundExecutor) {
+        this.healthCheckConfig = healthCheckConfig;
+        this.p2cConfig = p2cConfig;
+        this.outlierDetectorConfig = outlierDetectorConfig;
+        this.backgroundExecutor = backgroundExecutor;
+    }
+
+    @Override
+    public <T extends C> LoadBalancer<T> newLoadBalancer(
+            final String targetResource,
+            final Publisher<? extends Collection<? extends ServiceDiscovererEvent<ResolvedAddress>>> eventPublisher,
+            final ConnectionFactory<ResolvedAddress, T> connectionFactory) {
+        return new RoundRobinLoadBalancer<>(requireNonNull(targetResource) + '#' + FACTORY_COUNT.incrementAndGet(),
+                eventPublisher, connectionFactory, healthCheckConfig, p2cConfig, outlierDetectorConfig, null,
+                false, backgroundExecutor);
+    }
+
+    @Override
+    public ExecutionStrategy requiredOffloads() {
+        // We do not block
+        return ExecutionStrategy.offloadNone();
+    }
+
+    /**
+     * Builder for {@link P2CLoadBalancerFactory}.
+     *
+     * @param <ResolvedAddress> The resolved address type.
+     * @param <C> The type of connection.
+     */
+    public static final class Builder<ResolvedAddress, C extends LoadBalancedConnection> {
+        @Nullable
+        private Executor backgroundExecutor;
+        private Duration healthCheckInterval = DEFAULT_HEALTH_CHECK_INTERVAL;
+        private int healthCheckFailedConnectionsThreshold = DEFAULT_HEALTH_CHECK_FAILED_CONNECTIONS_THRESHOLD;
+        private int maxEffort = DEFAULT_MAX_EFFORT;
+        private Duration ewmaHalfLife = DEFAULT_EWMA_HALF_LIFE;
+        @Nullable
+        private OutlierDetectorConfig outlierDetectorConfig;
+
+        /**
+         * Creates a new instance with default settings.
+         */
+        public Builder() {
+        }
+
+        /**
+         * Configure the maximum number of random host pairs to evaluate for a single selection. If neither host of a
+         * pair has a usable connection nor is eligible for opening a new one, another pair is picked until this number
+         * is reached and the selection fails.
+         *
+         * @param maxEffort maximum number of host pairs to evaluate for a single selection.
+         * @return {@code this}.
+         */
+        public P2CLoadBalancerFactory.Builder<ResolvedAddress, C> maxEffort(int maxEffort) {
+            if (maxEffort <= 0) {
+                throw new IllegalArgumentException("maxEffort: " + maxEffort + " (expected >0)");
+            }
+            this.maxEffort = maxEffort;
+            return this;
+        }
+
+        /**
+         * Configure the half-life of the latency EWMA. Observations older than this value contribute less than half
+         * of their weight to the latency estimate of a host, which lets hosts that were slow in the past receive
+         * traffic again once they stopped being selected.
+         *
+         * @param halfLife the half-life of the latency EWMA.
+         * @return {@code this}.
+         */
+        public P2CLoadBalancerFactory.Builder<ResolvedAddress, C> ewmaHalfLife(Duration halfLife) {
+            if (halfLife.isNegative() || halfLife.isZero()) {
+                throw new IllegalArgumentException("EWMA half-life should be greater than 0");
+            }
+            this.ewmaHalfLife = halfLife;
+            return this;
+        }
+
+        /**
+         * Configure the {@link Executor} used for background health checking.
+         *
+         * @param backgroundExecutor {@link Executor} on which to schedule health checking.
+         * @return {@code this}.
+         * @see RoundRobinLoadBalancerFactory.Builder#backgroundExecutor(Executor)
+         */
+        public P2CLoadBalancerFactory.Builder<ResolvedAddress, C> backgroundExecutor(Executor backgroundExecutor) {
+            this.backgroundExecutor = requireNonNull(backgroundExecutor);
+            return this;
+        }
+
+        /**
+         * Configure an interval for health checking a host that failed to open connections.
+         *
+         * @param interval interval at which a background health check will be scheduled.
+         * @return {@code this}.
+         * @see RoundRobinLoadBalancerFactory.Builder#healthCheckInterval(Duration)
+         */
+        public P2CLoadBalancerFactory.Builder<ResolvedAddress, C> healthCheckInterval(Duration interval) {
+            if (interval.isNegative() || interval.isZero()) {
+                throw new IllegalArgumentException("Health check interval should be greater than 0");
+            }
+            this.healthCheckInterval = interval;
+            return this;
+        }
+
+        /**
+         * Configure a threshold for consecutive connection failures to a host. Use a negative value of the argument
+         * to disable health checking.
+         *
+         * @param threshold number of consecutive connection failures to consider a host unhealthy and eligible for
+         * background health checking. Use negative value to disable the health checking mechanism.
+         * @return {@code this}.
+         * @see RoundRobinLoadBalancerFactory.Builder#healthCheckFailedConnectionsThreshold(int)
+         */
+        public P2CLoadBalancerFactory.Builder<ResolvedAddress, C> healthCheckFailedConnectionsThreshold(
+                int threshold) {
+            if (threshold == 0) {
+                throw new IllegalArgumentException("Health check failed connections threshold should not be 0");
+            }
+            this.healthCheckFailedConnectionsThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * Configure outlier detection, which temporarily ejects hosts from selection based on the outcome of the
+         * requests issued on their connections. Outlier detection is disabled by default.
+         *
+         * @param config {@link OutlierDetectorConfig} to use, or {@code null} to disable outlier detection.
+         * @return {@code this}.
+         * @see RoundRobinLoadBalancerFactory.Builder#outlierDetectorConfig(OutlierDetectorConfig)
+         */
+        public P2CLoadBalancerFactory.Builder<ResolvedAddress, C> outlierDetectorConfig(
+                @Nullable OutlierDetectorConfig config) {
+            this.outlierDetectorConfig = config;
+            return this;
+        }
+
+        /**
+         * Builds the {@link P2CLoadBalancerFactory} configured by this builder.
+         *
+         * @return a new instance of {@link P2CLoadBalancerFactory} with settings from this builder.
+         */
+        public P2CLoadBalancerFactory<ResolvedAddress, C> build() {
+            final P2CConfig p2cConfig = new P2CConfig(maxEffort, ewmaHalfLife);
+            final Executor executor = backgroundExecutor == null ? SharedExecutor.getInstance() : backgroundExecutor;
+            if (healthCheckFailedConnectionsThreshold < 0) {
+                return new P2CLoadBalancerFactory<>(null, p2cConfig, outlierDetectorConfig, executor);
+            }
+
+            HealthCheckConfig healthCheckConfig = new HealthCheckConfig(executor,
+                    healthCheckInterval, healthCheckFailedConnectionsThreshold);
+
+            return new P2CLoadBalancerFactory<>(healthCheckConfig, p2cConfig, outlierDetectorConfig, executor);
+        }
+    }
+}
@@ -19,7 +19,11 @@ import io.servicetalk.client.api.ConnectionFactory;
 import io.servicetalk.client.api.ConnectionRejectedException;
 import io.servicetalk.client.api.LoadBalancedConnection;
 import io.servicetalk.client.api.LoadBalancer;
+import io.servicetalk.client.api.LoadBalancerReadyEvent;
 import io.servicetalk.client.api.NoAvailableHostException;
+import io.servicetalk.client.api.RequestTracker;
+import io.servicetalk.client.api.RequestTracker.ErrorClass;
+import io.servicetalk.client.api.RequestTrackerAware;
 import io.servicetalk.client.api.ServiceDiscovererEvent;
 import io.servicetalk.concurrent.PublisherSource.Processor;
 import io.servicetalk.concurrent.PublisherSource.Subscriber;
@@ -46,10 +50,12 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 import javax.annotation.Nullable;
 
@@ -73,12 +79,16 @@ import static io.servicetalk.concurrent.internal.FlowControlUtils.addWithOverflo
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static java.util.Objects.requireNonNull;
-import static java.util.concurrent.atomic.AtomicIntegerFieldUpdater.newUpdater;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.concurrent.atomic.AtomicReferenceFieldUpdater.newUpdater;
 import static java.util.stream.Collectors.toList;
 
 /**
- * Consult {@link RoundRobinLoadBalancerFactory} for a description of this {@link LoadBalancer} type.
+ * Consult {@link RoundRobinLoadBalancerFactory} and {@link P2CLoadBalancerFactory} for a description of this
+ * {@link LoadBalancer} type. Hosts are picked in round robin order unless a {@link P2CConfig} is provided, in which
+ * case the less loaded host out of two randomly chosen ones is picked.
  *
  * @param <ResolvedAddress> The resolved address type.
  * @param <C> The type of connection.
@@ -94,8 +104,22 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
     private static final AtomicReferenceFieldUpdater<RoundRobinLoadBalancer, List> usedHostsUpdater =
             newUpdater(RoundRobinLoadBalancer.class, List.class, "usedHosts");
     @SuppressWarnings("rawtypes")
-    private static final AtomicIntegerFieldUpdater<RoundRobinLoadBalancer> indexUpdater =
-            newUpdater(RoundRobinLoadBalancer.class, "index");
+    private static final AtomicIntegerFieldUpdater<RoundRobinLoadBalancer> warmedUpUpdater =
+            AtomicIntegerFieldUpdater.newUpdater(RoundRobinLoadBalancer.class, "warmedUp");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<RoundRobinLoadBalancer> weightsVersionUpdater =
+            AtomicIntegerFieldUpdater.newUpdater(RoundRobinLoadBalancer.class, "weightsVersion");
+
+    /**
+     * Number of independent round robin cursors. Callers on different threads use different cursors to avoid contending
+     * on a single counter, while each cursor still visits hosts in round robin order.
+     */
+    private static final int CURSOR_STRIPES = cursorStripes(Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Distance between cursors in {@link #cursors}, so that each cursor resides on its own cache line.
+     */
+    private static final int CURSOR_PADDING = 16;
 
     /**
      * With a relatively small number of connections we can minimize connection creation under moderate concurrency by
@@ -114,14 +138,29 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
      */
     private static final float SEARCH_FACTOR = 0.75f;
 
-    @SuppressWarnings("unused")
-    private volatile int index;
+    private final AtomicIntegerArray cursors = new AtomicIntegerArray(CURSOR_STRIPES * CURSOR_PADDING);
     private volatile List<Host<ResolvedAddress, C>> usedHosts = emptyList();
+    private volatile int warmedUp;
+    /**
+     * Incremented after the weight or priority of a host in {@link #usedHosts} changed.
+     */
+    private volatile int weightsVersion;
+    @Nullable
+    private volatile WeightedHosts<ResolvedAddress, C> weightedHosts;
 
     private final String targetResource;
+    private final Processor<Object, Object> eventStreamProcessor;
     private final Publisher<Object> eventStream;
     private final SequentialCancellable discoveryCancellable = new SequentialCancellable();
     private final ConnectionFactory<ResolvedAddress, ? extends C> connectionFactory;
+    @Nullable
+    private final P2CConfig p2cConfig;
+    @Nullable
+    private final OutlierDetector<ResolvedAddress, C> outlierDetector;
+    @Nullable
+    private final WarmUp<ResolvedAddress, C> warmUp;
+    private final int readyConnections;
+    private final boolean weightedSelection;
     private final ListenableAsyncCloseable asyncCloseable;
 
     /**
@@ -141,10 +180,60 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
             final Publisher<? extends Collection<? extends ServiceDiscovererEvent<ResolvedAddress>>> eventPublisher,
             final ConnectionFactory<ResolvedAddress, ? extends C> connectionFactory,
             @Nullable final HealthCheckConfig healthCheckConfig) {
+        this(targetResource, eventPublisher, connectionFactory, healthCheckConfig, null, null, null, false, null);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param targetResource {@link String} representation of the target resource for which this instance
+     * is performing load balancing.
+     * @param eventPublisher provides a stream of addresses to connect to.
+     * @param connectionFactory a function which creates new connections.
+     * @param healthCheckConfig configuration for the health checking mechanism, which monitors hosts that
+     * are unable to have a connection established. Providing {@code null} disables this mechanism (meaning the host
+     * continues being eligible for connecting on the request path).
+     * @param p2cConfig configuration for the power of two choices host selection. Providing {@code null} selects hosts
+     * in round robin order.
+     * @param outlierDetectorConfig configuration for ejecting hosts based on the outcome of requests. Providing
+     * {@code null} disables this mechanism.
+     * @param warmUpConfig configuration for establishing connections in the background when hosts are added.
+     * Providing {@code null} creates connections only on the request path.
+     * @param weightedSelection {@code true} to pick hosts proportionally to their
+     * {@link ServiceDiscovererEvent#weight() weight} among the usable hosts with the lowest
+     * {@link ServiceDiscovererEvent#priority() priority} value.
+     * @param backgroundExecutor {@link Executor} used for outlier detection, required if
+     * {@code outlierDetectorConfig} is not {@code null}.
+     * @see io.servicetalk.loadbalancer.RoundRobinLoadBalancerFactory
+     * @see io.servicetalk.loadbalancer.P2CLoadBalancerFactory
+     */
+    RoundRobinLoadBalancer(
+            final String targetResource,
+            final Publisher<? extends Collection<? extends ServiceDiscovererEvent<ResolvedAddress>>> eventPublisher,
+            final ConnectionFactory<ResolvedAddress, ? extends C> connectionFactory,
+            @Nullable final HealthCheckConfig healthCheckConfig,
+            @Nullable final P2CConfig p2cConfig,
+            @Nullable final OutlierDetectorConfig outlierDetectorConfig,
+            @Nullable final WarmUpConfig warmUpConfig,
+            final boolean weightedSelection,
+            @Nullable final Executor backgroundExecutor) {
         this.targetResource = requireNonNull(targetResource);
-        Processor<Object, Object> eventStreamProcessor = newPublisherProcessorDropHeadOnOverflow(32);
+        this.eventStreamProcessor = newPublisherProcessorDropHeadOnOverflow(32);
         this.eventStream = fromSource(eventStreamProcessor);
         this.connectionFactory = requireNonNull(connectionFactory);
+        this.p2cConfig = p2cConfig;
+        this.weightedSelection = weightedSelection;
+        this.outlierDetector = outlierDetectorConfig == null ? null :
+                new OutlierDetector<>(this.targetResource, outlierDetectorConfig, requireNonNull(backgroundExecutor),
+                        () -> this.usedHosts);
+        if (warmUpConfig == null || warmUpConfig.minConnectionsPerHost <= 0) {
+            this.warmUp = null;
+            this.readyConnections = 0;
+        } else {
+            this.warmUp = new WarmUp<>(warmUpConfig.minConnectionsPerHost, connectionFactory, warmUpConfig.executor,
+                    this::onWarmUpProgress);
+            this.readyConnections = warmUpConfig.readyConnections;
+        }
 
         toSource(eventPublisher).subscribe(
                 new Subscriber<Collection<? extends ServiceDiscovererEvent<ResolvedAddress>>>() {
@@ -178,7 +267,7 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
                                         (List<Host<ResolvedAddress, C>>) oldHosts;
 
                                 if (AVAILABLE.equals(eventStatus)) {
-                                    return addHostToList(oldHostsTyped, addr);
+                                    return addHostToList(oldHostsTyped, event);
                                 } else if (EXPIRED.equals(eventStatus)) {
                                     if (oldHostsTyped.isEmpty()) {
                                         return emptyList();
@@ -205,15 +294,33 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
                             targetResource, usedAddresses.size(), usedAddresses);
 
                     if (AVAILABLE.equals(eventStatus)) {
-                        if (usedAddresses.size() == 1) {
+                        if (warmUp != null) {
+                            warmUp(usedAddresses, event.address());
+                        }
+                        if (readyConnections > 0) {
+                            onWarmUpProgress();
+                        } else if (usedAddresses.size() == 1) {
                             eventStreamProcessor.onNext(LOAD_BALANCER_READY_EVENT);
                         }
                     } else if (usedAddresses.isEmpty()) {
+                        if (readyConnections > 0) {
+                            // Wait for connections again once new hosts become available.
+                            warmedUp = 0;
+                        }
                         eventStreamProcessor.onNext(LOAD_BALANCER_NOT_READY_EVENT);
                     }
                 }
             }
 
+            private void warmUp(final List<Host<ResolvedAddress, C>> hosts, final ResolvedAddress addr) {
+                for (Host<ResolvedAddress, C> host : hosts) {
+                    if (host.address.equals(addr)) {
+                        host.startWarmUp();
+                        break;
+                    }
+                }
+            }
+
             private List<Host<ResolvedAddress, C>> markHostAsExpired(
                     final List<Host<ResolvedAddress, C>> oldHostsTyped, final ResolvedAddress addr) {
                 for (Host<ResolvedAddress, C> host : oldHostsTyped) {
@@ -226,8 +333,10 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
                 return oldHostsTyped;
             }
 
-            private Host<ResolvedAddress, C> createHost(ResolvedAddress addr) {
-                Host<ResolvedAddress, C> host = new Host<>(targetResource, addr, healthCheckConfig);
+            private Host<ResolvedAddress, C> createHost(ServiceDiscovererEvent<ResolvedAddress> event) {
+                Host<ResolvedAddress, C> host = new Host<>(targetResource, event.address(), healthCheckConfig,
+                        p2cConfig, outlierDetector, warmUp);
+                host.updateWeight(event.weight(), event.priority());
                 host.onClose().afterFinally(() ->
                         usedHostsUpdater.updateAndGet(RoundRobinLoadBalancer.this, previousHosts -> {
                                     @SuppressWarnings("unchecked")
@@ -240,12 +349,13 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
             }
 
             private List<Host<ResolvedAddress, C>> addHostToList(
-                    List<Host<ResolvedAddress, C>> oldHostsTyped, ResolvedAddress addr) {
+                    List<Host<ResolvedAddress, C>> oldHostsTyped, ServiceDiscovererEvent<ResolvedAddress> event) {
                 if (oldHostsTyped.isEmpty()) {
-                    return singletonList(createHost(addr));
+                    return singletonList(createHost(event));
                 }
 
                 // duplicates are not allowed
+                final ResolvedAddress addr = event.address();
                 for (Host<ResolvedAddress, C> host : oldHostsTyped) {
                     if (host.address.equals(addr)) {
                         if (!host.markActiveIfNotClosed()) {
@@ -254,13 +364,19 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
                             // of replacing the usedHosts array the marking succeeds so we will not add a new entry.
                             break;
                         }
+                        // Subsequent events for the same address override its weight and priority. This function
+                        // may run again if the CAS fails, the version is bumped by the run which changed the values
+                        // and after they are visible, so the weighted selection always rebuilds its weights.
+                        if (host.updateWeight(event.weight(), event.priority())) {
+                            weightsVersionUpdater.incrementAndGet(RoundRobinLoadBalancer.this);
+                        }
                         return oldHostsTyped;
                     }
                 }
 
                 final List<Host<ResolvedAddress, C>> newHosts = new ArrayList<>(oldHostsTyped.size() + 1);
                 newHosts.addAll(oldHostsTyped);
-                newHosts.add(createHost(addr));
+                newHosts.add(createHost(event));
                 return newHosts;
             }
 
@@ -307,10 +423,51 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
             @SuppressWarnings("unchecked")
             List<Host<ResolvedAddress, C>> currentList = usedHostsUpdater.getAndSet(this, CLOSED_LIST);
             discoveryCancellable.cancel();
+            if (outlierDetector != null) {
+                outlierDetector.cancel();
+            }
             eventStreamProcessor.onComplete();
             CompositeCloseable cc = newCompositeCloseable().appendAll(currentList).appendAll(connectionFactory);
             return graceful ? cc.closeAsyncGracefully() : cc.closeAsync();
         });
+        if (outlierDetector != null) {
+            outlierDetector.start();
+        }
+    }
+
+    private static int cursorStripes(final int availableProcessors) {
+        // Power of two, so a stripe can be picked with a mask. Capped to bound the footprint of each instance.
+        return Math.min(16, Integer.highestOneBit(Math.max(1, availableProcessors - 1)) << 1);
+    }
+
+    /**
+     * Signals {@link LoadBalancerReadyEvent readiness} once enough connections are established, or once all connection
+     * attempts of the warm-up finished, in which case waiting longer would not help.
+     */
+    private void onWarmUpProgress() {
+        if (readyConnections <= 0 || warmedUp != 0) {
+            return;
+        }
+        final List<Host<ResolvedAddress, C>> hosts = usedHosts;
+        if (hosts.isEmpty()) {
+            return;
+        }
+        int connections = 0;
+        boolean warmingUp = false;
+        for (Host<ResolvedAddress, C> host : hosts) {
+            connections += host.connState.connections.length;
+            warmingUp |= host.warmUpInFlight > 0;
+        }
+        if ((connections >= readyConnections || !warmingUp) && warmedUpUpdater.compareAndSet(this, 0, 1)) {
+            LOGGER.debug("Load balancer for {}: {} connection(s) established, signalling readiness.",
+                    targetResource, connections);
+            eventStreamProcessor.onNext(LOAD_BALANCER_READY_EVENT);
+        }
+    }
+
+    private int nextCursor() {
+        final int stripe = (int) Thread.currentThread().getId() & (CURSOR_STRIPES - 1);
+        return cursors.getAndIncrement(stripe * CURSOR_PADDING) & Integer.MAX_VALUE;
     }
 
     private static <T> Single<T> failedLBClosed(String targetResource) {
@@ -319,7 +476,17 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
 
     @Override
     public Single<C> selectConnection(Predicate<C> selector) {
-        return defer(() -> selectConnection0(selector).shareContextOnSubscribe());
+        return defer(() -> selectConnection0(selector, true, true).shareContextOnSubscribe());
+    }
+
+    @Override
+    public Single<C> selectEstablishedConnection(Predicate<C> selector) {
+        return defer(() -> selectConnection0(selector, true, false).shareContextOnSubscribe());
+    }
+
+    @Override
+    public Single<C> newConnection(Predicate<C> selector) {
+        return defer(() -> selectConnection0(selector, false, true).shareContextOnSubscribe());
     }
 
     @Override
@@ -331,11 +498,13 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
     public String toString() {
         return "RoundRobinLoadBalancer{" +
                 "targetResource='" + targetResource + '\'' +
+                ", policy=" + (p2cConfig != null ? "p2c" : weightedSelection ? "weighted" : "round-robin") +
+                ", outlierDetection=" + (outlierDetector != null) +
                 ", usedHosts=" + usedHosts +
                 '}';
     }
 
-    private Single<C> selectConnection0(Predicate<C> selector) {
+    private Single<C> selectConnection0(Predicate<C> selector, boolean useEstablished, boolean openNew) {
         final List<Host<ResolvedAddress, C>> usedHosts = this.usedHosts;
         if (usedHosts.isEmpty()) {
             return usedHosts == CLOSED_LIST ? failedLBClosed(targetResource) :
@@ -344,41 +513,97 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
                         "No hosts are available to connect for " + targetResource + ".",
                         RoundRobinLoadBalancer.class, "selectConnection0(...)"));
         }
+        if (readyConnections > 0 && warmedUp == 0) {
+            // Callers that wait for LoadBalancerReadyEvent retry once the warm-up finishes.
+            return failed(StacklessNoAvailableHostException.newInstance(
+                    "Connections for " + targetResource + " are being warmed up.",
+                    RoundRobinLoadBalancer.class, "selectConnection0(...)"));
+        }
 
-        // try one loop over hosts and if all are expired, give up
-        final int cursor = (indexUpdater.getAndIncrement(this) & Integer.MAX_VALUE) % usedHosts.size();
         final ThreadLocalRandom rnd = ThreadLocalRandom.current();
-        Host<ResolvedAddress, C> pickedHost = null;
-        for (int i = 0; i < usedHosts.size(); ++i) {
+        Host<ResolvedAddress, C> pickedHost = weightedSelection ? selectHostByWeight(usedHosts, rnd) : null;
+        if (pickedHost != null) {
+            final C connection = useEstablished ? selectFromHost(pickedHost, selector, rnd) : null;
+            if (connection != null) {
+                return succeeded(connection);
+            }
+            // The host was picked among active and healthy hosts, open a new connection to it below.
+        } else if (p2cConfig == null || usedHosts.size() == 1) {
+            // try one loop over hosts and if all are expired, give up
+            final int size = usedHosts.size();
             // for a particular iteration we maintain a local cursor without contention with other requests
-            int localCursor = (cursor + i) % usedHosts.size();
-            final Host<ResolvedAddress, C> host = usedHosts.get(localCursor);
-            assert host != null : "Host can't be null.";
-
-            // Try first to see if an existing connection can be used
-            final Object[] connections = host.connState.connections;
-            // With small enough search space, attempt all connections.
-            // Back off after exploring most of the search space, it gives diminishing returns.
-            final int attempts = connections.length < MIN_SEARCH_SPACE ?
-                    connections.length : (int) (connections.length * SEARCH_FACTOR);
-            for (int j = 0; j < attempts; ++j) {
-                @SuppressWarnings("unchecked")
-                final C connection = (C) connections[rnd.nextInt(connections.length)];
-                if (selector.test(connection)) {
+            int localCursor = nextCursor() % size;
+            for (int i = 0; i < size; ++i, localCursor = localCursor == size - 1 ? 0 : localCursor + 1) {
+                final Host<ResolvedAddress, C> host = usedHosts.get(localCursor);
+                assert host != null : "Host can't be null.";
+                if (host.isEjected()) {
+                    continue;
+                }
+
+                // Try first to see if an existing connection can be used
+                final C connection = useEstablished ? selectFromHost(host, selector, rnd) : null;
+                if (connection != null) {
                     return succeeded(connection);
                 }
+
+                // Don't open new connections for expired or unhealthy hosts, try a different one.
+                // Unhealthy hosts have no open connections – that's why we don't fail earlier, the loop will not
+                // progress.
+                if (openNew && host.isActiveAndHealthy()) {
+                    pickedHost = host;
+                    break;
+                }
             }
+        } else {
+            // Pick two distinct hosts at random and prefer the one with the lower load. Repeat a bounded number of
+            // times if neither of the hosts has a usable connection nor is eligible for opening a new one.
+            final long nowNs = System.nanoTime();
+            for (int i = 0; i < p2cConfig.maxEffort; ++i) {
+                final int i1 = rnd.nextInt(usedHosts.size());
+                int i2 = rnd.nextInt(usedHosts.size() - 1);
+                if (i2 >= i1) {
+                    ++i2;
+                }
+                Host<ResolvedAddress, C> first = usedHosts.get(i1);
+                Host<ResolvedAddress, C> second = usedHosts.get(i2);
+                if (first.isEjected() || (!second.isEjected() && second.cost(nowNs) < first.cost(nowNs))) {
+                    final Host<ResolvedAddress, C> tmp = first;
+                    first = second;
+                    second = tmp;
+                }
+                if (first.isEjected()) {
+                    // Both hosts are ejected, try another pair.
+                    continue;
+                }
 
-            // Don't open new connections for expired or unhealthy hosts, try a different one.
-            // Unhealthy hosts have no open connections – that's why we don't fail earlier, the loop will not progress.
-            if (host.isActiveAndHealthy()) {
-                pickedHost = host;
-                break;
+                C connection = useEstablished ? selectFromHost(first, selector, rnd) : null;
+                if (connection != null) {
+                    return succeeded(connection);
+                }
+                if (openNew && first.isActiveAndHealthy()) {
+                    pickedHost = first;
+                    break;
+                }
+                if (second.isEjected()) {
+                    continue;
+                }
+                connection = useEstablished ? selectFromHost(second, selector, rnd) : null;
+                if (connection != null) {
+                    return succeeded(connection);
+                }
+                if (openNew && second.isActiveAndHealthy()) {
+                    pickedHost = second;
+                    break;
+                }
             }
         }
+        if (!openNew) {
+            return failed(StacklessNoAvailableHostException.newInstance("None of the established connections for " +
+                            targetResource + " was selected.", RoundRobinLoadBalancer.class, "selectConnection0(...)"));
+        }
         if (pickedHost == null) {
             return failed(StacklessNoAvailableHostException.newInstance("Failed to pick an active host for " +
-                            targetResource + ". Either all are busy, expired, or unhealthy: " + usedHosts,
+                            targetResource + ". Either all are busy, expired, unhealthy, or ejected: " + usedHosts,
                     RoundRobinLoadBalancer.class, "selectConnection0(...)"));
         }
         // No connection was selected: create a new one.
@@ -413,6 +638,192 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
                 });
     }
 
+    /**
+     * Picks a host at random with a probability proportional to its weight, among the active, healthy and not ejected
+     * hosts which share the lowest priority value. Hosts with a higher priority value are only picked when none of the
+     * hosts with a lower value are eligible.
+     *
+     * @return the picked host, or {@code null} if none of the hosts is eligible, in which case the caller falls back
+     * to the round robin order, which also considers hosts that can only serve requests on existing connections.
+     */
+    @Nullable
+    private Host<ResolvedAddress, C> selectHostByWeight(final List<Host<ResolvedAddress, C>> hosts,
+                                                        final ThreadLocalRandom rnd) {
+        // Read the version before the weights, a concurrent update then triggers another rebuild.
+        final int version = weightsVersion;
+        WeightedHosts<ResolvedAddress, C> weighted = weightedHosts;
+        if (weighted == null || weighted.hosts != hosts || weighted.version != version) {
+            // The cumulative weights are only rebuilt when the list of hosts or the weight of a host changes.
+            weighted = new WeightedHosts<>(hosts, version);
+            weightedHosts = weighted;
+        }
+        return weighted.select(rnd);
+    }
+
+    /**
+     * Hosts grouped by priority, with the cumulative weights of each group precomputed for a given list of hosts.
+     */
+    private static final class WeightedHosts<Addr, C extends LoadBalancedConnection> {
+        private static final int MAX_RANDOM_PICKS = 4;
+
+        final List<Host<Addr, C>> hosts;
+        final int version;
+        private final Object[][] tiers;
+        private final long[][] cumulativeWeights;
+
+        WeightedHosts(final List<Host<Addr, C>> hosts, final int version) {
+            this.hosts = hosts;
+            this.version = version;
+            // Priorities are read once, so that concurrent updates can't break the sort order or the grouping.
+            final long[] byPriority = new long[hosts.size()];
+            for (int i = 0; i < byPriority.length; ++i) {
+                byPriority[i] = ((long) hosts.get(i).priority << 32) | i;
+            }
+            Arrays.sort(byPriority);
+            final List<Object[]> tiersList = new ArrayList<>();
+            final List<long[]> weightsList = new ArrayList<>();
+            int from = 0;
+            while (from < byPriority.length) {
+                final int priority = (int) (byPriority[from] >> 32);
+                int to = from + 1;
+                while (to < byPriority.length && (int) (byPriority[to] >> 32) == priority) {
+                    ++to;
+                }
+                final Object[] tier = new Object[to - from];
+                final long[] weights = new long[tier.length];
+                long total = 0;
+                for (int i = 0; i < tier.length; ++i) {
+                    final Host<Addr, C> host = hosts.get((int) byPriority[from + i]);
+                    tier[i] = host;
+                    total += host.weight;
+                    weights[i] = total;
+                }
+                tiersList.add(tier);
+                weightsList.add(weights);
+                from = to;
+            }
+            tiers = tiersList.toArray(new Object[0][]);
+            cumulativeWeights = weightsList.toArray(new long[0][]);
+        }
+
+        @Nullable
+        Host<Addr, C> select(final ThreadLocalRandom rnd) {
+            for (int t = 0; t < tiers.length; ++t) {
+                final Object[] tier = tiers[t];
+                final long[] weights = cumulativeWeights[t];
+                final long totalWeight = weights[weights.length - 1];
+                final int picks = Math.min(tier.length, MAX_RANDOM_PICKS);
+                for (int i = 0; i < picks; ++i) {
+                    int idx = Arrays.binarySearch(weights, rnd.nextLong(totalWeight));
+                    idx = idx >= 0 ? idx + 1 : -idx - 1;
+                    @SuppressWarnings("unchecked")
+                    final Host<Addr, C> host = (Host<Addr, C>) tier[idx];
+                    if (host.isEligibleByWeight()) {
+                        return host;
+                    }
+                }
+                // Several picks hit ineligible hosts, only then pay for a scan of the eligible hosts of this tier.
+                final Host<Addr, C> host = selectEligible(tier, rnd);
+                if (host != null) {
+                    return host;
+                }
+            }
+            return null;
+        }
+
+        @Nullable
+        private static <Addr, C extends LoadBalancedConnection> Host<Addr, C> selectEligible(
+                final Object[] tier, final ThreadLocalRandom rnd) {
+            long totalWeight = 0;
+            for (Object o : tier) {
+                @SuppressWarnings("unchecked")
+                final Host<Addr, C> host = (Host<Addr, C>) o;
+                if (host.isEligibleByWeight()) {
+                    totalWeight += host.weight;
+                }
+            }
+            if (totalWeight == 0) {
+                return null;
+            }
+            long remaining = rnd.nextLong(totalWeight);
+            for (Object o : tier) {
+                @SuppressWarnings("unchecked")
+                final Host<Addr, C> host = (Host<Addr, C>) o;
+                if (host.isEligibleByWeight()) {
+                    remaining -= host.weight;
+                    if (remaining < 0) {
+                        return host;
+                    }
+                }
+            }
+            // Hosts changed their state concurrently, let the caller fall back to the round robin order.
+            return null;
+        }
+    }
+
+    @Nullable
+    private static <C extends LoadBalancedConnection> C selectFromHost(final Host<?, C> host,
+                                                                      final Predicate<C> selector,
+                                                                      final ThreadLocalRandom rnd) {
+        final Object[] connections = host.connState.connections;
+        final int size = connections.length;
+        if (size == 0) {
+            return null;
+        }
+        // With small enough search space, attempt all connections.
+        // Back off after exploring most of the search space, it gives diminishing returns.
+        final int attempts = size < MIN_SEARCH_SPACE ? size : (int) (size * SEARCH_FACTOR);
+        // Visit the connections in a random order: start at a random offset and advance by a random step which is
+        // coprime with the size, so every connection is tested at most once. A linear scan would favour the
+        // connections right after a run of busy ones, as every scan starting in that run ends up on the same one.
+        int i = 0;
+        int step = 1;
+        if (size > 1) {
+            i = rnd.nextInt(size);
+            step = coprimeStep(size, rnd);
+            // Start from the neighbour with the higher score, e.g. the connection with more available concurrency for
+            // multiplexed protocols. This spreads requests between connections rather than filling up one at a time.
+            final int next = (i + step) % size;
+            if (((LoadBalancedConnection) connections[next]).score() >
+                    ((LoadBalancedConnection) connections[i]).score()) {
+                i = next;
+            }
+        }
+        for (int j = 0; j < attempts; ++j) {
+            @SuppressWarnings("unchecked")
+            final C connection = (C) connections[i];
+            if (selector.test(connection)) {
+                return connection;
+            }
+            i += step;
+            if (i >= size) {
+                i -= size;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns a random step in {@code [1, size)} which is coprime with {@code size}, so that stepping through an array
+     * of {@code size} elements visits every element once.
+     */
+    private static int coprimeStep(final int size, final ThreadLocalRandom rnd) {
+        int step = 1 + rnd.nextInt(size - 1);
+        while (gcd(step, size) != 1) {
+            step = step == size - 1 ? 1 : step + 1;
+        }
+        return step;
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            final int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
     @Override
     public Completable onClose() {
         return asyncCloseable.onClose();
@@ -445,7 +856,61 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
         }
     }
 
-    private static final class Host<Addr, C extends LoadBalancedConnection> implements ListenableAsyncCloseable {
+    static final class WarmUpConfig {
+        private final int minConnectionsPerHost;
+        private final int readyConnections;
+        private final Executor executor;
+
+        WarmUpConfig(final int minConnectionsPerHost, final int readyConnections, final Executor executor) {
+            this.minConnectionsPerHost = minConnectionsPerHost;
+            this.readyConnections = readyConnections;
+            this.executor = executor;
+        }
+    }
+
+    private static final class WarmUp<Addr, C extends LoadBalancedConnection> {
+        /**
+         * Closed connections are replaced immediately for the first round of {@link #minConnections} replacements,
+         * later rounds are delayed by an exponential backoff with full jitter starting at this value.
+         */
+        private static final long REPLACEMENT_BACKOFF_NS = MILLISECONDS.toNanos(100);
+        /**
+         * Closed connections are not replaced anymore after this number of consecutive rounds of replacements, until
+         * the host becomes available or healthy again.
+         */
+        private static final int MAX_REPLACEMENT_ROUNDS = 6;
+        /**
+         * Replacements are no longer considered consecutive if no connection closed for this duration.
+         */
+        private static final long REPLACEMENT_RESET_NS = SECONDS.toNanos(30);
+
+        private final int minConnections;
+        private final ConnectionFactory<Addr, ? extends C> connectionFactory;
+        private final Executor executor;
+        private final Runnable onProgress;
+
+        WarmUp(final int minConnections, final ConnectionFactory<Addr, ? extends C> connectionFactory,
+               final Executor executor, final Runnable onProgress) {
+            this.minConnections = minConnections;
+            this.connectionFactory = connectionFactory;
+            this.executor = executor;
+            this.onProgress = onProgress;
+        }
+    }
+
+    static final class P2CConfig {
+        private final int maxEffort;
+        private final double ewmaDecayNanos;
+
+        P2CConfig(final int maxEffort, final Duration ewmaHalfLife) {
+            this.maxEffort = maxEffort;
+            // Convert half-life into the time constant of the exponential decay: e^(-t/tau) == 0.5 for t == halfLife
+            this.ewmaDecayNanos = ewmaHalfLife.toNanos() / Math.log(2);
+        }
+    }
+
+    private static final class Host<Addr, C extends LoadBalancedConnection> implements ListenableAsyncCloseable,
+                                                                                        RequestTracker {
 
         private enum State {
             // The enum is not exhaustive, as other states have dynamic properties.
@@ -463,22 +928,85 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
         @SuppressWarnings("rawtypes")
         private static final AtomicReferenceFieldUpdater<Host, ConnState> connStateUpdater =
                 AtomicReferenceFieldUpdater.newUpdater(Host.class, ConnState.class, "connState");
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<Host> pendingUpdater =
+                AtomicIntegerFieldUpdater.newUpdater(Host.class, "pending");
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<Host> consecutiveErrorsUpdater =
+                AtomicIntegerFieldUpdater.newUpdater(Host.class, "consecutiveErrors");
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<Host> intervalSuccessesUpdater =
+                AtomicIntegerFieldUpdater.newUpdater(Host.class, "intervalSuccesses");
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<Host> intervalErrorsUpdater =
+                AtomicIntegerFieldUpdater.newUpdater(Host.class, "intervalErrors");
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<Host> warmUpInFlightUpdater =
+                AtomicIntegerFieldUpdater.newUpdater(Host.class, "warmUpInFlight");
 
         private final String targetResource;
         final Addr address;
         @Nullable
         private final HealthCheckConfig healthCheckConfig;
+        @Nullable
+        private final P2CConfig p2cConfig;
+        @Nullable
+        private final OutlierDetector<Addr, C> outlierDetector;
+        @Nullable
+        private final WarmUp<Addr, C> warmUp;
         private final ListenableAsyncCloseable closeable;
         private volatile ConnState connState = ACTIVE_EMPTY_CONN_STATE;
-
-        Host(String targetResource, Addr address, @Nullable HealthCheckConfig healthCheckConfig) {
+        private volatile int warmUpInFlight;
+        // Consecutive replacements of closed connections, see replaceClosedConnection. Updated without
+        // synchronization, a lost update only delays when the backoff kicks in.
+        private volatile int warmUpReplacements;
+        private volatile long lastWarmUpReplacementNs;
+        // Weight and priority from the latest ServiceDiscovererEvent for this address.
+        private volatile int weight = 1;
+        private volatile int priority;
+        @SuppressWarnings("unused")
+        private volatile int pending;
+        // Latency EWMA and its last update time are updated without synchronization. Concurrent updates may lose an
+        // observation, which is acceptable for a load estimate and avoids contention on the request path.
+        private volatile long ewmaNs;
+        private volatile long lastUpdateNs;
+        // Outlier detection state, see OutlierDetector.
+        @SuppressWarnings("unused")
+        private volatile int consecutiveErrors;
+        @SuppressWarnings("unused")
+        private volatile int intervalSuccesses;
+        @SuppressWarnings("unused")
+        private volatile int intervalErrors;
+        private volatile boolean ejected;
+        private volatile long ejectedUntilNs;
+        // Guarded by the OutlierDetector's monitor.
+        private int ejectionCount;
+
+        Host(String targetResource, Addr address, @Nullable HealthCheckConfig healthCheckConfig,
+             @Nullable P2CConfig p2cConfig, @Nullable OutlierDetector<Addr, C> outlierDetector,
+             @Nullable WarmUp<Addr, C> warmUp) {
             this.targetResource = requireNonNull(targetResource);
             this.address = requireNonNull(address);
             this.healthCheckConfig = healthCheckConfig;
+            this.p2cConfig = p2cConfig;
+            this.outlierDetector = outlierDetector;
+            this.warmUp = warmUp;
+            this.lastUpdateNs = System.nanoTime();
             this.closeable = toAsyncCloseable(graceful ->
                     graceful ? doClose(AsyncCloseable::closeAsyncGracefully) : doClose(AsyncCloseable::closeAsync));
         }
 
+        boolean updateWeight(final int weight, final int priority) {
+            // A zero weight (e.g. of a DNS SRV record) still leaves the host with a small chance of being selected.
+            final int newWeight = Math.max(1, weight);
+            if (this.weight == newWeight && this.priority == priority) {
+                return false;
+            }
+            this.weight = newWeight;
+            this.priority = priority;
+            return true;
+        }
+
         boolean markActiveIfNotClosed() {
             final Object oldState = connStateUpdater.getAndUpdate(this, oldConnState -> {
                 if (oldConnState.state == State.EXPIRED) {
@@ -542,6 +1070,7 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
             if (oldState != originalHealthCheckState) {
                 cancelIfHealthCheck(oldState);
             }
+            startWarmUp();
         }
 
         void markUnhealthy(final Throwable cause, final ConnectionFactory<Addr, ? extends C> connectionFactory) {
@@ -582,11 +1111,192 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
             }
         }
 
+        /**
+         * Starts to open connections in the background after the host became available or healthy, which resets the
+         * backoff of {@link #replaceClosedConnection()}.
+         */
+        void startWarmUp() {
+            warmUpReplacements = 0;
+            warmUp();
+        }
+
+        /**
+         * Replaces a closed connection if this host is expected to keep a minimum number of connections.
+         * <p>
+         * Peers may close connections right after they are established (e.g. when they are overloaded or shutting
+         * down). To avoid a tight reconnect loop, only the first round of replacements is immediate, following rounds
+         * are delayed by an exponential backoff with full jitter and replacements stop after
+         * {@link WarmUp#MAX_REPLACEMENT_ROUNDS} consecutive rounds.
+         */
+        private void replaceClosedConnection() {
+            final WarmUp<Addr, C> warmUp = this.warmUp;
+            if (warmUp == null) {
+                return;
+            }
+            final long nowNs = warmUp.executor.currentTime(NANOSECONDS);
+            final int replacements = nowNs - lastWarmUpReplacementNs >= WarmUp.REPLACEMENT_RESET_NS ? 1 :
+                    warmUpReplacements + 1;
+            warmUpReplacements = replacements;
+            lastWarmUpReplacementNs = nowNs;
+            final int round = (replacements - 1) / warmUp.minConnections;
+            if (round == 0) {
+                warmUp();
+            } else if (round < WarmUp.MAX_REPLACEMENT_ROUNDS) {
+                final long backoffNs = WarmUp.REPLACEMENT_BACKOFF_NS << (round - 1);
+                warmUp.executor.schedule(this::warmUp, ThreadLocalRandom.current().nextLong(backoffNs + 1),
+                        NANOSECONDS);
+            } else if (round == WarmUp.MAX_REPLACEMENT_ROUNDS) {
+                LOGGER.debug("Load balancer for {}: connections to {} keep closing, stopped replacing them in the " +
+                        "background after {} attempt(s).", targetResource, address, replacements - 1);
+            }
+        }
+
+        /**
+         * Opens connections in the background until this host has the configured minimum number of connections.
+         * Connections are only opened for active and healthy hosts, failures are handled the same way as failures on
+         * the request path.
+         */
+        void warmUp() {
+            final WarmUp<Addr, C> warmUp = this.warmUp;
+            if (warmUp == null) {
+                return;
+            }
+            int missing;
+            for (;;) {
+                final ConnState state = this.connState;
+                if (!ActiveState.class.equals(state.state.getClass())) {
+                    return;
+                }
+                final int inFlight = warmUpInFlight;
+                missing = warmUp.minConnections - state.connections.length - inFlight;
+                if (missing <= 0) {
+                    return;
+                }
+                if (warmUpInFlightUpdater.compareAndSet(this, inFlight, inFlight + missing)) {
+                    break;
+                }
+            }
+            LOGGER.debug("Load balancer for {}: opening {} connection(s) to {} in the background.",
+                    targetResource, missing, address);
+            for (int i = 0; i < missing; ++i) {
+                Single<? extends C> establishConnection = warmUp.connectionFactory.newConnection(address, null);
+                if (healthCheckConfig != null) {
+                    establishConnection = establishConnection.beforeOnError(t ->
+                            markUnhealthy(t, warmUp.connectionFactory));
+                }
+                establishConnection
+                        .flatMapCompletable(newCnx -> addConnection(newCnx) ? completed() : newCnx.closeAsync())
+                        .onErrorComplete(t -> {
+                            LOGGER.debug("Load balancer for {}: failed to open a connection to {} in the background.",
+                                    targetResource, address, t);
+                            return true;
+                        })
+                        .afterFinally(() -> {
+                            warmUpInFlightUpdater.decrementAndGet(this);
+                            warmUp.onProgress.run();
+                        })
+                        .subscribe();
+            }
+        }
+
         boolean isActiveAndHealthy() {
             return ActiveState.class.equals(connState.state.getClass());
         }
 
+        boolean isEligibleByWeight() {
+            return isActiveAndHealthy() && !isEjected();
+        }
+
+        /**
+         * Estimates the cost of sending a request to this host. The cost is the latency EWMA decayed by the time since
+         * the last observation, multiplied by the number of outstanding requests. Hosts without observations have the
+         * lowest cost, which lets new hosts quickly receive traffic.
+         *
+         * @param nowNs current time in nanoseconds.
+         * @return the estimated cost, lower is better.
+         */
+        long cost(final long nowNs) {
+            assert p2cConfig != null;
+            final long ewma = this.ewmaNs;
+            final long elapsed = nowNs - lastUpdateNs;
+            final long decayed = elapsed <= 0 ? ewma : (long) (ewma * Math.exp(-elapsed / p2cConfig.ewmaDecayNanos));
+            return (decayed + 1) * (pending + 1L);
+        }
+
+        @Override
+        public long beforeRequestStart() {
+            pendingUpdater.incrementAndGet(this);
+            return System.nanoTime();
+        }
+
+        @Override
+        public void onRequestSuccess(final long beforeStartTimeNs) {
+            onRequestTerminated(beforeStartTimeNs);
+            if (outlierDetector != null) {
+                intervalSuccessesUpdater.incrementAndGet(this);
+                if (consecutiveErrors != 0) {
+                    consecutiveErrors = 0;
+                }
+            }
+        }
+
+        @Override
+        public void onRequestError(final long beforeStartTimeNs, final ErrorClass errorClass) {
+            onRequestTerminated(beforeStartTimeNs);
+            if (outlierDetector != null && outlierDetector.config.isError(errorClass)) {
+                intervalErrorsUpdater.incrementAndGet(this);
+                final int threshold = outlierDetector.config.consecutiveErrors;
+                if (threshold > 0 && consecutiveErrorsUpdater.incrementAndGet(this) >= threshold) {
+                    consecutiveErrors = 0;
+                    outlierDetector.tryEject(this, "consecutive errors");
+                }
+            }
+        }
+
+        /**
+         * Whether this host is currently ejected by the {@link OutlierDetector} and hence must not be selected.
+         *
+         * @return {@code true} if this host is currently ejected.
+         */
+        boolean isEjected() {
+            if (!ejected) {
+                return false;
+            }
+            assert outlierDetector != null;
+            if (outlierDetector.currentTimeNanos() - ejectedUntilNs < 0) {
+                return true;
+            }
+            // Ejection time elapsed, lazily return the host to the selection pool.
+            ejected = false;
+            LOGGER.debug("Load balancer for {}: host {} is no longer ejected.", targetResource, address);
+            return false;
+        }
+
+        private void onRequestTerminated(final long beforeStartTimeNs) {
+            pendingUpdater.decrementAndGet(this);
+            if (p2cConfig == null) {
+                return;
+            }
+            final long nowNs = System.nanoTime();
+            final long latency = nowNs - beforeStartTimeNs;
+            final long ewma = this.ewmaNs;
+            final long elapsed = nowNs - lastUpdateNs;
+            // Be sensitive to latency spikes: a slower observation replaces the average immediately, while faster
+            // observations are blended in with a weight that depends on the time passed since the last update.
+            if (latency >= ewma || elapsed <= 0) {
+                ewmaNs = Math.max(latency, ewma);
+            } else {
+                final double w = Math.exp(-elapsed / p2cConfig.ewmaDecayNanos);
+                ewmaNs = (long) (ewma * w + latency * (1 - w));
+            }
+            lastUpdateNs = nowNs;
+        }
+
         boolean addConnection(C connection) {
+            if ((p2cConfig != null || outlierDetector != null) && connection instanceof RequestTrackerAware) {
+                // Set the tracker before the connection becomes visible for selection.
+                ((RequestTrackerAware) connection).requestTracker(this);
+            }
             int addAttempt = 0;
             for (;;) {
                 ++addAttempt;
@@ -658,6 +1368,7 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
                 }
                 LOGGER.trace("Load balancer for {}: removed connection {} from {} after {} attempt(s).",
                         targetResource, connection, this, removeAttempt);
+                replaceClosedConnection();
             }).subscribe();
             return true;
         }
@@ -711,6 +1422,10 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
                     "address=" + address +
                     ", state=" + connState.state +
                     ", #connections=" + connState.connections.length +
+                    ", pending=" + pending +
+                    ", weight=" + weight +
+                    ", priority=" + priority +
+                    (ejected ? ", ejected" : "") +
                     '}';
         }
 
@@ -817,6 +1532,127 @@ final class RoundRobinLoadBalancer<ResolvedAddress, C extends LoadBalancedConnec
         }
     }
 
+    /**
+     * Ejects hosts from selection based on the outcome of the requests reported to them. Consecutive errors are
+     * evaluated on the request path, success rates are evaluated periodically on the background {@link Executor}.
+     *
+     * @param <Addr> The resolved address type.
+     * @param <C> The type of connection.
+     */
+    private static final class OutlierDetector<Addr, C extends LoadBalancedConnection> {
+        final OutlierDetectorConfig config;
+        private final String targetResource;
+        private final Executor executor;
+        private final Supplier<List<Host<Addr, C>>> hostsSupplier;
+        private final SequentialCancellable intervalCancellable = new SequentialCancellable();
+
+        OutlierDetector(final String targetResource, final OutlierDetectorConfig config, final Executor executor,
+                        final Supplier<List<Host<Addr, C>>> hostsSupplier) {
+            this.targetResource = targetResource;
+            this.config = config;
+            this.executor = executor;
+            this.hostsSupplier = hostsSupplier;
+        }
+
+        long currentTimeNanos() {
+            return executor.currentTime(NANOSECONDS);
+        }
+
+        void start() {
+            scheduleInterval();
+        }
+
+        void cancel() {
+            intervalCancellable.cancel();
+        }
+
+        private void scheduleInterval() {
+            intervalCancellable.nextCancellable(executor.schedule(this::onInterval, config.interval));
+        }
+
+        private void onInterval() {
+            try {
+                final List<Host<Addr, C>> hosts = hostsSupplier.get();
+                if (config.successRateEjection) {
+                    detectSuccessRateOutliers(hosts);
+                }
+                synchronized (this) {
+                    for (Host<Addr, C> host : hosts) {
+                        if (host.ejectionCount > 0 && !host.isEjected()) {
+                            --host.ejectionCount;
+                        }
+                    }
+                }
+            } catch (Throwable t) {
+                LOGGER.warn("Load balancer for {}: unexpected error during outlier detection.", targetResource, t);
+            } finally {
+                scheduleInterval();
+            }
+        }
+
+        private void detectSuccessRateOutliers(final List<Host<Addr, C>> hosts) {
+            final double[] successRates = new double[hosts.size()];
+            int eligibleHosts = 0;
+            double sum = 0;
+            for (int i = 0; i < hosts.size(); ++i) {
+                final Host<Addr, C> host = hosts.get(i);
+                final int successes = Host.intervalSuccessesUpdater.getAndSet(host, 0);
+                final int errors = Host.intervalErrorsUpdater.getAndSet(host, 0);
+                final int total = successes + errors;
+                if (total < config.successRateRequestVolume || host.isEjected()) {
+                    successRates[i] = -1;
+                    continue;
+                }
+                successRates[i] = (double) successes / total;
+                sum += successRates[i];
+                ++eligibleHosts;
+            }
+            if (eligibleHosts < config.successRateMinimumHosts) {
+                return;
+            }
+            final double mean = sum / eligibleHosts;
+            double variance = 0;
+            for (double rate : successRates) {
+                if (rate >= 0) {
+                    variance += (rate - mean) * (rate - mean);
+                }
+            }
+            final double threshold = mean - config.successRateStdevFactor * Math.sqrt(variance / eligibleHosts);
+            for (int i = 0; i < hosts.size(); ++i) {
+                if (successRates[i] >= 0 && successRates[i] < threshold) {
+                    tryEject(hosts.get(i), "success rate " + successRates[i] + " below threshold " + threshold);
+                }
+            }
+        }
+
+        synchronized void tryEject(final Host<Addr, C> host, final String reason) {
+            if (host.isEjected()) {
+                return;
+            }
+            final List<Host<Addr, C>> hosts = hostsSupplier.get();
+            int ejectedHosts = 0;
+            for (Host<Addr, C> h : hosts) {
+                if (h.isEjected()) {
+                    ++ejectedHosts;
+                }
+            }
+            // Always allow at least one ejection, otherwise small pools could never eject a host.
+            if (ejectedHosts > 0 && ejectedHosts * 100 >= config.maxEjectionPercentage * hosts.size()) {
+                LOGGER.debug("Load balancer for {}: not ejecting host {} due to {}, {} of {} hosts are ejected.",
+                        targetResource, host.address, reason, ejectedHosts, hosts.size());
+                return;
+            }
+            host.ejectionCount = Math.min(host.ejectionCount + 1, Long.SIZE - 2);
+            final long multiplier = 1L << (host.ejectionCount - 1);
+            final long ejectionTimeNanos = config.baseEjectionTimeNanos > config.maxEjectionTimeNanos / multiplier ?
+                    config.maxEjectionTimeNanos : config.baseEjectionTimeNanos * multiplier;
+            host.ejectedUntilNs = currentTimeNanos() + ejectionTimeNanos;
+            host.ejected = true;
+            LOGGER.info("Load balancer for {}: ejecting host {} for {}ms due to {}.",
+                    targetResource, host.address, NANOSECONDS.toMillis(ejectionTimeNanos), reason);
+        }
+    }
+
     private static final class StacklessNoAvailableHostException extends NoAvailableHostException {
         private static final long serialVersionUID = 5942960040738091793L;
 
@@ -25,6 +25,7 @@ import io.servicetalk.concurrent.api.Executor;
 import io.servicetalk.concurrent.api.Executors;
 import io.servicetalk.concurrent.api.Publisher;
 import io.servicetalk.loadbalancer.RoundRobinLoadBalancer.HealthCheckConfig;
+import io.servicetalk.loadbalancer.RoundRobinLoadBalancer.WarmUpConfig;
 import io.servicetalk.transport.api.ExecutionStrategy;
 
 import java.time.Duration;
@@ -48,7 +49,8 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  * <ul>
  * <li>Round robining is done at address level.</li>
  * <li>Connections are created lazily, without any concurrency control on their creation.
- * This can lead to over-provisioning connections when dealing with a requests surge.</li>
+ * This can lead to over-provisioning connections when dealing with a requests surge. A minimum number of connections
+ * per host can be established in the background using {@link Builder#minConnectionsPerHost(int)}.</li>
  * <li>Existing connections are reused unless a selector passed to {@link LoadBalancer#selectConnection(Predicate)}
  * suggests otherwise. This can lead to situations where connections will be used to their maximum capacity
  * (for example in the context of pipelining) before new connections are created.</li>
@@ -66,6 +68,10 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  * This behaviour can be disabled using a negative argument for
  * {@link Builder#healthCheckFailedConnectionsThreshold(int)} and the failing host will take part in the regular
  * round robin cycle for trying to establish a connection on the request path.</li>
+ * <li>Hosts which fail requests can be temporarily ejected from selection using
+ * {@link Builder#outlierDetectorConfig(OutlierDetectorConfig)}.</li>
+ * <li>Weights and priorities of hosts, e.g. from DNS SRV records, can be honored using
+ * {@link Builder#weightedSelection(boolean)}.</li>
  * </ul>
  *
  * @param <ResolvedAddress> The resolved address type.
@@ -80,9 +86,23 @@ public final class RoundRobinLoadBalancerFactory<ResolvedAddress, C extends Load
 
     @Nullable
     private final HealthCheckConfig healthCheckConfig;
+    @Nullable
+    private final OutlierDetectorConfig outlierDetectorConfig;
+    @Nullable
+    private final WarmUpConfig warmUpConfig;
+    private final boolean weightedSelection;
+    private final Executor backgroundExecutor;
 
-    private RoundRobinLoadBalancerFactory(@Nullable HealthCheckConfig healthCheckConfig) {
+    private RoundRobinLoadBalancerFactory(@Nullable HealthCheckConfig healthCheckConfig,
+                                          @Nullable OutlierDetectorConfig outlierDetectorConfig,
+                                          @Nullable WarmUpConfig warmUpConfig,
+                                          boolean weightedSelection,
+                                          Executor backgroundExecutor) {
         this.healthCheckConfig = healthCheckConfig;
+        this.outlierDetectorConfig = outlierDetectorConfig;
+        this.warmUpConfig = warmUpConfig;
+        this.weightedSelection = weightedSelection;
+        this.backgroundExecutor = backgroundExecutor;
     }
 
     @Override
@@ -91,7 +111,8 @@ public final class RoundRobinLoadBalancerFactory<ResolvedAddress, C extends Load
             final Publisher<? extends Collection<? extends ServiceDiscovererEvent<ResolvedAddress>>> eventPublisher,
             final ConnectionFactory<ResolvedAddress, T> connectionFactory) {
         return new RoundRobinLoadBalancer<>(requireNonNull(targetResource) + '#' + FACTORY_COUNT.incrementAndGet(),
-                eventPublisher, connectionFactory, healthCheckConfig);
+                eventPublisher, connectionFactory, healthCheckConfig, null, outlierDetectorConfig, warmUpConfig,
+                weightedSelection, backgroundExecutor);
     }
 
     @Override
@@ -111,6 +132,11 @@ public final class RoundRobinLoadBalancerFactory<ResolvedAddress, C extends Load
         private Executor backgroundExecutor;
         private Duration healthCheckInterval = DEFAULT_HEALTH_CHECK_INTERVAL;
         private int healthCheckFailedConnectionsThreshold = DEFAULT_HEALTH_CHECK_FAILED_CONNECTIONS_THRESHOLD;
+        @Nullable
+        private OutlierDetectorConfig outlierDetectorConfig;
+        private int minConnectionsPerHost;
+        private int readyConnectionsThreshold;
+        private boolean weightedSelection;
 
         /**
          * Creates a new instance with default settings.
@@ -123,6 +149,9 @@ public final class RoundRobinLoadBalancerFactory<ResolvedAddress, C extends Load
          * using health checks that run in the background. The health check tries to establish a new connection
          * and if it succeeds, the host is returned to the load balancing pool. As long as the connection
          * establishment fails, the host is not considered for opening new connections for processed requests.
+         * The same {@link Executor} is used for {@link #outlierDetectorConfig(OutlierDetectorConfig) outlier
+         * detection} and to delay the replacement of closed connections kept by
+         * {@link #minConnectionsPerHost(int)}.
          * If an {@link Executor} is not provided using this method, a default shared instance is used
          * for all {@link LoadBalancer LoadBalancers} created by this factory.
          * <p>
@@ -180,21 +209,103 @@ public final class RoundRobinLoadBalancerFactory<ResolvedAddress, C extends Load
             return this;
         }
 
+        /**
+         * Configure outlier detection, which temporarily ejects hosts from selection based on the outcome of the
+         * requests issued on their connections, as opposed to health checking which only considers connection
+         * establishment failures. Outlier detection is disabled by default.
+         * <p>
+         * Outlier detection runs on the {@link #backgroundExecutor(Executor) background executor} and requires
+         * connections to report requests through {@link io.servicetalk.client.api.RequestTrackerAware}.
+         *
+         * @param config {@link OutlierDetectorConfig} to use, or {@code null} to disable outlier detection.
+         * @return {@code this}.
+         */
+        public RoundRobinLoadBalancerFactory.Builder<ResolvedAddress, C> outlierDetectorConfig(
+                @Nullable OutlierDetectorConfig config) {
+            this.outlierDetectorConfig = config;
+            return this;
+        }
+
+        /**
+         * Configure a minimum number of connections to keep open to each host. These connections are established in
+         * the background as soon as a host becomes {@link ServiceDiscovererEvent.Status#AVAILABLE available} and are
+         * replaced when they close, so that requests do not pay for connection establishment after a host is added.
+         * Connections are not opened in the background for expired or unhealthy hosts. If connections keep closing,
+         * their replacement is delayed with an exponential backoff and eventually stops until the host becomes
+         * available or healthy again. By default, connections are only created on the request path.
+         *
+         * @param minConnections minimum number of connections per host, {@code 0} to disable.
+         * @return {@code this}.
+         * @see #readyConnectionsThreshold(int)
+         */
+        public RoundRobinLoadBalancerFactory.Builder<ResolvedAddress, C> minConnectionsPerHost(int minConnections) {
+            if (minConnections < 0) {
+                throw new IllegalArgumentException("Minimum connections per host should not be negative");
+            }
+            this.minConnectionsPerHost = minConnections;
+            return this;
+        }
+
+        /**
+         * Configure a number of connections which have to be established by the background warm-up before the
+         * {@link LoadBalancer} signals it is ready through {@link LoadBalancer#eventStream()}. Until then, selection
+         * fails with a {@link io.servicetalk.client.api.NoAvailableHostException}, which lets clients that wait for the
+         * {@link LoadBalancer} to become ready hold requests until the connections are established. Readiness is also
+         * signalled when all background connection attempts finished without reaching the threshold.
+         * By default, readiness is signalled as soon as the first host becomes available.
+         *
+         * @param threshold number of connections to wait for across all hosts, {@code 0} to disable. Requires
+         * {@link #minConnectionsPerHost(int)} to be configured.
+         * @return {@code this}.
+         */
+        public RoundRobinLoadBalancerFactory.Builder<ResolvedAddress, C> readyConnectionsThreshold(int threshold) {
+            if (threshold < 0) {
+                throw new IllegalArgumentException("Ready connections threshold should not be negative");
+            }
+            this.readyConnectionsThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * Configure whether hosts are selected according to the {@link ServiceDiscovererEvent#weight() weight} and
+         * {@link ServiceDiscovererEvent#priority() priority} provided by the {@link ServiceDiscovererEvent}s, e.g. the
+         * weight and priority of DNS SRV records. When enabled, hosts are picked at random with a probability
+         * proportional to their weight among the active and healthy hosts with the lowest priority value. Hosts with a
+         * higher priority value only receive requests when none of the hosts with a lower value can be used.
+         * By default, all hosts are selected in round robin order regardless of their weight and priority.
+         *
+         * @param weightedSelection {@code true} to honor weights and priorities of the discovered hosts.
+         * @return {@code this}.
+         */
+        public RoundRobinLoadBalancerFactory.Builder<ResolvedAddress, C> weightedSelection(
+                boolean weightedSelection) {
+            this.weightedSelection = weightedSelection;
+            return this;
+        }
+
         /**
          * Builds the {@link RoundRobinLoadBalancerFactory} configured by this builder.
          *
          * @return a new instance of {@link RoundRobinLoadBalancerFactory} with settings from this builder.
          */
         public RoundRobinLoadBalancerFactory<ResolvedAddress, C> build() {
+            if (readyConnectionsThreshold > 0 && minConnectionsPerHost == 0) {
+                throw new IllegalStateException("Ready connections threshold requires minimum connections per host");
+            }
+            final Executor executor =
+                    this.backgroundExecutor == null ? SharedExecutor.getInstance() : this.backgroundExecutor;
+            final WarmUpConfig warmUpConfig = minConnectionsPerHost == 0 ? null :
+                    new WarmUpConfig(minConnectionsPerHost, readyConnectionsThreshold, executor);
             if (this.healthCheckFailedConnectionsThreshold < 0) {
-                return new RoundRobinLoadBalancerFactory<>(null);
+                return new RoundRobinLoadBalancerFactory<>(null, outlierDetectorConfig, warmUpConfig,
+                        weightedSelection, executor);
             }
 
-            HealthCheckConfig healthCheckConfig = new HealthCheckConfig(
-                            this.backgroundExecutor == null ? SharedExecutor.getInstance() : this.backgroundExecutor,
+            HealthCheckConfig healthCheckConfig = new HealthCheckConfig(executor,
                     healthCheckInterval, healthCheckFailedConnectionsThreshold);
 
-            return new RoundRobinLoadBalancerFactory<>(healthCheckConfig);
+            return new RoundRobinLoadBalancerFactory<>(healthCheckConfig, outlierDetectorConfig, warmUpConfig,
+                    weightedSelection, executor);
         }
     }
 
@@ -0,0 +1,233 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.loadbalancer;
+
+import io.servicetalk.client.api.ConnectionFactory;
+import io.servicetalk.client.api.DefaultServiceDiscovererEvent;
+import io.servicetalk.client.api.LoadBalancerReadyEvent;
+import io.servicetalk.client.api.NoAvailableHostException;
+import io.servicetalk.client.api.ServiceDiscovererEvent;
+import io.servicetalk.concurrent.SingleSource.Processor;
+import io.servicetalk.concurrent.api.Completable;
+import io.servicetalk.concurrent.api.ExecutorExtension;
+import io.servicetalk.concurrent.api.Single;
+import io.servicetalk.concurrent.api.TestExecutor;
+import io.servicetalk.concurrent.api.TestPublisher;
+import io.servicetalk.loadbalancer.P2CLoadBalancerTest.TestConnection;
+import io.servicetalk.transport.api.TransportObserver;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.client.api.ServiceDiscovererEvent.Status.AVAILABLE;
+import static io.servicetalk.concurrent.api.Processors.newSingleProcessor;
+import static io.servicetalk.concurrent.api.SourceAdapters.fromSource;
+import static io.servicetalk.concurrent.internal.DeliberateException.DELIBERATE_EXCEPTION;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConnectionWarmUpTest {
+
+    @RegisterExtension
+    final ExecutorExtension<TestExecutor> executor = ExecutorExtension.withTestExecutor();
+
+    private final TestPublisher<Collection<ServiceDiscovererEvent<String>>> serviceDiscoveryPublisher =
+            new TestPublisher<>();
+    private final PendingConnectionFactory connectionFactory = new PendingConnectionFactory();
+    private final List<Object> lbEvents = new ArrayList<>();
+    private RoundRobinLoadBalancer<String, TestConnection> lb;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (lb != null) {
+            lb.closeAsync().toFuture().get();
+        }
+    }
+
+    @Test
+    void connectionsAreEstablishedWhenHostIsAdded() {
+        newLoadBalancer(3, 0);
+        sendServiceDiscoveryEvents("address-1", "address-2");
+        assertThat(connectionFactory.pending, hasSize(6));
+        connectionFactory.completeAll();
+
+        final List<Entry<String, List<TestConnection>>> usedAddresses = lb.usedAddresses();
+        assertThat(usedAddresses, hasSize(2));
+        for (Entry<String, List<TestConnection>> entry : usedAddresses) {
+            assertThat(entry.getValue(), hasSize(3));
+        }
+    }
+
+    @Test
+    void closedConnectionIsReplaced() throws Exception {
+        newLoadBalancer(1, 0);
+        sendServiceDiscoveryEvents("address-1");
+        connectionFactory.completeAll();
+        final TestConnection connection = lb.selectConnection(__ -> true).toFuture().get();
+
+        connection.closeAsync().toFuture().get();
+        assertThat(connectionFactory.pending, hasSize(1));
+        connectionFactory.completeAll();
+        assertThat(lb.usedAddresses().get(0).getValue(), hasSize(1));
+    }
+
+    @Test
+    void connectionsWhichKeepClosingAreReplacedWithBackoff() throws Exception {
+        newLoadBalancer(1, 0);
+        sendServiceDiscoveryEvents("address-1");
+        connectionFactory.completeAll();
+
+        // The first replacement is immediate.
+        closeSelectedConnection();
+        assertThat(connectionFactory.pending, hasSize(1));
+        connectionFactory.completeAll();
+
+        // Following replacements are delayed by up to 100ms, 200ms, 400ms, ...
+        for (long backoffMs = 100; backoffMs <= 1600; backoffMs <<= 1) {
+            closeSelectedConnection();
+            assertThat(connectionFactory.pending, is(empty()));
+            executor.executor().advanceTimeBy(backoffMs, MILLISECONDS);
+            assertThat(connectionFactory.pending, hasSize(1));
+            connectionFactory.completeAll();
+        }
+
+        // Then replacements stop.
+        closeSelectedConnection();
+        executor.executor().advanceTimeBy(10, SECONDS);
+        assertThat(connectionFactory.pending, is(empty()));
+
+        // Until the host becomes available again.
+        sendServiceDiscoveryEvents("address-1");
+        assertThat(connectionFactory.pending, hasSize(1));
+    }
+
+    @Test
+    void readinessAwaitsConnections() throws Exception {
+        newLoadBalancer(1, 2);
+        sendServiceDiscoveryEvents("address-1", "address-2");
+        assertThat(lbEvents, is(empty()));
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> lb.selectConnection(__ -> true).toFuture().get());
+        assertThat(e.getCause(), instanceOf(NoAvailableHostException.class));
+
+        connectionFactory.completeNext();
+        assertThat(lbEvents, is(empty()));
+        connectionFactory.completeNext();
+        assertThat(lbEvents, contains(LoadBalancerReadyEvent.LOAD_BALANCER_READY_EVENT));
+        lb.selectConnection(__ -> true).toFuture().get();
+    }
+
+    @Test
+    void readinessIsSignalledWhenWarmUpFails() {
+        newLoadBalancer(2, 4);
+        sendServiceDiscoveryEvents("address-1");
+        connectionFactory.completeNext();
+        assertThat(lbEvents, is(empty()));
+        connectionFactory.failNext();
+
+        assertThat(lbEvents, hasSize(1));
+        assertThat(lbEvents, everyItem(is(LoadBalancerReadyEvent.LOAD_BALANCER_READY_EVENT)));
+    }
+
+    @Test
+    void readyThresholdRequiresMinConnections() {
+        final RoundRobinLoadBalancerFactory.Builder<String, TestConnection> builder =
+                new RoundRobinLoadBalancerFactory.Builder<String, TestConnection>().readyConnectionsThreshold(1);
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+
+    private void newLoadBalancer(final int minConnectionsPerHost, final int readyConnectionsThreshold) {
+        lb = newLoadBalancer(new RoundRobinLoadBalancerFactory.Builder<String, TestConnection>()
+                .minConnectionsPerHost(minConnectionsPerHost)
+                .readyConnectionsThreshold(readyConnectionsThreshold)
+                .backgroundExecutor(executor.executor())
+                .build());
+        lb.eventStream().forEach(lbEvents::add);
+    }
+
+    private void closeSelectedConnection() throws Exception {
+        lb.selectConnection(__ -> true).toFuture().get().closeAsync().toFuture().get();
+    }
+
+    private RoundRobinLoadBalancer<String, TestConnection> newLoadBalancer(
+            final RoundRobinLoadBalancerFactory<String, TestConnection> factory) {
+        return (RoundRobinLoadBalancer<String, TestConnection>)
+                factory.newLoadBalancer("test-service", serviceDiscoveryPublisher, connectionFactory);
+    }
+
+    private void sendServiceDiscoveryEvents(final String... addresses) {
+        final List<ServiceDiscovererEvent<String>> events = new ArrayList<>(addresses.length);
+        for (String address : addresses) {
+            events.add(new DefaultServiceDiscovererEvent<>(address, AVAILABLE));
+        }
+        serviceDiscoveryPublisher.onNext(events);
+    }
+
+    private static final class PendingConnectionFactory implements ConnectionFactory<String, TestConnection> {
+        final List<Processor<TestConnection, TestConnection>> pending = new ArrayList<>();
+        final List<String> addresses = new ArrayList<>();
+
+        @Override
+        public Single<TestConnection> newConnection(final String address,
+                                                    @Nullable final TransportObserver observer) {
+            final Processor<TestConnection, TestConnection> processor = newSingleProcessor();
+            pending.add(processor);
+            addresses.add(address);
+            return fromSource(processor);
+        }
+
+        void completeNext() {
+            pending.remove(0).onSuccess(new TestConnection(addresses.remove(0)));
+        }
+
+        void failNext() {
+            addresses.remove(0);
+            pending.remove(0).onError(DELIBERATE_EXCEPTION);
+        }
+
+        void completeAll() {
+            while (!pending.isEmpty()) {
+                completeNext();
+            }
+        }
+
+        @Override
+        public Completable onClose() {
+            return Completable.completed();
+        }
+
+        @Override
+        public Completable closeAsync() {
+            return Completable.completed();
+        }
+    }
+}
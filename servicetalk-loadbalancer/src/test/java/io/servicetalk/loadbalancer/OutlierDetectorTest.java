@@ -0,0 +1,183 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.loadbalancer;
+
+import io.servicetalk.client.api.DefaultServiceDiscovererEvent;
+import io.servicetalk.client.api.LoadBalancer;
+import io.servicetalk.client.api.RequestTracker;
+import io.servicetalk.client.api.RequestTracker.ErrorClass;
+import io.servicetalk.client.api.ServiceDiscovererEvent;
+import io.servicetalk.concurrent.api.ExecutorExtension;
+import io.servicetalk.concurrent.api.TestExecutor;
+import io.servicetalk.concurrent.api.TestPublisher;
+import io.servicetalk.loadbalancer.P2CLoadBalancerTest.TestConnection;
+import io.servicetalk.loadbalancer.P2CLoadBalancerTest.TestConnectionFactory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static io.servicetalk.client.api.ServiceDiscovererEvent.Status.AVAILABLE;
+import static java.time.Duration.ofSeconds;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+class OutlierDetectorTest {
+
+    @RegisterExtension
+    final ExecutorExtension<TestExecutor> executor = ExecutorExtension.withTestExecutor();
+
+    private final TestPublisher<Collection<ServiceDiscovererEvent<String>>> serviceDiscoveryPublisher =
+            new TestPublisher<>();
+    private LoadBalancer<TestConnection> lb;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        lb.closeAsync().toFuture().get();
+    }
+
+    @Test
+    void consecutiveErrorsEjectHost() throws Exception {
+        newLoadBalancer(new OutlierDetectorConfig.Builder()
+                .consecutiveErrors(3)
+                .baseEjectionTime(ofSeconds(30))
+                .maxEjectionPercentage(50)
+                .successRateEjection(false)
+                .build(), 2);
+        TestConnection failing = lb.selectConnection(any()).toFuture().get();
+        failRequests(failing, 3);
+
+        for (int i = 0; i < 10; ++i) {
+            assertThat(lb.selectConnection(any()).toFuture().get().address, is(not(failing.address)));
+        }
+
+        executor.executor().advanceTimeBy(30, SECONDS);
+        assertThat(selectedAddresses(2), hasItem(failing.address));
+    }
+
+    @Test
+    void successResetsConsecutiveErrors() throws Exception {
+        newLoadBalancer(new OutlierDetectorConfig.Builder()
+                .consecutiveErrors(3)
+                .maxEjectionPercentage(50)
+                .successRateEjection(false)
+                .build(), 2);
+        TestConnection connection = lb.selectConnection(any()).toFuture().get();
+        failRequests(connection, 2);
+        RequestTracker tracker = tracker(connection);
+        tracker.onRequestSuccess(tracker.beforeRequestStart());
+        failRequests(connection, 2);
+
+        assertThat(selectedAddresses(2), hasItem(connection.address));
+    }
+
+    @Test
+    void maxEjectionPercentageIsRespected() throws Exception {
+        newLoadBalancer(new OutlierDetectorConfig.Builder()
+                .consecutiveErrors(1)
+                .maxEjectionPercentage(10)
+                .successRateEjection(false)
+                .build(), 2);
+        List<TestConnection> connections = new ArrayList<>();
+        connections.add(lb.selectConnection(any()).toFuture().get());
+        connections.add(lb.selectConnection(any()).toFuture().get());
+        assertThat(connections.get(0).address, is(not(connections.get(1).address)));
+
+        // The first ejection is always allowed, the second one would exceed the percentage.
+        failRequests(connections.get(0), 1);
+        failRequests(connections.get(1), 1);
+
+        for (int i = 0; i < 10; ++i) {
+            assertThat(lb.selectConnection(any()).toFuture().get().address, is(connections.get(1).address));
+        }
+    }
+
+    @Test
+    void successRateOutlierIsEjected() throws Exception {
+        final int hosts = 5;
+        newLoadBalancer(new OutlierDetectorConfig.Builder()
+                .consecutiveErrors(-1)
+                .interval(ofSeconds(10))
+                .successRateMinimumHosts(hosts)
+                .successRateRequestVolume(10)
+                .build(), hosts);
+        List<TestConnection> connections = new ArrayList<>();
+        for (int i = 0; i < hosts; ++i) {
+            connections.add(lb.selectConnection(any()).toFuture().get());
+        }
+        final TestConnection failing = connections.get(0);
+        failRequests(failing, 10);
+        for (int i = 1; i < hosts; ++i) {
+            RequestTracker tracker = tracker(connections.get(i));
+            for (int j = 0; j < 10; ++j) {
+                tracker.onRequestSuccess(tracker.beforeRequestStart());
+            }
+        }
+
+        executor.executor().advanceTimeBy(10, SECONDS);
+        for (int i = 0; i < 10; ++i) {
+            assertThat(lb.selectConnection(any()).toFuture().get().address, is(not(failing.address)));
+        }
+    }
+
+    private void newLoadBalancer(final OutlierDetectorConfig config, final int hosts) {
+        lb = new RoundRobinLoadBalancerFactory.Builder<String, TestConnection>()
+                .backgroundExecutor(executor.executor())
+                .outlierDetectorConfig(config)
+                .build()
+                .newLoadBalancer("test-service", serviceDiscoveryPublisher, new TestConnectionFactory());
+        List<ServiceDiscovererEvent<String>> events = new ArrayList<>(hosts);
+        for (int i = 1; i <= hosts; ++i) {
+            events.add(new DefaultServiceDiscovererEvent<>("address-" + i, AVAILABLE));
+        }
+        serviceDiscoveryPublisher.onNext(events);
+    }
+
+    private Set<String> selectedAddresses(final int selections) throws Exception {
+        Set<String> addresses = new HashSet<>();
+        for (int i = 0; i < selections; ++i) {
+            addresses.add(lb.selectConnection(any()).toFuture().get().address);
+        }
+        return addresses;
+    }
+
+    private static void failRequests(final TestConnection connection, final int count) {
+        final RequestTracker tracker = tracker(connection);
+        for (int i = 0; i < count; ++i) {
+            tracker.onRequestError(tracker.beforeRequestStart(), ErrorClass.EXT_ORIGIN_REQUEST_FAILED);
+        }
+    }
+
+    private static RequestTracker tracker(final TestConnection connection) {
+        final RequestTracker tracker = connection.tracker;
+        assert tracker != null;
+        return tracker;
+    }
+
+    private static <T> Predicate<T> any() {
+        return __ -> true;
+    }
+}
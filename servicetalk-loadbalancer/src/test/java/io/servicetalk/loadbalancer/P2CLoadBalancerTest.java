@@ -0,0 +1,164 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.loadbalancer;
+
+import io.servicetalk.client.api.ConnectionFactory;
+import io.servicetalk.client.api.DefaultServiceDiscovererEvent;
+import io.servicetalk.client.api.LoadBalancedConnection;
+import io.servicetalk.client.api.LoadBalancer;
+import io.servicetalk.client.api.RequestTracker;
+import io.servicetalk.client.api.RequestTrackerAware;
+import io.servicetalk.client.api.ServiceDiscovererEvent;
+import io.servicetalk.concurrent.api.Completable;
+import io.servicetalk.concurrent.api.ListenableAsyncCloseable;
+import io.servicetalk.concurrent.api.Single;
+import io.servicetalk.concurrent.api.TestPublisher;
+import io.servicetalk.transport.api.TransportObserver;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+
+import static io.servicetalk.client.api.ServiceDiscovererEvent.Status.AVAILABLE;
+import static io.servicetalk.concurrent.api.AsyncCloseables.emptyAsyncCloseable;
+import static io.servicetalk.concurrent.api.Single.succeeded;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+
+class P2CLoadBalancerTest {
+
+    private final TestPublisher<Collection<ServiceDiscovererEvent<String>>> serviceDiscoveryPublisher =
+            new TestPublisher<>();
+    private LoadBalancer<TestConnection> lb;
+
+    @BeforeEach
+    void setUp() {
+        lb = new P2CLoadBalancerFactory.Builder<String, TestConnection>()
+                .healthCheckFailedConnectionsThreshold(-1)
+                .build()
+                .newLoadBalancer("test-service", serviceDiscoveryPublisher, new TestConnectionFactory());
+        serviceDiscoveryPublisher.onNext(Arrays.asList(
+                new DefaultServiceDiscovererEvent<>("address-1", AVAILABLE),
+                new DefaultServiceDiscovererEvent<>("address-2", AVAILABLE)));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        lb.closeAsync().toFuture().get();
+    }
+
+    @Test
+    void trackerIsProvidedToConnections() throws Exception {
+        TestConnection connection = lb.selectConnection(any()).toFuture().get();
+        assertThat(connection.tracker, is(notNullValue()));
+    }
+
+    @Test
+    void prefersHostWithFewerOutstandingRequests() throws Exception {
+        TestConnection busy = lb.selectConnection(any()).toFuture().get();
+        assert busy.tracker != null;
+        for (int i = 0; i < 10; ++i) {
+            busy.tracker.beforeRequestStart();
+        }
+        for (int i = 0; i < 10; ++i) {
+            TestConnection selected = lb.selectConnection(any()).toFuture().get();
+            assertThat(selected.address, is(not(busy.address)));
+        }
+    }
+
+    @Test
+    void prefersHostWithLowerLatency() throws Exception {
+        TestConnection slow = lb.selectConnection(any()).toFuture().get();
+        assert slow.tracker != null;
+        slow.tracker.beforeRequestStart();
+        slow.tracker.onRequestSuccess(System.nanoTime() - SECONDS.toNanos(1));
+        for (int i = 0; i < 10; ++i) {
+            TestConnection selected = lb.selectConnection(any()).toFuture().get();
+            assertThat(selected.address, is(not(slow.address)));
+        }
+    }
+
+    private static <T> Predicate<T> any() {
+        return __ -> true;
+    }
+
+    static final class TestConnection implements LoadBalancedConnection, RequestTrackerAware {
+        private final ListenableAsyncCloseable closeable = emptyAsyncCloseable();
+        final String address;
+        @Nullable
+        RequestTracker tracker;
+
+        TestConnection(final String address) {
+            this.address = address;
+        }
+
+        @Override
+        public void requestTracker(final RequestTracker tracker) {
+            this.tracker = tracker;
+        }
+
+        @Override
+        public int score() {
+            return 0;
+        }
+
+        @Override
+        public Completable onClose() {
+            return closeable.onClose();
+        }
+
+        @Override
+        public Completable closeAsync() {
+            return closeable.closeAsync();
+        }
+
+        @Override
+        public Completable closeAsyncGracefully() {
+            return closeable.closeAsyncGracefully();
+        }
+
+        @Override
+        public String toString() {
+            return address + '@' + hashCode();
+        }
+    }
+
+    static final class TestConnectionFactory implements ConnectionFactory<String, TestConnection> {
+        @Override
+        public Single<TestConnection> newConnection(final String address,
+                                                    @Nullable final TransportObserver observer) {
+            return succeeded(new TestConnection(address));
+        }
+
+        @Override
+        public Completable onClose() {
+            return Completable.completed();
+        }
+
+        @Override
+        public Completable closeAsync() {
+            return Completable.completed();
+        }
+    }
+}
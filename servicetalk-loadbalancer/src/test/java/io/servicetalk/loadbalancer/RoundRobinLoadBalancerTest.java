@@ -49,6 +49,7 @@ import java.time.Duration;
 import java.util.AbstractMap;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -99,7 +100,9 @@ import static org.hamcrest.Matchers.hasProperty;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -332,6 +335,66 @@ abstract class RoundRobinLoadBalancerTest {
         assertThat(connectionsCreated, hasSize(2));
     }
 
+    @Test
+    void connectionWithHigherScoreIsPreferred() throws Exception {
+        sendServiceDiscoveryEvents(upEvent("address-1"));
+        final TestLoadBalancedConnection cnx1 = awaitIndefinitely(lb.selectConnection(alwaysNewConnectionFilter()));
+        final TestLoadBalancedConnection cnx2 = awaitIndefinitely(lb.selectConnection(alwaysNewConnectionFilter()));
+        assert cnx1 != null && cnx2 != null;
+        when(cnx1.score()).thenReturn(1);
+        when(cnx2.score()).thenReturn(10);
+
+        for (int i = 0; i < 10; ++i) {
+            assertThat(awaitIndefinitely(lb.selectConnection(any())), is(cnx2));
+        }
+        // The connection with the lower score is still used when the preferred one is not selectable.
+        assertThat(awaitIndefinitely(lb.selectConnection(cnx -> cnx != cnx2)), is(cnx1));
+        assertThat(connectionsCreated, hasSize(2));
+    }
+
+    @Test
+    void availableConnectionsAreSelectedEvenly() throws Exception {
+        sendServiceDiscoveryEvents(upEvent("address-1"));
+        for (int i = 0; i < 10; ++i) {
+            awaitIndefinitely(lb.selectConnection(alwaysNewConnectionFilter()));
+        }
+        // The connections are stored in creation order, make a contiguous run of them unavailable.
+        final Set<TestLoadBalancedConnection> busy = connectionsCreated.stream().limit(5).collect(toSet());
+        final Map<TestLoadBalancedConnection, Integer> selections = new HashMap<>();
+        final int total = 10_000;
+        for (int i = 0; i < total; ++i) {
+            selections.merge(awaitIndefinitely(lb.selectEstablishedConnection(cnx -> !busy.contains(cnx))), 1,
+                    Integer::sum);
+        }
+        assertThat(selections.keySet(), hasSize(5));
+        // A linear scan from a random offset selects the connection after the unavailable ones 60% of the time.
+        for (int count : selections.values()) {
+            assertThat(count, is(both(greaterThan(total / 10)).and(lessThan(total * 35 / 100))));
+        }
+        assertThat(connectionsCreated, hasSize(10));
+    }
+
+    @Test
+    void selectEstablishedConnectionDoesNotOpenConnections() throws Exception {
+        sendServiceDiscoveryEvents(upEvent("address-1"));
+        toSource(lb.selectEstablishedConnection(any())).subscribe(selectConnectionListener);
+        assertThat(selectConnectionListener.awaitOnError(), instanceOf(NoAvailableHostException.class));
+        assertThat(connectionsCreated, is(empty()));
+
+        final TestLoadBalancedConnection cnx = awaitIndefinitely(lb.selectConnection(any()));
+        assertThat(awaitIndefinitely(lb.selectEstablishedConnection(any())), is(cnx));
+        assertThat(connectionsCreated, hasSize(1));
+    }
+
+    @Test
+    void newConnectionDoesNotSelectEstablishedConnections() throws Exception {
+        sendServiceDiscoveryEvents(upEvent("address-1"));
+        final TestLoadBalancedConnection cnx1 = awaitIndefinitely(lb.selectConnection(any()));
+        final TestLoadBalancedConnection cnx2 = awaitIndefinitely(lb.newConnection(any()));
+        assertThat(cnx2, is(not(cnx1)));
+        assertThat(connectionsCreated, hasSize(2));
+    }
+
     @Test
     void closedConnectionPruning() throws Exception {
         sendServiceDiscoveryEvents(upEvent("address-1"));
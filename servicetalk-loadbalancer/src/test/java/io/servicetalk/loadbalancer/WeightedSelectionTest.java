@@ -0,0 +1,128 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.loadbalancer;
+
+import io.servicetalk.client.api.DefaultServiceDiscovererEvent;
+import io.servicetalk.client.api.ServiceDiscovererEvent;
+import io.servicetalk.concurrent.api.TestPublisher;
+import io.servicetalk.loadbalancer.P2CLoadBalancerTest.TestConnection;
+import io.servicetalk.loadbalancer.P2CLoadBalancerTest.TestConnectionFactory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static io.servicetalk.client.api.ServiceDiscovererEvent.Status.AVAILABLE;
+import static io.servicetalk.client.api.ServiceDiscovererEvent.Status.EXPIRED;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+class WeightedSelectionTest {
+
+    private static final int SELECTIONS = 2000;
+
+    private final TestPublisher<Collection<ServiceDiscovererEvent<String>>> serviceDiscoveryPublisher =
+            new TestPublisher<>();
+    private final Set<TestConnection> seenConnections = new HashSet<>();
+    // Rejects existing connections, so that every selection picks a host to open a new connection to.
+    private final Predicate<TestConnection> newConnectionSelector = seenConnections::add;
+    private RoundRobinLoadBalancer<String, TestConnection> lb;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (lb != null) {
+            lb.closeAsync().toFuture().get();
+        }
+    }
+
+    @Test
+    void hostsAreSelectedProportionallyToWeight() throws Exception {
+        newLoadBalancer(true);
+        serviceDiscoveryPublisher.onNext(asList(event("address-1", AVAILABLE, 3, 0),
+                event("address-2", AVAILABLE, 1, 0)));
+
+        final Map<String, Integer> selections = select(SELECTIONS);
+        assertThat(selections.get("address-1"), is(allOf(greaterThan(1350), lessThan(1650))));
+    }
+
+    @Test
+    void lowerPriorityValueIsPreferred() throws Exception {
+        newLoadBalancer(true);
+        serviceDiscoveryPublisher.onNext(asList(event("address-1", AVAILABLE, 1, 1),
+                event("address-2", AVAILABLE, 100, 2)));
+        assertThat(select(10).get("address-1"), is(10));
+
+        // Once the preferred host can't be used for new connections, the next priority takes over.
+        serviceDiscoveryPublisher.onNext(singletonList(event("address-1", EXPIRED, 1, 1)));
+        assertThat(select(10).get("address-2"), is(10));
+    }
+
+    @Test
+    void weightsAreUpdatedBySubsequentEvents() throws Exception {
+        newLoadBalancer(true);
+        serviceDiscoveryPublisher.onNext(asList(event("address-1", AVAILABLE, 1, 0),
+                event("address-2", AVAILABLE, 1, 1)));
+        serviceDiscoveryPublisher.onNext(singletonList(event("address-2", AVAILABLE, 1, 0)));
+
+        final Map<String, Integer> selections = select(SELECTIONS);
+        assertThat(selections.get("address-2"), is(allOf(greaterThan(850), lessThan(1150))));
+    }
+
+    @Test
+    void weightsAreIgnoredByDefault() throws Exception {
+        newLoadBalancer(false);
+        serviceDiscoveryPublisher.onNext(asList(event("address-1", AVAILABLE, 1, 0),
+                event("address-2", AVAILABLE, 100, 1)));
+
+        final Map<String, Integer> selections = select(10);
+        assertThat(selections.get("address-1"), is(5));
+        assertThat(selections.get("address-2"), is(5));
+    }
+
+    private Map<String, Integer> select(final int count) throws Exception {
+        final Map<String, Integer> selections = new HashMap<>();
+        for (int i = 0; i < count; ++i) {
+            final TestConnection connection = lb.selectConnection(newConnectionSelector).toFuture().get();
+            selections.merge(connection.address, 1, Integer::sum);
+        }
+        return selections;
+    }
+
+    private void newLoadBalancer(final boolean weightedSelection) {
+        lb = (RoundRobinLoadBalancer<String, TestConnection>)
+                new RoundRobinLoadBalancerFactory.Builder<String, TestConnection>()
+                        .weightedSelection(weightedSelection)
+                        .build()
+                        .newLoadBalancer("test-service", serviceDiscoveryPublisher, new TestConnectionFactory());
+    }
+
+    private static ServiceDiscovererEvent<String> event(final String address,
+                                                        final ServiceDiscovererEvent.Status status,
+                                                        final int weight, final int priority) {
+        return new DefaultServiceDiscovererEvent<>(address, status, weight, priority);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.Math.min;
+import static java.lang.Runtime.getRuntime;
+
+/**
+ * A histogram of non-negative {@code long} values, e.g. latencies in nanoseconds, with bounded relative error.
+ * <p>
+ * Values are counted in log-linear buckets, similar to <a href="http://hdrhistogram.org">HdrHistogram</a>: each
+ * power of two range is divided in {@value #SUB_BUCKET_COUNT} linear buckets, which bounds the relative error of
+ * reported values to {@code 1/}{@value #SUB_BUCKET_COUNT}. Values larger than {@link #MAX_VALUE} are counted as
+ * {@link #MAX_VALUE}, and negative values as {@code 0}.
+ * <p>
+ * Recording does not allocate and does not contend across threads: each thread records in a stripe selected by its
+ * id, stripes are allocated on first use, and are merged by {@link #snapshot()}.
+ */
+public final class Histogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    /**
+     * The largest value which is counted without saturation, about 73 minutes in nanoseconds.
+     */
+    public static final long MAX_VALUE = (1L << 42) - 1;
+    static final int BUCKET_COUNT = bucketIndex(MAX_VALUE) + 1;
+    private static final int STRIPES = stripes();
+
+    private final AtomicReferenceArray<Stripe> stripes = new AtomicReferenceArray<>(STRIPES);
+
+    /**
+     * Record a value.
+     *
+     * @param value the value to record.
+     */
+    public void record(final long value) {
+        stripe().record(value < 0 ? 0 : min(value, MAX_VALUE));
+    }
+
+    /**
+     * Take a snapshot of the values recorded so far.
+     * <p>
+     * The snapshot is not atomic with respect to concurrent {@link #record(long)} calls, but each recorded value is
+     * eventually included exactly once.
+     *
+     * @return a snapshot of the values recorded so far.
+     */
+    public HistogramSnapshot snapshot() {
+        final long[] counts = new long[BUCKET_COUNT];
+        long sum = 0;
+        long max = 0;
+        for (int i = 0; i < STRIPES; ++i) {
+            final Stripe stripe = stripes.get(i);
+            if (stripe != null) {
+                for (int j = 0; j < BUCKET_COUNT; ++j) {
+                    counts[j] += stripe.counts.get(j);
+                }
+                sum += stripe.sum;
+                max = Math.max(max, stripe.max);
+            }
+        }
+        return new HistogramSnapshot(counts, sum, max);
+    }
+
+    private Stripe stripe() {
+        // Thread ids are sequential, so long lived threads (e.g. IO threads) mostly get a stripe of their own.
+        final int index = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        final Stripe stripe = stripes.get(index);
+        return stripe != null ? stripe : newStripe(index);
+    }
+
+    private Stripe newStripe(final int index) {
+        final Stripe stripe = new Stripe();
+        if (stripes.compareAndSet(index, null, stripe)) {
+            return stripe;
+        }
+        final Stripe existing = stripes.get(index);
+        assert existing != null;
+        return existing;
+    }
+
+    static int bucketIndex(final long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        // The highest bit selects the power of two range, the next SUB_BUCKET_BITS bits select the linear bucket.
+        final int shift = 63 - numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + ((int) (value >>> shift) & (SUB_BUCKET_COUNT - 1));
+    }
+
+    static long bucketLowerBound(final int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        final int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        return ((long) (SUB_BUCKET_COUNT + (index & (SUB_BUCKET_COUNT - 1)))) << shift;
+    }
+
+    static long bucketUpperBound(final int index) {
+        return index + 1 < BUCKET_COUNT ? bucketLowerBound(index + 1) - 1 : MAX_VALUE;
+    }
+
+    private static int stripes() {
+        // Power of two, at least twice the number of processors to reduce collisions of long lived threads.
+        final int processors = getRuntime().availableProcessors();
+        return Integer.highestOneBit(processors) << 2;
+    }
+
+    private static final class Stripe {
+        private static final AtomicLongFieldUpdater<Stripe> sumUpdater =
+                AtomicLongFieldUpdater.newUpdater(Stripe.class, "sum");
+        private static final AtomicLongFieldUpdater<Stripe> maxUpdater =
+                AtomicLongFieldUpdater.newUpdater(Stripe.class, "max");
+
+        final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+        volatile long sum;
+        volatile long max;
+
+        void record(final long value) {
+            counts.incrementAndGet(bucketIndex(value));
+            sumUpdater.addAndGet(this, value);
+            long currentMax;
+            while (value > (currentMax = max) && !maxUpdater.compareAndSet(this, currentMax, value)) {
+                // retry
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.metrics;
+
+import static io.servicetalk.metrics.Histogram.BUCKET_COUNT;
+import static io.servicetalk.metrics.Histogram.bucketLowerBound;
+import static io.servicetalk.metrics.Histogram.bucketUpperBound;
+import static java.lang.Math.ceil;
+import static java.lang.Math.min;
+
+/**
+ * An immutable snapshot of the cumulative distribution of the values recorded by a {@link Histogram}.
+ */
+public final class HistogramSnapshot {
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    HistogramSnapshot(final long[] counts, final long sum, final long max) {
+        assert counts.length == BUCKET_COUNT;
+        this.counts = counts;
+        long count = 0;
+        for (long bucketCount : counts) {
+            count += bucketCount;
+        }
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the number of recorded values.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Returns the sum of the recorded values.
+     *
+     * @return the sum of the recorded values.
+     */
+    public long sum() {
+        return sum;
+    }
+
+    /**
+     * Returns the largest recorded value, or {@code 0} if no value was recorded.
+     *
+     * @return the largest recorded value, or {@code 0} if no value was recorded.
+     */
+    public long max() {
+        return max;
+    }
+
+    /**
+     * Returns the mean of the recorded values, or {@code 0} if no value was recorded.
+     *
+     * @return the mean of the recorded values, or {@code 0} if no value was recorded.
+     */
+    public double mean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Returns the value at a percentile of the recorded values, or {@code 0} if no value was recorded.
+     * <p>
+     * The result is the upper bound of the bucket which contains the value at the percentile, capped by
+     * {@link #max()}.
+     *
+     * @param percentile the percentile, between {@code 0} and {@code 100}.
+     * @return the value at the percentile of the recorded values.
+     */
+    public long valueAtPercentile(final double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile: " + percentile + " (expected >=0 and <=100)");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return min(bucketUpperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Visit all buckets which contain at least one value, in increasing order of values.
+     *
+     * @param visitor the {@link BucketVisitor} to notify of each bucket.
+     */
+    public void forEachBucket(final BucketVisitor visitor) {
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            if (counts[i] != 0) {
+                visitor.bucket(bucketLowerBound(i), bucketUpperBound(i), counts[i]);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{count=" + count + ", sum=" + sum + ", max=" + max +
+                ", p50=" + valueAtPercentile(50) + ", p99=" + valueAtPercentile(99) + '}';
+    }
+
+    /**
+     * Visitor of the buckets of a {@link HistogramSnapshot}.
+     */
+    @FunctionalInterface
+    public interface BucketVisitor {
+        /**
+         * Visit a bucket.
+         *
+         * @param lowerBound the smallest value counted by the bucket, inclusive.
+         * @param upperBound the largest value counted by the bucket, inclusive.
+         * @param count the number of values counted by the bucket.
+         */
+        void bucket(long lowerBound, long upperBound, long count);
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.metrics;
+
+import io.servicetalk.buffer.api.Buffer;
+import io.servicetalk.http.api.HttpHeaders;
+import io.servicetalk.http.api.HttpLifecycleObserver;
+import io.servicetalk.http.api.HttpRequestMetaData;
+import io.servicetalk.http.api.HttpResponseMetaData;
+import io.servicetalk.transport.api.ConnectionInfo;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.System.nanoTime;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link HttpLifecycleObserver} which collects metrics of HTTP exchanges.
+ * <p>
+ * Each exchange allocates a single observer, which observes the exchange, its request, and its response. Callbacks
+ * for payload body chunks do not allocate. The following metrics are visited, prefixed by the name passed to the
+ * constructor:
+ * <ul>
+ *     <li>{@code requests}: counter of started exchanges</li>
+ *     <li>{@code active}: gauge of in progress exchanges</li>
+ *     <li>{@code latency}: histogram of the nanoseconds between the start and the end of exchanges</li>
+ *     <li>{@code time_to_response}: histogram of the nanoseconds between the start of exchanges and the response
+ *     meta-data</li>
+ *     <li>{@code responses.1xx} to {@code responses.5xx}: counters of responses by status class</li>
+ *     <li>{@code errors}: counter of exchanges which failed</li>
+ *     <li>{@code cancellations}: counter of exchanges which were cancelled</li>
+ *     <li>{@code request.bytes}, {@code response.bytes}: counters of payload body bytes</li>
+ * </ul>
+ */
+public final class MetricsHttpLifecycleObserver implements HttpLifecycleObserver, MetricsSource {
+    private static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    private final String requestsName;
+    private final String activeName;
+    private final String latencyName;
+    private final String timeToResponseName;
+    private final String[] responsesNames;
+    private final String errorsName;
+    private final String cancellationsName;
+    private final String requestBytesName;
+    private final String responseBytesName;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder finished = new LongAdder();
+    private final Histogram latency = new Histogram();
+    private final Histogram timeToResponse = new Histogram();
+    private final LongAdder[] responses = new LongAdder[STATUS_CLASSES.length];
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder cancellations = new LongAdder();
+    private final LongAdder requestBytes = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+
+    /**
+     * Creates a new instance.
+     *
+     * @param name the prefix of the names of the metrics, e.g. {@code "http.server"}.
+     */
+    public MetricsHttpLifecycleObserver(final String name) {
+        requireNonNull(name);
+        requestsName = name + ".requests";
+        activeName = name + ".active";
+        latencyName = name + ".latency";
+        timeToResponseName = name + ".time_to_response";
+        responsesNames = new String[STATUS_CLASSES.length];
+        for (int i = 0; i < STATUS_CLASSES.length; ++i) {
+            responsesNames[i] = name + ".responses." + STATUS_CLASSES[i];
+            responses[i] = new LongAdder();
+        }
+        errorsName = name + ".errors";
+        cancellationsName = name + ".cancellations";
+        requestBytesName = name + ".request.bytes";
+        responseBytesName = name + ".response.bytes";
+    }
+
+    @Override
+    public HttpExchangeObserver onNewExchange() {
+        requests.increment();
+        return new MetricsExchangeObserver(nanoTime());
+    }
+
+    @Override
+    public void visit(final MetricsVisitor visitor) {
+        // Read finished before requests, so the gauge is never negative.
+        final long finishedCount = finished.sum();
+        final long requestsCount = requests.sum();
+        visitor.counter(requestsName, requestsCount);
+        visitor.gauge(activeName, requestsCount - finishedCount);
+        visitor.histogram(latencyName, latency.snapshot());
+        visitor.histogram(timeToResponseName, timeToResponse.snapshot());
+        for (int i = 0; i < responses.length; ++i) {
+            visitor.counter(responsesNames[i], responses[i].sum());
+        }
+        visitor.counter(errorsName, errors.sum());
+        visitor.counter(cancellationsName, cancellations.sum());
+        visitor.counter(requestBytesName, requestBytes.sum());
+        visitor.counter(responseBytesName, responseBytes.sum());
+    }
+
+    private final class MetricsExchangeObserver implements HttpExchangeObserver, HttpRequestObserver,
+                                                           HttpResponseObserver {
+        private final long startNanos;
+
+        MetricsExchangeObserver(final long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void onConnectionSelected(final ConnectionInfo info) {
+        }
+
+        @Override
+        public HttpRequestObserver onRequest(final HttpRequestMetaData requestMetaData) {
+            return this;
+        }
+
+        @Override
+        public HttpResponseObserver onResponse(final HttpResponseMetaData responseMetaData) {
+            timeToResponse.record(nanoTime() - startNanos);
+            final int statusClass = responseMetaData.status().code() / 100 - 1;
+            if (statusClass >= 0 && statusClass < responses.length) {
+                responses[statusClass].increment();
+            }
+            return this;
+        }
+
+        @Override
+        public void onResponseError(final Throwable cause) {
+            errors.increment();
+        }
+
+        @Override
+        public void onResponseCancel() {
+            cancellations.increment();
+        }
+
+        @Override
+        public void onExchangeFinally() {
+            latency.record(nanoTime() - startNanos);
+            finished.increment();
+        }
+
+        @Override
+        public void onRequestData(final Buffer data) {
+            requestBytes.add(data.readableBytes());
+        }
+
+        @Override
+        public void onRequestTrailers(final HttpHeaders trailers) {
+        }
+
+        @Override
+        public void onRequestComplete() {
+        }
+
+        @Override
+        public void onRequestError(final Throwable cause) {
+        }
+
+        @Override
+        public void onRequestCancel() {
+        }
+
+        @Override
+        public void onResponseData(final Buffer data) {
+            responseBytes.add(data.readableBytes());
+        }
+
+        @Override
+        public void onResponseTrailers(final HttpHeaders trailers) {
+        }
+
+        @Override
+        public void onResponseComplete() {
+        }
+    }
+}
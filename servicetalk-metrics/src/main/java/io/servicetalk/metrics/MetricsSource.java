@@ -0,0 +1,33 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.metrics;
+
+/**
+ * A source of metrics which can be visited on demand, e.g. when an exporter is scraped.
+ */
+@FunctionalInterface
+public interface MetricsSource {
+
+    /**
+     * Visit the current value of all metrics of this source.
+     * <p>
+     * Metrics are updated concurrently with this method, so the visited values are not an atomic point in time view
+     * across metrics, but each recorded value is eventually visible exactly once.
+     *
+     * @param visitor the {@link MetricsVisitor} to notify of each metric.
+     */
+    void visit(MetricsVisitor visitor);
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.metrics;
+
+import io.servicetalk.transport.api.ConnectionInfo;
+import io.servicetalk.transport.api.ConnectionObserver;
+import io.servicetalk.transport.api.ConnectionObserver.DataObserver;
+import io.servicetalk.transport.api.ConnectionObserver.MultiplexedObserver;
+import io.servicetalk.transport.api.ConnectionObserver.ReadObserver;
+import io.servicetalk.transport.api.ConnectionObserver.SecurityHandshakeObserver;
+import io.servicetalk.transport.api.ConnectionObserver.StreamObserver;
+import io.servicetalk.transport.api.ConnectionObserver.WriteObserver;
+import io.servicetalk.transport.api.TransportObserver;
+
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
+import javax.net.ssl.SSLSession;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link TransportObserver} which collects metrics of connections and streams.
+ * <p>
+ * All connections share a single observer instance, so no state is allocated per connection, stream, read, or
+ * write. The following metrics are visited, prefixed by the name passed to the constructor:
+ * <ul>
+ *     <li>{@code connections.opened}: counter of new connections</li>
+ *     <li>{@code connections.active}: gauge of open connections</li>
+ *     <li>{@code connections.errors}: counter of connections closed due to an error</li>
+ *     <li>{@code handshake.failures}: counter of failed security handshakes</li>
+ *     <li>{@code streams.opened}: counter of new streams of multiplexed connections</li>
+ *     <li>{@code streams.active}: gauge of open streams of multiplexed connections</li>
+ *     <li>{@code bytes.read}, {@code bytes.written}: counters of bytes read from and written to the network</li>
+ *     <li>{@code flushes}: counter of flushes to the network</li>
+ *     <li>{@code items.read}, {@code items.written}: counters of items read from and written to the transport</li>
+ * </ul>
+ */
+public final class MetricsTransportObserver implements TransportObserver, MetricsSource {
+    private final String connectionsOpenedName;
+    private final String connectionsActiveName;
+    private final String connectionsErrorsName;
+    private final String handshakeFailuresName;
+    private final String streamsOpenedName;
+    private final String streamsActiveName;
+    private final String bytesReadName;
+    private final String bytesWrittenName;
+    private final String flushesName;
+    private final String itemsReadName;
+    private final String itemsWrittenName;
+
+    private final LongAdder connectionsOpened = new LongAdder();
+    private final LongAdder connectionsClosed = new LongAdder();
+    private final LongAdder connectionsErrors = new LongAdder();
+    private final LongAdder handshakeFailures = new LongAdder();
+    private final LongAdder streamsOpened = new LongAdder();
+    private final LongAdder streamsClosed = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder itemsRead = new LongAdder();
+    private final LongAdder itemsWritten = new LongAdder();
+    private final MetricsConnectionObserver connectionObserver = new MetricsConnectionObserver();
+
+    /**
+     * Creates a new instance.
+     *
+     * @param name the prefix of the names of the metrics, e.g. {@code "transport.server"}.
+     */
+    public MetricsTransportObserver(final String name) {
+        requireNonNull(name);
+        connectionsOpenedName = name + ".connections.opened";
+        connectionsActiveName = name + ".connections.active";
+        connectionsErrorsName = name + ".connections.errors";
+        handshakeFailuresName = name + ".handshake.failures";
+        streamsOpenedName = name + ".streams.opened";
+        streamsActiveName = name + ".streams.active";
+        bytesReadName = name + ".bytes.read";
+        bytesWrittenName = name + ".bytes.written";
+        flushesName = name + ".flushes";
+        itemsReadName = name + ".items.read";
+        itemsWrittenName = name + ".items.written";
+    }
+
+    @Override
+    public ConnectionObserver onNewConnection(@Nullable final Object localAddress, final Object remoteAddress) {
+        connectionsOpened.increment();
+        return connectionObserver;
+    }
+
+    @Override
+    public void visit(final MetricsVisitor visitor) {
+        // Read closed before opened, so the gauges are never negative.
+        final long connectionsClosedCount = connectionsClosed.sum();
+        final long connectionsOpenedCount = connectionsOpened.sum();
+        final long streamsClosedCount = streamsClosed.sum();
+        final long streamsOpenedCount = streamsOpened.sum();
+        visitor.counter(connectionsOpenedName, connectionsOpenedCount);
+        visitor.gauge(connectionsActiveName, connectionsOpenedCount - connectionsClosedCount);
+        visitor.counter(connectionsErrorsName, connectionsErrors.sum());
+        visitor.counter(handshakeFailuresName, handshakeFailures.sum());
+        visitor.counter(streamsOpenedName, streamsOpenedCount);
+        visitor.gauge(streamsActiveName, streamsOpenedCount - streamsClosedCount);
+        visitor.counter(bytesReadName, bytesRead.sum());
+        visitor.counter(bytesWrittenName, bytesWritten.sum());
+        visitor.counter(flushesName, flushes.sum());
+        visitor.counter(itemsReadName, itemsRead.sum());
+        visitor.counter(itemsWrittenName, itemsWritten.sum());
+    }
+
+    private final class MetricsConnectionObserver implements ConnectionObserver, SecurityHandshakeObserver,
+                                                             DataObserver, MultiplexedObserver, StreamObserver,
+                                                             ReadObserver, WriteObserver {
+        @Override
+        public void onDataRead(final int size) {
+            bytesRead.add(size);
+        }
+
+        @Override
+        public void onDataWrite(final int size) {
+            bytesWritten.add(size);
+        }
+
+        @Override
+        public void onFlush() {
+            flushes.increment();
+        }
+
+        @Override
+        public void onTransportHandshakeComplete() {
+        }
+
+        @Override
+        public SecurityHandshakeObserver onSecurityHandshake() {
+            return this;
+        }
+
+        @Override
+        public DataObserver connectionEstablished(final ConnectionInfo info) {
+            return this;
+        }
+
+        @Override
+        public MultiplexedObserver multiplexedConnectionEstablished(final ConnectionInfo info) {
+            return this;
+        }
+
+        @Override
+        public void connectionClosed(final Throwable error) {
+            connectionsErrors.increment();
+            connectionsClosed.increment();
+        }
+
+        @Override
+        public void connectionClosed() {
+            connectionsClosed.increment();
+        }
+
+        @Override
+        public void handshakeFailed(final Throwable cause) {
+            handshakeFailures.increment();
+        }
+
+        @Override
+        public void handshakeComplete(final SSLSession sslSession) {
+        }
+
+        @Override
+        public ReadObserver onNewRead() {
+            return this;
+        }
+
+        @Override
+        public WriteObserver onNewWrite() {
+            return this;
+        }
+
+        @Override
+        public StreamObserver onNewStream() {
+            streamsOpened.increment();
+            return this;
+        }
+
+        @Override
+        public void streamIdAssigned(final long streamId) {
+        }
+
+        @Override
+        public DataObserver streamEstablished() {
+            return this;
+        }
+
+        @Override
+        public void streamClosed(final Throwable error) {
+            streamsClosed.increment();
+        }
+
+        @Override
+        public void streamClosed() {
+            streamsClosed.increment();
+        }
+
+        @Override
+        public void requestedToRead(final long n) {
+        }
+
+        @Override
+        public void itemRead(@Nullable final Object item) {
+            itemsRead.increment();
+        }
+
+        @Override
+        public void readFailed(final Throwable cause) {
+        }
+
+        @Override
+        public void readComplete() {
+        }
+
+        @Override
+        public void readCancelled() {
+        }
+
+        @Override
+        public void requestedToWrite(final long n) {
+        }
+
+        @Override
+        public void itemReceived(@Nullable final Object item) {
+        }
+
+        @Override
+        public void onFlushRequest() {
+        }
+
+        @Override
+        public void itemWritten(@Nullable final Object item) {
+            itemsWritten.increment();
+        }
+
+        @Override
+        public void itemFlushed() {
+        }
+
+        @Override
+        public void writeFailed(final Throwable cause) {
+        }
+
+        @Override
+        public void writeComplete() {
+        }
+
+        @Override
+        public void writeCancelled() {
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.metrics;
+
+/**
+ * Visitor of the metrics of a {@link MetricsSource}, which adapts them to an exporter's data model.
+ */
+public interface MetricsVisitor {
+
+    /**
+     * Visit a monotonically increasing counter.
+     *
+     * @param name the name of the metric.
+     * @param value the current value of the counter.
+     */
+    void counter(String name, long value);
+
+    /**
+     * Visit a gauge, a value which can increase and decrease.
+     *
+     * @param name the name of the metric.
+     * @param value the current value of the gauge.
+     */
+    void gauge(String name, long value);
+
+    /**
+     * Visit a histogram.
+     *
+     * @param name the name of the metric.
+     * @param snapshot a snapshot of the cumulative distribution of the values recorded by the histogram.
+     */
+    void histogram(String name, HistogramSnapshot snapshot);
+}
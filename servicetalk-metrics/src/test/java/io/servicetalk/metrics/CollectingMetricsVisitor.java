@@ -0,0 +1,59 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+final class CollectingMetricsVisitor implements MetricsVisitor {
+    private final Map<String, Long> values = new HashMap<>();
+    private final Map<String, HistogramSnapshot> histograms = new HashMap<>();
+
+    static CollectingMetricsVisitor collect(final MetricsSource source) {
+        CollectingMetricsVisitor visitor = new CollectingMetricsVisitor();
+        source.visit(visitor);
+        return visitor;
+    }
+
+    @Override
+    public void counter(final String name, final long value) {
+        values.put(name, value);
+    }
+
+    @Override
+    public void gauge(final String name, final long value) {
+        values.put(name, value);
+    }
+
+    @Override
+    public void histogram(final String name, final HistogramSnapshot snapshot) {
+        histograms.put(name, snapshot);
+    }
+
+    long value(final String name) {
+        final Long value = values.get(name);
+        assertNotNull(value, "Unknown metric: " + name);
+        return value;
+    }
+
+    HistogramSnapshot histogram(final String name) {
+        final HistogramSnapshot snapshot = histograms.get(name);
+        assertNotNull(snapshot, "Unknown histogram: " + name);
+        return snapshot;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static io.servicetalk.metrics.Histogram.BUCKET_COUNT;
+import static io.servicetalk.metrics.Histogram.MAX_VALUE;
+import static io.servicetalk.metrics.Histogram.bucketIndex;
+import static io.servicetalk.metrics.Histogram.bucketLowerBound;
+import static io.servicetalk.metrics.Histogram.bucketUpperBound;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HistogramTest {
+
+    @Test
+    void bucketsAreContiguous() {
+        assertThat(bucketLowerBound(0), is(0L));
+        for (int i = 1; i < BUCKET_COUNT; ++i) {
+            assertThat("bucket " + i, bucketLowerBound(i), is(bucketUpperBound(i - 1) + 1));
+            assertThat("bucket " + i, bucketIndex(bucketLowerBound(i)), is(i));
+            assertThat("bucket " + i, bucketIndex(bucketUpperBound(i)), is(i));
+        }
+        assertThat(bucketUpperBound(BUCKET_COUNT - 1), is(MAX_VALUE));
+    }
+
+    @Test
+    void relativeErrorIsBounded() {
+        for (int i = Histogram.SUB_BUCKET_COUNT; i < BUCKET_COUNT; ++i) {
+            final long lower = bucketLowerBound(i);
+            final long width = bucketUpperBound(i) - lower + 1;
+            assertThat("bucket " + i, lower / width, greaterThanOrEqualTo((long) Histogram.SUB_BUCKET_COUNT));
+        }
+    }
+
+    @Test
+    void emptySnapshot() {
+        HistogramSnapshot snapshot = new Histogram().snapshot();
+        assertThat(snapshot.count(), is(0L));
+        assertThat(snapshot.sum(), is(0L));
+        assertThat(snapshot.max(), is(0L));
+        assertThat(snapshot.mean(), is(0d));
+        assertThat(snapshot.valueAtPercentile(99), is(0L));
+    }
+
+    @Test
+    void percentiles() {
+        Histogram histogram = new Histogram();
+        for (long i = 1; i <= 1000; ++i) {
+            histogram.record(i);
+        }
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.count(), is(1000L));
+        assertThat(snapshot.sum(), is(500500L));
+        assertThat(snapshot.max(), is(1000L));
+        assertThat(snapshot.mean(), is(500.5d));
+        assertWithinBucket(snapshot.valueAtPercentile(50), 500);
+        assertWithinBucket(snapshot.valueAtPercentile(99), 990);
+        assertThat(snapshot.valueAtPercentile(0), is(1L));
+        assertThat(snapshot.valueAtPercentile(100), is(1000L));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.valueAtPercentile(-1));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.valueAtPercentile(100.1));
+    }
+
+    @Test
+    void valuesAreClamped() {
+        Histogram histogram = new Histogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.count(), is(2L));
+        assertThat(snapshot.max(), is(MAX_VALUE));
+        assertThat(snapshot.valueAtPercentile(50), is(0L));
+        List<Long> lowerBounds = new ArrayList<>();
+        snapshot.forEachBucket((lowerBound, upperBound, count) -> {
+            assertThat(count, is(1L));
+            lowerBounds.add(lowerBound);
+        });
+        assertThat(lowerBounds.size(), is(2));
+        assertThat(lowerBounds.get(0), is(0L));
+        assertThat(lowerBounds.get(1), is(bucketLowerBound(BUCKET_COUNT - 1)));
+    }
+
+    @Test
+    void concurrentRecordsAreMerged() throws Exception {
+        final int threads = 8;
+        final int recordsPerThread = 10_000;
+        Histogram histogram = new Histogram();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] recorders = new Thread[threads];
+        for (int i = 0; i < threads; ++i) {
+            final long value = i + 1;
+            recorders[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int j = 0; j < recordsPerThread; ++j) {
+                    histogram.record(value);
+                }
+            });
+            recorders[i].start();
+        }
+        start.countDown();
+        for (Thread recorder : recorders) {
+            recorder.join();
+        }
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.count(), is((long) threads * recordsPerThread));
+        assertThat(snapshot.sum(), is((long) threads * (threads + 1) / 2 * recordsPerThread));
+        assertThat(snapshot.max(), is((long) threads));
+    }
+
+    private static void assertWithinBucket(final long actual, final long expected) {
+        final int index = bucketIndex(expected);
+        assertThat(actual, greaterThanOrEqualTo(bucketLowerBound(index)));
+        assertThat(actual, lessThanOrEqualTo(bucketUpperBound(index)));
+    }
+}
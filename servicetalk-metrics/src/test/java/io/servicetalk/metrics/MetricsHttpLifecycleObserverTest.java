@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.metrics;
+
+import io.servicetalk.http.api.HttpLifecycleObserver.HttpExchangeObserver;
+import io.servicetalk.http.api.HttpLifecycleObserver.HttpRequestObserver;
+import io.servicetalk.http.api.HttpLifecycleObserver.HttpResponseObserver;
+import io.servicetalk.http.api.HttpResponseStatus;
+
+import org.junit.jupiter.api.Test;
+
+import static io.servicetalk.buffer.api.ReadOnlyBufferAllocators.DEFAULT_RO_ALLOCATOR;
+import static io.servicetalk.http.api.DefaultHttpHeadersFactory.INSTANCE;
+import static io.servicetalk.http.api.HttpProtocolVersion.HTTP_1_1;
+import static io.servicetalk.http.api.HttpRequestMetaDataFactory.newRequestMetaData;
+import static io.servicetalk.http.api.HttpRequestMethod.GET;
+import static io.servicetalk.http.api.HttpResponseMetaDataFactory.newResponseMetaData;
+import static io.servicetalk.http.api.HttpResponseStatus.INTERNAL_SERVER_ERROR;
+import static io.servicetalk.http.api.HttpResponseStatus.OK;
+import static io.servicetalk.metrics.CollectingMetricsVisitor.collect;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+
+class MetricsHttpLifecycleObserverTest {
+
+    private final MetricsHttpLifecycleObserver observer = new MetricsHttpLifecycleObserver("http");
+
+    @Test
+    void noExchanges() {
+        CollectingMetricsVisitor metrics = collect(observer);
+        assertThat(metrics.value("http.requests"), is(0L));
+        assertThat(metrics.value("http.active"), is(0L));
+        assertThat(metrics.histogram("http.latency").count(), is(0L));
+        assertThat(metrics.value("http.responses.2xx"), is(0L));
+    }
+
+    @Test
+    void successfulExchange() {
+        HttpExchangeObserver exchange = observer.onNewExchange();
+        assertThat(collect(observer).value("http.active"), is(1L));
+        HttpRequestObserver request = exchange.onRequest(newRequestMetaData(HTTP_1_1, GET, "/", INSTANCE.newHeaders()));
+        request.onRequestData(DEFAULT_RO_ALLOCATOR.fromAscii("hello"));
+        request.onRequestComplete();
+        HttpResponseObserver response = exchange.onResponse(newResponseMetaData(HTTP_1_1, OK, INSTANCE.newHeaders()));
+        response.onResponseData(DEFAULT_RO_ALLOCATOR.fromAscii("hello world"));
+        response.onResponseComplete();
+        exchange.onExchangeFinally();
+
+        CollectingMetricsVisitor metrics = collect(observer);
+        assertThat(metrics.value("http.requests"), is(1L));
+        assertThat(metrics.value("http.active"), is(0L));
+        assertThat(metrics.value("http.responses.2xx"), is(1L));
+        assertThat(metrics.value("http.responses.5xx"), is(0L));
+        assertThat(metrics.value("http.errors"), is(0L));
+        assertThat(metrics.value("http.request.bytes"), is(5L));
+        assertThat(metrics.value("http.response.bytes"), is(11L));
+        HistogramSnapshot latency = metrics.histogram("http.latency");
+        HistogramSnapshot timeToResponse = metrics.histogram("http.time_to_response");
+        assertThat(latency.count(), is(1L));
+        assertThat(timeToResponse.count(), is(1L));
+        assertThat(latency.max(), greaterThanOrEqualTo(timeToResponse.max()));
+    }
+
+    @Test
+    void statusClasses() {
+        exchangeWithStatus(INTERNAL_SERVER_ERROR);
+        exchangeWithStatus(HttpResponseStatus.of(404, "Not Found"));
+        exchangeWithStatus(HttpResponseStatus.of(999, "Unknown"));
+
+        CollectingMetricsVisitor metrics = collect(observer);
+        assertThat(metrics.value("http.requests"), is(3L));
+        assertThat(metrics.value("http.responses.4xx"), is(1L));
+        assertThat(metrics.value("http.responses.5xx"), is(1L));
+        assertThat(metrics.histogram("http.latency").count(), is(3L));
+    }
+
+    @Test
+    void errorAndCancel() {
+        HttpExchangeObserver failed = observer.onNewExchange();
+        failed.onResponseError(new Exception("deliberate exception"));
+        failed.onExchangeFinally();
+        HttpExchangeObserver cancelled = observer.onNewExchange();
+        cancelled.onResponse(newResponseMetaData(HTTP_1_1, OK, INSTANCE.newHeaders())).onResponseCancel();
+        cancelled.onExchangeFinally();
+
+        CollectingMetricsVisitor metrics = collect(observer);
+        assertThat(metrics.value("http.requests"), is(2L));
+        assertThat(metrics.value("http.active"), is(0L));
+        assertThat(metrics.value("http.errors"), is(1L));
+        assertThat(metrics.value("http.cancellations"), is(1L));
+        assertThat(metrics.histogram("http.time_to_response").count(), is(1L));
+    }
+
+    private void exchangeWithStatus(final HttpResponseStatus status) {
+        HttpExchangeObserver exchange = observer.onNewExchange();
+        exchange.onResponse(newResponseMetaData(HTTP_1_1, status, INSTANCE.newHeaders())).onResponseComplete();
+        exchange.onExchangeFinally();
+    }
+}
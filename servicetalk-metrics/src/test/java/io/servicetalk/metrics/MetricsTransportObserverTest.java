@@ -0,0 +1,88 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.metrics;
+
+import io.servicetalk.transport.api.ConnectionObserver;
+import io.servicetalk.transport.api.ConnectionObserver.DataObserver;
+import io.servicetalk.transport.api.ConnectionObserver.StreamObserver;
+import io.servicetalk.transport.api.ConnectionObserver.WriteObserver;
+
+import org.junit.jupiter.api.Test;
+
+import static io.servicetalk.metrics.CollectingMetricsVisitor.collect;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class MetricsTransportObserverTest {
+
+    private final MetricsTransportObserver observer = new MetricsTransportObserver("transport");
+
+    @Test
+    void connectionLifecycle() {
+        ConnectionObserver connection = observer.onNewConnection(null, "remote");
+        assertThat(collect(observer).value("transport.connections.active"), is(1L));
+        connection.onDataRead(100);
+        connection.onDataWrite(40);
+        connection.onDataWrite(2);
+        connection.onFlush();
+        DataObserver data = connection.connectionEstablished(null);
+        data.onNewRead().itemRead("request");
+        WriteObserver write = data.onNewWrite();
+        write.itemReceived("response");
+        write.itemWritten("response");
+        write.itemFlushed();
+        write.writeComplete();
+        connection.connectionClosed();
+
+        CollectingMetricsVisitor metrics = collect(observer);
+        assertThat(metrics.value("transport.connections.opened"), is(1L));
+        assertThat(metrics.value("transport.connections.active"), is(0L));
+        assertThat(metrics.value("transport.connections.errors"), is(0L));
+        assertThat(metrics.value("transport.bytes.read"), is(100L));
+        assertThat(metrics.value("transport.bytes.written"), is(42L));
+        assertThat(metrics.value("transport.flushes"), is(1L));
+        assertThat(metrics.value("transport.items.read"), is(1L));
+        assertThat(metrics.value("transport.items.written"), is(1L));
+    }
+
+    @Test
+    void failures() {
+        ConnectionObserver connection = observer.onNewConnection(null, "remote");
+        connection.onSecurityHandshake().handshakeFailed(new Exception("deliberate exception"));
+        connection.connectionClosed(new Exception("deliberate exception"));
+
+        CollectingMetricsVisitor metrics = collect(observer);
+        assertThat(metrics.value("transport.connections.active"), is(0L));
+        assertThat(metrics.value("transport.connections.errors"), is(1L));
+        assertThat(metrics.value("transport.handshake.failures"), is(1L));
+    }
+
+    @Test
+    void streams() {
+        ConnectionObserver connection = observer.onNewConnection(null, "remote");
+        StreamObserver first = connection.multiplexedConnectionEstablished(null).onNewStream();
+        StreamObserver second = connection.multiplexedConnectionEstablished(null).onNewStream();
+        second.streamEstablished().onNewRead().itemRead(null);
+        assertThat(collect(observer).value("transport.streams.active"), is(2L));
+        first.streamClosed();
+        second.streamClosed(new Exception("deliberate exception"));
+
+        CollectingMetricsVisitor metrics = collect(observer);
+        assertThat(metrics.value("transport.streams.opened"), is(2L));
+        assertThat(metrics.value("transport.streams.active"), is(0L));
+        assertThat(metrics.value("transport.items.read"), is(1L));
+    }
+}
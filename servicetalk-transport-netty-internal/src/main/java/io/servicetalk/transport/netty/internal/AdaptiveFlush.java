@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2021 Apple Inc. and the ServiceTalk project authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.servicetalk.transport.netty.internal;
+
+import java.time.Duration;
+
+/**
+ * A {@link FlushStrategy} which coalesces flushes instead of flushing each written item. Items are flushed once the
+ * event loop processed its pending work (e.g. the rest of the current read loop), or after a bounded delay, whichever
+ * the configuration selects. Flushes happen immediately when too many items are pending, and when the connection
+ * becomes unwritable.
+ */
+final class AdaptiveFlush implements FlushStrategy {
+
+    private final int maxPendingItems;
+    private final long maxFlushDelayNanos;
+
+    AdaptiveFlush(final int maxPendingItems, final Duration maxFlushDelay) {
+        if (maxPendingItems <= 0) {
+            throw new IllegalArgumentException("maxPendingItems: " + maxPendingItems + " (expected > 0)");
+        }
+        if (maxFlushDelay.isNegative()) {
+            throw new IllegalArgumentException("maxFlushDelay: " + maxFlushDelay + " (expected >= 0)");
+        }
+        this.maxPendingItems = maxPendingItems;
+        this.maxFlushDelayNanos = maxFlushDelay.toNanos();
+    }
+
+    @Override
+    public WriteEventsListener apply(final FlushSender sender) {
+        return new AdaptiveFlushListener(sender, maxPendingItems, maxFlushDelayNanos);
+    }
+
+    static final class AdaptiveFlushListener extends NoopWriteEventsListener {
+
+        private final FlushSender sender;
+        private final int maxPendingItems;
+        private final long maxFlushDelayNanos;
+        private int pendingItems;
+
+        AdaptiveFlushListener(final FlushSender sender, final int maxPendingItems, final long maxFlushDelayNanos) {
+            this.sender = sender;
+            this.maxPendingItems = maxPendingItems;
+            this.maxFlushDelayNanos = maxFlushDelayNanos;
+        }
+
+        @Override
+        public void itemWritten(final Object __) {
+            if (sender.flushLater(maxFlushDelayNanos)) {
+                // The flush requested for the previous items already happened, only count the items written since.
+                pendingItems = 0;
+            }
+            if (++pendingItems == maxPendingItems) {
+                pendingItems = 0;
+                sender.flush();
+            }
+        }
+
+        @Override
+        public void writeTerminated() {
+            if (pendingItems > 0 && maxFlushDelayNanos > 0) {
+                // Nothing else will be written by this source, don't hold the last items for the delay. They can still
+                // share the flush with other writes processed by the event loop at the same time.
+                sender.flushLater(0);
+            }
+            pendingItems = 0;
+        }
+    }
+}
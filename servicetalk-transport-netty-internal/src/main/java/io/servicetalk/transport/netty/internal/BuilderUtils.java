@@ -20,6 +20,7 @@ import io.servicetalk.transport.api.HostAndPort;
 
 import io.netty.channel.Channel;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.FileRegion;
 import io.netty.channel.ServerChannel;
 import io.netty.channel.epoll.EpollDatagramChannel;
 import io.netty.channel.epoll.EpollDomainSocketChannel;
@@ -74,6 +75,9 @@ public final class BuilderUtils {
     public static Class<? extends ServerChannel> serverChannel(EventLoopGroup group,
                                                                Class<? extends SocketAddress> addressClass) {
         if (useIoUring(group)) {
+            if (DomainSocketAddress.class.isAssignableFrom(addressClass)) {
+                throw new IllegalArgumentException("io_uring does not support DomainSocketAddress");
+            }
             return IOUringServerSocketChannel.class;
         } else if (useEpoll(group)) {
             return DomainSocketAddress.class.isAssignableFrom(addressClass) ? EpollServerDomainSocketChannel.class :
@@ -188,6 +192,18 @@ public final class BuilderUtils {
         }
     }
 
+    /**
+     * Returns {@code true} if the transport of the given {@link Channel} supports writing {@link FileRegion}s.
+     *
+     * @param channel the {@link Channel} to check
+     * @return {@code true} if the transport of the given {@link Channel} supports writing {@link FileRegion}s
+     */
+    public static boolean isFileRegionSupported(Channel channel) {
+        // The io_uring transport does not support FileRegion yet, all others copy the content from the file
+        // descriptor directly.
+        return !useIoUring(channel.eventLoop());
+    }
+
     /**
      * Format an address into a canonical numeric format.
      *
@@ -25,13 +25,14 @@ import io.netty.channel.ChannelDuplexHandler;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
-import io.netty.channel.epoll.Epoll;
-import io.netty.channel.kqueue.KQueue;
+import io.netty.channel.FileRegion;
 
 import javax.annotation.Nullable;
 
 import static io.netty.channel.ChannelOption.TCP_FASTOPEN_CONNECT;
 import static io.servicetalk.transport.netty.internal.ChannelCloseUtils.channelError;
+import static io.servicetalk.transport.netty.internal.NativeTransportUtils.isTcpFastOpenClientSideAvailable;
+import static java.lang.Math.min;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -72,7 +73,7 @@ public final class ConnectionObserverInitializer implements ChannelInitializer {
 
     private boolean isFastOpen(final Channel channel) {
         return client && secure && Boolean.TRUE.equals(channel.config().getOption(TCP_FASTOPEN_CONNECT)) &&
-                (Epoll.isTcpFastOpenClientSideAvailable() || KQueue.isTcpFastOpenClientSideAvailable());
+                isTcpFastOpenClientSideAvailable(channel.eventLoop());
     }
 
     static final class ConnectionObserverHandler extends ChannelDuplexHandler {
@@ -144,6 +145,8 @@ public final class ConnectionObserverInitializer implements ChannelInitializer {
                 observer.onDataWrite(((ByteBuf) msg).readableBytes());
             } else if (msg instanceof ByteBufHolder) {
                 observer.onDataWrite(((ByteBufHolder) msg).content().readableBytes());
+            } else if (msg instanceof FileRegion) {
+                observer.onDataWrite((int) min(((FileRegion) msg).count(), Integer.MAX_VALUE));
             }
             ctx.write(msg, promise);
         }
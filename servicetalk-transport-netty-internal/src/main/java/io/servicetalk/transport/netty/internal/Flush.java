@@ -19,12 +19,16 @@ import io.servicetalk.concurrent.PublisherSource.Subscriber;
 import io.servicetalk.concurrent.PublisherSource.Subscription;
 import io.servicetalk.concurrent.api.Publisher;
 import io.servicetalk.transport.api.ConnectionObserver.WriteObserver;
+import io.servicetalk.transport.netty.internal.FlushStrategy.FlushSender;
 import io.servicetalk.transport.netty.internal.FlushStrategy.WriteEventsListener;
 
 import io.netty.channel.Channel;
 import io.netty.util.concurrent.EventExecutor;
 
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 /**
  * Utilities related to channel flush.
@@ -54,26 +58,66 @@ final class Flush {
         return source.liftSync(subscriber -> new FlushSubscriber<>(flushStrategy, subscriber, channel, observer));
     }
 
-    private static final class FlushSubscriber<T> implements Subscriber<T> {
+    private static final class FlushSubscriber<T> implements Subscriber<T>, FlushSender {
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<FlushSubscriber> pendingFlushUpdater =
+                AtomicIntegerFieldUpdater.newUpdater(FlushSubscriber.class, "pendingFlush");
+        private static final int NO_PENDING_FLUSH = 0;
+        private static final int DELAYED_FLUSH = 1;
+        private static final int IMMEDIATE_FLUSH = 2;
+
+        private final Channel channel;
         private final EventExecutor eventLoop;
         private final Subscriber<? super T> subscriber;
         private final WriteObserver observer;
         private final WriteEventsListener writeEventsListener;
+        private final Runnable pendingFlushTask = this::pendingFlush;
         private volatile boolean enqueueFlush;
+        private volatile int pendingFlush;
 
         FlushSubscriber(FlushStrategy flushStrategy, Subscriber<? super T> subscriber, Channel channel,
                         WriteObserver observer) {
+            this.channel = channel;
             this.eventLoop = requireNonNull(channel.eventLoop());
             this.subscriber = requireNonNull(subscriber);
             this.observer = observer;
-            this.writeEventsListener = flushStrategy.apply(() -> {
-                observer.onFlushRequest();
-                if (enqueueFlush) {
-                    eventLoop.execute(channel::flush);
-                } else {
-                    channel.flush();
+            this.writeEventsListener = flushStrategy.apply(this);
+        }
+
+        @Override
+        public void flush() {
+            observer.onFlushRequest();
+            if (enqueueFlush) {
+                eventLoop.execute(channel::flush);
+            } else {
+                channel.flush();
+            }
+        }
+
+        @Override
+        public boolean flushLater(final long delayNanos) {
+            if (delayNanos <= 0) {
+                // A delayed flush may be pending, an immediate flush still has to be enqueued to not wait for it.
+                final int previous = pendingFlushUpdater.getAndSet(this, IMMEDIATE_FLUSH);
+                if (previous != IMMEDIATE_FLUSH) {
+                    eventLoop.execute(pendingFlushTask);
                 }
-            });
+                return previous == NO_PENDING_FLUSH;
+            }
+            if (pendingFlushUpdater.compareAndSet(this, NO_PENDING_FLUSH, DELAYED_FLUSH)) {
+                eventLoop.schedule(pendingFlushTask, delayNanos, NANOSECONDS);
+                return true;
+            }
+            return false;
+        }
+
+        private void pendingFlush() {
+            // Reset before flushing, so that writes issued after this point schedule another flush. Items written
+            // before are enqueued on the event loop before this task, so this flush covers them.
+            if (pendingFlushUpdater.getAndSet(this, NO_PENDING_FLUSH) != NO_PENDING_FLUSH) {
+                observer.onFlushRequest();
+                channel.flush();
+            }
         }
 
         @Override
@@ -19,6 +19,8 @@ import io.servicetalk.concurrent.api.Publisher;
 import io.servicetalk.transport.netty.internal.FlushStrategy.FlushSender;
 import io.servicetalk.transport.netty.internal.FlushStrategy.WriteEventsListener;
 
+import java.time.Duration;
+
 import static io.servicetalk.transport.netty.internal.FlushOnEach.FLUSH_ON_EACH;
 import static io.servicetalk.transport.netty.internal.FlushOnEnd.FLUSH_ON_END;
 import static java.lang.Integer.MAX_VALUE;
@@ -28,6 +30,8 @@ import static java.lang.Integer.MAX_VALUE;
  */
 public final class FlushStrategies {
 
+    private static final int DEFAULT_MAX_PENDING_ITEMS = 64;
+
     private FlushStrategies() {
         // No instances.
     }
@@ -82,6 +86,35 @@ public final class FlushStrategies {
         return batchFlush(MAX_VALUE, flushBoundaries);
     }
 
+    /**
+     * Creates a {@link FlushStrategy} that coalesces flushes of written items, with a default limit of pending items.
+     *
+     * @param maxFlushDelay Maximum time a written item waits for a flush, {@link Duration#ZERO} to flush once the event
+     * loop processed its pending work.
+     * @return A {@link FlushStrategy} that coalesces flushes of written items.
+     * @see #adaptiveFlush(int, Duration)
+     */
+    public static FlushStrategy adaptiveFlush(Duration maxFlushDelay) {
+        return adaptiveFlush(DEFAULT_MAX_PENDING_ITEMS, maxFlushDelay);
+    }
+
+    /**
+     * Creates a {@link FlushStrategy} that coalesces flushes of written items. Instead of flushing each item, a
+     * {@link FlushSender#flushLater(long) flush is requested} which happens once the event loop of the connection
+     * processed its pending work, e.g. after all requests read in the current read loop were processed, which lets
+     * items from multiple writes share a flush. Items are flushed immediately when {@code maxPendingItems} items are
+     * pending, and when the connection becomes unwritable.
+     *
+     * @param maxPendingItems Maximum number of written items to hold before flushing immediately.
+     * @param maxFlushDelay Maximum time a written item waits for a flush, {@link Duration#ZERO} to flush once the event
+     * loop processed its pending work. A positive delay coalesces more writes at the expense of latency, similar to
+     * <a href="https://tools.ietf.org/html/rfc896">Nagle's algorithm</a>.
+     * @return A {@link FlushStrategy} that coalesces flushes of written items.
+     */
+    public static FlushStrategy adaptiveFlush(int maxPendingItems, Duration maxFlushDelay) {
+        return new AdaptiveFlush(maxPendingItems, maxFlushDelay);
+    }
+
     /**
      * Creates a {@link FlushStrategy} that will {@link FlushSender#flush() flush writes} when
      * {@link WriteEventsListener#writeTerminated()} is called on the {@link WriteEventsListener} returned from
@@ -56,6 +56,24 @@ public interface FlushStrategy {
          * {@link WriteEventsListener}.
          */
         void flush();
+
+        /**
+         * Sends a flush on the associated connection once the event loop of the connection processed the tasks which
+         * are currently pending, e.g. the rest of the current read loop, or after {@code delayNanos} if it is
+         * positive. Calls made before the flush happens share the same flush, which allows writes from different
+         * sources (e.g. responses to pipelined requests) to be coalesced into fewer flushes.
+         * <p>
+         * The default implementation {@link #flush() flushes} immediately.
+         *
+         * @param delayNanos maximum delay in nanoseconds before the flush, {@code 0} to flush once the event loop
+         * processed the tasks which are currently pending.
+         * @return {@code true} if no flush requested by an earlier call was pending, i.e. items written before this
+         * call have already been flushed, {@code false} if this call shares a flush requested earlier.
+         */
+        default boolean flushLater(long delayNanos) {
+            flush();
+            return true;
+        }
     }
 
     /**
@@ -31,6 +31,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nullable;
 
 import static io.netty.util.internal.PlatformDependent.normalizedArch;
 import static java.lang.Boolean.getBoolean;
@@ -103,7 +104,27 @@ final class NativeTransportUtils {
      * @return {@code true} if {@link IOUring} is available
      */
     static boolean isIoUringAvailable() {
-        return IS_LINUX && TRY_IO_URING.get() && IOUring.isAvailable();
+        return TRY_IO_URING.get() && isIoUringSupported();
+    }
+
+    /**
+     * Determine if {@link IOUring} is supported, regardless of whether it is enabled as the default transport.
+     *
+     * @return {@code true} if {@link IOUring} is supported
+     */
+    static boolean isIoUringSupported() {
+        return IS_LINUX && IOUring.isAvailable();
+    }
+
+    /**
+     * Returns the reason why {@link IOUring} is not supported.
+     *
+     * @return the reason why {@link IOUring} is not supported, or {@code null} if it is supported
+     */
+    @Nullable
+    static Throwable ioUringUnavailabilityCause() {
+        return IS_LINUX ? IOUring.unavailabilityCause() :
+                new UnsupportedOperationException("io_uring is only supported on linux");
     }
 
     /**
@@ -131,11 +152,13 @@ final class NativeTransportUtils {
      * @return {@code true} if native {@link IOUring} transport could be used
      */
     static boolean useIoUring(final EventLoopGroup group) {
-        if (!isIoUringAvailable()) {
+        if (!IS_LINUX) {
             return false;
         }
         // Check if we should use the io_uring transport. This is true if either the IOUringEventLoopGroup is used
-        // directly or if the passed group is an EventLoop and it's parent is an IOUringEventLoopGroup.
+        // directly or if the passed group is an EventLoop and it's parent is an IOUringEventLoopGroup. An
+        // IOUringEventLoopGroup can only be created when io_uring is supported, so it can be used even if io_uring is
+        // not enabled as the default transport.
         return group instanceof IOUringEventLoopGroup || (group instanceof EventLoop &&
                 ((EventLoop) group).parent() instanceof IOUringEventLoopGroup);
     }
@@ -192,6 +215,20 @@ final class NativeTransportUtils {
         return useEpoll(group) || useKQueue(group);
     }
 
+    /**
+     * Determine if the client side of TCP Fast Open is supported by the transport of the {@link EventLoopGroup}.
+     *
+     * @param group the group to test.
+     * @return {@code true} if the client side of TCP Fast Open is supported by {@code group}
+     */
+    static boolean isTcpFastOpenClientSideAvailable(final EventLoopGroup group) {
+        if (useKQueue(group)) {
+            return KQueue.isTcpFastOpenClientSideAvailable();
+        }
+        // io_uring relies on the same kernel support as epoll, which is probed by the epoll native library.
+        return (useIoUring(group) || useEpoll(group)) && isEpollAvailable() && Epoll.isTcpFastOpenClientSideAvailable();
+    }
+
     static void tryIoUring(final boolean tryIoUring) {
         TRY_IO_URING.set(tryIoUring);
     }
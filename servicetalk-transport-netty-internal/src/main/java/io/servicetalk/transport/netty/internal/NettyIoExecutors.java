@@ -28,9 +28,13 @@ import io.netty.incubator.channel.uring.IOUringEventLoopGroup;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static io.servicetalk.transport.netty.internal.NativeTransportUtils.ioUringUnavailabilityCause;
 import static io.servicetalk.transport.netty.internal.NativeTransportUtils.isEpollAvailable;
 import static io.servicetalk.transport.netty.internal.NativeTransportUtils.isIoUringAvailable;
+import static io.servicetalk.transport.netty.internal.NativeTransportUtils.isIoUringSupported;
 import static io.servicetalk.transport.netty.internal.NativeTransportUtils.isKQueueAvailable;
+import static java.lang.Integer.getInteger;
+import static java.lang.Math.max;
 import static java.lang.Runtime.getRuntime;
 import static java.util.Objects.requireNonNull;
 
@@ -40,6 +44,10 @@ import static java.util.Objects.requireNonNull;
 public final class NettyIoExecutors {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(NettyIoExecutors.class);
+    // Same defaults and system properties as netty's io_uring transport.
+    private static final int DEFAULT_IO_URING_RING_SIZE = max(64, getInteger("io.netty.iouring.ringSize", 4096));
+    private static final int IO_URING_IOSQE_ASYNC_THRESHOLD =
+            max(0, getInteger("io.netty.iouring.iosqeAsyncThreshold", 25));
 
     private NettyIoExecutors() {
         // No instances.
@@ -113,17 +121,92 @@ public final class NettyIoExecutors {
         return new EventLoopGroupIoExecutor(createEventLoopGroup(ioThreads, threadFactory), true, true);
     }
 
+    /**
+     * Create a new {@link NettyIoExecutor} which uses the <a href="https://netty.io/wiki/native-transports.html">
+     * io_uring transport</a> with the default number of {@code ioThreads}, regardless of whether io_uring is enabled
+     * as the default transport.
+     * <p>
+     * If io_uring is not supported by the platform, falls back to the transport that would be used by
+     * {@link #createIoExecutor(String)} if io_uring was disabled.
+     *
+     * @param threadNamePrefix the name prefix used for the created {@link Thread}s.
+     * @return The created {@link IoExecutor}
+     */
+    public static EventLoopAwareNettyIoExecutor createIoUringIoExecutor(String threadNamePrefix) {
+        return createIoUringIoExecutor(getRuntime().availableProcessors() * 2, newIoThreadFactory(threadNamePrefix),
+                DEFAULT_IO_URING_RING_SIZE);
+    }
+
+    /**
+     * Create a new {@link NettyIoExecutor} which uses the <a href="https://netty.io/wiki/native-transports.html">
+     * io_uring transport</a>, regardless of whether io_uring is enabled as the default transport.
+     * <p>
+     * If io_uring is not supported by the platform, falls back to the transport that would be used by
+     * {@link #createIoExecutor(int, String)} if io_uring was disabled.
+     *
+     * @param ioThreads number of threads.
+     * @param threadNamePrefix the name prefix used for the created {@link Thread}s.
+     * @return The created {@link IoExecutor}
+     */
+    public static EventLoopAwareNettyIoExecutor createIoUringIoExecutor(int ioThreads, String threadNamePrefix) {
+        return createIoUringIoExecutor(ioThreads, newIoThreadFactory(threadNamePrefix), DEFAULT_IO_URING_RING_SIZE);
+    }
+
+    /**
+     * Create a new {@link NettyIoExecutor} which uses the <a href="https://netty.io/wiki/native-transports.html">
+     * io_uring transport</a>, regardless of whether io_uring is enabled as the default transport.
+     * <p>
+     * Each IO thread queues the submissions of an event loop iteration in its submission ring and submits them to the
+     * kernel in a single batch. The ring is submitted earlier if it becomes full, so {@code ringSize} is the maximum
+     * number of submissions per batch.
+     * <p>
+     * If io_uring is not supported by the platform, falls back to the transport that would be used by
+     * {@link #createIoExecutor(int, IoThreadFactory)} if io_uring was disabled, and {@code ringSize} is ignored.
+     *
+     * @param <T> Type of the IO thread instances created by factory.
+     * @param ioThreads number of threads.
+     * @param threadFactory the {@link IoThreadFactory} to use. If possible you should use an instance of
+     * {@link NettyIoThreadFactory} as it allows internal optimizations.
+     * @param ringSize the number of entries of the submission ring of each IO thread.
+     * @return The created {@link IoExecutor}
+     */
+    public static <T extends Thread & IoThread> EventLoopAwareNettyIoExecutor createIoUringIoExecutor(
+            int ioThreads, IoThreadFactory<T> threadFactory, int ringSize) {
+        validateIoThreads(ioThreads);
+        if (ringSize <= 0) {
+            throw new IllegalArgumentException("ringSize: " + ringSize + " (expected >0)");
+        }
+        final EventLoopGroup group;
+        if (isIoUringSupported()) {
+            group = new IOUringEventLoopGroup(ioThreads, threadFactory, ringSize, IO_URING_IOSQE_ASYNC_THRESHOLD);
+            LOGGER.debug("Created {} for {} threads with ring size {} using {}.", group.getClass().getSimpleName(),
+                    ioThreads, ringSize, threadFactory);
+        } else {
+            group = createNonIoUringEventLoopGroup(ioThreads, threadFactory);
+            final Throwable cause = ioUringUnavailabilityCause();
+            LOGGER.info("io_uring is not supported ({}), created {} for {} threads instead.",
+                    cause == null ? null : cause.getMessage(), group.getClass().getSimpleName(), ioThreads);
+            LOGGER.debug("io_uring unavailability cause:", cause);
+        }
+        return new EventLoopGroupIoExecutor(group, true, true);
+    }
+
     private static <T extends Thread & IoThread> EventLoopGroup createEventLoopGroup(int ioThreads,
             IoThreadFactory<T> threadFactory) {
         validateIoThreads(ioThreads);
         final EventLoopGroup group = isIoUringAvailable() ? new IOUringEventLoopGroup(ioThreads, threadFactory) :
-                isEpollAvailable() ? new EpollEventLoopGroup(ioThreads, threadFactory) :
-                        isKQueueAvailable() ? new KQueueEventLoopGroup(ioThreads, threadFactory) :
-                                new NioEventLoopGroup(ioThreads, threadFactory);
+                createNonIoUringEventLoopGroup(ioThreads, threadFactory);
         LOGGER.debug("Created {} for {} threads using {}.", group.getClass().getSimpleName(), ioThreads, threadFactory);
         return group;
     }
 
+    private static <T extends Thread & IoThread> EventLoopGroup createNonIoUringEventLoopGroup(int ioThreads,
+            IoThreadFactory<T> threadFactory) {
+        return isEpollAvailable() ? new EpollEventLoopGroup(ioThreads, threadFactory) :
+                isKQueueAvailable() ? new KQueueEventLoopGroup(ioThreads, threadFactory) :
+                        new NioEventLoopGroup(ioThreads, threadFactory);
+    }
+
     /**
      * Attempts to convert the passed {@link IoExecutor} to a {@link NettyIoExecutor}.
      *
@@ -25,13 +25,22 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import static io.servicetalk.concurrent.internal.DeliberateException.DELIBERATE_EXCEPTION;
+import static io.servicetalk.transport.netty.internal.FlushStrategies.adaptiveFlush;
 import static io.servicetalk.transport.netty.internal.FlushStrategies.flushOnEach;
 import static io.servicetalk.transport.netty.internal.FlushStrategies.flushOnEnd;
 import static io.servicetalk.transport.netty.internal.FlushStrategies.flushWith;
+import static java.time.Duration.ZERO;
+import static java.time.Duration.ofMillis;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 
 class FlushStrategiesTest {
 
@@ -164,6 +173,46 @@ class FlushStrategiesTest {
         assertTrue(subscription.isCancelled());
     }
 
+    @Test
+    void testAdaptiveFlushCoalescesWrites() {
+        setupFor(adaptiveFlush(3, ofMillis(1)));
+        listener.itemWritten(1);
+        listener.itemWritten(2);
+        verify(flushSender, times(2)).flushLater(MILLISECONDS.toNanos(1));
+        verify(flushSender, never()).flush();
+        listener.itemWritten(3);
+        verify(flushSender).flush();
+    }
+
+    @Test
+    void testAdaptiveFlushCountsItemsSinceLastFlush() {
+        // The delayed flush requested by the first item happens before the third item is written.
+        when(flushSender.flushLater(anyLong())).thenReturn(true, false, true, false);
+        setupFor(adaptiveFlush(3, ofMillis(1)));
+        listener.itemWritten(1);
+        listener.itemWritten(2);
+        listener.itemWritten(3);
+        listener.itemWritten(4);
+        verify(flushSender, never()).flush();
+        listener.itemWritten(5);
+        verify(flushSender).flush();
+    }
+
+    @Test
+    void testAdaptiveFlushTerminationFlushesWithoutDelay() {
+        setupFor(adaptiveFlush(3, ofMillis(1)));
+        listener.itemWritten(1);
+        listener.writeTerminated();
+        verify(flushSender).flushLater(0);
+        verify(flushSender, never()).flush();
+    }
+
+    @Test
+    void testAdaptiveFlushInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> adaptiveFlush(0, ZERO));
+        assertThrows(IllegalArgumentException.class, () -> adaptiveFlush(ofMillis(-1)));
+    }
+
     private void setupFor(FlushStrategy strategy) {
         listener = strategy.apply(flushSender);
         listener.writeStarted();
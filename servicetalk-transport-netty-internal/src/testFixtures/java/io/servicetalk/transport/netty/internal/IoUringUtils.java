@@ -46,4 +46,13 @@ public final class IoUringUtils {
     public static boolean isAvailable() {
         return NativeTransportUtils.isIoUringAvailable();
     }
+
+    /**
+     * Determine if {@link IOUring} is supported, regardless of whether it is enabled as the default transport.
+     *
+     * @return {@code true} if {@link IOUring} is supported
+     */
+    public static boolean isSupported() {
+        return NativeTransportUtils.isIoUringSupported();
+    }
 }
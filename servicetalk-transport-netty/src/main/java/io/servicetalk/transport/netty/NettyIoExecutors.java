@@ -91,4 +91,45 @@ public final class NettyIoExecutors {
     public static IoExecutor createIoExecutor() {
         return io.servicetalk.transport.netty.internal.NettyIoExecutors.createIoExecutor();
     }
+
+    /**
+     * Creates a new {@link IoExecutor} which uses the io_uring transport with the default number of
+     * {@code ioThreads}, or falls back to the default transport if io_uring is not supported by the platform.
+     *
+     * @param threadNamePrefix the name prefix used for the created {@link Thread}s.
+     * @return The created {@link IoExecutor}
+     */
+    public static IoExecutor createIoUringIoExecutor(String threadNamePrefix) {
+        return io.servicetalk.transport.netty.internal.NettyIoExecutors.createIoUringIoExecutor(threadNamePrefix);
+    }
+
+    /**
+     * Creates a new {@link IoExecutor} which uses the io_uring transport with the specified number of
+     * {@code ioThreads}, or falls back to the default transport if io_uring is not supported by the platform.
+     *
+     * @param ioThreads number of threads.
+     * @param threadNamePrefix the name prefix used for the created {@link Thread}s.
+     * @return The created {@link IoExecutor}
+     */
+    public static IoExecutor createIoUringIoExecutor(int ioThreads, String threadNamePrefix) {
+        return io.servicetalk.transport.netty.internal.NettyIoExecutors.createIoUringIoExecutor(ioThreads,
+                threadNamePrefix);
+    }
+
+    /**
+     * Creates a new {@link IoExecutor} which uses the io_uring transport with the specified number of
+     * {@code ioThreads}, or falls back to the default transport if io_uring is not supported by the platform.
+     *
+     * @param <T> Type of the IO thread instances created by factory.
+     * @param ioThreads number of threads.
+     * @param threadFactory the {@link IoThreadFactory} to use.
+     * @param ringSize the number of entries of the submission ring of each IO thread, which is the maximum number of
+     * submissions batched in a single system call.
+     * @return The created {@link IoExecutor}
+     */
+    public static <T extends Thread & IoThread> IoExecutor createIoUringIoExecutor(int ioThreads,
+            IoThreadFactory<T> threadFactory, int ringSize) {
+        return io.servicetalk.transport.netty.internal.NettyIoExecutors.createIoUringIoExecutor(ioThreads,
+                threadFactory, ringSize);
+    }
 }